@@ -0,0 +1,25 @@
+package lowe.mike.blueprintpong;
+
+import android.os.Build;
+import android.os.Debug;
+import lowe.mike.blueprintpong.debug.GarbageCollectionCounter;
+
+/**
+ * Counts garbage collections on Android using the runtime's own statistics, which are only
+ * available from Android 6.0 (API 23).
+ *
+ * @author Mike Lowe
+ */
+final class AndroidGarbageCollectionCounter implements GarbageCollectionCounter {
+
+  private static final String GC_COUNT_STAT = "art.gc.gc-count";
+
+  @Override
+  public long getCollectionCount() {
+    if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+      return -1;
+    }
+    String count = Debug.getRuntimeStat(GC_COUNT_STAT);
+    return (count == null) ? -1 : Long.parseLong(count);
+  }
+}
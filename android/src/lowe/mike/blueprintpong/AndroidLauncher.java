@@ -14,7 +14,7 @@ public final class AndroidLauncher extends AndroidApplication {
   @Override
   protected void onCreate(Bundle savedInstanceState) {
     super.onCreate(savedInstanceState);
-    BlueprintPongGame game = new BlueprintPongGame();
+    BlueprintPongGame game = new BlueprintPongGame(new AndroidGarbageCollectionCounter());
     AndroidApplicationConfiguration config = initialiseConfig();
     initialize(game, config);
   }
@@ -0,0 +1,114 @@
+package lowe.mike.blueprintpong.server;
+
+import java.util.concurrent.TimeUnit;
+import lowe.mike.blueprintpong.Difficulty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * Benchmarks players joining a {@link Matchmaker} from several threads at once, with the
+ * matchmaker pairing them on its own thread. The score is how many players join a second; how long
+ * they waited to be paired is printed after each iteration.
+ * <p>
+ * Joining threads wait for the matchmaker when they get too far ahead of it, so the score is the
+ * rate it can keep up with rather than how fast its queues fill.
+ *
+ * @author Mike Lowe
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class MatchmakerBenchmark {
+
+  /*
+   * Most players, roughly, waiting across every thread before a thread
+   * waits for the matchmaker to catch up.
+   */
+  private static final int MAX_BACKLOG = 1 << 12;
+
+  private static final Object PLAYER = new Object();
+  private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+  private Matchmaker<Object> matchmaker;
+  private Thread thread;
+  private LatencyHistogram latency;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    latency = histogram;
+    matchmaker = new Matchmaker<Object>(Matchmaker.DEFAULT_WIDEN_NANOS,
+        new Matchmaker.Listener<Object>() {
+
+          @Override
+          public void matched(Matchmaker.Ticket<Object> first, Matchmaker.Ticket<Object> second) {
+            long now = System.nanoTime();
+            histogram.record(now - first.getJoinTime());
+            histogram.record(now - second.getJoinTime());
+          }
+
+        });
+    thread = new Thread(matchmaker, "Matchmaker");
+    thread.start();
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() throws InterruptedException {
+    matchmaker.stop();
+    thread.join();
+    long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+    latency.addTo(counts);
+    System.out.printf("%n%d pairs, %d across difficulties, waited %d us p50, %d us p99, "
+        + "%d us p99.9%n", matchmaker.getMatchedCount(), matchmaker.getWidenedCount(),
+        LatencyHistogram.getPercentile(counts, 50.0), LatencyHistogram.getPercentile(counts, 99.0),
+        LatencyHistogram.getPercentile(counts, 99.9));
+  }
+
+  /**
+   * A joining thread's own count, so the threads don't contend on one.
+   */
+  @State(Scope.Thread)
+  public static class Joiner {
+
+    private long joined;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      joined = 0L;
+      next = System.identityHashCode(this);
+    }
+
+    Difficulty nextDifficulty() {
+      // spread evenly, so most pairs are at the same difficulty
+      next = (next * 1103515245) + 12345;
+      return DIFFICULTIES[(next >>> 16) % DIFFICULTIES.length];
+    }
+  }
+
+  @Benchmark
+  public Matchmaker.Ticket<Object> enqueue(Joiner joiner, BenchmarkParams params) {
+    while ((joiner.joined * params.getThreads()) - (2 * matchmaker.getMatchedCount())
+        > MAX_BACKLOG) {
+      Thread.yield();
+    }
+    joiner.joined++;
+    return matchmaker.enqueue(PLAYER, joiner.nextDifficulty());
+  }
+}
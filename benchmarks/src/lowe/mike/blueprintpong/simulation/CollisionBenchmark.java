@@ -0,0 +1,77 @@
+package lowe.mike.blueprintpong.simulation;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the swept ball vs paddle test and the paddle section lookup. The lookup is run with
+ * profiles of different sizes to show its cost doesn't depend on the number of sections.
+ *
+ * @author Mike Lowe
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+
+  private static final float BALL_WIDTH = PongSimulation.DEFAULT_BALL_WIDTH;
+  private static final float BALL_HEIGHT = PongSimulation.DEFAULT_BALL_HEIGHT;
+  private static final float PADDLE_WIDTH = PongSimulation.DEFAULT_PADDLE_WIDTH;
+  private static final float PADDLE_HEIGHT = PongSimulation.DEFAULT_PADDLE_HEIGHT;
+
+  @Param({"8", "64", "256"})
+  private int sections;
+
+  /*
+   * Not final so the JIT can't fold the tests away.
+   */
+  private float ballX = 40f;
+  private float ballY = 80f;
+  private float dx = -2f;
+  private float dy = .5f;
+  private float paddleX = PongSimulation.PADDLE_OFFSET;
+  private float paddleY = 70f;
+  private float ballYOffset;
+  private float sectionsPerUnit;
+
+  @Setup
+  public void setUp() {
+    ResponseProfile profile = ResponseProfile.CLASSIC.withSections(sections);
+    sectionsPerUnit = profile.getSections() / PADDLE_HEIGHT;
+  }
+
+  @Benchmark
+  public float timeOfImpactHit() {
+    return Collisions.getTimeOfImpact(ballX - 10f, ballY, BALL_WIDTH, BALL_HEIGHT, dx, dy,
+        paddleX, paddleY, PADDLE_WIDTH, PADDLE_HEIGHT);
+  }
+
+  @Benchmark
+  public float timeOfImpactMiss() {
+    return Collisions.getTimeOfImpact(ballX, ballY, BALL_WIDTH, BALL_HEIGHT, dx, dy,
+        paddleX, paddleY, PADDLE_WIDTH, PADDLE_HEIGHT);
+  }
+
+  /*
+   * Walks the ball over the whole paddle so every section is hit.
+   */
+  @Benchmark
+  public int sectionHit() {
+    ballYOffset = (ballYOffset + 1.7f) % (PADDLE_HEIGHT + BALL_HEIGHT);
+    float y = paddleY - BALL_HEIGHT + ballYOffset;
+    return Collisions.getSectionHit(y, paddleY, sectionsPerUnit, sections);
+  }
+}
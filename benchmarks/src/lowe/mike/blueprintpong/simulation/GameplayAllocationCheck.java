@@ -0,0 +1,317 @@
+package lowe.mike.blueprintpong.simulation;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.GLOnlyTextureData;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import lowe.mike.blueprintpong.BlueprintPongGame;
+import lowe.mike.blueprintpong.Difficulty;
+import lowe.mike.blueprintpong.FontCache;
+import lowe.mike.blueprintpong.actor.Ball;
+import lowe.mike.blueprintpong.actor.Paddle;
+import lowe.mike.blueprintpong.audio.SoundDispatcher;
+
+/**
+ * Drives many gameplay frames the same way {@code GameScreen} does (buffering and reading input,
+ * running and recording the fixed ticks, asking for and handing over sounds, updating the score
+ * labels and moving the actors to their interpolated positions) and fails if any bytes are
+ * allocated once the game is warmed up. Allocation in the gameplay loop shows up as GC pauses and
+ * dropped frames on Android.
+ * <p>
+ * There's no OpenGL context, so textures are only sized and sounds play silently. The score font
+ * is the baked one, so it should be run from the assets directory.
+ * <p>
+ * It should be run with {@code -XX:TieredStopAtLevel=1}, as {@code gradlew
+ * benchmarks:allocationCheck} does. While C2 recompiles the score labels, which only change when a
+ * point is scored, a few hundred bytes are sometimes allocated that never are in the interpreter or
+ * C1. C1 also has no escape analysis, so it can't hide garbage that Android's runtime would make.
+ * <p>
+ * Usage: {@code GameplayAllocationCheck [frames]}
+ *
+ * @author Mike Lowe
+ */
+public final class GameplayAllocationCheck {
+
+  private static final int DEFAULT_FRAMES = 1000000;
+  private static final int WARM_UP_FRAMES = 200000;
+  private static final int ROUNDS = 5;
+  private static final int TICKS_PER_SECOND = 120;
+  private static final int MAX_TICKS_PER_FRAME = 12;
+  /*
+   * Mix of refresh rates plus the odd long frame to exercise catch-up.
+   */
+  private static final float[] FRAME_DELTAS = {1f / 60f, 1f / 60f, 1f / 30f, 1f / 144f, .25f};
+  private static final float NANOS_PER_SECOND = 1000000000f;
+
+  /*
+   * Same as GameScreen's.
+   */
+  private static final int INPUT_BUFFER_CAPACITY = 256;
+  private static final int MAX_VOICES_PER_SOUND = 2;
+
+  private static final long SOUND_MILLIS = 100;
+  private static final String FONT_FILE = FontCache.BAKED_DIRECTORY + "/font.fnt";
+
+  /*
+   * Same as the font page's, and big enough for every other region.
+   */
+  private static final int TEXTURE_SIZE = 1024;
+
+  private final PongSimulation simulation = new PongSimulation(1L);
+  private final FixedTimestep timestep = new FixedTimestep(TICKS_PER_SECOND, MAX_TICKS_PER_FRAME);
+  private final PlayerInput input = new PlayerInput();
+  private final InputBuffer inputBuffer = new InputBuffer(INPUT_BUFFER_CAPACITY);
+  private final MatchRecorder recorder = new MatchRecorder();
+  private final SoundDispatcher soundDispatcher = new SoundDispatcher(1f);
+  private final int paddleHitSoundId;
+  private final int wallHitSoundId;
+  private final int pointScoredSoundId;
+  private final Label playerScoreLabel;
+  private final Label computerScoreLabel;
+  private final Ball ball;
+  private final Paddle playerPaddle;
+  private final Paddle computerPaddle;
+  private final String[] scoreTexts = new String[PongSimulation.WINNING_SCORE + 1];
+  private long time;
+  private int events;
+  private float previousBallX;
+  private float previousBallY;
+  private float previousPlayerPaddleY;
+  private float previousComputerPaddleY;
+
+  private GameplayAllocationCheck() {
+    Gdx.gl = Gdx.gl20 = createNoOp(GL20.class);
+    Texture texture = new Texture(new GLOnlyTextureData(TEXTURE_SIZE, TEXTURE_SIZE, 0,
+        GL20.GL_ALPHA, GL20.GL_ALPHA, GL20.GL_UNSIGNED_BYTE));
+    TextureRegion region = new TextureRegion(texture);
+    BitmapFont font = new BitmapFont(
+        new BitmapFont.BitmapFontData(new FileHandle(FONT_FILE), false), region, false);
+    Label.LabelStyle style = new Label.LabelStyle();
+    style.font = font;
+    playerScoreLabel = new Label("", style);
+    computerScoreLabel = new Label("", style);
+    for (int i = 0; i < scoreTexts.length; i++) {
+      scoreTexts[i] = Integer.toString(i);
+    }
+    ball = new Ball(region);
+    playerPaddle = new Paddle(region);
+    computerPaddle = new Paddle(region);
+
+    Sound sound = createNoOp(Sound.class);
+    paddleHitSoundId = soundDispatcher.addSound(sound, MAX_VOICES_PER_SOUND, SOUND_MILLIS);
+    wallHitSoundId = soundDispatcher.addSound(sound, MAX_VOICES_PER_SOUND, SOUND_MILLIS);
+    pointScoredSoundId = soundDispatcher.addSound(sound, MAX_VOICES_PER_SOUND, SOUND_MILLIS);
+    soundDispatcher.start();
+
+    Difficulty difficulty = Difficulty.HARD;
+    simulation.setComputerPaddleSpeed(difficulty.getComputerPaddleSpeed());
+    simulation.setComputerReactionTime(difficulty.getComputerReactionTime());
+    simulation.setComputerAimError(difficulty.getComputerAimError());
+    simulation.setComputerStrategy(ComputerStrategy.INTERCEPT);
+    simulation.setListener(new SimulationListener() {
+
+      @Override
+      public void paddleHit() {
+        events++;
+        soundDispatcher.play(paddleHitSoundId);
+      }
+
+      @Override
+      public void wallHit() {
+        events++;
+        soundDispatcher.play(wallHitSoundId);
+      }
+
+      @Override
+      public void pointScored(boolean playerScored) {
+        events++;
+        storePreviousPositions();
+        updateScoreLabels();
+        soundDispatcher.play(pointScoredSoundId);
+      }
+
+    });
+    startGame(0L);
+  }
+
+  public static void main(String[] args) {
+    int frames = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_FRAMES;
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    GameplayAllocationCheck check = new GameplayAllocationCheck();
+    check.runFrames(0, WARM_UP_FRAMES);
+
+    // reading the counter can allocate itself so measure that first
+    long before = threads.getThreadAllocatedBytes(threadId);
+    long overhead = threads.getThreadAllocatedBytes(threadId) - before;
+
+    /*
+     * Allocating in any round fails, even if it only happens once, e.g. on
+     * the first point of a score, as that's still a GC pause in a game.
+     */
+    int framesPerRound = frames / ROUNDS;
+    long mostAllocated = 0L;
+    for (int round = 0; round < ROUNDS; round++) {
+      before = threads.getThreadAllocatedBytes(threadId);
+      check.runFrames(WARM_UP_FRAMES + (round * framesPerRound), framesPerRound);
+      long allocated = threads.getThreadAllocatedBytes(threadId) - before - overhead;
+      mostAllocated = Math.max(mostAllocated, allocated);
+    }
+    check.soundDispatcher.dispose();
+
+    System.out.printf("%d frames, %d events, ball drawn at %.1f, %.1f%n",
+        frames, check.events, check.ball.getX(), check.ball.getY());
+    System.out.printf("%d bytes allocated in the worst round%n", mostAllocated);
+    if (mostAllocated > 0) {
+      System.err.println("Gameplay frames should not allocate");
+      System.exit(1);
+    }
+  }
+
+  /*
+   * Time only moves on by each frame's delta, so runs are repeatable.
+   */
+  private void runFrames(int firstFrame, int frames) {
+    for (int frame = firstFrame; frame < firstFrame + frames; frame++) {
+      float delta = FRAME_DELTAS[frame % FRAME_DELTAS.length];
+      time += (long) (delta * NANOS_PER_SECOND);
+      recordInput(frame);
+      int ticks = timestep.advance(delta);
+      long tickNanos = (long) (timestep.getTickDuration() * NANOS_PER_SECOND);
+      long lastTickEndTime = time - (long) (timestep.getAlpha() * tickNanos);
+      for (int i = 0; i < ticks && !simulation.isGameOver(); i++) {
+        storePreviousPositions();
+        inputBuffer.read(lastTickEndTime - (ticks - 1 - i) * tickNanos, input);
+        recorder.recordTick(input);
+        simulation.step(timestep.getTickDuration(), input);
+      }
+      updateActorPositions(timestep.getAlpha());
+      soundDispatcher.flush();
+      if (simulation.isGameOver()) {
+        startGame(frame);
+      }
+    }
+  }
+
+  private void storePreviousPositions() {
+    previousBallX = simulation.getBallX();
+    previousBallY = simulation.getBallY();
+    previousPlayerPaddleY = simulation.getPlayerPaddleY();
+    previousComputerPaddleY = simulation.getComputerPaddleY();
+  }
+
+  private void updateActorPositions(float alpha) {
+    ball.setPosition(
+        MathUtils.lerp(previousBallX, simulation.getBallX(), alpha),
+        MathUtils.lerp(previousBallY, simulation.getBallY(), alpha)
+    );
+    playerPaddle.setPosition(
+        simulation.getPlayerPaddleX(),
+        MathUtils.lerp(previousPlayerPaddleY, simulation.getPlayerPaddleY(), alpha)
+    );
+    computerPaddle.setPosition(
+        simulation.getComputerPaddleX(),
+        MathUtils.lerp(previousComputerPaddleY, simulation.getComputerPaddleY(), alpha)
+    );
+  }
+
+  /*
+   * Same as ScreenUtils' score label updates.
+   */
+  private void updateScoreLabels() {
+    updateScoreLabel(playerScoreLabel, simulation.getPlayerScore(), .25f);
+    updateScoreLabel(computerScoreLabel, simulation.getComputerScore(), .75f);
+  }
+
+  private void updateScoreLabel(Label label, int score, float xPositionFraction) {
+    label.setText(scoreTexts[score]);
+    label.pack();
+    label.setPosition(
+        (BlueprintPongGame.VIRTUAL_WIDTH * xPositionFraction) - (label.getWidth() / 2f),
+        BlueprintPongGame.VIRTUAL_HEIGHT - label.getHeight());
+  }
+
+  /*
+   * The finished log is only copied out on the game over screen, so it isn't
+   * part of a gameplay frame.
+   */
+  private void startGame(long seed) {
+    simulation.newGame(seed);
+    recorder.start(simulation, timestep.getTickDuration(), seed);
+    updateScoreLabels();
+    timestep.reset();
+    inputBuffer.clear();
+    storePreviousPositions();
+    updateActorPositions(1f);
+  }
+
+  /*
+   * Cycles through every kind of input, as the events InputRecorder buffers:
+   * holding the up and down keys, dragging a touch and nothing.
+   */
+  private void recordInput(int frame) {
+    boolean isFirstFrame = (frame % 90) == 0;
+    switch ((frame / 90) % 4) {
+      case 0:
+        if (isFirstFrame) {
+          inputBuffer.upPressed(time);
+        }
+        break;
+      case 1:
+        if (isFirstFrame) {
+          inputBuffer.upReleased(time);
+          inputBuffer.downPressed(time);
+        }
+        break;
+      case 2:
+        if (isFirstFrame) {
+          inputBuffer.downReleased(time);
+        }
+        inputBuffer.touched(time, simulation.getBallY() - (simulation.getPaddleHeight() / 2f));
+        break;
+      default:
+        if (isFirstFrame) {
+          inputBuffer.touchReleased(time);
+        }
+        break;
+    }
+  }
+
+  /*
+   * Does nothing and returns zero or null from every method.
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> T createNoOp(Class<T> type) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+        new InvocationHandler() {
+
+          @Override
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            Class<?> returnType = method.getReturnType();
+            if (returnType == int.class) {
+              return 0;
+            } else if (returnType == long.class) {
+              return 0L;
+            } else if (returnType == float.class) {
+              return 0f;
+            } else if (returnType == boolean.class) {
+              return false;
+            }
+            return null;
+          }
+
+        });
+  }
+}
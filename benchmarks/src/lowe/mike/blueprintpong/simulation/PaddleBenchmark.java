@@ -0,0 +1,63 @@
+package lowe.mike.blueprintpong.simulation;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks moving a paddle, which happens for both paddles every tick.
+ *
+ * @author Mike Lowe
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PaddleBenchmark {
+
+  private static final float TICK_DURATION = 1f / 120f;
+
+  private SimulatedPaddle paddle;
+  private float targetY;
+
+  @Setup
+  public void setUp() {
+    paddle = new SimulatedPaddle(PongSimulation.PADDLE_OFFSET);
+    paddle.speed = PongSimulation.PLAYER_PADDLE_SPEED;
+    paddle.reset(PongSimulation.COURT_HEIGHT / 2f);
+  }
+
+  /*
+   * Like the computer paddle, which is retargeted every tick.
+   */
+  @Benchmark
+  public float setTargetYAndUpdatePosition() {
+    targetY = (targetY + 7.3f) % PongSimulation.COURT_HEIGHT;
+    paddle.setTargetY(targetY);
+    paddle.updatePosition(TICK_DURATION, PongSimulation.DEFAULT_PADDLE_HEIGHT);
+    return paddle.y;
+  }
+
+  /*
+   * Like the player holding an arrow key.
+   */
+  @Benchmark
+  public float moveUpAndUpdatePosition() {
+    paddle.moveUp(TICK_DURATION);
+    paddle.updatePosition(TICK_DURATION, PongSimulation.DEFAULT_PADDLE_HEIGHT);
+    if (paddle.y + PongSimulation.DEFAULT_PADDLE_HEIGHT >= PongSimulation.COURT_HEIGHT) {
+      paddle.reset(0f);
+    }
+    return paddle.y;
+  }
+}
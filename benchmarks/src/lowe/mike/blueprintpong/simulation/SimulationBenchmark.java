@@ -0,0 +1,83 @@
+package lowe.mike.blueprintpong.simulation;
+
+import java.util.concurrent.TimeUnit;
+import lowe.mike.blueprintpong.Difficulty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a full game tick, the same work {@code GameScreen} does for each fixed step, for a
+ * single {@link PongSimulation} and per match of a {@link BatchSimulation}, with each {@link
+ * ComputerStrategy}.
+ *
+ * @author Mike Lowe
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimulationBenchmark {
+
+  private static final float TICK_DURATION = 1f / 120f;
+  private static final int BATCH_SIZE = 1024;
+
+  @Param({"FOLLOW", "INTERCEPT"})
+  private ComputerStrategy strategy;
+
+  private final PlayerInput input = new PlayerInput();
+  private PongSimulation simulation;
+  private BatchSimulation batchSimulation;
+
+  @Setup
+  public void setUp() {
+    Difficulty difficulty = Difficulty.MEDIUM;
+    simulation = new PongSimulation(1L);
+    simulation.setComputerPaddleSpeed(difficulty.getComputerPaddleSpeed());
+    simulation.setComputerReactionTime(difficulty.getComputerReactionTime());
+    simulation.setComputerAimError(difficulty.getComputerAimError());
+    simulation.setComputerStrategy(strategy);
+    batchSimulation = new BatchSimulation(BATCH_SIZE, 1L);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      batchSimulation.setComputerPaddleSpeed(i, difficulty.getComputerPaddleSpeed());
+      batchSimulation.setComputerReactionTime(i, difficulty.getComputerReactionTime());
+      batchSimulation.setComputerAimError(i, difficulty.getComputerAimError());
+    }
+    batchSimulation.setComputerStrategy(strategy);
+  }
+
+  @Benchmark
+  public float tick() {
+    // player roughly follows the ball so there are rallies
+    input.moveTo(simulation.getBallY() - 12f);
+    simulation.step(TICK_DURATION, input);
+    if (simulation.isGameOver()) {
+      simulation.newGame();
+    }
+    return simulation.getBallX();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public float batchTick() {
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      if (batchSimulation.isGameOver(i)) {
+        batchSimulation.newGame(i);
+      }
+      batchSimulation.setPlayerTargetY(i, batchSimulation.getBallY(i) - 12f);
+    }
+    batchSimulation.step(TICK_DURATION);
+    return batchSimulation.getBallX(0);
+  }
+}
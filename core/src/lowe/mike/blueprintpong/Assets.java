@@ -1,19 +1,47 @@
 package lowe.mike.blueprintpong;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetManager;
-import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
 import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGeneratorLoader;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+import java.io.IOException;
+import java.io.Reader;
+import lowe.mike.blueprintpong.simulation.ResponseProfile;
 
 /**
- * {@code Assets} provides access to assets, such as {@link Texture}s, used in the <i>Blueprint
- * Pong</i> game.
+ * {@code Assets} provides access to assets, such as {@link TextureRegion}s, used in the
+ * <i>Blueprint Pong</i> game.
+ * <p>
+ * Apart from the backgrounds, images come from a single {@link TextureAtlas} packed at build time
+ * by {@code tools:packAtlas}, and every font size is drawn from the same small distance field
+ * page found by {@link FontCache}, so screens can be drawn with very few texture switches. The
+ * fonts must be drawn with a {@link DistanceFieldBatch}.
+ * <p>
+ * The backgrounds are large and opaque, so they are also compressed to ETC1 at build time by
+ * {@code tools:compressTextures}. The ETC1 version is loaded when the GPU can draw it directly,
+ * using an eighth of the memory, and the PNG otherwise.
+ * <p>
+ * How the ball leaves a paddle is loaded from a {@link ResponseProfile} file, so it can be tuned
+ * without changing the code.
+ * <p>
+ * Everything apart from the splash background is loaded by calling {@link #update(int)} every
+ * frame with a time budget. Setting up the fonts, regions and response profile, and generating the
+ * font if it hasn't been baked, is done a step at a time within the same budget, so the splash
+ * screen keeps being drawn while loading.
  *
  * @author Mike Lowe
  */
@@ -22,41 +50,82 @@ public final class Assets implements Disposable {
   /*
    * Describe the assets to load in.
    */
-  private static final AssetDescriptor<FreeTypeFontGenerator> FONT_GENERATOR_ASSET_DESCRIPTOR
-      = new AssetDescriptor<FreeTypeFontGenerator>("BluprintDEMO.otf", FreeTypeFontGenerator.class);
-  private static final AssetDescriptor<Texture> SPLASH_BACKGROUND_TEXTURE_ASSET_DESCRIPTOR
-      = new AssetDescriptor<Texture>("splash-background.png", Texture.class);
-  private static final AssetDescriptor<Texture> BACKGROUND_TEXTURE_ASSET_DESCRIPTOR
-      = new AssetDescriptor<Texture>("background.png", Texture.class);
-  private static final AssetDescriptor<Texture> BUTTON_UP_TEXTURE_ASSET_DESCRIPTOR
-      = new AssetDescriptor<Texture>("button-up.png", Texture.class);
-  private static final AssetDescriptor<Texture> BUTTON_DOWN_TEXTURE_ASSET_DESCRIPTOR
-      = new AssetDescriptor<Texture>("button-down.png", Texture.class);
-  private static final AssetDescriptor<Texture> LINE_TEXTURE_ASSET_DESCRIPTOR
-      = new AssetDescriptor<Texture>("line.png", Texture.class);
-  private static final AssetDescriptor<Texture> PADDLE_TEXTURE_ASSET_DESCRIPTOR
-      = new AssetDescriptor<Texture>("paddle.png", Texture.class);
-  private static final AssetDescriptor<Texture> BALL_TEXTURE_ASSET_DESCRIPTOR
-      = new AssetDescriptor<Texture>("ball.png", Texture.class);
+  private static final AssetDescriptor<TextureAtlas> ATLAS_ASSET_DESCRIPTOR
+      = new AssetDescriptor<TextureAtlas>("game.atlas", TextureAtlas.class);
   private static final AssetDescriptor<Sound> PADDLE_HIT_SOUND_ASSET_DESCRIPTOR
       = new AssetDescriptor<Sound>("paddle-hit.ogg", Sound.class);
   private static final AssetDescriptor<Sound> WALL_HIT_SOUND_ASSET_DESCRIPTOR
       = new AssetDescriptor<Sound>("wall-hit.ogg", Sound.class);
   private static final AssetDescriptor<Sound> POINT_SCORED_SOUND_ASSET_DESCRIPTOR
       = new AssetDescriptor<Sound>("point-scored.ogg", Sound.class);
+  private static final String RESPONSE_PROFILE_FILE_NAME = "paddle-response.txt";
 
   /*
-   * Font properties.
+   * Names of the textures that may be compressed, without their extensions.
+   */
+  private static final String SPLASH_BACKGROUND_TEXTURE_NAME = "splash-background";
+  private static final String BACKGROUND_TEXTURE_NAME = "background";
+  private static final String COMPRESSED_TEXTURE_EXTENSION = ".ktx";
+  private static final String TEXTURE_EXTENSION = ".png";
+  private static final String ETC1_GL_EXTENSION = "GL_OES_compressed_ETC1_RGB8_texture";
+
+  /*
+   * The backgrounds aren't a power of two in size, which as ETC1 can crash
+   * PowerVR drivers, so those GPUs get the PNG.
+   */
+  private static final String POWER_VR_RENDERER = "PowerVR";
+
+  /*
+   * Sizes the fonts are drawn at, in pixels of the background image.
    */
-  private static final Color FONT_COLOUR = Color.WHITE;
   private static final int EXTRA_LARGE_FONT_SIZE = 252;
   private static final int LARGE_FONT_SIZE = 162;
   private static final int MEDIUM_FONT_SIZE = 108;
 
+  /*
+   * Names of the regions in the atlas.
+   */
+  private static final String BUTTON_UP_REGION_NAME = "button-up";
+  private static final String BUTTON_DOWN_REGION_NAME = "button-down";
+  private static final String LINE_REGION_NAME = "line";
+  private static final String PADDLE_REGION_NAME = "paddle";
+  private static final String BALL_REGION_NAME = "ball";
+
+  /*
+   * How long each part of loading takes relative to the others, so progress
+   * moves steadily. Generating the font is by far the slowest part.
+   */
+  private static final float ASSET_MANAGER_WEIGHT = 1f;
+  private static final float FONT_BAKE_WEIGHT = 8f;
+  private static final float SET_UP_WEIGHT = .2f;
+  private static final int SET_UP_STEPS = 5;
+
   private final AssetManager assetManager = new AssetManager();
-  private BitmapFont extraLargeFont;
-  private BitmapFont largeFont;
-  private BitmapFont mediumFont;
+  private final AssetDescriptor<Texture> splashBackgroundTextureAssetDescriptor =
+      createBackgroundTextureAssetDescriptor(SPLASH_BACKGROUND_TEXTURE_NAME);
+  private final AssetDescriptor<Texture> backgroundTextureAssetDescriptor =
+      createBackgroundTextureAssetDescriptor(BACKGROUND_TEXTURE_NAME);
+  private final Array<AssetDescriptor<Texture>> fontPageAssetDescriptors =
+      new Array<AssetDescriptor<Texture>>();
+  private FileHandle fontFile;
+  private FontCache.Bake fontBake;
+  private boolean isBakingFont;
+  private int setUpStepsDone;
+  private float progress;
+  private Texture loadingBarTexture;
+  private TextureRegion loadingBarRegion;
+  private float screenScale = 1f;
+  private TextureRegion splashBackgroundRegion;
+  private TextureRegion backgroundRegion;
+  private TextureRegion buttonUpRegion;
+  private TextureRegion buttonDownRegion;
+  private TextureRegion lineRegion;
+  private TextureRegion paddleRegion;
+  private TextureRegion ballRegion;
+  private DistanceFieldBatchFont extraLargeFont;
+  private DistanceFieldBatchFont largeFont;
+  private DistanceFieldBatchFont mediumFont;
+  private ResponseProfile responseProfile;
 
   /**
    * Creates a new {@code Assets} instance.
@@ -72,86 +141,227 @@ public final class Assets implements Disposable {
    * are still being loaded.
    */
   private void loadSplashBackgroundTexture() {
-    loadAsset(SPLASH_BACKGROUND_TEXTURE_ASSET_DESCRIPTOR);
+    loadAsset(splashBackgroundTextureAssetDescriptor);
     assetManager.finishLoading();
-    addSmoothingFilter(getSplashBackgroundTexture());
+    splashBackgroundRegion =
+        new TextureRegion(assetManager.get(splashBackgroundTextureAssetDescriptor));
+    // nothing else is loaded yet so the loading bar needs a texture of its own
+    Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+    pixmap.setColor(Color.WHITE);
+    pixmap.fill();
+    loadingBarTexture = new Texture(pixmap);
+    pixmap.dispose();
+    loadingBarRegion = new TextureRegion(loadingBarTexture);
   }
 
-  private void loadAsset(AssetDescriptor... assetDescriptors) {
-    for (AssetDescriptor assetDescriptor : assetDescriptors) {
-      assetManager.load(assetDescriptor);
+  private static AssetDescriptor<Texture> createBackgroundTextureAssetDescriptor(String name) {
+    TextureLoader.TextureParameter parameter = new TextureLoader.TextureParameter();
+    parameter.minFilter = Texture.TextureFilter.Linear;
+    parameter.magFilter = Texture.TextureFilter.Linear;
+    return new AssetDescriptor<Texture>(findTextureFile(name), Texture.class, parameter);
+  }
+
+  /*
+   * ETC1 textures can be decoded in software when the GPU can't draw them,
+   * but only to 16 bit colour, so the PNG is better then.
+   */
+  private static String findTextureFile(String name) {
+    String compressedFileName = name + COMPRESSED_TEXTURE_EXTENSION;
+    String renderer = Gdx.gl.glGetString(GL20.GL_RENDERER);
+    if (Gdx.graphics.supportsExtension(ETC1_GL_EXTENSION)
+        && (renderer == null || !renderer.contains(POWER_VR_RENDERER))
+        && Gdx.files.internal(compressedFileName).exists()) {
+      return compressedFileName;
     }
+    return name + TEXTURE_EXTENSION;
   }
 
-  private static void addSmoothingFilter(Texture... textures) {
-    for (Texture texture : textures) {
-      texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+  private void loadAsset(AssetDescriptor... assetDescriptors) {
+    for (AssetDescriptor assetDescriptor : assetDescriptors) {
+      assetManager.load(assetDescriptor);
     }
   }
 
   private void loadMainAssets() {
-    // need this so we can load in fonts
-    assetManager.setLoader(
-        FreeTypeFontGenerator.class,
-        new FreeTypeFontGeneratorLoader(new InternalFileHandleResolver())
-    );
     loadAsset(
-        FONT_GENERATOR_ASSET_DESCRIPTOR,
-        BACKGROUND_TEXTURE_ASSET_DESCRIPTOR,
-        BUTTON_UP_TEXTURE_ASSET_DESCRIPTOR,
-        BUTTON_DOWN_TEXTURE_ASSET_DESCRIPTOR,
-        LINE_TEXTURE_ASSET_DESCRIPTOR,
-        PADDLE_TEXTURE_ASSET_DESCRIPTOR,
-        BALL_TEXTURE_ASSET_DESCRIPTOR,
+        backgroundTextureAssetDescriptor,
+        ATLAS_ASSET_DESCRIPTOR,
         PADDLE_HIT_SOUND_ASSET_DESCRIPTOR,
         WALL_HIT_SOUND_ASSET_DESCRIPTOR,
         POINT_SCORED_SOUND_ASSET_DESCRIPTOR
     );
+    FileHandle directory = FontCache.findFont();
+    if (directory != null) {
+      loadFontPages(directory);
+    } else {
+      // font hasn't been baked so generate it once while everything else loads
+      isBakingFont = true;
+    }
   }
 
   /**
+   * Carries on loading for up to the given time. Should be called every frame until it returns
+   * {@code true}. A single step can go over the budget, but steps are kept small: one asset, one
+   * glyph of the font or one font size.
+   *
+   * @param budgetMillis how long to spend loading, in milliseconds
    * @return {@code true} if all loading is finished
    */
-  public boolean isFinishedLoading() {
-    if (assetManager.update()) {
-      loadFonts();
-      addSmoothingFilter(
-          getBackgroundTexture(),
-          getLineTexture(),
-          getPaddleTexture(),
-          getBallTexture()
-      );
-      return true;
-    } else {
-      return false;
+  public boolean update(int budgetMillis) {
+    long deadline = TimeUtils.millis() + budgetMillis;
+    boolean isFinished = isFinishedLoading();
+    while (!isFinished && TimeUtils.millis() < deadline) {
+      step();
+      isFinished = isFinishedLoading();
     }
+    // only ever move forward, even when the font pages are added to the queue
+    progress = Math.max(progress, isFinished ? 1f : calculateProgress());
+    return isFinished;
   }
 
-  private void loadFonts() {
-    FreeTypeFontGenerator fontGenerator = assetManager.get(FONT_GENERATOR_ASSET_DESCRIPTOR);
+  private boolean isFinishedLoading() {
+    return setUpStepsDone == SET_UP_STEPS;
+  }
+
+  private void step() {
+    // the asset manager reads files on another thread, so bake the font in between its steps
+    boolean isAssetManagerFinished = assetManager.update();
+    if (isBakingFont && fontFile == null) {
+      stepFontBake();
+    } else if (isAssetManagerFinished) {
+      stepSetUp();
+    }
+  }
+
+  private void stepFontBake() {
+    if (fontBake == null) {
+      fontBake = FontCache.startCachingFont();
+    } else if (fontBake.step()) {
+      loadFontPages(fontBake.getDirectory());
+      fontBake.dispose();
+      fontBake = null;
+    }
+  }
+
+  private void stepSetUp() {
+    switch (setUpStepsDone) {
+      case 0:
+        extraLargeFont = createFont(EXTRA_LARGE_FONT_SIZE);
+        break;
+      case 1:
+        largeFont = createFont(LARGE_FONT_SIZE);
+        break;
+      case 2:
+        mediumFont = createFont(MEDIUM_FONT_SIZE);
+        break;
+      case 3:
+        responseProfile = loadResponseProfile();
+        break;
+      default:
+        findRegions();
+        break;
+    }
+    setUpStepsDone++;
+  }
 
-    FreeTypeFontGenerator.FreeTypeFontParameter parameter =
-        new FreeTypeFontGenerator.FreeTypeFontParameter();
-    parameter.color = FONT_COLOUR;
-    // apply smoothing filters
+  /**
+   * @return how much of the loading is done, between 0 and 1, weighted by how long each part takes
+   */
+  public float getProgress() {
+    return progress;
+  }
+
+  private float calculateProgress() {
+    float total = ASSET_MANAGER_WEIGHT + SET_UP_WEIGHT;
+    float done = ASSET_MANAGER_WEIGHT * assetManager.getProgress()
+        + SET_UP_WEIGHT * setUpStepsDone / SET_UP_STEPS;
+    if (isBakingFont) {
+      total += FONT_BAKE_WEIGHT;
+      if (fontFile != null) {
+        done += FONT_BAKE_WEIGHT;
+      } else if (fontBake != null) {
+        done += FONT_BAKE_WEIGHT * fontBake.getProgress();
+      }
+    }
+    return done / total;
+  }
+
+  private void loadFontPages(FileHandle directory) {
+    fontFile = FontCache.getFontFile(directory);
+    // only need the names of the pages for now, each size reads the font again later
+    BitmapFont.BitmapFontData fontData = new BitmapFont.BitmapFontData(fontFile, false);
+    TextureLoader.TextureParameter parameter = new TextureLoader.TextureParameter();
+    // the distances are all in the alpha channel so don't keep the others
+    parameter.format = Pixmap.Format.Alpha;
     parameter.minFilter = Texture.TextureFilter.Linear;
     parameter.magFilter = Texture.TextureFilter.Linear;
+    for (String imagePath : fontData.imagePaths) {
+      FileHandle pageFile = Gdx.files.getFileHandle(imagePath, directory.type());
+      AssetDescriptor<Texture> assetDescriptor =
+          new AssetDescriptor<Texture>(pageFile, Texture.class, parameter);
+      fontPageAssetDescriptors.add(assetDescriptor);
+      assetManager.load(assetDescriptor);
+    }
+  }
 
-    extraLargeFont = loadFont(fontGenerator, parameter, EXTRA_LARGE_FONT_SIZE);
-    largeFont = loadFont(fontGenerator, parameter, LARGE_FONT_SIZE);
-    mediumFont = loadFont(fontGenerator, parameter, MEDIUM_FONT_SIZE);
+  private DistanceFieldBatchFont createFont(int fontSize) {
+    Array<TextureRegion> pages = new Array<TextureRegion>();
+    for (AssetDescriptor<Texture> assetDescriptor : fontPageAssetDescriptors) {
+      pages.add(new TextureRegion(assetManager.get(assetDescriptor)));
+    }
+    // each size needs its own data as that's where the scale is kept
+    BitmapFont.BitmapFontData fontData = new BitmapFont.BitmapFontData(fontFile, false);
+    DistanceFieldBatchFont font = new DistanceFieldBatchFont(fontData, pages, false);
+    Scaling.scaleFont(font, fontSize / (float) FontCache.FONT_SIZE);
+    setSmoothing(font);
+    return font;
+  }
 
-    // finished with font generator so dispose it
-    assetManager.unload(FONT_GENERATOR_ASSET_DESCRIPTOR.fileName);
+  /*
+   * Edges are smoothed over about a pixel on screen, however far the font
+   * is scaled.
+   */
+  private void setSmoothing(DistanceFieldBatchFont font) {
+    font.setDistanceFieldSmoothing(FontCache.SPREAD * screenScale);
   }
 
-  private BitmapFont loadFont(FreeTypeFontGenerator fontGenerator,
-      FreeTypeFontGenerator.FreeTypeFontParameter parameter,
-      int fontSize) {
-    parameter.size = fontSize;
-    BitmapFont font = fontGenerator.generateFont(parameter);
-    Scaling.scaleFont(font);
-    return font;
+  /**
+   * Should be called whenever the size of the screen changes, so fonts stay crisp.
+   *
+   * @param screenScale screen pixels per world unit
+   */
+  public void setScreenScale(float screenScale) {
+    this.screenScale = screenScale;
+    if (extraLargeFont != null) {
+      setSmoothing(extraLargeFont);
+      setSmoothing(largeFont);
+      setSmoothing(mediumFont);
+    }
+  }
+
+  private static ResponseProfile loadResponseProfile() {
+    Reader reader = Gdx.files.internal(RESPONSE_PROFILE_FILE_NAME).reader("UTF-8");
+    try {
+      return ResponseProfile.load(reader);
+    } catch (IOException e) {
+      throw new GdxRuntimeException("Couldn't load " + RESPONSE_PROFILE_FILE_NAME, e);
+    } finally {
+      StreamUtils.closeQuietly(reader);
+    }
+  }
+
+  /*
+   * Look the regions up once as finding them in the atlas is a linear
+   * search.
+   */
+  private void findRegions() {
+    backgroundRegion = new TextureRegion(assetManager.get(backgroundTextureAssetDescriptor));
+    TextureAtlas atlas = assetManager.get(ATLAS_ASSET_DESCRIPTOR);
+    buttonUpRegion = atlas.findRegion(BUTTON_UP_REGION_NAME);
+    buttonDownRegion = atlas.findRegion(BUTTON_DOWN_REGION_NAME);
+    lineRegion = atlas.findRegion(LINE_REGION_NAME);
+    paddleRegion = atlas.findRegion(PADDLE_REGION_NAME);
+    ballRegion = atlas.findRegion(BALL_REGION_NAME);
   }
 
   /**
@@ -176,52 +386,67 @@ public final class Assets implements Disposable {
   }
 
   /**
-   * @return the splash background {@link Texture}
+   * @return the {@link ResponseProfile} that decides how the ball leaves a paddle
+   */
+  public ResponseProfile getResponseProfile() {
+    return responseProfile;
+  }
+
+  /**
+   * @return the splash background {@link TextureRegion}, which has a texture of its own
    */
-  public Texture getSplashBackgroundTexture() {
-    return assetManager.get(SPLASH_BACKGROUND_TEXTURE_ASSET_DESCRIPTOR);
+  public TextureRegion getSplashBackgroundRegion() {
+    return splashBackgroundRegion;
   }
 
   /**
-   * @return the background {@link Texture}
+   * @return a plain white {@link TextureRegion} to draw the loading bar with, which has a texture
+   *     of its own
    */
-  public Texture getBackgroundTexture() {
-    return assetManager.get(BACKGROUND_TEXTURE_ASSET_DESCRIPTOR);
+  public TextureRegion getLoadingBarRegion() {
+    return loadingBarRegion;
   }
 
   /**
-   * @return the button up {@link Texture}
+   * @return the background {@link TextureRegion}, which has a texture of its own
    */
-  public Texture getButtonUpTexture() {
-    return assetManager.get(BUTTON_UP_TEXTURE_ASSET_DESCRIPTOR);
+  public TextureRegion getBackgroundRegion() {
+    return backgroundRegion;
   }
 
   /**
-   * @return the button down {@link Texture}
+   * @return the button up {@link TextureRegion}
    */
-  public Texture getButtonDownTexture() {
-    return assetManager.get(BUTTON_DOWN_TEXTURE_ASSET_DESCRIPTOR);
+  public TextureRegion getButtonUpRegion() {
+    return buttonUpRegion;
   }
 
   /**
-   * @return the line {@link Texture}
+   * @return the button down {@link TextureRegion}
    */
-  public Texture getLineTexture() {
-    return assetManager.get(LINE_TEXTURE_ASSET_DESCRIPTOR);
+  public TextureRegion getButtonDownRegion() {
+    return buttonDownRegion;
   }
 
   /**
-   * @return the paddle {@link Texture}
+   * @return the line {@link TextureRegion}
    */
-  public Texture getPaddleTexture() {
-    return assetManager.get(PADDLE_TEXTURE_ASSET_DESCRIPTOR);
+  public TextureRegion getLineRegion() {
+    return lineRegion;
   }
 
   /**
-   * @return the ball {@link Texture}
+   * @return the paddle {@link TextureRegion}
    */
-  public Texture getBallTexture() {
-    return assetManager.get(BALL_TEXTURE_ASSET_DESCRIPTOR);
+  public TextureRegion getPaddleRegion() {
+    return paddleRegion;
+  }
+
+  /**
+   * @return the ball {@link TextureRegion}
+   */
+  public TextureRegion getBallRegion() {
+    return ballRegion;
   }
 
   /**
@@ -246,19 +471,27 @@ public final class Assets implements Disposable {
   }
 
   /**
-   * Disposes the splash background {@link Texture}.
+   * Disposes the splash background and loading bar {@link Texture}s.
    */
   public void disposeSplashBackgroundTexture() {
-    if (assetManager.isLoaded(SPLASH_BACKGROUND_TEXTURE_ASSET_DESCRIPTOR.fileName)) {
-      assetManager.unload(SPLASH_BACKGROUND_TEXTURE_ASSET_DESCRIPTOR.fileName);
+    if (assetManager.isLoaded(splashBackgroundTextureAssetDescriptor.fileName)) {
+      assetManager.unload(splashBackgroundTextureAssetDescriptor.fileName);
+    }
+    if (loadingBarTexture != null) {
+      loadingBarTexture.dispose();
+      loadingBarTexture = null;
     }
   }
 
   @Override
   public void dispose() {
+    // fonts don't own their pages, these do
     assetManager.dispose();
-    extraLargeFont.dispose();
-    largeFont.dispose();
-    mediumFont.dispose();
+    if (loadingBarTexture != null) {
+      loadingBarTexture.dispose();
+    }
+    if (fontBake != null) {
+      fontBake.dispose();
+    }
   }
 }
@@ -1,7 +1,12 @@
 package lowe.mike.blueprintpong;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.DistanceFieldFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import lowe.mike.blueprintpong.debug.DebugHud;
+import lowe.mike.blueprintpong.debug.GarbageCollectionCounter;
 import lowe.mike.blueprintpong.screen.ScreenManager;
 import lowe.mike.blueprintpong.screen.SplashScreen;
 
@@ -16,22 +21,60 @@ public final class BlueprintPongGame extends Game {
   public static final float VIRTUAL_WIDTH = 320f;
   public static final float VIRTUAL_HEIGHT = 180f;
 
+  // same as the default
+  private static final int SPRITE_BATCH_SIZE = 1000;
+
+  private final GarbageCollectionCounter garbageCollectionCounter;
   private Assets assets;
+  private ShaderProgram spriteBatchShader;
   private SpriteBatch spriteBatch;
   private ScreenManager screenManager;
+  private DebugHud debugHud;
+
+  /**
+   * Creates a new {@code BlueprintPongGame} that can't report garbage collections.
+   */
+  public BlueprintPongGame() {
+    this(GarbageCollectionCounter.UNAVAILABLE);
+  }
+
+  /**
+   * Creates a new {@code BlueprintPongGame} given the platform's {@link
+   * GarbageCollectionCounter}.
+   *
+   * @param garbageCollectionCounter used by the {@link DebugHud} to report garbage collections
+   */
+  public BlueprintPongGame(GarbageCollectionCounter garbageCollectionCounter) {
+    this.garbageCollectionCounter = garbageCollectionCounter;
+  }
 
   @Override
   public void create() {
     assets = new Assets();
-    spriteBatch = new SpriteBatch();
-    screenManager = new ScreenManager(this);
+    // draws distance field fonts, and everything else as normal
+    spriteBatchShader = DistanceFieldFont.createDistanceFieldShader();
+    spriteBatch = new DistanceFieldBatch(SPRITE_BATCH_SIZE, spriteBatchShader);
+    screenManager = new ScreenManager(this, spriteBatch);
+    debugHud = new DebugHud(spriteBatch, garbageCollectionCounter);
     screenManager.setScreen(new SplashScreen(assets, spriteBatch, screenManager));
   }
 
+  /*
+   * Overlay is drawn after the screen so it shows on top of every screen.
+   */
+  @Override
+  public void render() {
+    super.render();
+    debugHud.render(Gdx.graphics.getDeltaTime(), getScreen());
+  }
+
   @Override
   public void dispose() {
+    // screens may still be using the assets until they are disposed
+    screenManager.dispose();
     assets.dispose();
     spriteBatch.dispose();
-    screenManager.dispose();
+    spriteBatchShader.dispose();
+    debugHud.dispose();
   }
 }
@@ -9,7 +9,9 @@ import com.badlogic.gdx.utils.ObjectMap;
  */
 public enum Difficulty {
 
-  EASY("Easy", 80f), MEDIUM("Medium", 105f), HARD("Hard", 125f);
+  EASY("Easy", 80f, .45f, .7f),
+  MEDIUM("Medium", 105f, .35f, .65f),
+  HARD("Hard", 125f, .25f, .6f);
 
   private static final ObjectMap<String, Difficulty> stringToEnum
       = new ObjectMap<String, Difficulty>();
@@ -22,10 +24,17 @@ public enum Difficulty {
 
   private final String string;
   private final float computerPaddleSpeed; // in units per second
+  private final float computerReactionTime; // in seconds
+  private final float computerAimError; // as a fraction of the paddle height
 
-  Difficulty(String string, float computerPaddleSpeed) {
+  Difficulty(String string,
+      float computerPaddleSpeed,
+      float computerReactionTime,
+      float computerAimError) {
     this.string = string;
     this.computerPaddleSpeed = computerPaddleSpeed;
+    this.computerReactionTime = computerReactionTime;
+    this.computerAimError = computerAimError;
   }
 
   /**
@@ -45,6 +54,22 @@ public enum Difficulty {
     return computerPaddleSpeed;
   }
 
+  /**
+   * @return how long the computer takes to react to the ball changing direction for this {@code
+   * Difficulty} (in seconds)
+   */
+  public float getComputerReactionTime() {
+    return computerReactionTime;
+  }
+
+  /**
+   * @return the most the computer aim can be off by for this {@code Difficulty}, as a fraction of
+   * the paddle height
+   */
+  public float getComputerAimError() {
+    return computerAimError;
+  }
+
   @Override
   public String toString() {
     return string;
@@ -0,0 +1,175 @@
+package lowe.mike.blueprintpong;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import java.nio.ByteBuffer;
+
+/**
+ * {@code DistanceField} turns a high resolution glyph into a small signed distance field, where
+ * each pixel's alpha is its distance from the edge of the glyph: above one half inside, below one
+ * half outside. The edge can then be found again at any scale with a shader.
+ * <p>
+ * Distances are found with the exact Euclidean distance transform of Felzenszwalb and
+ * Huttenlocher, which is linear in the number of pixels, so fonts can be generated on the device
+ * when they haven't been baked. Instances reuse their buffers from glyph to glyph.
+ *
+ * @author Mike Lowe
+ */
+final class DistanceField {
+
+  private static final float INFINITY = 1e20f;
+
+  private final int scale;
+  private final int spread;
+  private float[] inside = new float[0];
+  private float[] outside = new float[0];
+  private float[] line = new float[0];
+  private float[] lineDistances = new float[0];
+  private int[] parabolas = new int[0];
+  private float[] boundaries = new float[0];
+
+  /**
+   * Creates a new {@code DistanceField}.
+   *
+   * @param scale how many times larger the source glyphs are than the distance fields
+   * @param spread how far from the edge, in distance field pixels, distances are measured
+   */
+  DistanceField(int scale, int spread) {
+    this.scale = scale;
+    this.spread = spread;
+  }
+
+  /**
+   * Generates the distance field of a glyph. The glyph is anything in the source region with at
+   * least half alpha. Each distance field pixel is sampled from the centre of the {@code scale}
+   * by {@code scale} block of source pixels it covers.
+   *
+   * @param source the {@link Pixmap} containing the glyph, in {@link Pixmap.Format#RGBA8888}
+   * @param sourceX x of the glyph in the source
+   * @param sourceY y of the glyph in the source
+   * @param sourceWidth width of the glyph in the source
+   * @param sourceHeight height of the glyph in the source
+   * @param offsetX offset of the glyph from the left of the distance field, in source pixels
+   * @param offsetY offset of the glyph from the top of the distance field, in source pixels
+   * @param width width of the distance field
+   * @param height height of the distance field
+   * @return a new white {@link Pixmap} with the distances in the alpha channel
+   */
+  Pixmap generate(Pixmap source, int sourceX, int sourceY, int sourceWidth, int sourceHeight,
+      int offsetX, int offsetY, int width, int height) {
+    int gridWidth = width * scale;
+    int gridHeight = height * scale;
+    ensureCapacity(gridWidth, gridHeight);
+
+    // read the pixels directly rather than making a native call for each one
+    ByteBuffer sourcePixels = source.getPixels();
+    int sourceStride = source.getWidth() * 4;
+    for (int y = 0; y < gridHeight; y++) {
+      for (int x = 0; x < gridWidth; x++) {
+        int glyphX = x - offsetX;
+        int glyphY = y - offsetY;
+        boolean isInside = false;
+        if (glyphX >= 0 && glyphX < sourceWidth && glyphY >= 0 && glyphY < sourceHeight) {
+          int alpha = sourcePixels.get(
+              (sourceY + glyphY) * sourceStride + (sourceX + glyphX) * 4 + 3) & 0xFF;
+          isInside = alpha >= 0x80;
+        }
+        int i = y * gridWidth + x;
+        inside[i] = isInside ? 0f : INFINITY;
+        outside[i] = isInside ? INFINITY : 0f;
+      }
+    }
+    transform(inside, gridWidth, gridHeight);
+    transform(outside, gridWidth, gridHeight);
+
+    Pixmap distanceField = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+    ByteBuffer pixels = distanceField.getPixels();
+    float range = 2f * spread * scale;
+    int centre = scale / 2;
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int i = (y * scale + centre) * gridWidth + x * scale + centre;
+        // distances are between pixel centres, so the edge is half a pixel closer
+        float distance = (outside[i] > 0f)
+            ? (float) Math.sqrt(outside[i]) - .5f
+            : .5f - (float) Math.sqrt(inside[i]);
+        float alpha = Math.max(0f, Math.min(1f, .5f + distance / range));
+        int pixel = (y * width + x) * 4;
+        pixels.put(pixel, (byte) 0xFF);
+        pixels.put(pixel + 1, (byte) 0xFF);
+        pixels.put(pixel + 2, (byte) 0xFF);
+        pixels.put(pixel + 3, (byte) (alpha * 255f + .5f));
+      }
+    }
+    return distanceField;
+  }
+
+  private void ensureCapacity(int gridWidth, int gridHeight) {
+    int size = gridWidth * gridHeight;
+    if (inside.length < size) {
+      inside = new float[size];
+      outside = new float[size];
+    }
+    int length = Math.max(gridWidth, gridHeight);
+    if (line.length < length) {
+      line = new float[length];
+      lineDistances = new float[length];
+      parabolas = new int[length];
+      boundaries = new float[length + 1];
+    }
+  }
+
+  /*
+   * Replaces each value with the squared distance to the nearest zero, one
+   * dimension at a time.
+   */
+  private void transform(float[] grid, int gridWidth, int gridHeight) {
+    for (int x = 0; x < gridWidth; x++) {
+      for (int y = 0; y < gridHeight; y++) {
+        line[y] = grid[y * gridWidth + x];
+      }
+      transform(gridHeight);
+      for (int y = 0; y < gridHeight; y++) {
+        grid[y * gridWidth + x] = lineDistances[y];
+      }
+    }
+    for (int y = 0; y < gridHeight; y++) {
+      System.arraycopy(grid, y * gridWidth, line, 0, gridWidth);
+      transform(gridWidth);
+      System.arraycopy(lineDistances, 0, grid, y * gridWidth, gridWidth);
+    }
+  }
+
+  /*
+   * Finds the lower envelope of the parabolas rooted at each point of the
+   * line, then reads the distances off it.
+   */
+  private void transform(int length) {
+    int k = 0;
+    parabolas[0] = 0;
+    boundaries[0] = -INFINITY;
+    boundaries[1] = INFINITY;
+    for (int q = 1; q < length; q++) {
+      float s = intersection(q, parabolas[k]);
+      while (s <= boundaries[k]) {
+        k--;
+        s = intersection(q, parabolas[k]);
+      }
+      k++;
+      parabolas[k] = q;
+      boundaries[k] = s;
+      boundaries[k + 1] = INFINITY;
+    }
+    k = 0;
+    for (int q = 0; q < length; q++) {
+      while (boundaries[k + 1] < q) {
+        k++;
+      }
+      int dq = q - parabolas[k];
+      lineDistances[q] = dq * dq + line[parabolas[k]];
+    }
+  }
+
+  private float intersection(int q, int p) {
+    return ((line[q] + q * q) - (line[p] + p * p)) / (2 * q - 2 * p);
+  }
+}
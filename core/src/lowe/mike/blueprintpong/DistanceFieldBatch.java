@@ -0,0 +1,80 @@
+package lowe.mike.blueprintpong;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.DistanceFieldFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+
+/**
+ * {@code DistanceFieldBatch} is a {@link SpriteBatch} that draws {@link DistanceFieldBatchFont}s
+ * with {@link DistanceFieldFont#createDistanceFieldShader()}, and everything else as normal.
+ * <p>
+ * The shader's smoothing has to be set before text is drawn and put back to 0 afterwards, and
+ * libGDX's own font cache flushes the batch for both around every piece of text. Here the
+ * smoothing is only changed when it is different, so text in the same font is drawn together,
+ * and is only put back to 0 when the batch switches to another texture, which flushes anyway.
+ *
+ * @author Mike Lowe
+ */
+final class DistanceFieldBatch extends SpriteBatch {
+
+  private static final String SMOOTHING_UNIFORM = "u_smoothing";
+
+  private float smoothing;
+  private boolean isDrawingText;
+
+  /**
+   * Creates a new {@code DistanceFieldBatch}.
+   *
+   * @param size the maximum number of sprites in a single render call
+   * @param shader the {@link ShaderProgram} from {@link
+   *     DistanceFieldFont#createDistanceFieldShader()}
+   */
+  DistanceFieldBatch(int size, ShaderProgram shader) {
+    super(size, shader);
+  }
+
+  /*
+   * The shader may have been recompiled since the last frame, losing the
+   * smoothing, so it is set again while it's cheap.
+   */
+  @Override
+  public void begin() {
+    super.begin();
+    setSmoothing(0f);
+  }
+
+  /**
+   * Should be called before drawing distance field text.
+   *
+   * @param smoothing the smoothing to draw it with, 0 for none
+   */
+  void beginText(float smoothing) {
+    isDrawingText = true;
+    if (smoothing != this.smoothing) {
+      flush();
+      setSmoothing(smoothing);
+    }
+  }
+
+  /**
+   * Should be called after drawing distance field text.
+   */
+  void endText() {
+    isDrawingText = false;
+  }
+
+  @Override
+  protected void switchTexture(Texture texture) {
+    super.switchTexture(texture);
+    // anything drawn with the last texture has just been flushed
+    if (!isDrawingText && smoothing != 0f) {
+      setSmoothing(0f);
+    }
+  }
+
+  private void setSmoothing(float smoothing) {
+    this.smoothing = smoothing;
+    getShader().setUniformf(SMOOTHING_UNIFORM, smoothing);
+  }
+}
@@ -0,0 +1,63 @@
+package lowe.mike.blueprintpong;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.DistanceFieldFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * {@code DistanceFieldBatchFont} is a {@link DistanceFieldFont} that leaves setting the shader's
+ * smoothing to a {@link DistanceFieldBatch}, so it must only be drawn with one.
+ *
+ * @author Mike Lowe
+ */
+final class DistanceFieldBatchFont extends DistanceFieldFont {
+
+  /**
+   * Creates a new {@code DistanceFieldBatchFont}.
+   *
+   * @param data the {@link BitmapFontData} of the font
+   * @param pageRegions the {@link TextureRegion}s of the font's pages
+   * @param integer {@code true} to draw at whole pixels
+   */
+  DistanceFieldBatchFont(BitmapFontData data, Array<TextureRegion> pageRegions, boolean integer) {
+    super(data, pageRegions, integer);
+  }
+
+  @Override
+  public BitmapFontCache newFontCache() {
+    return new Cache(this, usesIntegerPositions());
+  }
+
+  private static final class Cache extends BitmapFontCache {
+
+    private final DistanceFieldBatchFont font;
+
+    private Cache(DistanceFieldBatchFont font, boolean integer) {
+      super(font, integer);
+      this.font = font;
+    }
+
+    @Override
+    public void draw(Batch batch) {
+      DistanceFieldBatch distanceFieldBatch = (DistanceFieldBatch) batch;
+      distanceFieldBatch.beginText(getSmoothing());
+      super.draw(batch);
+      distanceFieldBatch.endText();
+    }
+
+    @Override
+    public void draw(Batch batch, int start, int end) {
+      DistanceFieldBatch distanceFieldBatch = (DistanceFieldBatch) batch;
+      distanceFieldBatch.beginText(getSmoothing());
+      super.draw(batch, start, end);
+      distanceFieldBatch.endText();
+    }
+
+    // same as libGDX's own, so edges look the same at every scale
+    private float getSmoothing() {
+      return font.getDistanceFieldSmoothing() * font.getScaleX();
+    }
+  }
+}
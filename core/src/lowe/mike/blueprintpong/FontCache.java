@@ -0,0 +1,407 @@
+package lowe.mike.blueprintpong;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import java.util.zip.CRC32;
+
+/**
+ * {@code FontCache} bakes the game's font into a signed distance field font, a {@code .fnt} file
+ * and a small PNG page, so it can be drawn crisply at any size with a {@link
+ * com.badlogic.gdx.graphics.g2d.DistanceFieldFont} rather than generated with FreeType at every
+ * size it's used at, every launch.
+ * <p>
+ * Glyphs are rendered by FreeType at {@value #RENDER_SCALE} times {@link #FONT_SIZE} and turned
+ * into distance fields by {@link DistanceField}. The font is normally baked at build time by
+ * {@code tools:bakeFonts} into {@link #BAKED_DIRECTORY}. If that is missing, or was baked from a
+ * different font or different settings, the font is generated once, a step at a time by a {@link
+ * Bake}, and cached in local storage instead. Both are tagged with a key made from the font file
+ * and the settings, so a stale font is never used.
+ *
+ * @author Mike Lowe
+ */
+public final class FontCache {
+
+  /**
+   * Name of the font file in the assets directory.
+   */
+  public static final String FONT_FILE_NAME = "BluprintDEMO.otf";
+
+  /**
+   * Directory, relative to the assets directory, that the font is baked into at build time.
+   */
+  public static final String BAKED_DIRECTORY = "fonts";
+
+  /*
+   * Font properties. The spread is how far outside a glyph, in pixels of
+   * the baked font, its distance field reaches.
+   */
+  static final int FONT_SIZE = 72;
+  static final int SPREAD = 6;
+  private static final int RENDER_SCALE = 4;
+  private static final Color FONT_COLOUR = Color.WHITE;
+  private static final int PAGE_SIZE = 1024;
+  private static final int RENDER_PAGE_SIZE = 2048;
+  private static final int GLYPH_PADDING = 2;
+
+  /*
+   * Names of the files written.
+   */
+  private static final String CACHE_DIRECTORY = "font-cache";
+  private static final String KEY_FILE_NAME = "key.txt";
+  private static final String FONT_NAME = "font";
+
+  /*
+   * Change whenever the way fonts are baked changes, so fonts baked the
+   * old way aren't used.
+   */
+  private static final int VERSION = 2;
+
+  // don't want instances
+  private FontCache() {
+  }
+
+  /**
+   * @param fontFile the font file the font is generated from
+   * @return the key identifying a font baked from the font file with the current settings
+   */
+  public static String getKey(FileHandle fontFile) {
+    CRC32 crc = new CRC32();
+    crc.update(fontFile.readBytes());
+    String settings = VERSION + "," + FONT_SIZE + "," + SPREAD + "," + RENDER_SCALE + ","
+        + FONT_COLOUR + "," + PAGE_SIZE + "," + GLYPH_PADDING;
+    crc.update(settings.getBytes());
+    return Long.toHexString(crc.getValue());
+  }
+
+  /**
+   * Generates the distance field font and writes it to a directory. The key is written last, so
+   * a bake that fails part way through is never used.
+   *
+   * @param fontFile the font file to generate the font from
+   * @param directory the directory to write the font to
+   */
+  public static void bake(FileHandle fontFile, FileHandle directory) {
+    Bake bake = new Bake(fontFile, directory);
+    try {
+      while (!bake.step()) {
+        // keep going until it's finished
+      }
+    } finally {
+      bake.dispose();
+    }
+  }
+
+  /**
+   * {@code Bake} generates the distance field font a small step at a time, so the game can bake
+   * it on the device while a loading screen keeps being drawn. Apart from rendering the glyphs
+   * with FreeType, which is a single step, each step is one glyph or one page.
+   */
+  static final class Bake implements Disposable {
+
+    /*
+     * How long each part of the bake takes relative to the others, so
+     * progress moves steadily.
+     */
+    private static final float RENDER_WEIGHT = 1f;
+    private static final float DISTANCE_FIELDS_WEIGHT = 6f;
+    private static final float WRITE_WEIGHT = 1f;
+    private static final float TOTAL_WEIGHT = RENDER_WEIGHT + DISTANCE_FIELDS_WEIGHT + WRITE_WEIGHT;
+
+    private final FileHandle fontFile;
+    private final FileHandle directory;
+    private final FreeTypeFontGenerator fontGenerator;
+    private final PixmapPacker renderPacker = createPacker(RENDER_PAGE_SIZE);
+    private final PixmapPacker packer = createPacker(PAGE_SIZE);
+    private final DistanceField distanceField = new DistanceField(RENDER_SCALE, SPREAD);
+    private BitmapFont.BitmapFontData data;
+    private Array<BitmapFont.Glyph> glyphs;
+    private int glyphIndex;
+    private int pageIndex;
+    private boolean isFinished;
+
+    /**
+     * Creates a new {@code Bake}. Nothing is generated until {@link #step()} is called.
+     *
+     * @param fontFile the font file to generate the font from
+     * @param directory the directory to write the font to
+     */
+    Bake(FileHandle fontFile, FileHandle directory) {
+      this.fontFile = fontFile;
+      this.directory = directory;
+      this.fontGenerator = new FreeTypeFontGenerator(fontFile);
+    }
+
+    /**
+     * Does the next step of the bake.
+     *
+     * @return {@code true} if the bake has finished
+     */
+    boolean step() {
+      if (isFinished) {
+        return true;
+      }
+      if (data == null) {
+        render();
+      } else if (glyphIndex < glyphs.size) {
+        packDistanceField(glyphs.get(glyphIndex++), renderPacker, packer, distanceField);
+        if (glyphIndex == glyphs.size) {
+          scaleMetrics(data, glyphs);
+          directory.mkdirs();
+        }
+      } else if (pageIndex < packer.getPages().size) {
+        PixmapIO.writePNG(directory.child(getPageFileName(pageIndex)),
+            packer.getPages().get(pageIndex).getPixmap());
+        pageIndex++;
+      } else {
+        writeFont(data, glyphs, packer.getPages().size, getFontFile(directory));
+        directory.child(KEY_FILE_NAME).writeString(getKey(fontFile), false, "UTF-8");
+        isFinished = true;
+      }
+      return isFinished;
+    }
+
+    private void render() {
+      FreeTypeFontGenerator.FreeTypeFontParameter parameter =
+          new FreeTypeFontGenerator.FreeTypeFontParameter();
+      parameter.size = FONT_SIZE * RENDER_SCALE;
+      parameter.color = FONT_COLOUR;
+      parameter.packer = renderPacker;
+      data = fontGenerator.generateData(parameter);
+      glyphs = getGlyphs(data);
+    }
+
+    /**
+     * @return how much of the bake is done, between 0 and 1
+     */
+    float getProgress() {
+      if (isFinished) {
+        return 1f;
+      }
+      if (data == null) {
+        return 0f;
+      }
+      float progress = RENDER_WEIGHT + DISTANCE_FIELDS_WEIGHT * glyphIndex / glyphs.size;
+      // the number of pages is only known once all the glyphs are packed
+      if (glyphIndex == glyphs.size) {
+        progress += WRITE_WEIGHT * pageIndex / (packer.getPages().size + 1);
+      }
+      return progress / TOTAL_WEIGHT;
+    }
+
+    /**
+     * @return the directory the font is written to
+     */
+    FileHandle getDirectory() {
+      return directory;
+    }
+
+    @Override
+    public void dispose() {
+      fontGenerator.dispose();
+      renderPacker.dispose();
+      packer.dispose();
+    }
+  }
+
+  private static PixmapPacker createPacker(int pageSize) {
+    return new PixmapPacker(pageSize, pageSize, Pixmap.Format.RGBA8888, GLYPH_PADDING, false);
+  }
+
+  private static Array<BitmapFont.Glyph> getGlyphs(BitmapFont.BitmapFontData data) {
+    Array<BitmapFont.Glyph> glyphs = new Array<BitmapFont.Glyph>();
+    for (BitmapFont.Glyph[] page : data.glyphs) {
+      if (page == null) {
+        continue;
+      }
+      for (BitmapFont.Glyph glyph : page) {
+        if (glyph != null) {
+          glyphs.add(glyph);
+        }
+      }
+    }
+    return glyphs;
+  }
+
+  /*
+   * Replaces the rendered glyph with its distance field. The field is on a
+   * grid aligned with the glyph's origin, so offsets stay whole pixels, and
+   * reaches the spread beyond the glyph on every side.
+   */
+  private static void packDistanceField(BitmapFont.Glyph glyph, PixmapPacker renderPacker,
+      PixmapPacker packer, DistanceField distanceField) {
+    if (glyph.width == 0 || glyph.height == 0) {
+      glyph.xoffset = floorDiv(glyph.xoffset);
+      glyph.yoffset = floorDiv(glyph.yoffset);
+      glyph.xadvance = Math.round(glyph.xadvance / (float) RENDER_SCALE);
+      return;
+    }
+    int left = floorDiv(glyph.xoffset) - SPREAD;
+    int right = ceilDiv(glyph.xoffset + glyph.width) + SPREAD;
+    int bottom = floorDiv(glyph.yoffset) - SPREAD;
+    int top = ceilDiv(glyph.yoffset + glyph.height) + SPREAD;
+    Pixmap field = distanceField.generate(
+        renderPacker.getPages().get(glyph.page).getPixmap(),
+        glyph.srcX,
+        glyph.srcY,
+        glyph.width,
+        glyph.height,
+        glyph.xoffset - left * RENDER_SCALE,
+        top * RENDER_SCALE - (glyph.yoffset + glyph.height),
+        right - left,
+        top - bottom
+    );
+    String name = Integer.toString(glyph.id);
+    Rectangle rect = packer.pack(name, field);
+    field.dispose();
+
+    glyph.page = packer.getPageIndex(name);
+    glyph.srcX = (int) rect.x;
+    glyph.srcY = (int) rect.y;
+    glyph.width = right - left;
+    glyph.height = top - bottom;
+    glyph.xoffset = left;
+    glyph.yoffset = bottom;
+    glyph.xadvance = Math.round(glyph.xadvance / (float) RENDER_SCALE);
+  }
+
+  private static int floorDiv(int value) {
+    return (int) Math.floor(value / (double) RENDER_SCALE);
+  }
+
+  private static int ceilDiv(int value) {
+    return (int) Math.ceil(value / (double) RENDER_SCALE);
+  }
+
+  private static void scaleMetrics(BitmapFont.BitmapFontData data,
+      Array<BitmapFont.Glyph> glyphs) {
+    data.lineHeight /= RENDER_SCALE;
+    data.capHeight /= RENDER_SCALE;
+    data.ascent /= RENDER_SCALE;
+    for (int i = 0; i < glyphs.size; i++) {
+      BitmapFont.Glyph first = glyphs.get(i);
+      for (int j = 0; j < glyphs.size; j++) {
+        char second = (char) glyphs.get(j).id;
+        int amount = first.getKerning(second);
+        if (amount != 0) {
+          first.setKerning(second, Math.round(amount / (float) RENDER_SCALE));
+        }
+      }
+    }
+  }
+
+  private static String getPageFileName(int page) {
+    return FONT_NAME + '_' + page + ".png";
+  }
+
+  /*
+   * Writes the font in the AngelCode BMFont text format that BitmapFont
+   * reads. The spread is written as padding, so the font is laid out as if
+   * the glyphs didn't have it.
+   */
+  private static void writeFont(BitmapFont.BitmapFontData data, Array<BitmapFont.Glyph> glyphs,
+      int pageCount, FileHandle file) {
+    StringBuilder fnt = new StringBuilder();
+    fnt.append("info face=\"").append(FONT_FILE_NAME).append("\" size=").append(FONT_SIZE)
+        .append(" bold=0 italic=0 charset=\"\" unicode=1 stretchH=100 smooth=1 aa=1")
+        .append(" padding=").append(SPREAD).append(',').append(SPREAD).append(',')
+        .append(SPREAD).append(',').append(SPREAD).append(" spacing=0,0\n");
+    fnt.append("common lineHeight=").append(Math.round(data.lineHeight))
+        .append(" base=").append(Math.round(data.capHeight + data.ascent))
+        .append(" scaleW=").append(PAGE_SIZE).append(" scaleH=").append(PAGE_SIZE)
+        .append(" pages=").append(pageCount).append(" packed=0\n");
+    for (int i = 0; i < pageCount; i++) {
+      fnt.append("page id=").append(i).append(" file=\"").append(getPageFileName(i))
+          .append("\"\n");
+    }
+
+    fnt.append("chars count=").append(glyphs.size).append('\n');
+    for (int i = 0; i < glyphs.size; i++) {
+      BitmapFont.Glyph glyph = glyphs.get(i);
+      fnt.append("char id=").append(glyph.id)
+          .append(" x=").append(glyph.srcX)
+          .append(" y=").append(glyph.srcY)
+          .append(" width=").append(glyph.width)
+          .append(" height=").append(glyph.height)
+          .append(" xoffset=").append(glyph.xoffset)
+          // BitmapFont flips this when it reads it back in
+          .append(" yoffset=").append(-(glyph.height + glyph.yoffset))
+          .append(" xadvance=").append(glyph.xadvance)
+          .append(" page=").append(glyph.page)
+          .append(" chnl=0\n");
+    }
+
+    StringBuilder kernings = new StringBuilder();
+    int kerningCount = 0;
+    for (int i = 0; i < glyphs.size; i++) {
+      BitmapFont.Glyph first = glyphs.get(i);
+      for (int j = 0; j < glyphs.size; j++) {
+        BitmapFont.Glyph second = glyphs.get(j);
+        int amount = first.getKerning((char) second.id);
+        if (amount != 0) {
+          kernings.append("kerning first=").append(first.id)
+              .append(" second=").append(second.id)
+              .append(" amount=").append(amount).append('\n');
+          kerningCount++;
+        }
+      }
+    }
+    fnt.append("kernings count=").append(kerningCount).append('\n').append(kernings);
+
+    file.writeString(fnt.toString(), false, "UTF-8");
+  }
+
+  /**
+   * Finds a font baked from the font in the internal assets with the current settings, first in
+   * {@link #BAKED_DIRECTORY} and then in the local cache.
+   *
+   * @return the directory containing the font, or {@code null} if it hasn't been baked
+   */
+  static FileHandle findFont() {
+    String key = getKey(Gdx.files.internal(FONT_FILE_NAME));
+    FileHandle bakedDirectory = Gdx.files.internal(BAKED_DIRECTORY);
+    if (hasKey(bakedDirectory, key)) {
+      return bakedDirectory;
+    }
+    FileHandle cacheDirectory = Gdx.files.local(CACHE_DIRECTORY).child(key);
+    if (hasKey(cacheDirectory, key)) {
+      return cacheDirectory;
+    }
+    return null;
+  }
+
+  private static boolean hasKey(FileHandle directory, String key) {
+    FileHandle keyFile = directory.child(KEY_FILE_NAME);
+    return keyFile.exists() && keyFile.readString("UTF-8").trim().equals(key);
+  }
+
+  /**
+   * Starts baking the font in the internal assets into the local cache, replacing anything cached
+   * before. This is slow so should only be done if {@link #findFont()} finds nothing.
+   *
+   * @return the {@link Bake}, which must be stepped until it finishes and then disposed
+   */
+  static Bake startCachingFont() {
+    FileHandle fontFile = Gdx.files.internal(FONT_FILE_NAME);
+    FileHandle cacheDirectory = Gdx.files.local(CACHE_DIRECTORY);
+    // fonts from an older version of the game won't be used again
+    cacheDirectory.deleteDirectory();
+    return new Bake(fontFile, cacheDirectory.child(getKey(fontFile)));
+  }
+
+  /**
+   * @param directory the directory returned by {@link #findFont()} or {@link #startCachingFont()}
+   * @return the {@code .fnt} file of the font
+   */
+  static FileHandle getFontFile(FileHandle directory) {
+    return directory.child(FONT_NAME + ".fnt");
+  }
+}
@@ -16,6 +16,8 @@ public final class GamePreferences {
   private static final Difficulty DIFFICULTY_DEFAULT = Difficulty.EASY;
   private static final String PLAY_SOUNDS_KEY = "play-sounds";
   private static final boolean PLAY_SOUNDS_DEFAULT = true;
+  private static final String HOST_ADDRESS_KEY = "host-address";
+  private static final String HOST_ADDRESS_DEFAULT = "localhost";
 
   // don't want instances
   private GamePreferences() {
@@ -59,4 +61,18 @@ public final class GamePreferences {
   public static void setPlaySounds(boolean playSounds) {
     getPreferences().putBoolean(PLAY_SOUNDS_KEY, playSounds).flush();
   }
+
+  /**
+   * @return the address of the last host joined for an online match
+   */
+  public static String getHostAddress() {
+    return getPreferences().getString(HOST_ADDRESS_KEY, HOST_ADDRESS_DEFAULT);
+  }
+
+  /**
+   * @param address the address of the host joined for an online match
+   */
+  public static void setHostAddress(String address) {
+    getPreferences().putString(HOST_ADDRESS_KEY, address).flush();
+  }
 }
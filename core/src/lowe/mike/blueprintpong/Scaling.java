@@ -22,9 +22,10 @@ public final class Scaling {
 
   /**
    * @param font the {@link BitmapFont} to scale
+   * @param fontScale how much larger the font should be drawn than it was generated
    */
-  static void scaleFont(BitmapFont font) {
-    font.getData().setScale(X_SCALE, Y_SCALE);
+  static void scaleFont(BitmapFont font, float fontScale) {
+    font.getData().setScale(X_SCALE * fontScale, Y_SCALE * fontScale);
   }
 
   /**
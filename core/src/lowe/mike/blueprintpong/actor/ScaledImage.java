@@ -1,6 +1,6 @@
 package lowe.mike.blueprintpong.actor;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import lowe.mike.blueprintpong.Scaling;
 
@@ -15,12 +15,12 @@ class ScaledImage extends Image {
   private final float scaledHeight;
 
   /**
-   * Creates a new {@code ScaledImage} given a {@link Texture}.
+   * Creates a new {@code ScaledImage} given a {@link TextureRegion}.
    *
-   * @param texture the {@link Texture}
+   * @param region the {@link TextureRegion}
    */
-  ScaledImage(Texture texture) {
-    super(texture);
+  ScaledImage(TextureRegion region) {
+    super(region);
     Scaling.scaleActor(this);
     this.scaledWidth = getWidth() * getScaleX();
     this.scaledHeight = getHeight() * getScaleY();
@@ -0,0 +1,164 @@
+package lowe.mike.blueprintpong.audio;
+
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.TimeUtils;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@code SoundDispatcher} plays {@link Sound}s on a thread of its own, so a slow audio backend
+ * never holds up a frame of the game.
+ * <p>
+ * The game asks for sounds with {@link #play(int)} as things happen, and hands them over with
+ * {@link #flush()} once a frame. A sound asked for more than once in a frame is only played once,
+ * and each sound has a limit on how many voices of it can play at a time. Sounds asked for over
+ * the limit are dropped rather than cutting off one already playing.
+ * <p>
+ * Sounds are handed over by flagging them and waking the thread, rather than through a queue,
+ * whose lock would make the game thread wait, and allocate, whenever the thread holds it. A sound
+ * handed over again before the thread gets to it is still only played once.
+ * <p>
+ * Sounds are added with {@link #addSound(Sound, int, long)} before {@link #start()}. Asking for
+ * and handing over sounds doesn't allocate. Once started, the {@link Sound}s should only be played
+ * through the {@code SoundDispatcher}.
+ *
+ * @author Mike Lowe
+ */
+public final class SoundDispatcher implements Disposable {
+
+  private static final String THREAD_NAME = "SoundDispatcher";
+
+  private final float volume;
+  private final Array<Sound> sounds = new Array<Sound>();
+  private final Array<long[]> voiceEndTimes = new Array<long[]>();
+  private final LongArray voiceDurations = new LongArray();
+  private boolean[] isRequested = new boolean[0];
+  private AtomicIntegerArray isHandedOver = new AtomicIntegerArray(0);
+  private Thread thread;
+
+  /**
+   * Creates a new {@code SoundDispatcher} that plays every sound at the given volume.
+   *
+   * @param volume the volume, between 0 and 1
+   */
+  public SoundDispatcher(float volume) {
+    this.volume = volume;
+  }
+
+  /**
+   * Adds a {@link Sound} that can be played.
+   *
+   * @param sound the {@link Sound}
+   * @param maxVoices how many voices of the {@link Sound} can play at a time
+   * @param durationMillis how long the {@link Sound} plays for, in milliseconds
+   * @return the ID to play the {@link Sound} with
+   * @throws IllegalStateException if the {@code SoundDispatcher} has already been started
+   */
+  public int addSound(Sound sound, int maxVoices, long durationMillis) {
+    if (thread != null) {
+      throw new IllegalStateException("sounds must be added before starting");
+    }
+    sounds.add(sound);
+    voiceEndTimes.add(new long[maxVoices]);
+    voiceDurations.add(durationMillis);
+    isRequested = new boolean[sounds.size];
+    isHandedOver = new AtomicIntegerArray(sounds.size);
+    return sounds.size - 1;
+  }
+
+  /**
+   * Starts the thread that plays the sounds.
+   */
+  public void start() {
+    if (thread != null) {
+      return;
+    }
+    thread = new Thread(new Runnable() {
+
+      @Override
+      public void run() {
+        playHandedOverSounds();
+      }
+
+    }, THREAD_NAME);
+    // shouldn't keep the game running once it's closed
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Asks for a sound to be played once this frame's sounds are handed over.
+   *
+   * @param soundId the ID returned by {@link #addSound(Sound, int, long)}
+   */
+  public void play(int soundId) {
+    isRequested[soundId] = true;
+  }
+
+  /**
+   * Hands the sounds asked for this frame over to the thread. Should be called once a frame.
+   */
+  public void flush() {
+    boolean isAnyRequested = false;
+    for (int i = 0; i < isRequested.length; i++) {
+      if (isRequested[i]) {
+        isHandedOver.set(i, 1);
+        isRequested[i] = false;
+        isAnyRequested = true;
+      }
+    }
+    if (isAnyRequested && thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  private void playHandedOverSounds() {
+    while (!Thread.interrupted()) {
+      for (int i = 0; i < isHandedOver.length(); i++) {
+        if (isHandedOver.getAndSet(i, 0) == 1) {
+          playVoice(i);
+        }
+      }
+      // returns straight away if woken since the last check, and may return for no reason
+      LockSupport.park(this);
+    }
+    // disposed, so stop
+  }
+
+  private void playVoice(int soundId) {
+    long now = TimeUtils.millis();
+    long[] endTimes = voiceEndTimes.get(soundId);
+    for (int i = 0; i < endTimes.length; i++) {
+      if (endTimes[i] <= now) {
+        endTimes[i] = now + voiceDurations.get(soundId);
+        sounds.get(soundId).play(volume);
+        return;
+      }
+    }
+    // every voice is still playing
+  }
+
+  /**
+   * Stops the thread, waiting for a sound it's playing to be handed to the backend, so the {@link
+   * Sound}s can be disposed straight after.
+   */
+  @Override
+  public void dispose() {
+    if (thread == null) {
+      return;
+    }
+    thread.interrupt();
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    thread = null;
+    for (int i = 0; i < isHandedOver.length(); i++) {
+      isHandedOver.set(i, 0);
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package lowe.mike.blueprintpong.debug;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.StringBuilder;
+
+/**
+ * {@code DebugHud} is an overlay that shows what frames cost: frame rate and frame time
+ * percentiles, {@link SpriteBatch} render calls and batch sizes, texture bindings and draw calls,
+ * heap sizes and garbage collections. While it is showing, the same numbers are written to a CSV
+ * file once a second by {@link StatsLog}.
+ * <p>
+ * It is toggled with F3 or by touching the screen with four fingers. Numbers are read before the
+ * overlay draws itself so it doesn't count its own work, and nothing is measured while it is
+ * hidden.
+ *
+ * @author Mike Lowe
+ */
+public final class DebugHud implements Disposable {
+
+  private static final int TOGGLE_KEY = Input.Keys.F3;
+  private static final int TOGGLE_POINTERS = 4;
+  private static final float REFRESH_INTERVAL = 1f; // in seconds
+  /*
+   * Enough frames for a refresh interval at very high refresh rates.
+   */
+  private static final int MAX_FRAMES_PER_INTERVAL = 1024;
+  private static final float MARGIN = 8f;
+  private static final int BYTES_PER_MEGABYTE = 1024 * 1024;
+
+  private final SpriteBatch spriteBatch;
+  private final GarbageCollectionCounter garbageCollectionCounter;
+  // built in font so the overlay works before the game's assets are loaded
+  private final BitmapFont font = new BitmapFont();
+  private final Matrix4 projection = new Matrix4();
+  private final StringBuilder text = new StringBuilder();
+  private final FrameStats frameStats = new FrameStats(MAX_FRAMES_PER_INTERVAL);
+  private final RenderCounters counters = new RenderCounters();
+  private final StatsLog statsLog = new StatsLog();
+  private boolean isVisible;
+  private boolean wasToggleTouched;
+  private float timeSinceRefresh;
+
+  /**
+   * Creates a new {@code DebugHud}.
+   *
+   * @param spriteBatch the {@link SpriteBatch} the game draws with
+   * @param garbageCollectionCounter the {@link GarbageCollectionCounter} for the platform
+   */
+  public DebugHud(SpriteBatch spriteBatch, GarbageCollectionCounter garbageCollectionCounter) {
+    this.spriteBatch = spriteBatch;
+    this.garbageCollectionCounter = garbageCollectionCounter;
+    this.font.getData().setScale(Math.max(1f, Gdx.graphics.getDensity()));
+  }
+
+  /**
+   * Checks whether the overlay has been toggled and, if it is showing, measures the frame that
+   * has just been rendered and draws the overlay on top of it.
+   *
+   * @param delta time in seconds since the last frame
+   * @param screen the current {@link Screen}
+   */
+  public void render(float delta, Screen screen) {
+    handleToggle();
+    if (!isVisible) {
+      return;
+    }
+    measureFrame(delta);
+    timeSinceRefresh += delta;
+    if (timeSinceRefresh >= REFRESH_INTERVAL) {
+      refresh(screen);
+    }
+    draw();
+    // don't count the overlay's own work in the next frame
+    spriteBatch.maxSpritesInBatch = 0;
+    GLProfiler.reset();
+  }
+
+  private void handleToggle() {
+    boolean isToggleTouched = Gdx.input.isTouched(TOGGLE_POINTERS - 1);
+    if (Gdx.input.isKeyJustPressed(TOGGLE_KEY) || (isToggleTouched && !wasToggleTouched)) {
+      setVisible(!isVisible);
+    }
+    wasToggleTouched = isToggleTouched;
+  }
+
+  private void setVisible(boolean isVisible) {
+    this.isVisible = isVisible;
+    if (isVisible) {
+      // profiler wraps every GL call so only have it on while needed
+      GLProfiler.enable();
+      GLProfiler.reset();
+      frameStats.clear();
+      counters.reset();
+      timeSinceRefresh = 0f;
+      text.setLength(0);
+      statsLog.start();
+    } else {
+      GLProfiler.disable();
+      statsLog.close();
+    }
+  }
+
+  private void measureFrame(float delta) {
+    frameStats.addFrame(delta);
+    counters.renderCalls = Math.max(counters.renderCalls, spriteBatch.renderCalls);
+    counters.maxSpritesInBatch = Math.max(counters.maxSpritesInBatch,
+        spriteBatch.maxSpritesInBatch);
+    counters.textureBindings = Math.max(counters.textureBindings, GLProfiler.textureBindings);
+    counters.drawCalls = Math.max(counters.drawCalls, GLProfiler.drawCalls);
+  }
+
+  private void refresh(Screen screen) {
+    counters.javaHeap = Gdx.app.getJavaHeap();
+    counters.nativeHeap = Gdx.app.getNativeHeap();
+    counters.garbageCollections = garbageCollectionCounter.getCollectionCount();
+    updateText();
+    String screenName = (screen == null) ? "" : screen.getClass().getSimpleName();
+    statsLog.write(screenName, frameStats, counters);
+    frameStats.clear();
+    counters.reset();
+    timeSinceRefresh = 0f;
+  }
+
+  private void updateText() {
+    text.setLength(0);
+    text.append("FPS ").append(Math.round(frameStats.getFramesPerSecond()));
+    text.append("  frame ms p50 ");
+    appendMilliseconds(frameStats.getPercentile(50f));
+    text.append(" p95 ");
+    appendMilliseconds(frameStats.getPercentile(95f));
+    text.append(" p99 ");
+    appendMilliseconds(frameStats.getPercentile(99f));
+    text.append(" max ");
+    appendMilliseconds(frameStats.getPercentile(100f));
+    text.append("\nrender calls ").append(counters.renderCalls);
+    text.append("  max sprites ").append(counters.maxSpritesInBatch);
+    text.append("  texture binds ").append(counters.textureBindings);
+    text.append("  draw calls ").append(counters.drawCalls);
+    text.append("\njava heap ").append(counters.javaHeap / BYTES_PER_MEGABYTE).append(" MB");
+    text.append("  native heap ").append(counters.nativeHeap / BYTES_PER_MEGABYTE).append(" MB");
+    text.append("  GCs ");
+    if (counters.garbageCollections < 0) {
+      text.append("n/a");
+    } else {
+      text.append(counters.garbageCollections);
+    }
+  }
+
+  /*
+   * Appends to one decimal place without going through Float.toString,
+   * which would create garbage.
+   */
+  private void appendMilliseconds(float seconds) {
+    int tenths = Math.round(seconds * 10000f);
+    text.append(tenths / 10).append('.').append(tenths % 10);
+  }
+
+  private void draw() {
+    float width = Gdx.graphics.getWidth();
+    float height = Gdx.graphics.getHeight();
+    projection.setToOrtho2D(0f, 0f, width, height);
+    spriteBatch.setProjectionMatrix(projection);
+    spriteBatch.begin();
+    font.draw(spriteBatch, text, MARGIN, height - MARGIN);
+    spriteBatch.end();
+  }
+
+  @Override
+  public void dispose() {
+    if (isVisible) {
+      setVisible(false);
+    }
+    font.dispose();
+  }
+}
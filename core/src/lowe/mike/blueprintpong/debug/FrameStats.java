@@ -0,0 +1,83 @@
+package lowe.mike.blueprintpong.debug;
+
+import java.util.Arrays;
+
+/**
+ * {@code FrameStats} keeps the times of the most recent frames so percentiles can be worked out.
+ * Nothing is allocated after creation, so it can be updated every frame without affecting what it
+ * measures.
+ *
+ * @author Mike Lowe
+ */
+final class FrameStats {
+
+  private final float[] frameTimes;
+  private final float[] sortedFrameTimes;
+  private int next;
+  private int count;
+  private boolean isSorted;
+
+  /**
+   * Creates a new {@code FrameStats} given how many frames to keep.
+   *
+   * @param frames number of frames to keep
+   */
+  FrameStats(int frames) {
+    this.frameTimes = new float[frames];
+    this.sortedFrameTimes = new float[frames];
+  }
+
+  /**
+   * @param seconds time the frame took (in seconds)
+   */
+  void addFrame(float seconds) {
+    frameTimes[next] = seconds;
+    next = (next + 1) % frameTimes.length;
+    count = Math.min(count + 1, frameTimes.length);
+    isSorted = false;
+  }
+
+  /**
+   * Forgets all frames.
+   */
+  void clear() {
+    next = 0;
+    count = 0;
+    isSorted = false;
+  }
+
+  /**
+   * @return number of frames kept
+   */
+  int getCount() {
+    return count;
+  }
+
+  /**
+   * @param percentile the percentile, from 0 to 100
+   * @return the frame time at the given percentile (in seconds), or 0 if there are no frames
+   */
+  float getPercentile(float percentile) {
+    if (count == 0) {
+      return 0f;
+    }
+    if (!isSorted) {
+      System.arraycopy(frameTimes, 0, sortedFrameTimes, 0, count);
+      Arrays.sort(sortedFrameTimes, 0, count);
+      isSorted = true;
+    }
+    int index = (int) Math.ceil((percentile / 100f) * count) - 1;
+    return sortedFrameTimes[Math.max(0, Math.min(count - 1, index))];
+  }
+
+  /**
+   * @return average frames per second over the frames kept, or 0 if there are no frames
+   */
+  float getFramesPerSecond() {
+    float total = 0f;
+    for (int i = 0; i < count; i++) {
+      total += frameTimes[i];
+    }
+    return (total == 0f) ? 0f : count / total;
+  }
+}
@@ -0,0 +1,27 @@
+package lowe.mike.blueprintpong.debug;
+
+/**
+ * {@code GarbageCollectionCounter} reports how many garbage collections have happened. Each
+ * platform counts them differently so the launchers provide their own.
+ *
+ * @author Mike Lowe
+ */
+public interface GarbageCollectionCounter {
+
+  /**
+   * Counter to use when a platform can't count collections.
+   */
+  GarbageCollectionCounter UNAVAILABLE = new GarbageCollectionCounter() {
+
+    @Override
+    public long getCollectionCount() {
+      return -1;
+    }
+
+  };
+
+  /**
+   * @return number of garbage collections since the application started, or -1 if unknown
+   */
+  long getCollectionCount();
+}
@@ -0,0 +1,28 @@
+package lowe.mike.blueprintpong.debug;
+
+/**
+ * {@code RenderCounters} holds the rendering and memory numbers shown by the {@link DebugHud}.
+ * Counts are the highest seen since the last reset, so a single bad frame isn't hidden.
+ *
+ * @author Mike Lowe
+ */
+final class RenderCounters {
+
+  int renderCalls;
+  int maxSpritesInBatch;
+  int textureBindings;
+  int drawCalls;
+  long javaHeap; // in bytes
+  long nativeHeap; // in bytes
+  long garbageCollections; // -1 if unknown
+
+  /**
+   * Resets the counts ready for the next period.
+   */
+  void reset() {
+    renderCalls = 0;
+    maxSpritesInBatch = 0;
+    textureBindings = 0;
+    drawCalls = 0;
+  }
+}
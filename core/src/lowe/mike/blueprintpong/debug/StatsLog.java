@@ -0,0 +1,102 @@
+package lowe.mike.blueprintpong.debug;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import lowe.mike.blueprintpong.BlueprintPongGame;
+
+/**
+ * {@code StatsLog} writes the numbers shown by the {@link DebugHud} to a CSV file, one row per
+ * interval, so they can be compared between builds or attached to bug reports. Each session gets a
+ * new file in {@code stats/} in local storage.
+ *
+ * @author Mike Lowe
+ */
+final class StatsLog {
+
+  private static final String DIRECTORY = "stats/";
+  private static final String HEADER = "seconds,screen,fps,frame_p50_ms,frame_p95_ms,"
+      + "frame_p99_ms,frame_max_ms,render_calls,max_sprites_in_batch,texture_bindings,draw_calls,"
+      + "java_heap_bytes,native_heap_bytes,garbage_collections\n";
+  private static final String ROW_FORMAT =
+      "%.1f,%s,%.1f,%.2f,%.2f,%.2f,%.2f,%d,%d,%d,%d,%d,%d,%d\n";
+
+  private Writer writer;
+  private long startTime;
+
+  /**
+   * Starts a new session in a new file. Any open session is closed first.
+   */
+  void start() {
+    close();
+    FileHandle file = Gdx.files.local(DIRECTORY + TimeUtils.millis() + ".csv");
+    try {
+      writer = new BufferedWriter(file.writer(false, "UTF-8"));
+      writer.write(HEADER);
+      startTime = TimeUtils.millis();
+    } catch (GdxRuntimeException e) {
+      fail(e);
+    } catch (IOException e) {
+      fail(e);
+    }
+  }
+
+  /**
+   * Writes a row, if a session is open.
+   *
+   * @param screen name of the current screen
+   * @param frameStats the {@link FrameStats} for the interval
+   * @param counters the {@link RenderCounters} for the interval
+   */
+  void write(String screen, FrameStats frameStats, RenderCounters counters) {
+    if (writer == null) {
+      return;
+    }
+    try {
+      writer.write(String.format(Locale.US, ROW_FORMAT,
+          TimeUtils.timeSinceMillis(startTime) / 1000f,
+          screen,
+          frameStats.getFramesPerSecond(),
+          frameStats.getPercentile(50f) * 1000f,
+          frameStats.getPercentile(95f) * 1000f,
+          frameStats.getPercentile(99f) * 1000f,
+          frameStats.getPercentile(100f) * 1000f,
+          counters.renderCalls,
+          counters.maxSpritesInBatch,
+          counters.textureBindings,
+          counters.drawCalls,
+          counters.javaHeap,
+          counters.nativeHeap,
+          counters.garbageCollections));
+      // rows are infrequent so flush each one in case the game is killed
+      writer.flush();
+    } catch (IOException e) {
+      fail(e);
+    }
+  }
+
+  private void fail(Exception e) {
+    Gdx.app.error(BlueprintPongGame.TITLE, "Couldn't write stats", e);
+    close();
+  }
+
+  /**
+   * Closes the session, if one is open.
+   */
+  void close() {
+    if (writer == null) {
+      return;
+    }
+    try {
+      writer.close();
+    } catch (IOException e) {
+      Gdx.app.error(BlueprintPongGame.TITLE, "Couldn't close stats", e);
+    }
+    writer = null;
+  }
+}
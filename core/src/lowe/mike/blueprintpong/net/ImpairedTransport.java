@@ -0,0 +1,126 @@
+package lowe.mike.blueprintpong.net;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * {@code ImpairedTransport} wraps another {@link Transport} and makes it behave like a worse
+ * network, delaying and dropping the packets it sends, so networked play can be tried out on
+ * loopback. Giving both ends the same latency makes the round trip time twice the latency.
+ * <p>
+ * Delayed packets are handed to the wrapped {@link Transport} when they are due, the next time
+ * this transport is used. Jitter can reorder packets, as on a real network.
+ *
+ * @author Mike Lowe
+ */
+public final class ImpairedTransport implements Transport {
+
+  private final Transport transport;
+  private final long latencyNanos;
+  private final long jitterNanos;
+  private final float lossRate;
+  private final Random random;
+  private final PriorityQueue<DelayedPacket> delayedPackets = new PriorityQueue<DelayedPacket>();
+  private final Deque<DelayedPacket> freePackets = new ArrayDeque<DelayedPacket>();
+  private long nextOrder;
+
+  /**
+   * Creates a new {@code ImpairedTransport}.
+   *
+   * @param transport the {@link Transport} to send packets with
+   * @param latencyMillis how long each packet is delayed by, in milliseconds
+   * @param jitterMillis the most the delay varies by either way, in milliseconds
+   * @param lossRate the fraction of packets dropped, between 0 and 1
+   * @param seed seed for which packets are dropped and delayed by how much
+   */
+  public ImpairedTransport(Transport transport,
+      int latencyMillis,
+      int jitterMillis,
+      float lossRate,
+      long seed) {
+    if (latencyMillis < 0 || jitterMillis < 0 || jitterMillis > latencyMillis) {
+      throw new IllegalArgumentException("jitter must be between 0 and the latency");
+    }
+    if (lossRate < 0f || lossRate > 1f) {
+      throw new IllegalArgumentException("lossRate must be between 0 and 1");
+    }
+    this.transport = transport;
+    this.latencyNanos = latencyMillis * 1000000L;
+    this.jitterNanos = jitterMillis * 1000000L;
+    this.lossRate = lossRate;
+    this.random = new Random(seed);
+  }
+
+  @Override
+  public void send(ByteBuffer packet, SocketAddress address) throws IOException {
+    sendDuePackets();
+    if (random.nextFloat() < lossRate) {
+      return;
+    }
+    long jitter = (jitterNanos == 0) ? 0 : (long) ((random.nextDouble() * 2 - 1) * jitterNanos);
+    DelayedPacket delayedPacket = freePackets.isEmpty() ? new DelayedPacket()
+        : freePackets.poll();
+    delayedPacket.dueTime = System.nanoTime() + latencyNanos + jitter;
+    delayedPacket.order = nextOrder++;
+    delayedPacket.address = address;
+    delayedPacket.data.clear();
+    delayedPacket.data.put(packet);
+    delayedPacket.data.flip();
+    delayedPackets.add(delayedPacket);
+  }
+
+  @Override
+  public SocketAddress receive(ByteBuffer packet) throws IOException {
+    sendDuePackets();
+    return transport.receive(packet);
+  }
+
+  /**
+   * Hands every packet that is due to the wrapped {@link Transport}. Called whenever this
+   * transport is used, so only needs calling directly if it isn't used for a while.
+   *
+   * @throws IOException if the wrapped {@link Transport} has failed
+   */
+  public void sendDuePackets() throws IOException {
+    long now = System.nanoTime();
+    while (!delayedPackets.isEmpty() && delayedPackets.peek().dueTime - now <= 0) {
+      DelayedPacket delayedPacket = delayedPackets.poll();
+      transport.send(delayedPacket.data, delayedPacket.address);
+      delayedPacket.address = null;
+      freePackets.add(delayedPacket);
+    }
+  }
+
+  @Override
+  public SocketAddress getLocalAddress() {
+    return transport.getLocalAddress();
+  }
+
+  @Override
+  public void close() {
+    delayedPackets.clear();
+    transport.close();
+  }
+
+  private static final class DelayedPacket implements Comparable<DelayedPacket> {
+
+    final ByteBuffer data = ByteBuffer.allocate(Protocol.MAX_PACKET_SIZE);
+    long dueTime;
+    long order;
+    SocketAddress address;
+
+    @Override
+    public int compareTo(DelayedPacket other) {
+      if (dueTime != other.dueTime) {
+        return (dueTime - other.dueTime < 0) ? -1 : 1;
+      }
+      // packets due at the same time go in the order they were sent
+      return (order < other.order) ? -1 : ((order == other.order) ? 0 : 1);
+    }
+  }
+}
@@ -0,0 +1,420 @@
+package lowe.mike.blueprintpong.net;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import lowe.mike.blueprintpong.simulation.PaddlePredictor;
+import lowe.mike.blueprintpong.simulation.PlayerInput;
+import lowe.mike.blueprintpong.simulation.PongSimulation;
+
+/**
+ * {@code MatchClient} plays a networked match run by a {@link MatchHost}.
+ * <p>
+ * The local player's paddle is predicted: their input moves it straight away, and is also sent to
+ * the host. When a snapshot arrives the paddle is put back where the host had it after the last
+ * input it used, and the input sent since is applied again, so the paddle only jumps if the host
+ * disagreed, e.g. because input was lost.
+ * <p>
+ * Everything else is drawn slightly in the past, blending between the two snapshots either side
+ * of it, so the ball and the other paddle move smoothly even though snapshots arrive irregularly
+ * and some never do.
+ *
+ * @author Mike Lowe
+ */
+public final class MatchClient implements NetworkMatch {
+
+  /*
+   * Inputs kept to apply again after a snapshot, and the most sent in one
+   * packet. A second's worth covers any lag worth playing through.
+   */
+  private static final int INPUT_HISTORY = RemotePlayer.INPUT_HISTORY;
+  private static final int MAX_INPUTS_PER_PACKET = Protocol.TICKS_PER_SECOND;
+
+  /*
+   * Snapshots kept to read new ones against and to blend between, by
+   * sequence number.
+   */
+  private static final int SNAPSHOT_HISTORY = 32;
+
+  /*
+   * How far in the past the ball and other paddle are drawn, two snapshots'
+   * worth so one can be lost without the ball stopping.
+   */
+  private static final int INTERPOLATION_DELAY_TICKS = 2 * Protocol.SNAPSHOT_INTERVAL_TICKS;
+
+  /*
+   * How quickly the estimate of the host tick is pulled towards the ticks
+   * in snapshots, and how far off it can be before it is just reset.
+   */
+  private static final float HOST_TICK_CORRECTION = .05f;
+  private static final int MAX_HOST_TICK_ERROR = Protocol.TICKS_PER_SECOND / 4;
+
+  /*
+   * A ball that moves further than this between snapshots has been served
+   * again, so isn't blended from where it went out.
+   */
+  private static final float MAX_BALL_BLEND_DISTANCE = PongSimulation.COURT_WIDTH / 4f;
+
+  private final Transport transport;
+  private final SocketAddress hostAddress;
+  private final ByteBuffer packet = ByteBuffer.allocate(Protocol.MAX_PACKET_SIZE);
+  private final Snapshot[] snapshots = new Snapshot[SNAPSHOT_HISTORY];
+  private final Snapshot receivedSnapshot = new Snapshot();
+  private final PlayerInput.Action[] actions = new PlayerInput.Action[INPUT_HISTORY];
+  private final float[] targetYs = new float[INPUT_HISTORY];
+  private final PlayerInput replayedInput = new PlayerInput();
+  private final PaddlePredictor predictor =
+      new PaddlePredictor(PongSimulation.PLAYER_PADDLE_SPEED);
+  private Status status = Status.CONNECTING;
+  private int side = RIGHT;
+  private int tick;
+  private int lastReceiveTick;
+  private int inputSequence = -1;
+  private int lastInputSequence = -1;
+  private int newestSnapshotSequence = -1;
+  private float hostTick;
+  private float ballX;
+  private float ballY;
+  private float otherPaddleY;
+  private long bytesSent;
+  private long bytesReceived;
+  private int corrections;
+  private float correctionDistance;
+
+  /**
+   * Creates a new {@code MatchClient}, which starts connecting on its first tick.
+   *
+   * @param transport the {@link Transport} to send packets with
+   * @param hostAddress address of the {@link MatchHost}
+   */
+  public MatchClient(Transport transport, SocketAddress hostAddress) {
+    this.transport = transport;
+    this.hostAddress = hostAddress;
+    for (int i = 0; i < SNAPSHOT_HISTORY; i++) {
+      this.snapshots[i] = new Snapshot();
+      this.snapshots[i].sequence = -1;
+    }
+  }
+
+  @Override
+  public void tick(PlayerInput input) {
+    receive();
+    // a finished match stays finished, even once a server stops sending snapshots for it
+    if (status == Status.CONNECTING || status == Status.PLAYING) {
+      if (tick - lastReceiveTick > Protocol.TIMEOUT_TICKS) {
+        status = Status.DISCONNECTED;
+      }
+    }
+    if (status == Status.CONNECTING && tick % Protocol.CONNECT_INTERVAL_TICKS == 0) {
+      sendConnect();
+    } else if (status == Status.PLAYING) {
+      recordInput(input);
+      // step with the input as the host will see it, with the target rounded
+      loadInput(inputSequence, replayedInput);
+      predictor.step(Protocol.TICK_DURATION, replayedInput);
+      if (inputSequence % Protocol.INPUT_INTERVAL_TICKS == 0) {
+        sendInputs();
+      }
+    }
+    if (newestSnapshotSequence >= 0) {
+      hostTick++;
+      interpolate();
+    }
+    tick++;
+  }
+
+  private void receive() {
+    try {
+      SocketAddress address;
+      while ((address = transport.receive(packet)) != null) {
+        if (address.equals(hostAddress)) {
+          handlePacket();
+        }
+      }
+    } catch (IOException e) {
+      status = Status.DISCONNECTED;
+    }
+  }
+
+  /*
+   * Anything malformed is ignored.
+   */
+  private void handlePacket() {
+    int size = packet.remaining();
+    try {
+      int type = Protocol.readHeader(packet);
+      if (type < 0) {
+        return;
+      }
+      bytesReceived += size + Protocol.HEADER_OVERHEAD;
+      lastReceiveTick = tick;
+      if (type == Protocol.ACCEPT && status == Status.CONNECTING) {
+        side = (packet.get() == LEFT) ? LEFT : RIGHT;
+      } else if (type == Protocol.SNAPSHOT) {
+        readSnapshot();
+      } else if (type == Protocol.DISCONNECT && status != Status.FINISHED) {
+        status = Status.DISCONNECTED;
+      }
+    } catch (IllegalArgumentException e) {
+      // malformed, so ignore it
+    } catch (BufferUnderflowException e) {
+      // malformed, so ignore it
+    }
+  }
+
+  private void readSnapshot() {
+    if (status == Status.DISCONNECTED) {
+      return;
+    }
+    int baselineSequence = SnapshotCodec.readBaselineSequence(packet);
+    Snapshot baseline = null;
+    if (baselineSequence >= 0) {
+      baseline = snapshots[baselineSequence % SNAPSHOT_HISTORY];
+      if (baseline.sequence != baselineSequence) {
+        // no longer have what it was written against
+        return;
+      }
+    }
+    int lastInputSequence = SnapshotCodec.read(packet, baseline, receivedSnapshot);
+    if (receivedSnapshot.sequence <= newestSnapshotSequence) {
+      // arrived out of order, and a newer one has already been used
+      return;
+    }
+    Snapshot snapshot = snapshots[receivedSnapshot.sequence % SNAPSHOT_HISTORY];
+    snapshot.set(receivedSnapshot);
+    if (newestSnapshotSequence < 0
+        || Math.abs(snapshot.tick - hostTick) > MAX_HOST_TICK_ERROR) {
+      hostTick = snapshot.tick;
+    } else {
+      hostTick += (snapshot.tick - hostTick) * HOST_TICK_CORRECTION;
+    }
+    newestSnapshotSequence = snapshot.sequence;
+    if (status == Status.CONNECTING) {
+      status = Status.PLAYING;
+    }
+    if (snapshot.isGameOver()) {
+      status = Status.FINISHED;
+    }
+    reconcile(snapshot, lastInputSequence);
+  }
+
+  /*
+   * Puts the paddle where the host had it and applies the input the host
+   * hadn't used yet again.
+   */
+  private void reconcile(Snapshot snapshot, int lastInputSequence) {
+    this.lastInputSequence = Math.max(this.lastInputSequence, lastInputSequence);
+    float predictedY = predictor.getY();
+    predictor.reset(snapshot.getPaddleY(side), snapshot.getPaddleTargetY(side));
+    int first = Math.max(this.lastInputSequence + 1, inputSequence - INPUT_HISTORY + 1);
+    for (int sequence = first; sequence <= inputSequence; sequence++) {
+      loadInput(sequence, replayedInput);
+      predictor.step(Protocol.TICK_DURATION, replayedInput);
+    }
+    if (inputSequence >= 0) {
+      corrections++;
+      correctionDistance += Math.abs(predictor.getY() - predictedY);
+    }
+  }
+
+  private void recordInput(PlayerInput input) {
+    inputSequence++;
+    int index = inputSequence % INPUT_HISTORY;
+    actions[index] = input.getAction();
+    targetYs[index] = Protocol.fromFixedTarget(Protocol.toFixedTarget(input.getTargetY()));
+  }
+
+  private void loadInput(int sequence, PlayerInput input) {
+    int index = sequence % INPUT_HISTORY;
+    if (actions[index] == PlayerInput.Action.MOVE_TO) {
+      input.moveTo(targetYs[index]);
+    } else if (actions[index] == PlayerInput.Action.UP) {
+      input.moveUp();
+    } else if (actions[index] == PlayerInput.Action.DOWN) {
+      input.moveDown();
+    } else {
+      input.clear();
+    }
+  }
+
+  private void sendConnect() {
+    Protocol.writeHeader(packet, Protocol.CONNECT);
+    packet.put((byte) Protocol.VERSION);
+    send();
+  }
+
+  /*
+   * Every input the host hasn't used yet is sent again, as runs of the same
+   * input, so a lost packet is made up for by the next one.
+   */
+  private void sendInputs() {
+    int first = Math.max(lastInputSequence + 1, inputSequence - MAX_INPUTS_PER_PACKET + 1);
+    Protocol.writeHeader(packet, Protocol.INPUT);
+    Protocol.writeVarInt(packet, newestSnapshotSequence + 1);
+    Protocol.writeVarInt(packet, first);
+    int runsPosition = packet.position();
+    packet.put((byte) 0);
+    int runs = 0;
+    int targetY = 0;
+    int sequence = first;
+    while (sequence <= inputSequence && runs < 255
+        && packet.remaining() > Protocol.MAX_PACKET_SIZE / 4) {
+      int index = sequence % INPUT_HISTORY;
+      int ticks = 1;
+      while (ticks < Protocol.MAX_RUN_TICKS && sequence + ticks <= inputSequence
+          && isSameInput(index, sequence + ticks)) {
+        ticks++;
+      }
+      packet.put((byte) ((actions[index].ordinal() << Protocol.RUN_ACTION_SHIFT) | (ticks - 1)));
+      if (actions[index] == PlayerInput.Action.MOVE_TO) {
+        int runTargetY = Protocol.toFixedTarget(targetYs[index]);
+        Protocol.writeSignedVarInt(packet, runTargetY - targetY);
+        targetY = runTargetY;
+      }
+      runs++;
+      sequence += ticks;
+    }
+    packet.put(runsPosition, (byte) runs);
+    send();
+  }
+
+  private boolean isSameInput(int index, int sequence) {
+    int otherIndex = sequence % INPUT_HISTORY;
+    if (actions[index] != actions[otherIndex]) {
+      return false;
+    }
+    return actions[index] != PlayerInput.Action.MOVE_TO
+        || targetYs[index] == targetYs[otherIndex];
+  }
+
+  private void send() {
+    packet.flip();
+    bytesSent += packet.remaining() + Protocol.HEADER_OVERHEAD;
+    try {
+      transport.send(packet, hostAddress);
+    } catch (IOException e) {
+      status = Status.DISCONNECTED;
+    }
+  }
+
+  /*
+   * Blends between the snapshots either side of a point slightly in the
+   * past, or holds the newest if there isn't a newer one yet.
+   */
+  private void interpolate() {
+    float renderTick = hostTick - INTERPOLATION_DELAY_TICKS;
+    Snapshot before = null;
+    Snapshot after = null;
+    for (int i = 0; i < SNAPSHOT_HISTORY && i <= newestSnapshotSequence; i++) {
+      Snapshot snapshot = snapshots[(newestSnapshotSequence - i) % SNAPSHOT_HISTORY];
+      if (snapshot.sequence != newestSnapshotSequence - i) {
+        continue;
+      }
+      if (snapshot.tick <= renderTick) {
+        before = snapshot;
+        break;
+      }
+      after = snapshot;
+    }
+    if (before == null) {
+      // nothing old enough yet, so show the oldest there is
+      before = after;
+    }
+    if (after == null || after == before) {
+      setDrawnState(before, before, 0f);
+    } else {
+      setDrawnState(before, after, (renderTick - before.tick) / (after.tick - before.tick));
+    }
+  }
+
+  private void setDrawnState(Snapshot before, Snapshot after, float alpha) {
+    float beforeBallX = Protocol.fromFixed(before.fields[Snapshot.BALL_X]);
+    float beforeBallY = Protocol.fromFixed(before.fields[Snapshot.BALL_Y]);
+    float afterBallX = Protocol.fromFixed(after.fields[Snapshot.BALL_X]);
+    float afterBallY = Protocol.fromFixed(after.fields[Snapshot.BALL_Y]);
+    if (Math.abs(afterBallX - beforeBallX) > MAX_BALL_BLEND_DISTANCE) {
+      alpha = (alpha < 1f) ? 0f : 1f;
+    }
+    ballX = beforeBallX + (afterBallX - beforeBallX) * alpha;
+    ballY = beforeBallY + (afterBallY - beforeBallY) * alpha;
+    int otherSide = (side == LEFT) ? RIGHT : LEFT;
+    float beforePaddleY = before.getPaddleY(otherSide);
+    otherPaddleY = beforePaddleY + (after.getPaddleY(otherSide) - beforePaddleY) * alpha;
+  }
+
+  @Override
+  public Status getStatus() {
+    return status;
+  }
+
+  @Override
+  public int getLocalSide() {
+    return side;
+  }
+
+  @Override
+  public float getBallX() {
+    return ballX;
+  }
+
+  @Override
+  public float getBallY() {
+    return ballY;
+  }
+
+  @Override
+  public float getPaddleY(int side) {
+    return (side == this.side) ? predictor.getY() : otherPaddleY;
+  }
+
+  /*
+   * Scores are shown as soon as they arrive, rather than when the ball is
+   * drawn going out.
+   */
+  @Override
+  public int getScore(int side) {
+    if (newestSnapshotSequence < 0) {
+      return 0;
+    }
+    return snapshots[newestSnapshotSequence % SNAPSHOT_HISTORY].getScore(side);
+  }
+
+  /**
+   * @return bytes sent to the host, including UDP and IP headers
+   */
+  public long getBytesSent() {
+    return bytesSent;
+  }
+
+  /**
+   * @return bytes received from the host, including UDP and IP headers
+   */
+  public long getBytesReceived() {
+    return bytesReceived;
+  }
+
+  /**
+   * @return how many times the predicted paddle has been checked against a snapshot
+   */
+  public int getCorrections() {
+    return corrections;
+  }
+
+  /**
+   * @return the mean distance the predicted paddle was moved by when checked against a snapshot
+   */
+  public float getMeanCorrectionDistance() {
+    return (corrections == 0) ? 0f : correctionDistance / corrections;
+  }
+
+  @Override
+  public void close() {
+    if (status != Status.DISCONNECTED) {
+      Protocol.writeHeader(packet, Protocol.DISCONNECT);
+      send();
+      status = Status.DISCONNECTED;
+    }
+    transport.close();
+  }
+}
@@ -0,0 +1,349 @@
+package lowe.mike.blueprintpong.net;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import lowe.mike.blueprintpong.simulation.PlayerInput;
+import lowe.mike.blueprintpong.simulation.PongSimulation;
+
+/**
+ * {@code MatchHost} runs a networked match. It holds the only {@link PongSimulation}, so it alone
+ * decides where the ball goes and who scores, and clients are told the result in snapshots.
+ * <p>
+ * Clients send their input for every tick, which is used in order one a tick, and each snapshot
+ * tells a client the last of its inputs that was used so it can correct its own prediction. A
+ * snapshot is written against the newest snapshot that client has said it received, so only what
+ * has changed since is sent.
+ * <p>
+ * A host can have a local player on the left, whose input is passed straight to {@link
+ * #tick(PlayerInput)}, or two remote players. Packets can be received from a {@link Transport}
+ * of its own with {@link #receive()}, or handed over with {@link #handlePacket(ByteBuffer,
+ * SocketAddress)} by a server that shares one {@link Transport} between several matches.
+ * <p>
+ * Any number of spectators can watch as well, through a {@link SpectatorFeed}.
+ *
+ * @author Mike Lowe
+ */
+public final class MatchHost implements NetworkMatch {
+
+  /*
+   * Snapshots kept to write new ones against, by sequence number. More
+   * than 1.5 seconds without hearing from a client and it gets the whole
+   * state again.
+   */
+  private static final int SNAPSHOT_HISTORY = 32;
+
+  private final Transport transport;
+  private final boolean hasLocalPlayer;
+  private final PongSimulation simulation;
+  private final RemotePlayer[] players = new RemotePlayer[2];
+  private final Snapshot[] snapshots = new Snapshot[SNAPSHOT_HISTORY];
+  private final SpectatorFeed spectators;
+  private final ByteBuffer packet = ByteBuffer.allocate(Protocol.MAX_PACKET_SIZE);
+  private Status status = Status.CONNECTING;
+  private int tick;
+  private int snapshotSequence = -1;
+
+  /**
+   * Creates a new {@code MatchHost}.
+   *
+   * @param transport the {@link Transport} to send packets with
+   * @param seed seed for the serves
+   * @param hasLocalPlayer {@code true} if the left paddle is played on this end, {@code false} if
+   *     both players are remote
+   */
+  public MatchHost(Transport transport, long seed, boolean hasLocalPlayer) {
+    this.transport = transport;
+    this.hasLocalPlayer = hasLocalPlayer;
+    this.simulation = new PongSimulation(seed);
+    this.spectators = new SpectatorFeed(transport);
+    // a remote player on the right has the same paddle as the player on the left
+    this.simulation.setComputerPaddleSpeed(PongSimulation.PLAYER_PADDLE_SPEED);
+    for (int i = 0; i < SNAPSHOT_HISTORY; i++) {
+      this.snapshots[i] = new Snapshot();
+      this.snapshots[i].sequence = -1;
+    }
+  }
+
+  /**
+   * Receives and handles every packet waiting on the {@link Transport}.
+   */
+  public void receive() {
+    try {
+      SocketAddress address;
+      while ((address = transport.receive(packet)) != null) {
+        handlePacket(packet, address);
+      }
+    } catch (IOException e) {
+      disconnect();
+    }
+  }
+
+  /**
+   * Handles a packet received for this match.
+   *
+   * @param received the packet, ready to be read
+   * @param address where the packet came from
+   * @return {@code true} if the packet was from a player or spectator in this match, or was a
+   *     connect or watch packet
+   */
+  public boolean handlePacket(ByteBuffer received, SocketAddress address) {
+    int size = received.remaining();
+    try {
+      int type = Protocol.readHeader(received);
+      RemotePlayer player = getPlayer(address);
+      if (type == Protocol.CONNECT) {
+        return handleConnect(received, address, player, size);
+      }
+      if (player == null) {
+        return handleSpectatorPacket(received, address, type);
+      }
+      player.received(size, tick);
+      if (type == Protocol.INPUT) {
+        player.readInputs(received);
+      } else if (type == Protocol.DISCONNECT) {
+        playerLeft(player);
+      }
+      return true;
+    } catch (IllegalArgumentException e) {
+      // malformed, so ignore it
+      return true;
+    } catch (BufferUnderflowException e) {
+      return true;
+    }
+  }
+
+  private boolean handleSpectatorPacket(ByteBuffer received, SocketAddress address, int type) {
+    if (type == Protocol.WATCH) {
+      // a match that is over has nothing more to show
+      if (status == Status.DISCONNECTED) {
+        return false;
+      }
+      spectators.watch(received, address, tick, status != Status.CONNECTING);
+      return true;
+    }
+    return type == Protocol.DISCONNECT && spectators.leave(address);
+  }
+
+  private RemotePlayer getPlayer(SocketAddress address) {
+    for (RemotePlayer player : players) {
+      if (player != null && player.address.equals(address)) {
+        return player;
+      }
+    }
+    return null;
+  }
+
+  private boolean handleConnect(ByteBuffer received,
+      SocketAddress address,
+      RemotePlayer player,
+      int size) {
+    int version = received.get() & 0xFF;
+    if (player == null) {
+      int side = getFreeSide();
+      if (version != Protocol.VERSION || side < 0 || status != Status.CONNECTING) {
+        return false;
+      }
+      player = new RemotePlayer(address, side, tick);
+      players[side] = player;
+    }
+    player.received(size, tick);
+    // sent again for every connect, in case the first was lost
+    Protocol.writeHeader(packet, Protocol.ACCEPT);
+    packet.put((byte) player.side);
+    packet.flip();
+    send(player);
+    return true;
+  }
+
+  private int getFreeSide() {
+    if (players[LEFT] == null && !hasLocalPlayer) {
+      return LEFT;
+    }
+    if (players[RIGHT] == null) {
+      return RIGHT;
+    }
+    return -1;
+  }
+
+  private void playerLeft(RemotePlayer player) {
+    if (status == Status.CONNECTING) {
+      // match hasn't started, so the place can be taken again
+      players[player.side] = null;
+    } else if (status == Status.PLAYING) {
+      disconnect();
+    }
+  }
+
+  private void disconnect() {
+    status = Status.DISCONNECTED;
+    spectators.disconnectAll();
+    for (RemotePlayer player : players) {
+      if (player != null) {
+        Protocol.writeHeader(packet, Protocol.DISCONNECT);
+        packet.flip();
+        send(player);
+      }
+    }
+  }
+
+  /**
+   * Advances the match by one tick. Receiving packets is left to {@link #receive()} or {@link
+   * #handlePacket(ByteBuffer, SocketAddress)}.
+   *
+   * @param input what the local player wants their paddle to do, or {@code null} if there isn't a
+   *     local player
+   */
+  public void step(PlayerInput input) {
+    checkTimeouts();
+    if (status == Status.CONNECTING && players[RIGHT] != null
+        && (hasLocalPlayer || players[LEFT] != null)) {
+      status = Status.PLAYING;
+    }
+    if (status == Status.PLAYING) {
+      PlayerInput leftInput = hasLocalPlayer ? input : nextInput(players[LEFT]);
+      simulation.step(Protocol.TICK_DURATION, leftInput, nextInput(players[RIGHT]));
+      if (simulation.isGameOver()) {
+        status = Status.FINISHED;
+      }
+    }
+    // keep sending once finished, so a lost last snapshot doesn't leave a client waiting
+    if (status == Status.PLAYING || status == Status.FINISHED) {
+      if (tick % Protocol.SNAPSHOT_INTERVAL_TICKS == 0) {
+        sendSnapshots();
+      }
+      spectators.sendFrames(simulation, tick);
+    }
+    tick++;
+  }
+
+  @Override
+  public void tick(PlayerInput input) {
+    receive();
+    step(input);
+  }
+
+  private static PlayerInput nextInput(RemotePlayer player) {
+    player.nextInput();
+    return player.input;
+  }
+
+  private void checkTimeouts() {
+    for (RemotePlayer player : players) {
+      if (player != null && tick - player.getLastReceiveTick() > Protocol.TIMEOUT_TICKS) {
+        playerLeft(player);
+      }
+    }
+  }
+
+  private void sendSnapshots() {
+    snapshotSequence++;
+    Snapshot snapshot = snapshots[snapshotSequence % SNAPSHOT_HISTORY];
+    snapshot.set(simulation, snapshotSequence, tick);
+    for (RemotePlayer player : players) {
+      if (player != null) {
+        SnapshotCodec.write(packet, snapshot, getBaseline(player), player.getLastInputSequence());
+        packet.flip();
+        send(player);
+      }
+    }
+  }
+
+  private Snapshot getBaseline(RemotePlayer player) {
+    int sequence = player.getAckedSnapshotSequence();
+    if (sequence < 0 || snapshotSequence - sequence >= SNAPSHOT_HISTORY) {
+      return null;
+    }
+    Snapshot baseline = snapshots[sequence % SNAPSHOT_HISTORY];
+    return (baseline.sequence == sequence) ? baseline : null;
+  }
+
+  private void send(RemotePlayer player) {
+    player.sent(packet.remaining());
+    try {
+      transport.send(packet, player.address);
+    } catch (IOException e) {
+      status = Status.DISCONNECTED;
+    }
+  }
+
+  @Override
+  public Status getStatus() {
+    return status;
+  }
+
+  @Override
+  public int getLocalSide() {
+    return LEFT;
+  }
+
+  @Override
+  public float getBallX() {
+    return simulation.getBallX();
+  }
+
+  @Override
+  public float getBallY() {
+    return simulation.getBallY();
+  }
+
+  @Override
+  public float getPaddleY(int side) {
+    return (side == LEFT) ? simulation.getPlayerPaddleY() : simulation.getComputerPaddleY();
+  }
+
+  @Override
+  public int getScore(int side) {
+    return (side == LEFT) ? simulation.getPlayerScore() : simulation.getComputerScore();
+  }
+
+  /**
+   * @return the {@link SpectatorFeed} sending this match to spectators
+   */
+  public SpectatorFeed getSpectators() {
+    return spectators;
+  }
+
+  /**
+   * @return the host tick, which goes up by one every {@link #step(PlayerInput)}
+   */
+  public int getTick() {
+    return tick;
+  }
+
+  /**
+   * @param address where a player's packets come from
+   * @return {@code true} if that player has been given a side and hasn't been dropped while
+   *     waiting for the match to start
+   */
+  public boolean hasPlayer(SocketAddress address) {
+    return getPlayer(address) != null;
+  }
+
+  /**
+   * @param side {@link #LEFT} or {@link #RIGHT}
+   * @return bytes sent to the remote player on that side, including UDP and IP headers, or 0 if
+   *     there isn't one
+   */
+  public long getBytesSent(int side) {
+    return (players[side] == null) ? 0 : players[side].getBytesSent();
+  }
+
+  /**
+   * @param side {@link #LEFT} or {@link #RIGHT}
+   * @return bytes received from the remote player on that side, including UDP and IP headers, or
+   *     0 if there isn't one
+   */
+  public long getBytesReceived(int side) {
+    return (players[side] == null) ? 0 : players[side].getBytesReceived();
+  }
+
+  @Override
+  public void close() {
+    if (status != Status.DISCONNECTED) {
+      disconnect();
+    }
+    transport.close();
+  }
+}
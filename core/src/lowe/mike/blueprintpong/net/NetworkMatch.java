@@ -0,0 +1,97 @@
+package lowe.mike.blueprintpong.net;
+
+import lowe.mike.blueprintpong.simulation.PlayerInput;
+
+/**
+ * {@code NetworkMatch} is one end of a networked match as seen by a local player, whether that
+ * end is the host running the match or a client following it. The game steps it once a tick with
+ * the local player's input and draws what it returns.
+ *
+ * @author Mike Lowe
+ */
+public interface NetworkMatch {
+
+  /**
+   * The side with the paddle on the left of the court.
+   */
+  int LEFT = 0;
+
+  /**
+   * The side with the paddle on the right of the court.
+   */
+  int RIGHT = 1;
+
+  /**
+   * The side of someone watching a match rather than playing in it.
+   */
+  int SPECTATOR = -1;
+
+  /**
+   * The different states a match can be in.
+   */
+  enum Status {
+    /**
+     * Waiting for the other player to connect.
+     */
+    CONNECTING,
+    /**
+     * Both players are connected and the match is being played.
+     */
+    PLAYING,
+    /**
+     * One side has reached the winning score.
+     */
+    FINISHED,
+    /**
+     * The other player has left or can no longer be reached.
+     */
+    DISCONNECTED
+  }
+
+  /**
+   * Sends and receives what is waiting and advances the match by one tick of {@link
+   * Protocol#TICK_DURATION}.
+   *
+   * @param input what the local player wants their paddle to do, which is ignored if they are
+   *     only watching
+   */
+  void tick(PlayerInput input);
+
+  /**
+   * @return the {@link Status} of the match
+   */
+  Status getStatus();
+
+  /**
+   * @return the side the local player plays, {@link #LEFT} or {@link #RIGHT}, or {@link
+   *     #SPECTATOR} if they are only watching
+   */
+  int getLocalSide();
+
+  /**
+   * @return x position of the ball to draw
+   */
+  float getBallX();
+
+  /**
+   * @return y position of the ball to draw
+   */
+  float getBallY();
+
+  /**
+   * @param side {@link #LEFT} or {@link #RIGHT}
+   * @return y position of that side's paddle to draw
+   */
+  float getPaddleY(int side);
+
+  /**
+   * @param side {@link #LEFT} or {@link #RIGHT}
+   * @return that side's score
+   */
+  int getScore(int side);
+
+  /**
+   * Tells the other end the local player is leaving and closes the {@link Transport}.
+   */
+  void close();
+}
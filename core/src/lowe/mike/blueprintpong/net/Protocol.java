@@ -0,0 +1,220 @@
+package lowe.mike.blueprintpong.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Constants and encoding helpers shared by both ends of a networked match.
+ * <p>
+ * Every packet starts with the magic number and a packet type, all big-endian:
+ * <ul>
+ * <li>connect: protocol version, sent by a client until it is accepted</li>
+ * <li>accept: the side the client plays</li>
+ * <li>input: newest snapshot received, first input sequence number, number of runs, then runs of
+ * the same input, each a byte holding the action and number of ticks, followed by the change in
+ * target y since the previous run's target (only for {@code MOVE_TO})</li>
+ * <li>snapshot: see {@link SnapshotCodec}</li>
+ * <li>disconnect: no body</li>
+ * <li>watch: protocol version and the number of snapshots received so far, sent by a spectator
+ * until it leaves</li>
+ * </ul>
+ * Spectators are accepted with a side of -1, and sent snapshots written against nothing, so the
+ * same packet can go to all of them.
+ * Positions are sent as fixed point numbers, {@link #POSITION_SCALE} to a unit, targets more
+ * coarsely at {@link #TARGET_SCALE} to a unit, and counts and changes as variable length integers,
+ * so most packets are a few tens of bytes.
+ * <p>
+ * Instances of {@code Protocol} cannot be created.
+ *
+ * @author Mike Lowe
+ */
+public final class Protocol {
+
+  /**
+   * Port a host listens on unless told otherwise.
+   */
+  public static final int DEFAULT_PORT = 27960;
+
+  /**
+   * Simulation ticks per second, the same as the single player game.
+   */
+  public static final int TICKS_PER_SECOND = 120;
+
+  /**
+   * Length of a simulation tick in seconds.
+   */
+  public static final float TICK_DURATION = 1f / TICKS_PER_SECOND;
+
+  static final int MAGIC = 0x4250; // "BP"
+  static final int VERSION = 1;
+  static final int CONNECT = 1;
+  static final int ACCEPT = 2;
+  static final int INPUT = 3;
+  static final int SNAPSHOT = 4;
+  static final int DISCONNECT = 5;
+  static final int WATCH = 6;
+
+  /*
+   * A host sends a snapshot and a client sends its input every 6 ticks (20
+   * a second), which is plenty with prediction and interpolation hiding the
+   * gaps.
+   */
+  static final int SNAPSHOT_INTERVAL_TICKS = 6;
+  static final int INPUT_INTERVAL_TICKS = 6;
+
+  /*
+   * A connect packet is sent again this often until it is accepted.
+   */
+  static final int CONNECT_INTERVAL_TICKS = TICKS_PER_SECOND / 2;
+
+  /*
+   * A spectator sends a watch packet this often, to say it is still
+   * watching and how well snapshots are reaching it.
+   */
+  static final int WATCH_INTERVAL_TICKS = TICKS_PER_SECOND / 2;
+
+  /*
+   * A player is dropped if nothing is heard from them for this long.
+   */
+  static final int TIMEOUT_TICKS = 5 * TICKS_PER_SECOND;
+
+  /**
+   * Largest packet either end sends. No packet comes close to this, so it never fragments.
+   */
+  public static final int MAX_PACKET_SIZE = 512;
+
+  /*
+   * Positions are rounded to 1/64 of a unit, far finer than a pixel, which
+   * keeps every position in the court within a short.
+   */
+  static final float POSITION_SCALE = 64f;
+
+  /*
+   * Targets are rounded to 1/8 of a unit, still less than a pixel, so
+   * following a finger changes a target by a byte's worth a tick.
+   */
+  static final float TARGET_SCALE = 8f;
+
+  /*
+   * Each run of inputs packs the action into the top 2 bits of a byte and
+   * the number of ticks, less 1, into the rest.
+   */
+  static final int MAX_RUN_TICKS = 64;
+  static final int RUN_ACTION_SHIFT = 6;
+
+  /*
+   * Sizes of the UDP and IPv4 headers, to count what a packet really costs.
+   */
+  static final int HEADER_OVERHEAD = 28;
+
+  // don't want instances
+  private Protocol() {
+  }
+
+  /**
+   * Starts a packet.
+   *
+   * @param packet the buffer to write into, which is cleared first
+   * @param type the packet type
+   */
+  static void writeHeader(ByteBuffer packet, int type) {
+    packet.clear();
+    packet.putShort((short) MAGIC);
+    packet.put((byte) type);
+  }
+
+  /**
+   * Reads the start of a packet.
+   *
+   * @param packet the received packet, ready to be read
+   * @return the packet type, or -1 if it isn't a packet of this protocol
+   */
+  static int readHeader(ByteBuffer packet) {
+    if (packet.remaining() < 3 || (packet.getShort() & 0xFFFF) != MAGIC) {
+      return -1;
+    }
+    return packet.get() & 0xFF;
+  }
+
+  /**
+   * Checks whether a received packet asks to join a match, without reading any of it, so a server
+   * can decide which match to hand it to.
+   *
+   * @param packet the received packet, ready to be read
+   * @return {@code true} if it is a connect packet
+   */
+  public static boolean isConnect(ByteBuffer packet) {
+    int position = packet.position();
+    int type = readHeader(packet);
+    packet.position(position);
+    return type == CONNECT;
+  }
+
+  /**
+   * Writes a disconnect packet, which a server sends to turn away a player it has no room for.
+   *
+   * @param packet the buffer to write into, which is left ready to send
+   */
+  public static void writeDisconnect(ByteBuffer packet) {
+    writeHeader(packet, DISCONNECT);
+    packet.flip();
+  }
+
+  static int toFixed(float position) {
+    return Math.round(position * POSITION_SCALE);
+  }
+
+  static float fromFixed(int position) {
+    return position / POSITION_SCALE;
+  }
+
+  static int toFixedTarget(float targetY) {
+    return Math.round(targetY * TARGET_SCALE);
+  }
+
+  static float fromFixedTarget(int targetY) {
+    return targetY / TARGET_SCALE;
+  }
+
+  /*
+   * 7 bits per byte with the top bit set on all but the last byte, so small
+   * values take a single byte.
+   */
+  static void writeVarInt(ByteBuffer packet, int value) {
+    while ((value & ~0x7F) != 0) {
+      packet.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    packet.put((byte) value);
+  }
+
+  /**
+   * @throws IllegalArgumentException if the value runs past the end of the packet or is too long
+   */
+  static int readVarInt(ByteBuffer packet) {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      if (!packet.hasRemaining()) {
+        throw new IllegalArgumentException("Packet ends in the middle of a value");
+      }
+      int b = packet.get();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Value is too long");
+  }
+
+  /*
+   * Zig-zag encoding maps small negative numbers to small positive ones, so
+   * a change in either direction stays short.
+   */
+  static void writeSignedVarInt(ByteBuffer packet, int value) {
+    writeVarInt(packet, (value << 1) ^ (value >> 31));
+  }
+
+  static int readSignedVarInt(ByteBuffer packet) {
+    int value = readVarInt(packet);
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
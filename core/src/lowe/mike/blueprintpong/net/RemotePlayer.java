@@ -0,0 +1,175 @@
+package lowe.mike.blueprintpong.net;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import lowe.mike.blueprintpong.simulation.PlayerInput;
+
+/**
+ * A player connected to a {@link MatchHost} over the network, with the input they have sent that
+ * hasn't been used yet.
+ * <p>
+ * Each tick of input a client sends has a sequence number, and the host uses one a tick in order.
+ * If the next one hasn't arrived the previous input is held, and if too many build up the oldest
+ * are skipped, so a burst of lag doesn't leave the player's paddle lagging for good.
+ *
+ * @author Mike Lowe
+ */
+final class RemotePlayer {
+
+  /*
+   * Inputs kept for each player, by sequence number. More than a client
+   * ever sends in one packet.
+   */
+  static final int INPUT_HISTORY = 256;
+
+  /*
+   * Most ticks of input that can be waiting before the oldest are skipped,
+   * 100 ms at 120 ticks a second.
+   */
+  private static final int MAX_WAITING_INPUTS = 12;
+
+  private static final PlayerInput.Action[] ACTIONS = PlayerInput.Action.values();
+
+  final SocketAddress address;
+  final int side;
+  final PlayerInput input = new PlayerInput();
+  private final int[] sequences = new int[INPUT_HISTORY];
+  private final PlayerInput.Action[] actions = new PlayerInput.Action[INPUT_HISTORY];
+  private final float[] targetYs = new float[INPUT_HISTORY];
+  private int nextInputSequence;
+  private int newestInputSequence = -1;
+  private int lastInputSequence = -1;
+  private int ackedSnapshotSequence = -1;
+  private int lastReceiveTick;
+  private long bytesSent;
+  private long bytesReceived;
+
+  RemotePlayer(SocketAddress address, int side, int tick) {
+    this.address = address;
+    this.side = side;
+    this.lastReceiveTick = tick;
+    for (int i = 0; i < INPUT_HISTORY; i++) {
+      sequences[i] = -1;
+    }
+  }
+
+  /**
+   * Notes that a packet has been received from this player.
+   *
+   * @param size size of the packet, in bytes
+   * @param tick the host tick it was received in
+   */
+  void received(int size, int tick) {
+    bytesReceived += size + Protocol.HEADER_OVERHEAD;
+    lastReceiveTick = tick;
+  }
+
+  /**
+   * Notes that a packet has been sent to this player.
+   *
+   * @param size size of the packet, in bytes
+   */
+  void sent(int size) {
+    bytesSent += size + Protocol.HEADER_OVERHEAD;
+  }
+
+  /**
+   * Reads an input packet, keeping any input that hasn't been used yet.
+   *
+   * @param packet the packet, positioned after the header
+   * @throws IllegalArgumentException if the packet is malformed
+   */
+  void readInputs(ByteBuffer packet) {
+    int ackedSnapshotSequence = Protocol.readVarInt(packet) - 1;
+    if (ackedSnapshotSequence > this.ackedSnapshotSequence) {
+      this.ackedSnapshotSequence = ackedSnapshotSequence;
+    }
+    int sequence = Protocol.readVarInt(packet);
+    int runs = packet.get() & 0xFF;
+    int targetY = 0;
+    for (int i = 0; i < runs; i++) {
+      int run = packet.get() & 0xFF;
+      PlayerInput.Action action = ACTIONS[run >>> Protocol.RUN_ACTION_SHIFT];
+      int ticks = (run & (Protocol.MAX_RUN_TICKS - 1)) + 1;
+      if (action == PlayerInput.Action.MOVE_TO) {
+        targetY += Protocol.readSignedVarInt(packet);
+      }
+      for (int j = 0; j < ticks; j++, sequence++) {
+        storeInput(sequence, action, Protocol.fromFixedTarget(targetY));
+      }
+    }
+  }
+
+  private void storeInput(int sequence, PlayerInput.Action action, float targetY) {
+    // already used, or too far ahead to keep
+    if (sequence < nextInputSequence || sequence >= nextInputSequence + INPUT_HISTORY) {
+      return;
+    }
+    int index = sequence % INPUT_HISTORY;
+    sequences[index] = sequence;
+    actions[index] = action;
+    targetYs[index] = targetY;
+    newestInputSequence = Math.max(newestInputSequence, sequence);
+  }
+
+  /**
+   * Moves {@link #input} on to this player's input for the next tick.
+   */
+  void nextInput() {
+    if (newestInputSequence - nextInputSequence >= MAX_WAITING_INPUTS) {
+      // too far behind the client, so catch up rather than adding lag
+      nextInputSequence = newestInputSequence - MAX_WAITING_INPUTS + 1;
+    }
+    int index = nextInputSequence % INPUT_HISTORY;
+    if (sequences[index] != nextInputSequence) {
+      // hasn't arrived yet, so the last input is held
+      return;
+    }
+    if (actions[index] == PlayerInput.Action.MOVE_TO) {
+      input.moveTo(targetYs[index]);
+    } else if (actions[index] == PlayerInput.Action.UP) {
+      input.moveUp();
+    } else if (actions[index] == PlayerInput.Action.DOWN) {
+      input.moveDown();
+    } else {
+      input.clear();
+    }
+    lastInputSequence = nextInputSequence;
+    nextInputSequence++;
+  }
+
+  /**
+   * @return sequence number of the last input used, or -1 if none have been
+   */
+  int getLastInputSequence() {
+    return lastInputSequence;
+  }
+
+  /**
+   * @return sequence number of the newest snapshot this player has received, or -1 if none
+   */
+  int getAckedSnapshotSequence() {
+    return ackedSnapshotSequence;
+  }
+
+  /**
+   * @return the host tick the last packet from this player was received in
+   */
+  int getLastReceiveTick() {
+    return lastReceiveTick;
+  }
+
+  /**
+   * @return bytes sent to this player, including UDP and IP headers
+   */
+  long getBytesSent() {
+    return bytesSent;
+  }
+
+  /**
+   * @return bytes received from this player, including UDP and IP headers
+   */
+  long getBytesReceived() {
+    return bytesReceived;
+  }
+}
@@ -0,0 +1,87 @@
+package lowe.mike.blueprintpong.net;
+
+import lowe.mike.blueprintpong.simulation.PongSimulation;
+
+/**
+ * The state of a networked match at one tick, as sent from the host to the clients. Positions are
+ * held in the fixed point form they are sent in, so a host and client compare and difference the
+ * same numbers.
+ * <p>
+ * The left side is the {@link PongSimulation}'s player paddle and the right side its computer
+ * paddle. Instances are mutable so they can be reused from tick to tick.
+ *
+ * @author Mike Lowe
+ */
+final class Snapshot {
+
+  static final int BALL_X = 0;
+  static final int BALL_Y = 1;
+  static final int LEFT_PADDLE_Y = 2;
+  static final int LEFT_PADDLE_TARGET_Y = 3;
+  static final int RIGHT_PADDLE_Y = 4;
+  static final int RIGHT_PADDLE_TARGET_Y = 5;
+  static final int LEFT_SCORE = 6;
+  static final int RIGHT_SCORE = 7;
+  static final int GAME_OVER = 8;
+  static final int FIELD_COUNT = 9;
+
+  final int[] fields = new int[FIELD_COUNT];
+  int sequence;
+  int tick;
+
+  /**
+   * Takes the state of a {@link PongSimulation}.
+   *
+   * @param simulation the {@link PongSimulation}
+   * @param sequence the number of this snapshot
+   * @param tick the tick the {@link PongSimulation} is at
+   */
+  void set(PongSimulation simulation, int sequence, int tick) {
+    this.sequence = sequence;
+    this.tick = tick;
+    fields[BALL_X] = Protocol.toFixed(simulation.getBallX());
+    fields[BALL_Y] = Protocol.toFixed(simulation.getBallY());
+    fields[LEFT_PADDLE_Y] = Protocol.toFixed(simulation.getPlayerPaddleY());
+    fields[LEFT_PADDLE_TARGET_Y] = Protocol.toFixed(simulation.getPlayerPaddleTargetY());
+    fields[RIGHT_PADDLE_Y] = Protocol.toFixed(simulation.getComputerPaddleY());
+    fields[RIGHT_PADDLE_TARGET_Y] = Protocol.toFixed(simulation.getComputerPaddleTargetY());
+    fields[LEFT_SCORE] = simulation.getPlayerScore();
+    fields[RIGHT_SCORE] = simulation.getComputerScore();
+    fields[GAME_OVER] = simulation.isGameOver() ? 1 : 0;
+  }
+
+  void set(Snapshot snapshot) {
+    sequence = snapshot.sequence;
+    tick = snapshot.tick;
+    System.arraycopy(snapshot.fields, 0, fields, 0, FIELD_COUNT);
+  }
+
+  /**
+   * @param side {@link NetworkMatch#LEFT} or {@link NetworkMatch#RIGHT}
+   * @return y position of that side's paddle
+   */
+  float getPaddleY(int side) {
+    return Protocol.fromFixed(fields[(side == NetworkMatch.LEFT) ? LEFT_PADDLE_Y : RIGHT_PADDLE_Y]);
+  }
+
+  /**
+   * @param side {@link NetworkMatch#LEFT} or {@link NetworkMatch#RIGHT}
+   * @return y position that side's paddle is moving towards
+   */
+  float getPaddleTargetY(int side) {
+    return Protocol.fromFixed(
+        fields[(side == NetworkMatch.LEFT) ? LEFT_PADDLE_TARGET_Y : RIGHT_PADDLE_TARGET_Y]);
+  }
+
+  /**
+   * @param side {@link NetworkMatch#LEFT} or {@link NetworkMatch#RIGHT}
+   * @return that side's score
+   */
+  int getScore(int side) {
+    return fields[(side == NetworkMatch.LEFT) ? LEFT_SCORE : RIGHT_SCORE];
+  }
+
+  boolean isGameOver() {
+    return fields[GAME_OVER] != 0;
+  }
+}
@@ -0,0 +1,110 @@
+package lowe.mike.blueprintpong.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes and reads {@link Snapshot}s as the differences from a baseline snapshot the receiver is
+ * known to have, so only what has changed is sent and a change takes as few bytes as it can.
+ * <p>
+ * A snapshot packet body is, all variable length integers:
+ * <ul>
+ * <li>sequence number of the snapshot</li>
+ * <li>how many snapshots back the baseline is, or 0 if there isn't one and the differences are
+ * from zero</li>
+ * <li>sequence number of the last input from the receiver that the snapshot includes, plus 1 so
+ * none is 0</li>
+ * <li>the host tick</li>
+ * <li>a bit mask of the fields that have changed</li>
+ * <li>the change to each of those fields, zig-zag encoded</li>
+ * </ul>
+ * Between snapshots the paddles' targets and the scores rarely change, so most snapshots only
+ * carry the ball and whichever paddles are moving.
+ * <p>
+ * Instances of {@code SnapshotCodec} cannot be created.
+ *
+ * @author Mike Lowe
+ */
+final class SnapshotCodec {
+
+  // don't want instances
+  private SnapshotCodec() {
+  }
+
+  /**
+   * Writes a snapshot packet.
+   *
+   * @param packet the buffer to write into, which is cleared first
+   * @param snapshot the {@link Snapshot} to send
+   * @param baseline a {@link Snapshot} the receiver has, or {@code null} to send everything
+   * @param lastInputSequence sequence number of the last input from the receiver that was used,
+   *     or -1 if there hasn't been one
+   */
+  static void write(ByteBuffer packet,
+      Snapshot snapshot,
+      Snapshot baseline,
+      int lastInputSequence) {
+    Protocol.writeHeader(packet, Protocol.SNAPSHOT);
+    Protocol.writeVarInt(packet, snapshot.sequence);
+    Protocol.writeVarInt(packet, (baseline == null) ? 0 : snapshot.sequence - baseline.sequence);
+    Protocol.writeVarInt(packet, lastInputSequence + 1);
+    Protocol.writeVarInt(packet, snapshot.tick);
+    int mask = 0;
+    for (int i = 0; i < Snapshot.FIELD_COUNT; i++) {
+      if (snapshot.fields[i] != getBaselineField(baseline, i)) {
+        mask |= 1 << i;
+      }
+    }
+    Protocol.writeVarInt(packet, mask);
+    for (int i = 0; i < Snapshot.FIELD_COUNT; i++) {
+      if ((mask & (1 << i)) != 0) {
+        Protocol.writeSignedVarInt(packet, snapshot.fields[i] - getBaselineField(baseline, i));
+      }
+    }
+  }
+
+  private static int getBaselineField(Snapshot baseline, int field) {
+    return (baseline == null) ? 0 : baseline.fields[field];
+  }
+
+  /**
+   * Reads which snapshot a snapshot packet was written against without reading the rest of it, so
+   * the baseline can be looked up.
+   *
+   * @param packet the packet, positioned after the header
+   * @return sequence number of the baseline, or -1 if there isn't one
+   * @throws IllegalArgumentException if the packet is malformed
+   */
+  static int readBaselineSequence(ByteBuffer packet) {
+    int position = packet.position();
+    int sequence = Protocol.readVarInt(packet);
+    int distance = Protocol.readVarInt(packet);
+    packet.position(position);
+    return (distance == 0) ? -1 : sequence - distance;
+  }
+
+  /**
+   * Reads a snapshot packet.
+   *
+   * @param packet the packet, positioned after the header
+   * @param baseline the {@link Snapshot} it was written against, or {@code null} if it wasn't
+   * @param snapshot the {@link Snapshot} to read into
+   * @return sequence number of the last input from this end that the snapshot includes, or -1 if
+   *     there hasn't been one
+   * @throws IllegalArgumentException if the packet is malformed
+   */
+  static int read(ByteBuffer packet, Snapshot baseline, Snapshot snapshot) {
+    snapshot.sequence = Protocol.readVarInt(packet);
+    Protocol.readVarInt(packet);
+    int lastInputSequence = Protocol.readVarInt(packet) - 1;
+    snapshot.tick = Protocol.readVarInt(packet);
+    int mask = Protocol.readVarInt(packet);
+    for (int i = 0; i < Snapshot.FIELD_COUNT; i++) {
+      int field = getBaselineField(baseline, i);
+      if ((mask & (1 << i)) != 0) {
+        field += Protocol.readSignedVarInt(packet);
+      }
+      snapshot.fields[i] = field;
+    }
+    return lastInputSequence;
+  }
+}
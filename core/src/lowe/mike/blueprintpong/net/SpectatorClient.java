@@ -0,0 +1,302 @@
+package lowe.mike.blueprintpong.net;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import lowe.mike.blueprintpong.simulation.PlayerInput;
+import lowe.mike.blueprintpong.simulation.PongSimulation;
+
+/**
+ * {@code SpectatorClient} watches a match run by a {@link MatchHost} without playing in it.
+ * <p>
+ * It keeps sending watch packets, which say how many frames it has received so the host can send
+ * fewer if it isn't keeping up. Everything is drawn slightly in the past, blending between the
+ * frames either side, and how far in the past follows how often frames have been arriving.
+ *
+ * @author Mike Lowe
+ */
+public final class SpectatorClient implements NetworkMatch {
+
+  /*
+   * Frames kept to blend between, enough to cover the delay when the host
+   * is sending the fewest.
+   */
+  private static final int FRAME_HISTORY = 8;
+
+  /*
+   * The ball and paddles are drawn this many gaps between frames in the
+   * past, so a frame can be lost without them stopping.
+   */
+  private static final float INTERPOLATION_DELAY_GAPS = 2f;
+
+  /*
+   * How quickly the estimates of the host tick and the gap between frames
+   * follow the frames that arrive, and how far off the host tick can be
+   * before it is just reset.
+   */
+  private static final float HOST_TICK_CORRECTION = .05f;
+  private static final float FRAME_GAP_CORRECTION = .1f;
+  private static final int MAX_HOST_TICK_ERROR = Protocol.TICKS_PER_SECOND / 4;
+
+  /*
+   * A ball that moves further than this between frames has been served
+   * again, so isn't blended from where it went out.
+   */
+  private static final float MAX_BALL_BLEND_DISTANCE = PongSimulation.COURT_WIDTH / 4f;
+
+  private final Transport transport;
+  private final SocketAddress hostAddress;
+  private final ByteBuffer packet = ByteBuffer.allocate(Protocol.MAX_PACKET_SIZE);
+  private final Snapshot[] frames = new Snapshot[FRAME_HISTORY];
+  private final Snapshot receivedFrame = new Snapshot();
+  private final float[] paddleYs = new float[2];
+  private Status status = Status.CONNECTING;
+  private int tick;
+  private int lastReceiveTick;
+  private int framesReceived;
+  private int framesKept;
+  private float hostTick;
+  private float frameGapTicks = Protocol.SNAPSHOT_INTERVAL_TICKS;
+  private float ballX = (PongSimulation.COURT_WIDTH - PongSimulation.DEFAULT_BALL_WIDTH) / 2f;
+  private float ballY = (PongSimulation.COURT_HEIGHT - PongSimulation.DEFAULT_BALL_HEIGHT) / 2f;
+  private long bytesSent;
+  private long bytesReceived;
+
+  /**
+   * Creates a new {@code SpectatorClient}, which starts asking to watch on its first tick.
+   *
+   * @param transport the {@link Transport} to send packets with
+   * @param hostAddress address of the {@link MatchHost}
+   */
+  public SpectatorClient(Transport transport, SocketAddress hostAddress) {
+    this.transport = transport;
+    this.hostAddress = hostAddress;
+    for (int i = 0; i < FRAME_HISTORY; i++) {
+      this.frames[i] = new Snapshot();
+    }
+    float paddleY = (PongSimulation.COURT_HEIGHT - PongSimulation.DEFAULT_PADDLE_HEIGHT) / 2f;
+    this.paddleYs[LEFT] = paddleY;
+    this.paddleYs[RIGHT] = paddleY;
+  }
+
+  /**
+   * Sends and receives what is waiting and advances by one tick.
+   *
+   * @param input ignored, as spectators can't affect the match
+   */
+  @Override
+  public void tick(PlayerInput input) {
+    receive();
+    // a finished match stays finished, even once the host stops sending
+    if ((status == Status.CONNECTING || status == Status.PLAYING)
+        && tick - lastReceiveTick > Protocol.TIMEOUT_TICKS) {
+      status = Status.DISCONNECTED;
+    }
+    if (status != Status.DISCONNECTED && tick % Protocol.WATCH_INTERVAL_TICKS == 0) {
+      sendWatch();
+    }
+    if (getNewestFrame() != null) {
+      hostTick++;
+      interpolate();
+    }
+    tick++;
+  }
+
+  private void receive() {
+    try {
+      SocketAddress address;
+      while ((address = transport.receive(packet)) != null) {
+        if (address.equals(hostAddress)) {
+          handlePacket();
+        }
+      }
+    } catch (IOException e) {
+      status = Status.DISCONNECTED;
+    }
+  }
+
+  /*
+   * Anything malformed is ignored.
+   */
+  private void handlePacket() {
+    int size = packet.remaining();
+    try {
+      int type = Protocol.readHeader(packet);
+      if (type < 0) {
+        return;
+      }
+      bytesReceived += size + Protocol.HEADER_OVERHEAD;
+      lastReceiveTick = tick;
+      if (type == Protocol.SNAPSHOT) {
+        readFrame();
+      } else if (type == Protocol.DISCONNECT && status != Status.FINISHED) {
+        status = Status.DISCONNECTED;
+      }
+    } catch (IllegalArgumentException e) {
+      // malformed, so ignore it
+    } catch (BufferUnderflowException e) {
+      // malformed, so ignore it
+    }
+  }
+
+  private void readFrame() {
+    if (status == Status.DISCONNECTED || SnapshotCodec.readBaselineSequence(packet) >= 0) {
+      // spectators are only sent frames that stand alone
+      return;
+    }
+    SnapshotCodec.read(packet, null, receivedFrame);
+    framesReceived++;
+    Snapshot newest = getNewestFrame();
+    if (newest != null && receivedFrame.tick <= newest.tick) {
+      // arrived out of order, and a newer one has already been used
+      return;
+    }
+    if (newest == null || Math.abs(receivedFrame.tick - hostTick) > MAX_HOST_TICK_ERROR) {
+      hostTick = receivedFrame.tick;
+    } else {
+      frameGapTicks += ((receivedFrame.tick - newest.tick) - frameGapTicks) * FRAME_GAP_CORRECTION;
+      hostTick += (receivedFrame.tick - hostTick) * HOST_TICK_CORRECTION;
+    }
+    // frames are numbered by host tick, so the ones kept are in order
+    Snapshot frame = frames[framesKept % FRAME_HISTORY];
+    frame.set(receivedFrame);
+    framesKept++;
+    if (status == Status.CONNECTING) {
+      status = Status.PLAYING;
+    }
+    if (frame.isGameOver()) {
+      status = Status.FINISHED;
+    }
+  }
+
+  private Snapshot getNewestFrame() {
+    return (framesKept == 0) ? null : frames[(framesKept - 1) % FRAME_HISTORY];
+  }
+
+  private void sendWatch() {
+    Protocol.writeHeader(packet, Protocol.WATCH);
+    packet.put((byte) Protocol.VERSION);
+    Protocol.writeVarInt(packet, framesReceived);
+    send();
+  }
+
+  private void send() {
+    packet.flip();
+    bytesSent += packet.remaining() + Protocol.HEADER_OVERHEAD;
+    try {
+      transport.send(packet, hostAddress);
+    } catch (IOException e) {
+      status = Status.DISCONNECTED;
+    }
+  }
+
+  /*
+   * Blends between the frames either side of a point slightly in the past,
+   * or holds the newest if there isn't a newer one yet.
+   */
+  private void interpolate() {
+    float renderTick = hostTick - (INTERPOLATION_DELAY_GAPS * frameGapTicks);
+    Snapshot before = null;
+    Snapshot after = null;
+    for (int i = 0; i < FRAME_HISTORY && i < framesKept; i++) {
+      Snapshot frame = frames[(framesKept - 1 - i) % FRAME_HISTORY];
+      if (frame.tick <= renderTick) {
+        before = frame;
+        break;
+      }
+      after = frame;
+    }
+    if (before == null) {
+      // nothing old enough yet, so show the oldest there is
+      before = after;
+    }
+    if (after == null || after == before) {
+      setDrawnState(before, before, 0f);
+    } else {
+      setDrawnState(before, after, (renderTick - before.tick) / (after.tick - before.tick));
+    }
+  }
+
+  private void setDrawnState(Snapshot before, Snapshot after, float alpha) {
+    float beforeBallX = Protocol.fromFixed(before.fields[Snapshot.BALL_X]);
+    float beforeBallY = Protocol.fromFixed(before.fields[Snapshot.BALL_Y]);
+    float afterBallX = Protocol.fromFixed(after.fields[Snapshot.BALL_X]);
+    float afterBallY = Protocol.fromFixed(after.fields[Snapshot.BALL_Y]);
+    if (Math.abs(afterBallX - beforeBallX) > MAX_BALL_BLEND_DISTANCE) {
+      alpha = (alpha < 1f) ? 0f : 1f;
+    }
+    ballX = beforeBallX + (afterBallX - beforeBallX) * alpha;
+    ballY = beforeBallY + (afterBallY - beforeBallY) * alpha;
+    for (int side = LEFT; side <= RIGHT; side++) {
+      float beforePaddleY = before.getPaddleY(side);
+      paddleYs[side] = beforePaddleY + (after.getPaddleY(side) - beforePaddleY) * alpha;
+    }
+  }
+
+  @Override
+  public Status getStatus() {
+    return status;
+  }
+
+  @Override
+  public int getLocalSide() {
+    return SPECTATOR;
+  }
+
+  @Override
+  public float getBallX() {
+    return ballX;
+  }
+
+  @Override
+  public float getBallY() {
+    return ballY;
+  }
+
+  @Override
+  public float getPaddleY(int side) {
+    return paddleYs[side];
+  }
+
+  /*
+   * Scores are shown as soon as they arrive, rather than when the ball is
+   * drawn going out.
+   */
+  @Override
+  public int getScore(int side) {
+    Snapshot newest = getNewestFrame();
+    return (newest == null) ? 0 : newest.getScore(side);
+  }
+
+  /**
+   * @return frames received from the host
+   */
+  public int getFramesReceived() {
+    return framesReceived;
+  }
+
+  /**
+   * @return bytes sent to the host, including UDP and IP headers
+   */
+  public long getBytesSent() {
+    return bytesSent;
+  }
+
+  /**
+   * @return bytes received from the host, including UDP and IP headers
+   */
+  public long getBytesReceived() {
+    return bytesReceived;
+  }
+
+  @Override
+  public void close() {
+    if (status != Status.DISCONNECTED) {
+      Protocol.writeHeader(packet, Protocol.DISCONNECT);
+      send();
+      status = Status.DISCONNECTED;
+    }
+    transport.close();
+  }
+}
@@ -0,0 +1,404 @@
+package lowe.mike.blueprintpong.net;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lowe.mike.blueprintpong.simulation.PongSimulation;
+
+/**
+ * {@code SpectatorFeed} sends a {@link MatchHost}'s match to the spectators watching it, who
+ * can't affect it.
+ * <p>
+ * A frame, a snapshot written against nothing so any spectator can read it, is written at most
+ * once a tick into a single buffer, and that same buffer is sent to every spectator due a frame
+ * that tick without being copied for each. Spectators are spread over the ticks between
+ * snapshots, so each tick only sends to its share of them, and no more than {@link
+ * #MAX_FRAMES_PER_TICK} frames are sent in a tick however many are watching, so the match is never
+ * held up; anyone left out gets the next frame instead.
+ * <p>
+ * Spectators say how many frames they have received in the watch packets they keep sending. One
+ * that is losing a lot of them, most likely because its connection can't keep up, is sent frames
+ * half as often, down to an eighth as often, and more often again once it keeps up. One that still
+ * can't keep up at an eighth is dropped, and told so again whenever it asks to watch.
+ *
+ * @author Mike Lowe
+ */
+public final class SpectatorFeed {
+
+  /**
+   * Most spectators a match can have. Any more are turned away.
+   */
+  public static final int MAX_SPECTATORS = 4096;
+
+  /*
+   * Caps the time a tick spends sending frames, at a few microseconds a
+   * frame.
+   */
+  private static final int MAX_FRAMES_PER_TICK = 512;
+
+  /*
+   * A spectator losing more than SLOW_LOSS of its frames is sent them less
+   * often, up to MAX_FRAME_DIVISOR times less, and one losing less than
+   * KEEPING_UP_LOSS for REPORTS_TO_SPEED_UP watch packets in a row is sent
+   * them more often again. One still losing more than DROP_LOSS when sent
+   * the fewest is dropped.
+   */
+  private static final int MAX_FRAME_DIVISOR = 8;
+  private static final float SLOW_LOSS = .25f;
+  private static final float KEEPING_UP_LOSS = .05f;
+  private static final float DROP_LOSS = .5f;
+  private static final int REPORTS_TO_SPEED_UP = 4;
+
+  /*
+   * Loss isn't judged until at least this many frames have been sent since
+   * it was last judged, so one lost frame isn't a 100% loss.
+   */
+  private static final int MIN_JUDGED_FRAMES = 4;
+
+  /*
+   * Frames sent this recently when a watch packet arrives might not have
+   * reached the spectator when it was sent, so don't count as lost yet.
+   */
+  private static final int IN_FLIGHT_TICKS = Protocol.TICKS_PER_SECOND / 4;
+
+  private final Transport transport;
+  private final Map<SocketAddress, Spectator> spectators = new HashMap<SocketAddress, Spectator>();
+  private final Set<SocketAddress> droppedAddresses = new HashSet<SocketAddress>();
+  private final List<List<Spectator>> phases =
+      new ArrayList<List<Spectator>>(Protocol.SNAPSHOT_INTERVAL_TICKS);
+  private final int[] phaseStarts = new int[Protocol.SNAPSHOT_INTERVAL_TICKS];
+  private final Snapshot snapshot = new Snapshot();
+  private final ByteBuffer packet = ByteBuffer.allocate(Protocol.MAX_PACKET_SIZE);
+
+  /*
+   * Direct, so sending it doesn't copy it into a temporary direct buffer
+   * first as sending a heap buffer would.
+   */
+  private final ByteBuffer frame = ByteBuffer.allocateDirect(Protocol.MAX_PACKET_SIZE);
+
+  private long framesWritten;
+  private long framesSent;
+  private long framesSkipped;
+  private long bytesSent;
+  private int droppedCount;
+
+  /**
+   * Creates a new {@code SpectatorFeed}.
+   *
+   * @param transport the {@link Transport} to send packets with
+   */
+  SpectatorFeed(Transport transport) {
+    this.transport = transport;
+    for (int i = 0; i < Protocol.SNAPSHOT_INTERVAL_TICKS; i++) {
+      this.phases.add(new ArrayList<Spectator>());
+    }
+  }
+
+  /**
+   * Handles a watch packet, adding the spectator if they are new.
+   *
+   * @param received the packet, positioned after the header
+   * @param address where the packet came from
+   * @param tick the host tick it was received in
+   * @param isStarted {@code true} if the match has started, {@code false} if new spectators should
+   *     be told they are waiting for it
+   * @throws IllegalArgumentException if the packet is malformed
+   */
+  void watch(ByteBuffer received, SocketAddress address, int tick, boolean isStarted) {
+    int version = received.get() & 0xFF;
+    int framesReceived = Protocol.readVarInt(received);
+    Spectator spectator = spectators.get(address);
+    if (spectator == null) {
+      // a dropped spectator may have lost the disconnect, so is told again
+      if (version != Protocol.VERSION || spectators.size() >= MAX_SPECTATORS
+          || droppedAddresses.contains(address)) {
+        sendDisconnect(address);
+        return;
+      }
+      spectator = new Spectator(address, tick);
+      spectators.put(address, spectator);
+      addToEmptiestPhase(spectator);
+    }
+    spectator.lastWatchTick = tick;
+    judgeLoss(spectator, framesReceived, tick);
+    if (!isStarted) {
+      // nothing to watch yet, but let them know they are in
+      Protocol.writeHeader(packet, Protocol.ACCEPT);
+      packet.put((byte) NetworkMatch.SPECTATOR);
+      packet.flip();
+      send(packet, address);
+    }
+  }
+
+  private void addToEmptiestPhase(Spectator spectator) {
+    List<Spectator> emptiest = phases.get(0);
+    for (List<Spectator> phase : phases) {
+      if (phase.size() < emptiest.size()) {
+        emptiest = phase;
+      }
+    }
+    emptiest.add(spectator);
+  }
+
+  private void judgeLoss(Spectator spectator, int framesReceived, int tick) {
+    int framesArrived = spectator.getFramesSentBefore(tick - IN_FLIGHT_TICKS);
+    int sent = framesArrived - spectator.judgedFramesSent;
+    if (sent < MIN_JUDGED_FRAMES) {
+      return;
+    }
+    // frames sent since the in flight ones may have arrived early, so it can be less than none
+    float loss = Math.max(1f - (float) (framesReceived - spectator.judgedFramesReceived) / sent,
+        0f);
+    spectator.judgedFramesSent = framesArrived;
+    spectator.judgedFramesReceived = framesReceived;
+    if (loss > SLOW_LOSS) {
+      spectator.goodReports = 0;
+      if (spectator.frameDivisor < MAX_FRAME_DIVISOR) {
+        spectator.frameDivisor *= 2;
+      } else if (loss > DROP_LOSS) {
+        drop(spectator);
+      }
+    } else if (loss < KEEPING_UP_LOSS && spectator.frameDivisor > 1) {
+      spectator.goodReports++;
+      if (spectator.goodReports >= REPORTS_TO_SPEED_UP) {
+        spectator.frameDivisor /= 2;
+        spectator.goodReports = 0;
+      }
+    }
+  }
+
+  private void drop(Spectator spectator) {
+    droppedCount++;
+    if (droppedAddresses.size() >= MAX_SPECTATORS) {
+      // only there to stop them coming straight back, so can be forgotten
+      droppedAddresses.clear();
+    }
+    droppedAddresses.add(spectator.address);
+    sendDisconnect(spectator.address);
+    remove(spectator);
+  }
+
+  /*
+   * Taken out of its phase on the phase's next turn.
+   */
+  private void remove(Spectator spectator) {
+    spectators.remove(spectator.address);
+    spectator.isRemoved = true;
+  }
+
+  /**
+   * Removes a spectator who has left.
+   *
+   * @param address where the spectator's packets come from
+   * @return {@code true} if they were a spectator
+   */
+  boolean leave(SocketAddress address) {
+    Spectator spectator = spectators.get(address);
+    if (spectator == null) {
+      return false;
+    }
+    remove(spectator);
+    return true;
+  }
+
+  /**
+   * Sends a frame of the match to the spectators due one this tick.
+   *
+   * @param simulation the {@link PongSimulation} of the match
+   * @param tick the host tick
+   */
+  void sendFrames(PongSimulation simulation, int tick) {
+    int phaseIndex = tick % Protocol.SNAPSHOT_INTERVAL_TICKS;
+    List<Spectator> phase = phases.get(phaseIndex);
+    removeGoneSpectators(phase, tick);
+    int size = phase.size();
+    if (size == 0) {
+      return;
+    }
+    // start from where the last turn ran out, so the same spectators aren't always left out
+    int start = phaseStarts[phaseIndex] % size;
+    boolean isWritten = false;
+    int sent = 0;
+    int nextStart = start;
+    for (int i = 0; i < size; i++) {
+      Spectator spectator = phase.get((start + i) % size);
+      if (spectator.turns++ % spectator.frameDivisor != 0) {
+        continue;
+      }
+      if (sent == MAX_FRAMES_PER_TICK) {
+        if (nextStart == start) {
+          nextStart = (start + i) % size;
+        }
+        framesSkipped++;
+        continue;
+      }
+      if (!isWritten) {
+        writeFrame(simulation, tick);
+        isWritten = true;
+      }
+      frame.rewind();
+      send(frame, spectator.address);
+      spectator.sent(tick);
+      sent++;
+    }
+    framesSent += sent;
+    phaseStarts[phaseIndex] = nextStart;
+  }
+
+  private void removeGoneSpectators(List<Spectator> phase, int tick) {
+    int i = 0;
+    while (i < phase.size()) {
+      Spectator spectator = phase.get(i);
+      if (!spectator.isRemoved && tick - spectator.lastWatchTick > Protocol.TIMEOUT_TICKS) {
+        remove(spectator);
+      }
+      if (spectator.isRemoved) {
+        // order within a phase doesn't matter, so fill the gap with the last one
+        phase.set(i, phase.get(phase.size() - 1));
+        phase.remove(phase.size() - 1);
+      } else {
+        i++;
+      }
+    }
+  }
+
+  /*
+   * Numbered by host tick, which always goes up, so spectators can put
+   * frames in order however often they are sent them.
+   */
+  private void writeFrame(PongSimulation simulation, int tick) {
+    snapshot.set(simulation, tick, tick);
+    SnapshotCodec.write(frame, snapshot, null, -1);
+    frame.flip();
+    framesWritten++;
+  }
+
+  private void sendDisconnect(SocketAddress address) {
+    Protocol.writeHeader(packet, Protocol.DISCONNECT);
+    packet.flip();
+    send(packet, address);
+  }
+
+  private void send(ByteBuffer buffer, SocketAddress address) {
+    bytesSent += buffer.remaining() + Protocol.HEADER_OVERHEAD;
+    try {
+      transport.send(buffer, address);
+    } catch (IOException e) {
+      // the players are told if the transport has failed, and spectators time out
+    }
+  }
+
+  /**
+   * Tells every spectator the match is over for them and removes them.
+   */
+  void disconnectAll() {
+    for (Spectator spectator : spectators.values()) {
+      sendDisconnect(spectator.address);
+      spectator.isRemoved = true;
+    }
+    spectators.clear();
+  }
+
+  /**
+   * @return spectators watching
+   */
+  public int getSpectatorCount() {
+    return spectators.size();
+  }
+
+  /**
+   * @return spectators currently being sent fewer frames because they can't keep up
+   */
+  public int getDownsampledCount() {
+    int count = 0;
+    for (Spectator spectator : spectators.values()) {
+      if (spectator.frameDivisor > 1) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @return spectators dropped so far because they couldn't keep up even when downsampled
+   */
+  public int getDroppedCount() {
+    return droppedCount;
+  }
+
+  /**
+   * @return frames written so far, at most one a tick
+   */
+  public long getFramesWritten() {
+    return framesWritten;
+  }
+
+  /**
+   * @return frames sent to spectators so far
+   */
+  public long getFramesSent() {
+    return framesSent;
+  }
+
+  /**
+   * @return frames not sent so far because a tick had already sent as many as it could
+   */
+  public long getFramesSkipped() {
+    return framesSkipped;
+  }
+
+  /**
+   * @return bytes sent to spectators so far, including UDP and IP headers
+   */
+  public long getBytesSent() {
+    return bytesSent;
+  }
+
+  private static final class Spectator {
+
+    /*
+     * Ticks of the frames sent most recently, enough to cover the frames
+     * that could still be in flight.
+     */
+    private static final int SENT_HISTORY = 32;
+
+    final SocketAddress address;
+    final int[] sentTicks = new int[SENT_HISTORY];
+    int framesSent;
+    int judgedFramesSent;
+    int judgedFramesReceived;
+    int frameDivisor = 1;
+    int turns;
+    int goodReports;
+    int lastWatchTick;
+    boolean isRemoved;
+
+    Spectator(SocketAddress address, int tick) {
+      this.address = address;
+      this.lastWatchTick = tick;
+    }
+
+    void sent(int tick) {
+      sentTicks[framesSent % SENT_HISTORY] = tick;
+      framesSent++;
+    }
+
+    /*
+     * Frames are sent in tick order, so count back from the newest.
+     */
+    int getFramesSentBefore(int tick) {
+      int count = framesSent;
+      int oldest = Math.max(framesSent - SENT_HISTORY, 0);
+      while (count > oldest && sentTicks[(count - 1) % SENT_HISTORY] > tick) {
+        count--;
+      }
+      return count;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package lowe.mike.blueprintpong.net;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+
+/**
+ * {@code Transport} sends and receives unreliable datagrams without blocking. Packets can be lost,
+ * duplicated or arrive out of order, and both ends of a networked match cope with that.
+ *
+ * @author Mike Lowe
+ */
+public interface Transport {
+
+  /**
+   * Sends a packet, or drops it if it can't be sent straight away.
+   *
+   * @param packet the packet, from its position to its limit
+   * @param address where to send it
+   * @throws IOException if the transport has failed
+   */
+  void send(ByteBuffer packet, SocketAddress address) throws IOException;
+
+  /**
+   * Receives a packet if one is waiting.
+   *
+   * @param packet the buffer to receive into, which is cleared first and flipped ready to be read
+   * @return where the packet came from, or {@code null} if none was waiting
+   * @throws IOException if the transport has failed
+   */
+  SocketAddress receive(ByteBuffer packet) throws IOException;
+
+  /**
+   * @return the address packets to this transport should be sent to
+   */
+  SocketAddress getLocalAddress();
+
+  /**
+   * Closes the transport. Does nothing if it is already closed.
+   */
+  void close();
+}
@@ -0,0 +1,72 @@
+package lowe.mike.blueprintpong.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * {@code UdpTransport} is a {@link Transport} over a non-blocking UDP socket.
+ *
+ * @author Mike Lowe
+ */
+public final class UdpTransport implements Transport {
+
+  private final DatagramChannel channel;
+
+  /**
+   * Creates a new {@code UdpTransport} bound to a port on every interface.
+   *
+   * @param port the port to bind to, or 0 for any free port
+   * @throws IOException if the socket can't be opened or bound
+   */
+  public UdpTransport(int port) throws IOException {
+    this(new InetSocketAddress(port));
+  }
+
+  /**
+   * Creates a new {@code UdpTransport} bound to an address.
+   *
+   * @param address the address to bind to
+   * @throws IOException if the socket can't be opened or bound
+   */
+  public UdpTransport(InetSocketAddress address) throws IOException {
+    this.channel = DatagramChannel.open();
+    try {
+      this.channel.configureBlocking(false);
+      this.channel.socket().bind(address);
+    } catch (IOException e) {
+      this.channel.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public void send(ByteBuffer packet, SocketAddress address) throws IOException {
+    // a full send buffer drops the packet, which the protocol already copes with
+    channel.send(packet, address);
+  }
+
+  @Override
+  public SocketAddress receive(ByteBuffer packet) throws IOException {
+    packet.clear();
+    SocketAddress address = channel.receive(packet);
+    packet.flip();
+    return address;
+  }
+
+  @Override
+  public SocketAddress getLocalAddress() {
+    return channel.socket().getLocalSocketAddress();
+  }
+
+  @Override
+  public void close() {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // nothing more can be done with it anyway
+    }
+  }
+}
@@ -1,22 +1,35 @@
 package lowe.mike.blueprintpong.screen;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.ScreenAdapter;
 import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
 import com.badlogic.gdx.scenes.scene2d.Stage;
-import com.badlogic.gdx.scenes.scene2d.ui.Image;
-import com.badlogic.gdx.utils.viewport.FitViewport;
-import com.badlogic.gdx.utils.viewport.Viewport;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import com.badlogic.gdx.utils.SnapshotArray;
 import lowe.mike.blueprintpong.Assets;
 import lowe.mike.blueprintpong.BlueprintPongGame;
-import lowe.mike.blueprintpong.Scaling;
 
 /**
  * Provides a base class for the {@link Screen}s in the game.
+ * <p>
+ * Screens are only redrawn when something changes unless they say otherwise with {@link
+ * #rendersContinuously()}. Input already causes a redraw, and a screen keeps being redrawn while
+ * any of its actors have actions running, so menus that sit open don't drain the battery.
+ * <p>
+ * Screens are reused by the {@link ScreenManager} unless they say otherwise with {@link
+ * #isReusable()}, so anything that should start afresh each time a screen is entered belongs in
+ * {@link #onReuse()} as well as the constructor.
+ * <p>
+ * Screens add their actors to a {@link #layer} rather than a {@link Stage} of their own. The
+ * layer is attached to the {@link RenderContext} shared by every screen while the screen is shown.
  *
  * @author Mike Lowe
  */
@@ -24,66 +37,93 @@ class BaseScreen extends ScreenAdapter {
 
   static final float COMPONENT_SPACING = 8f;
 
+  /*
+   * Rough heap used by an actor and by each glyph of a label, to estimate
+   * the size of cached screens.
+   */
+  private static final int ESTIMATED_ACTOR_SIZE = 512;
+  private static final int ESTIMATED_GLYPH_SIZE = 80;
+
   final Assets assets;
   final SpriteBatch spriteBatch;
   final ScreenManager screenManager;
-  final Stage stage;
+  final RenderContext renderContext;
+  final Group layer = new Group();
 
-  private final OrthographicCamera camera = new OrthographicCamera();
-  private final Viewport viewport;
+  private final Drawable backgroundDrawable;
 
   /**
    * Creates a new {@code BaseScreen} given {@link Assets}, a {@link SpriteBatch} and a {@link
-   * ScreenManager}. Note that the default background {@link Texture} will be used.
+   * ScreenManager}. Note that the default background {@link TextureRegion} will be
+   * used.
    *
    * @param assets {@link Assets} containing assets used in the {@link Screen}
    * @param spriteBatch {@link SpriteBatch} to add sprites to
    * @param screenManager the {@link ScreenManager} used to manage game {@link Screen}s
    */
   BaseScreen(Assets assets, SpriteBatch spriteBatch, ScreenManager screenManager) {
-    this(assets, spriteBatch, screenManager, assets.getBackgroundTexture());
+    this(assets, spriteBatch, screenManager, assets.getBackgroundRegion());
   }
 
   /**
    * Creates a new {@code BaseScreen} given {@link Assets}, a {@link SpriteBatch} , a {@link
-   * ScreenManager} and background {@link Texture}.
+   * ScreenManager} and background {@link TextureRegion}.
    *
    * @param assets {@link Assets} containing assets used in the {@link Screen}
    * @param spriteBatch {@link SpriteBatch} to add sprites to
    * @param screenManager the {@link ScreenManager} used to manage game {@link Screen}s
-   * @param backgroundTexture the background {@link Texture}
+   * @param backgroundRegion the background {@link TextureRegion}
    */
   BaseScreen(Assets assets,
       SpriteBatch spriteBatch,
       ScreenManager screenManager,
-      Texture backgroundTexture) {
+      TextureRegion backgroundRegion) {
     this.assets = assets;
     this.spriteBatch = spriteBatch;
     this.screenManager = screenManager;
-    this.camera.setToOrtho(false);
-    this.viewport = new FitViewport(
-        BlueprintPongGame.VIRTUAL_WIDTH,
-        BlueprintPongGame.VIRTUAL_HEIGHT,
-        this.camera
-    );
-    this.stage = new Stage(this.viewport, this.spriteBatch);
-    addBackground(backgroundTexture);
+    this.renderContext = screenManager.getRenderContext();
+    this.backgroundDrawable = new TextureRegionDrawable(backgroundRegion);
+  }
+
+  @Override
+  public final void show() {
+    renderContext.attach(layer, backgroundDrawable);
+    Gdx.input.setInputProcessor(getInputProcessor());
+    Gdx.graphics.setContinuousRendering(rendersContinuously());
+    // draw the new screen at least once
+    Gdx.graphics.requestRendering();
+  }
+
+  /**
+   * Method that subclasses can override to handle input themselves as well as through the {@link
+   * Stage}.
+   *
+   * @return the {@link InputProcessor} to use while this {@link Screen} is shown
+   */
+  InputProcessor getInputProcessor() {
+    return renderContext.getStage();
   }
 
-  private void addBackground(Texture backgroundTexture) {
-    Image background = new Image(backgroundTexture);
-    Scaling.scaleActor(background);
-    stage.addActor(background);
+  /**
+   * Method that subclasses can override if they change without any input, e.g. because something
+   * is moving, and so need to be redrawn every frame.
+   *
+   * @return {@code true} if this {@link Screen} should be redrawn every frame
+   */
+  boolean rendersContinuously() {
+    return false;
   }
 
   @Override
-  public final void show() {
-    Gdx.input.setInputProcessor(stage);
+  public final void hide() {
+    renderContext.detach(layer);
   }
 
   @Override
   public final void resize(int width, int height) {
-    viewport.update(width, height);
+    renderContext.resize(width, height);
+    float screenWidth = renderContext.getViewport().getScreenWidth();
+    assets.setScreenScale(screenWidth / BlueprintPongGame.VIRTUAL_WIDTH);
   }
 
   @Override
@@ -91,9 +131,28 @@ class BaseScreen extends ScreenAdapter {
     Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
     Gdx.gl.glClearColor(0, 0, 0, 0);
     update(delta);
-    spriteBatch.setProjectionMatrix(camera.combined);
+    Stage stage = renderContext.getStage();
     stage.act(delta);
     stage.draw();
+    if (!rendersContinuously() && hasActions(layer)) {
+      // keep drawing until the actions have finished
+      Gdx.graphics.requestRendering();
+    }
+  }
+
+  private static boolean hasActions(Actor actor) {
+    if (actor.hasActions()) {
+      return true;
+    }
+    if (actor instanceof Group) {
+      SnapshotArray<Actor> children = ((Group) actor).getChildren();
+      for (int i = 0; i < children.size; i++) {
+        if (hasActions(children.get(i))) {
+          return true;
+        }
+      }
+    }
+    return false;
   }
 
   /**
@@ -105,9 +164,48 @@ class BaseScreen extends ScreenAdapter {
   void update(float delta) {
   }
 
+  /**
+   * Method that subclasses can override if they can't be entered again once left, so shouldn't be
+   * cached.
+   *
+   * @return {@code true} if the {@link ScreenManager} can cache and reuse this {@link Screen}
+   */
+  boolean isReusable() {
+    return true;
+  }
+
+  /**
+   * Method that subclasses can override to reset their state when the {@link ScreenManager} takes
+   * them out of its cache. Touches and focus are already dropped when a {@link Screen} is hidden.
+   */
+  void onReuse() {
+  }
+
+  /**
+   * @return a rough estimate of the heap used by this {@link Screen}'s actors, in bytes
+   */
+  final int getEstimatedSize() {
+    return getEstimatedSize(layer);
+  }
+
+  private static int getEstimatedSize(Actor actor) {
+    int size = ESTIMATED_ACTOR_SIZE;
+    if (actor instanceof Label) {
+      size += ((Label) actor).getText().length * ESTIMATED_GLYPH_SIZE;
+    }
+    if (actor instanceof Group) {
+      SnapshotArray<Actor> children = ((Group) actor).getChildren();
+      for (int i = 0; i < children.size; i++) {
+        size += getEstimatedSize(children.get(i));
+      }
+    }
+    return size;
+  }
+
   @Override
   public final void dispose() {
-    stage.dispose();
+    renderContext.detach(layer);
+    layer.clear();
     onDispose();
   }
 
@@ -3,6 +3,7 @@ package lowe.mike.blueprintpong.screen;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.ui.ButtonGroup;
 import com.badlogic.gdx.scenes.scene2d.ui.HorizontalGroup;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
@@ -21,6 +22,8 @@ final class DifficultyScreen extends BaseScreen {
   private static final String DIFFICULTY_LABEL_TEXT = "Select Difficulty";
   private static final String PLAY_BUTTON_TEXT = "Play";
 
+  private ButtonGroup<TextButton> difficultyButtonGroup;
+
   /**
    * Creates a new {@code DifficultyScreen} given {@link Assets}, a {@link SpriteBatch} and a {@link
    * ScreenManager}.
@@ -32,7 +35,28 @@ final class DifficultyScreen extends BaseScreen {
   DifficultyScreen(Assets assets, SpriteBatch spriteBatch, ScreenManager screenManager) {
     super(assets, spriteBatch, screenManager);
     Table menu = createMenu();
-    this.stage.addActor(menu);
+    this.layer.addActor(menu);
+  }
+
+  /**
+   * Sets a {@code DifficultyScreen} as the current {@link Screen}, reusing a cached one if there is
+   * one.
+   *
+   * @param assets {@link Assets} containing assets used in the {@link Screen}
+   * @param spriteBatch {@link SpriteBatch} to add sprites to
+   * @param screenManager the {@link ScreenManager} used to manage game {@link Screen}s
+   */
+  static void open(Assets assets, SpriteBatch spriteBatch, ScreenManager screenManager) {
+    DifficultyScreen screen = screenManager.getCachedScreen(DifficultyScreen.class);
+    if (screen == null) {
+      screen = new DifficultyScreen(assets, spriteBatch, screenManager);
+    }
+    screenManager.setScreen(screen);
+  }
+
+  @Override
+  void onReuse() {
+    ScreenUtils.updateDifficultyButtonGroup(difficultyButtonGroup);
   }
 
   private Table createMenu() {
@@ -61,7 +85,8 @@ final class DifficultyScreen extends BaseScreen {
   private HorizontalGroup createDifficultyButtonGroup() {
     HorizontalGroup group = new HorizontalGroup();
     group.space(COMPONENT_SPACING);
-    Array<TextButton> buttons = ScreenUtils.createDifficultyButtonGroup(assets).getButtons();
+    difficultyButtonGroup = ScreenUtils.createDifficultyButtonGroup(assets);
+    Array<TextButton> buttons = difficultyButtonGroup.getButtons();
     for (TextButton button : buttons) {
       group.addActor(button);
     }
@@ -99,9 +124,9 @@ final class DifficultyScreen extends BaseScreen {
   }
 
   private void switchToGameScreen() {
-    // dispose this screen and all previous screens because we won't be able to return from the
-    // next screen
-    screenManager.disposeAndClearAllScreens();
-    screenManager.setScreen(new GameScreen(assets, spriteBatch, screenManager));
+    // clear this screen and all previous screens because we won't be able to return from the next
+    // screen
+    screenManager.clearAllScreens();
+    GameScreen.open(assets, spriteBatch, screenManager);
   }
 }
@@ -20,31 +20,59 @@ final class GameOverScreen extends BaseScreen {
   private static final String COMPUTER_WINS_LABEL_TEXT = "Computer Wins";
   private static final String PLAY_AGAIN_BUTTON_TEXT = "Play Again";
 
-  private final GameScreen gameScreen;
+  private final Label winnerLabel;
+  private final Label playerScoreLabel;
+  private final Label computerScoreLabel;
+  private GameScreen gameScreen;
 
   /**
-   * Creates a new {@code GameOverScreen} given {@link Assets}, a {@link SpriteBatch}, a {@link
-   * ScreenManager} and a reference to the {@link GameScreen}.
+   * Creates a new {@code GameOverScreen} given {@link Assets}, a {@link SpriteBatch} and a {@link
+   * ScreenManager}.
+   *
+   * @param assets {@link Assets} containing assets used in the {@link Screen}
+   * @param spriteBatch {@link SpriteBatch} to add sprites to
+   * @param screenManager the {@link ScreenManager} used to manage game {@link Screen}s
+   */
+  GameOverScreen(Assets assets, SpriteBatch spriteBatch, ScreenManager screenManager) {
+    super(assets, spriteBatch, screenManager);
+    this.winnerLabel = ScreenUtils.createLabel(this.assets.getLargeFont(), "");
+    Table menu = createMenu();
+    this.playerScoreLabel = ScreenUtils.createPlayerScoreLabel(this.assets, 0);
+    this.computerScoreLabel = ScreenUtils.createComputerScoreLabel(this.assets, 0);
+    this.layer.addActor(menu);
+    this.layer.addActor(this.playerScoreLabel);
+    this.layer.addActor(this.computerScoreLabel);
+  }
+
+  /**
+   * Sets a {@code GameOverScreen} showing the result of the given {@link GameScreen} as the
+   * current {@link Screen}, reusing a cached one if there is one.
    *
    * @param assets {@link Assets} containing assets used in the {@link Screen}
    * @param spriteBatch {@link SpriteBatch} to add sprites to
    * @param screenManager the {@link ScreenManager} used to manage game {@link Screen}s
    * @param gameScreen reference to the {@link GameScreen}
    */
-  GameOverScreen(Assets assets,
+  static void open(Assets assets,
       SpriteBatch spriteBatch,
       ScreenManager screenManager,
       GameScreen gameScreen) {
-    super(assets, spriteBatch, screenManager);
+    GameOverScreen screen = screenManager.getCachedScreen(GameOverScreen.class);
+    if (screen == null) {
+      screen = new GameOverScreen(assets, spriteBatch, screenManager);
+    }
+    screen.showResult(gameScreen);
+    screenManager.setScreen(screen);
+  }
+
+  private void showResult(GameScreen gameScreen) {
     this.gameScreen = gameScreen;
-    Table menu = createMenu();
-    Label playerScoreLabel =
-        ScreenUtils.createPlayerScoreLabel(this.assets, this.gameScreen.getPlayerScore());
-    Label computerScoreLabel =
-        ScreenUtils.createComputerScoreLabel(this.assets, this.gameScreen.getComputerScore());
-    this.stage.addActor(menu);
-    this.stage.addActor(playerScoreLabel);
-    this.stage.addActor(computerScoreLabel);
+    int playerScore = gameScreen.getPlayerScore();
+    int computerScore = gameScreen.getComputerScore();
+    winnerLabel.setText(
+        (playerScore > computerScore) ? PLAYER_WINS_LABEL_TEXT : COMPUTER_WINS_LABEL_TEXT);
+    ScreenUtils.updatePlayerScoreLabel(playerScoreLabel, playerScore);
+    ScreenUtils.updateComputerScoreLabel(computerScoreLabel, computerScore);
   }
 
   private Table createMenu() {
@@ -54,7 +82,6 @@ final class GameOverScreen extends BaseScreen {
 
     // add winner label
     table.row();
-    Label winnerLabel = createWinnerLabel();
     table.add(winnerLabel).expandX();
 
     // add play again button
@@ -70,12 +97,6 @@ final class GameOverScreen extends BaseScreen {
     return table;
   }
 
-  private Label createWinnerLabel() {
-    String message = (gameScreen.getPlayerScore() > gameScreen.getComputerScore())
-        ? PLAYER_WINS_LABEL_TEXT : COMPUTER_WINS_LABEL_TEXT;
-    return ScreenUtils.createLabel(assets.getLargeFont(), message);
-  }
-
   private TextButton createPlayAgainButton() {
     TextButton button = ScreenUtils.createTextButton(assets, PLAY_AGAIN_BUTTON_TEXT);
     addPlayAgainButtonListener(button);
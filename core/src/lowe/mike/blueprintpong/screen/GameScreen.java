@@ -1,23 +1,36 @@
 package lowe.mike.blueprintpong.screen;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputMultiplexer;
+import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+import java.util.Arrays;
+import java.util.Comparator;
 import lowe.mike.blueprintpong.Assets;
 import lowe.mike.blueprintpong.BlueprintPongGame;
+import lowe.mike.blueprintpong.Difficulty;
 import lowe.mike.blueprintpong.GamePreferences;
 import lowe.mike.blueprintpong.Scaling;
 import lowe.mike.blueprintpong.actor.Ball;
 import lowe.mike.blueprintpong.actor.Paddle;
+import lowe.mike.blueprintpong.audio.SoundDispatcher;
+import lowe.mike.blueprintpong.simulation.ComputerStrategy;
+import lowe.mike.blueprintpong.simulation.FixedTimestep;
+import lowe.mike.blueprintpong.simulation.InputBuffer;
+import lowe.mike.blueprintpong.simulation.MatchRecorder;
+import lowe.mike.blueprintpong.simulation.PlayerInput;
+import lowe.mike.blueprintpong.simulation.PongSimulation;
+import lowe.mike.blueprintpong.simulation.SimulationListener;
 
 /**
  * Screen to show when the game is being played.
@@ -27,19 +40,41 @@ import lowe.mike.blueprintpong.actor.Paddle;
 final class GameScreen extends BaseScreen {
 
   private static final String PAUSE_BUTTON_TEXT = "Pause";
-  private static final float PADDLE_OFFSET = 20f;
-  private static final float PLAYER_PADDLE_SPEED = 200f; // in units per second
-  private static final int WINNING_SCORE = 11;
   private static final float SOUND_VOLUME = .2f;
+  private static final int TICKS_PER_SECOND = 120;
+  private static final int MAX_TICKS_PER_FRAME = 12;
+  private static final String REPLAY_DIRECTORY = "replays/";
 
   /*
-   * Ball speed changes dependent on where a paddle is hit (in units per second)
+   * Only the newest replays are kept, so they don't fill up a phone's
+   * storage.
    */
-  private static final float[] BALL_SPEEDS = {240f, 230f, 225f, 220f, 220f, 225f, 230f, 240f};
+  private static final int MAX_REPLAYS = 20;
+
+  private static final int INPUT_BUFFER_CAPACITY = 256;
+  private static final float NANOS_PER_SECOND = 1000000000f;
+
   /*
-   * Ball angle changes dependent on where a paddle is hit
+   * How long each sound plays for, in milliseconds, and how many of each
+   * can play at once.
    */
-  private static final float[] BALL_ANGLES = {220f, 205f, 190f, 180f, 180f, 170f, 155f, 140f};
+  private static final long PADDLE_HIT_SOUND_MILLIS = 100;
+  private static final long WALL_HIT_SOUND_MILLIS = 20;
+  private static final long POINT_SCORED_SOUND_MILLIS = 260;
+  private static final int MAX_VOICES_PER_SOUND = 2;
+
+  /*
+   * Replays are named after when they were saved, so sorting by name puts
+   * the oldest first.
+   */
+  private static final Comparator<FileHandle> OLDEST_FIRST = new Comparator<FileHandle>() {
+
+    @Override
+    public int compare(FileHandle file, FileHandle other) {
+      return file.name().compareTo(other.name());
+    }
+
+  };
 
   private final TextButton pauseButton;
   private final Label playerScoreLabel;
@@ -47,12 +82,21 @@ final class GameScreen extends BaseScreen {
   private final Ball ball;
   private final Paddle playerPaddle;
   private final Paddle computerPaddle;
+  private final PongSimulation simulation;
+  private final PlayerInput playerInput = new PlayerInput();
+  private final InputBuffer inputBuffer = new InputBuffer(INPUT_BUFFER_CAPACITY);
+  private final InputProcessor inputProcessor;
+  private final FixedTimestep timestep = new FixedTimestep(TICKS_PER_SECOND, MAX_TICKS_PER_FRAME);
+  private final MatchRecorder recorder = new MatchRecorder();
+  private final SoundDispatcher soundDispatcher = new SoundDispatcher(SOUND_VOLUME);
+  private final int paddleHitSoundId;
+  private final int wallHitSoundId;
+  private final int pointScoredSoundId;
   private boolean playSounds;
-  private int playerScore;
-  private int computerScore;
-  private boolean gameOver;
-  private boolean hitWall;
-  private boolean hitPaddle;
+  private float previousBallX;
+  private float previousBallY;
+  private float previousPlayerPaddleY;
+  private float previousComputerPaddleY;
 
   /**
    * Creates a new {@code GameScreen} given {@link Assets}, a {@link SpriteBatch} and a {@link
@@ -68,22 +112,54 @@ final class GameScreen extends BaseScreen {
     this.pauseButton = createPauseButton();
     this.playerScoreLabel = ScreenUtils.createPlayerScoreLabel(this.assets, 0);
     this.computerScoreLabel = ScreenUtils.createComputerScoreLabel(this.assets, 0);
-    this.ball = new Ball(this.assets.getBallTexture());
+    this.ball = new Ball(this.assets.getBallRegion());
     this.playerPaddle = createPaddle();
-    this.playerPaddle.setSpeed(PLAYER_PADDLE_SPEED);
     this.computerPaddle = createPaddle();
-    this.stage.addActor(line);
-    this.stage.addActor(this.playerScoreLabel);
-    this.stage.addActor(this.computerScoreLabel);
-    this.stage.addActor(this.ball);
-    this.stage.addActor(this.playerPaddle);
-    this.stage.addActor(this.computerPaddle);
-    this.stage.addActor(this.pauseButton);
+    this.paddleHitSoundId = this.soundDispatcher.addSound(
+        this.assets.getPaddleHitSound(), MAX_VOICES_PER_SOUND, PADDLE_HIT_SOUND_MILLIS);
+    this.wallHitSoundId = this.soundDispatcher.addSound(
+        this.assets.getWallHitSound(), MAX_VOICES_PER_SOUND, WALL_HIT_SOUND_MILLIS);
+    this.pointScoredSoundId = this.soundDispatcher.addSound(
+        this.assets.getPointScoredSound(), MAX_VOICES_PER_SOUND, POINT_SCORED_SOUND_MILLIS);
+    this.soundDispatcher.start();
+    this.simulation = createSimulation();
+    // the stage gets touches first so pressing the pause button doesn't move the paddle
+    this.inputProcessor = new InputMultiplexer(
+        this.renderContext.getStage(),
+        new InputRecorder(
+            this.inputBuffer,
+            this.renderContext.getViewport(),
+            this.playerPaddle.getScaledHeight()
+        )
+    );
+    this.layer.addActor(line);
+    this.layer.addActor(this.playerScoreLabel);
+    this.layer.addActor(this.computerScoreLabel);
+    this.layer.addActor(this.ball);
+    this.layer.addActor(this.playerPaddle);
+    this.layer.addActor(this.computerPaddle);
+    this.layer.addActor(this.pauseButton);
     newGame();
   }
 
+  /**
+   * Sets a {@code GameScreen} as the current {@link Screen}, reusing a cached one if there is
+   * one.
+   *
+   * @param assets {@link Assets} containing assets used in the {@link Screen}
+   * @param spriteBatch {@link SpriteBatch} to add sprites to
+   * @param screenManager the {@link ScreenManager} used to manage game {@link Screen}s
+   */
+  static void open(Assets assets, SpriteBatch spriteBatch, ScreenManager screenManager) {
+    GameScreen screen = screenManager.getCachedScreen(GameScreen.class);
+    if (screen == null) {
+      screen = new GameScreen(assets, spriteBatch, screenManager);
+    }
+    screenManager.setScreen(screen);
+  }
+
   private Image createLine() {
-    Image line = new Image(assets.getLineTexture());
+    Image line = new Image(assets.getLineRegion());
     line.setX(BlueprintPongGame.VIRTUAL_WIDTH / 2f);
     Scaling.scaleActor(line);
     return line;
@@ -115,276 +191,221 @@ final class GameScreen extends BaseScreen {
   private void switchToPauseScreen() {
     // don't dispose this screen because we want to be able to return to it
     // from the next screen
-    screenManager.setScreen(new PauseScreen(assets, spriteBatch, screenManager, this));
-  }
-
-  private Paddle createPaddle() {
-    return new Paddle(assets.getPaddleTexture());
+    PauseScreen.open(assets, spriteBatch, screenManager, this);
   }
 
-  void newGame() {
-    updatePreferences();
-    playerScore = 0;
-    updatePlayerScoreLabel();
-    computerScore = 0;
-    updateComputerScoreLabel();
-    gameOver = false;
-    resetPlayerPaddle();
-    resetComputerPaddle();
-    newRound(MathUtils.randomBoolean());
+  @Override
+  InputProcessor getInputProcessor() {
+    return inputProcessor;
   }
 
-  private void updatePreferences() {
-    computerPaddle.setSpeed(GamePreferences.getDifficulty().getComputerPaddleSpeed());
-    playSounds = GamePreferences.shouldPlaySounds();
+  private Paddle createPaddle() {
+    return new Paddle(assets.getPaddleRegion());
   }
 
-  private void updatePlayerScoreLabel() {
-    ScreenUtils.updatePlayerScoreLabel(playerScoreLabel, playerScore);
-  }
+  /*
+   * Use the actual scaled actor sizes so the simulation matches what is drawn.
+   */
+  private PongSimulation createSimulation() {
+    PongSimulation simulation = new PongSimulation(
+        ball.getScaledWidth(),
+        ball.getScaledHeight(),
+        playerPaddle.getScaledWidth(),
+        playerPaddle.getScaledHeight(),
+        MathUtils.random.nextLong()
+    );
+    simulation.setResponseProfile(assets.getResponseProfile());
+    simulation.setComputerStrategy(ComputerStrategy.INTERCEPT);
+    addSimulationListener(simulation);
+    return simulation;
+  }
+
+  private void addSimulationListener(PongSimulation simulation) {
+    simulation.setListener(new SimulationListener() {
 
-  private void updateComputerScoreLabel() {
-    ScreenUtils.updateComputerScoreLabel(computerScoreLabel, computerScore);
-  }
+      @Override
+      public void paddleHit() {
+        playSound(paddleHitSoundId);
+      }
 
-  private void resetPlayerPaddle() {
-    resetPaddle(playerPaddle, PADDLE_OFFSET);
-  }
+      @Override
+      public void wallHit() {
+        playSound(wallHitSoundId);
+      }
 
-  private void resetComputerPaddle() {
-    float x = BlueprintPongGame.VIRTUAL_WIDTH - PADDLE_OFFSET - computerPaddle.getScaledWidth();
-    resetPaddle(computerPaddle, x);
-  }
+      @Override
+      public void pointScored(boolean playerScored) {
+        // ball has been served again so don't interpolate from where it went out
+        storePreviousPositions();
+        if (playerScored) {
+          updatePlayerScoreLabel();
+        } else {
+          updateComputerScoreLabel();
+        }
+        playSound(pointScoredSoundId);
+      }
 
-  private void resetPaddle(Paddle paddle, float x) {
-    float y = (BlueprintPongGame.VIRTUAL_HEIGHT / 2f) - (paddle.getScaledHeight() / 2f);
-    paddle.setPosition(x, y);
-    paddle.setTargetY(y);
+    });
   }
 
-  private void newRound(boolean serveToPlayer) {
-    setRandomBallPosition();
-    setRandomBallAngle(serveToPlayer);
-    ball.setSpeed(BALL_SPEEDS[3]);
+  /*
+   * Sounds are only handed to the audio backend at the end of the frame, on
+   * another thread.
+   */
+  private void playSound(int soundId) {
+    if (playSounds) {
+      soundDispatcher.play(soundId);
+    }
   }
 
-  private void setRandomBallPosition() {
-    float x = (BlueprintPongGame.VIRTUAL_WIDTH / 2f) - (ball.getScaledWidth() / 2f);
-    float y = MathUtils.random(0, BlueprintPongGame.VIRTUAL_HEIGHT - ball.getScaledHeight());
-    ball.setPosition(x, y);
+  void newGame() {
+    updatePreferences();
+    long seed = MathUtils.random.nextLong();
+    simulation.newGame(seed);
+    recorder.start(simulation, timestep.getTickDuration(), seed);
+    updatePlayerScoreLabel();
+    updateComputerScoreLabel();
+    timestep.reset();
+    inputBuffer.clear();
+    storePreviousPositions();
+    updateActorPositions(1f);
   }
 
-  private void setRandomBallAngle(boolean serveToPlayer) {
-    float angle = BALL_ANGLES[MathUtils.random(BALL_ANGLES.length - 1)];
-    if (serveToPlayer) {
-      angle = reflectAngleInYAxis(angle);
-    }
-    ball.setAngle(angle);
+  private void updatePreferences() {
+    Difficulty difficulty = GamePreferences.getDifficulty();
+    simulation.setComputerPaddleSpeed(difficulty.getComputerPaddleSpeed());
+    simulation.setComputerReactionTime(difficulty.getComputerReactionTime());
+    simulation.setComputerAimError(difficulty.getComputerAimError());
+    playSounds = GamePreferences.shouldPlaySounds();
   }
 
-  private float reflectAngleInYAxis(float angle) {
-    return (540f - angle) % 360f;
+  private void updatePlayerScoreLabel() {
+    ScreenUtils.updatePlayerScoreLabel(playerScoreLabel, simulation.getPlayerScore());
   }
 
-  private float reflectAngleInXAxis(float angle) {
-    return (720f - angle) % 360f;
+  private void updateComputerScoreLabel() {
+    ScreenUtils.updateComputerScoreLabel(computerScoreLabel, simulation.getComputerScore());
   }
 
   void resumeGame() {
     updatePreferences();
+    // settings may have been changed while paused
+    recorder.recordSettings(simulation);
+    // keys and touches released while paused were never seen
+    inputBuffer.clear();
   }
 
   @Override
-  void update(float delta) {
-    if (gameOver) {
-      switchToGameOverScreen();
-    } else {
-      handleUserInput(delta);
-      ball.updatePosition(delta);
-      updateComputerPaddlePosition(delta);
-      handleCollisions();
-      updateScore();
-    }
+  void onReuse() {
+    newGame();
   }
 
-  private void switchToGameOverScreen() {
-    // don't dispose this screen because we want to be able to return to it
-    // from the next screen
-    screenManager.setScreen(new GameOverScreen(assets, spriteBatch, screenManager, this));
+  @Override
+  void onDispose() {
+    soundDispatcher.dispose();
   }
 
-  private void handleUserInput(float delta) {
-    if (pauseButton.isPressed()) {
-      return;
-    } else if (Gdx.input.isKeyPressed(Input.Keys.UP)) {
-      playerPaddle.moveUp(delta);
-    } else if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) {
-      playerPaddle.moveDown(delta);
-    } else if (Gdx.input.isTouched()) {
-      Vector2 touchCoordinates = new Vector2(0, Gdx.input.getY());
-      touchCoordinates = stage.getViewport().unproject(touchCoordinates);
-      float y = touchCoordinates.y - (playerPaddle.getScaledHeight() / 2f);
-      playerPaddle.setTargetY(y);
-    }
-    playerPaddle.updatePosition(delta);
-    ensurePaddleIsInBounds(playerPaddle);
+  @Override
+  boolean rendersContinuously() {
+    // ball and paddles move without any input
+    return true;
   }
 
-  private void ensurePaddleIsInBounds(Paddle paddle) {
-    if (paddle.getY() < 0) {
-      paddle.setY(0);
-    } else if (paddle.getY() + paddle.getScaledHeight() > BlueprintPongGame.VIRTUAL_HEIGHT) {
-      float y = BlueprintPongGame.VIRTUAL_HEIGHT - paddle.getScaledHeight();
-      paddle.setY(y);
+  @Override
+  void update(float delta) {
+    if (simulation.isGameOver()) {
+      saveReplay();
+      switchToGameOverScreen();
+    } else {
+      int ticks = timestep.advance(delta);
+      long tickNanos = (long) (timestep.getTickDuration() * NANOS_PER_SECOND);
+      // the last tick ends the leftover time before now, the others a whole tick apart before it
+      long lastTickEndTime = TimeUtils.nanoTime() - (long) (timestep.getAlpha() * tickNanos);
+      for (int i = 0; i < ticks && !simulation.isGameOver(); i++) {
+        storePreviousPositions();
+        inputBuffer.read(lastTickEndTime - (ticks - 1 - i) * tickNanos, playerInput);
+        recorder.recordTick(playerInput);
+        simulation.step(timestep.getTickDuration(), playerInput);
+      }
+      updateActorPositions(timestep.getAlpha());
+      soundDispatcher.flush();
     }
   }
 
   /*
-   * Computer paddle follows the ball.
+   * Replays are only useful for finding problems, so failing to save one
+   * shouldn't stop the game.
    */
-  private void updateComputerPaddlePosition(float delta) {
-    float y = ball.getY() + (ball.getScaledHeight() / 2f) - (computerPaddle.getScaledHeight() / 2f);
-    computerPaddle.setTargetY(y);
-    computerPaddle.updatePosition(delta);
-    ensurePaddleIsInBounds(computerPaddle);
-  }
-
-  private void handleCollisions() {
-    handlePaddleCollision();
-    handleWallCollision();
-  }
-
-  private void handlePaddleCollision() {
-    boolean hitPlayerPaddle = hitPaddle(playerPaddle);
-    boolean hitComputerPaddle = hitPaddle(computerPaddle);
-    if (!hitPaddle && hitPlayerPaddle) {
-      int sectionHit = getPaddleSectionHit(playerPaddle);
-      float angle = BALL_ANGLES[sectionHit];
-      float speed = BALL_SPEEDS[sectionHit];
-      ball.setAngle(angle);
-      ball.setSpeed(speed);
-      playPaddleHitSound();
-      hitPaddle = true;
-    } else if (!hitPaddle && hitComputerPaddle) {
-      int sectionHit = getPaddleSectionHit(computerPaddle);
-      float angle = reflectAngleInYAxis(BALL_ANGLES[sectionHit]);
-      float speed = BALL_SPEEDS[sectionHit];
-      ball.setAngle(angle);
-      ball.setSpeed(speed);
-      playPaddleHitSound();
-      hitPaddle = true;
-    } else if (!hitPlayerPaddle && !hitComputerPaddle) {
-      hitPaddle = false;
+  private void saveReplay() {
+    byte[] log = recorder.finish(simulation);
+    if (log == null) {
+      return;
     }
-  }
-
-  private boolean hitPaddle(Paddle paddle) {
-    float ballLeft = ball.getX();
-    float ballRight = ballLeft + ball.getScaledWidth();
-    float ballBottom = ball.getY();
-    float ballTop = ballBottom + ball.getScaledHeight();
-    float paddleLeft = paddle.getX();
-    float paddleRight = paddleLeft + paddle.getScaledWidth();
-    float paddleBottom = paddle.getY();
-    float paddleTop = paddleBottom + paddle.getScaledHeight();
-    return ((ballLeft >= paddleLeft && ballLeft <= paddleRight)
-        || (ballRight >= paddleLeft && ballRight <= paddleRight))
-        && ((ballBottom >= paddleBottom && ballBottom <= paddleTop)
-        || (ballTop >= paddleBottom && ballTop <= paddleTop));
-  }
-
-  private int getPaddleSectionHit(Paddle paddle) {
-    float ballY = ball.getY();
-    float paddleY = paddle.getY() + paddle.getSectionSize();
-    for (int i = 0; i < Paddle.SECTIONS; i++) {
-      if (ballY <= paddleY) {
-        return i;
-      }
-      paddleY += paddle.getSectionSize();
+    String fileName = REPLAY_DIRECTORY + TimeUtils.millis() + "." + MatchRecorder.FILE_EXTENSION;
+    try {
+      Gdx.files.local(fileName).writeBytes(log, false);
+      deleteOldReplays();
+    } catch (GdxRuntimeException e) {
+      Gdx.app.error(BlueprintPongGame.TITLE, "Couldn't save replay", e);
     }
-    return Paddle.SECTIONS - 1;
   }
 
-  private void handleWallCollision() {
-    boolean hitTopWall = hitTopWall();
-    boolean hitBottomWall = hitBottomWall();
-    if (!hitWall && hitTopWall) {
-      float angle = reflectAngleInXAxis(ball.getAngle());
-      float y = BlueprintPongGame.VIRTUAL_HEIGHT - ball.getScaledHeight();
-      ball.setAngle(angle);
-      ball.setY(y);
-      playWallHitSound();
-      hitWall = true;
-    } else if (!hitWall && hitBottomWall) {
-      float angle = reflectAngleInXAxis(ball.getAngle());
-      float y = 0;
-      ball.setAngle(angle);
-      ball.setY(y);
-      playWallHitSound();
-      hitWall = true;
-    } else if (!hitTopWall && !hitBottomWall) {
-      hitWall = false;
+  private static void deleteOldReplays() {
+    FileHandle[] replays = Gdx.files.local(REPLAY_DIRECTORY)
+        .list("." + MatchRecorder.FILE_EXTENSION);
+    if (replays.length <= MAX_REPLAYS) {
+      return;
+    }
+    Arrays.sort(replays, OLDEST_FIRST);
+    for (int i = 0; i < replays.length - MAX_REPLAYS; i++) {
+      replays[i].delete();
     }
   }
 
-  private boolean hitTopWall() {
-    return ball.getY() + ball.getScaledHeight() >= BlueprintPongGame.VIRTUAL_HEIGHT;
-  }
-
-  private boolean hitBottomWall() {
-    return ball.getY() <= 0;
-  }
-
-  private void playPaddleHitSound() {
-    playSound(assets.getPaddleHitSound());
-  }
-
-  private void playWallHitSound() {
-    playSound(assets.getWallHitSound());
-  }
-
-  private void playSound(Sound sound) {
-    if (playSounds) {
-      sound.play(SOUND_VOLUME);
-    }
+  private void switchToGameOverScreen() {
+    // don't dispose this screen because we want to be able to return to it
+    // from the next screen
+    GameOverScreen.open(assets, spriteBatch, screenManager, this);
   }
 
-  private void updateScore() {
-    // has player scored
-    if (ball.getX() > BlueprintPongGame.VIRTUAL_WIDTH) {
-      playerScore++;
-      updatePlayerScoreLabel();
-      playPointScoredSound();
-      newRound(true);
-    }
-    // has computer scored
-    else if (ball.getX() < -ball.getScaledWidth()) {
-      computerScore++;
-      updateComputerScoreLabel();
-      playPointScoredSound();
-      newRound(false);
-    }
-    if (playerScore == WINNING_SCORE || computerScore == WINNING_SCORE) {
-      gameOver = true;
-    }
+  private void storePreviousPositions() {
+    previousBallX = simulation.getBallX();
+    previousBallY = simulation.getBallY();
+    previousPlayerPaddleY = simulation.getPlayerPaddleY();
+    previousComputerPaddleY = simulation.getComputerPaddleY();
   }
 
-  private void playPointScoredSound() {
-    playSound(assets.getPointScoredSound());
+  /*
+   * Draw positions are blended between the previous and current tick so
+   * movement looks smooth at any refresh rate.
+   */
+  private void updateActorPositions(float alpha) {
+    ball.setPosition(
+        MathUtils.lerp(previousBallX, simulation.getBallX(), alpha),
+        MathUtils.lerp(previousBallY, simulation.getBallY(), alpha)
+    );
+    playerPaddle.setPosition(
+        simulation.getPlayerPaddleX(),
+        MathUtils.lerp(previousPlayerPaddleY, simulation.getPlayerPaddleY(), alpha)
+    );
+    computerPaddle.setPosition(
+        simulation.getComputerPaddleX(),
+        MathUtils.lerp(previousComputerPaddleY, simulation.getComputerPaddleY(), alpha)
+    );
   }
 
   /**
    * @return the computer score
    */
   int getComputerScore() {
-    return computerScore;
+    return simulation.getComputerScore();
   }
 
   /**
    * @return the player score
    */
   int getPlayerScore() {
-    return playerScore;
+    return simulation.getPlayerScore();
   }
 
   @Override
@@ -0,0 +1,100 @@
+package lowe.mike.blueprintpong.screen;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.viewport.Viewport;
+import lowe.mike.blueprintpong.simulation.InputBuffer;
+
+/**
+ * {@code InputRecorder} records the keys and touches that move the player's paddle into an {@link
+ * InputBuffer}, stamped with when each was received. The up and down keys move the paddle, and
+ * the first finger down moves the middle of the paddle towards it.
+ * <p>
+ * Events are stamped with {@link TimeUtils#nanoTime()}, the clock the ticks are timed with, rather
+ * than {@link Input#getCurrentEventTime()}, which comes from a different clock on some backends,
+ * e.g. LWJGL's, so would put events in the wrong tick.
+ *
+ * @author Mike Lowe
+ */
+final class InputRecorder extends InputAdapter {
+
+  private final InputBuffer inputBuffer;
+  private final Viewport viewport;
+  private final float paddleHeight;
+  private final Vector2 touchCoordinates = new Vector2();
+
+  /**
+   * Creates a new {@code InputRecorder}.
+   *
+   * @param inputBuffer the {@link InputBuffer} to record into
+   * @param viewport the {@link Viewport} touches are made through
+   * @param paddleHeight height of the player's paddle
+   */
+  InputRecorder(InputBuffer inputBuffer, Viewport viewport, float paddleHeight) {
+    this.inputBuffer = inputBuffer;
+    this.viewport = viewport;
+    this.paddleHeight = paddleHeight;
+  }
+
+  @Override
+  public boolean keyDown(int keycode) {
+    long time = TimeUtils.nanoTime();
+    if (keycode == Input.Keys.UP) {
+      inputBuffer.upPressed(time);
+    } else if (keycode == Input.Keys.DOWN) {
+      inputBuffer.downPressed(time);
+    } else {
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean keyUp(int keycode) {
+    long time = TimeUtils.nanoTime();
+    if (keycode == Input.Keys.UP) {
+      inputBuffer.upReleased(time);
+    } else if (keycode == Input.Keys.DOWN) {
+      inputBuffer.downReleased(time);
+    } else {
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+    return recordTouch(screenY, pointer);
+  }
+
+  @Override
+  public boolean touchDragged(int screenX, int screenY, int pointer) {
+    return recordTouch(screenY, pointer);
+  }
+
+  @Override
+  public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+    if (pointer != 0) {
+      return false;
+    }
+    inputBuffer.touchReleased(TimeUtils.nanoTime());
+    return true;
+  }
+
+  /*
+   * Only the first finger moves the paddle.
+   */
+  private boolean recordTouch(int screenY, int pointer) {
+    if (pointer != 0) {
+      return false;
+    }
+    // reuse the same vector so touches don't create garbage
+    touchCoordinates.set(0, screenY);
+    viewport.unproject(touchCoordinates);
+    float targetY = touchCoordinates.y - (paddleHeight / 2f);
+    inputBuffer.touched(TimeUtils.nanoTime(), targetY);
+    return true;
+  }
+}
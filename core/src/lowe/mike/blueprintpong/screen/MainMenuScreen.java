@@ -18,6 +18,7 @@ import lowe.mike.blueprintpong.BlueprintPongGame;
 final class MainMenuScreen extends BaseScreen {
 
   private static final String PLAY_BUTTON_TEXT = "Play";
+  private static final String ONLINE_BUTTON_TEXT = "Online";
 
   /**
    * Creates a new {@code MainMenuScreen} given {@link Assets}, a {@link SpriteBatch} and a {@link
@@ -30,7 +31,23 @@ final class MainMenuScreen extends BaseScreen {
   MainMenuScreen(Assets assets, SpriteBatch spriteBatch, ScreenManager screenManager) {
     super(assets, spriteBatch, screenManager);
     Table menu = createMenu();
-    this.stage.addActor(menu);
+    this.layer.addActor(menu);
+  }
+
+  /**
+   * Sets a {@code MainMenuScreen} as the current {@link Screen}, reusing a cached one if there is
+   * one.
+   *
+   * @param assets {@link Assets} containing assets used in the {@link Screen}
+   * @param spriteBatch {@link SpriteBatch} to add sprites to
+   * @param screenManager the {@link ScreenManager} used to manage game {@link Screen}s
+   */
+  static void open(Assets assets, SpriteBatch spriteBatch, ScreenManager screenManager) {
+    MainMenuScreen screen = screenManager.getCachedScreen(MainMenuScreen.class);
+    if (screen == null) {
+      screen = new MainMenuScreen(assets, spriteBatch, screenManager);
+    }
+    screenManager.setScreen(screen);
   }
 
   private Table createMenu() {
@@ -48,6 +65,11 @@ final class MainMenuScreen extends BaseScreen {
     TextButton playButton = createPlayButton();
     table.add(playButton).expandX();
 
+    // add online button
+    table.row().padTop(COMPONENT_SPACING);
+    TextButton onlineButton = createOnlineButton();
+    table.add(onlineButton).expandX();
+
     // add settings button
     table.row().padTop(COMPONENT_SPACING);
     TextButton settingsButton =
@@ -78,9 +100,27 @@ final class MainMenuScreen extends BaseScreen {
 
   }
 
+  private TextButton createOnlineButton() {
+    final TextButton button = ScreenUtils.createTextButton(assets, ONLINE_BUTTON_TEXT);
+    button.addListener(new ChangeListener() {
+
+      @Override
+      public void changed(ChangeEvent event, Actor actor) {
+        if (button.isChecked()) {
+          // don't dispose this screen because we want to be able to return to it
+          // from the next screen
+          OnlineScreen.open(assets, spriteBatch, screenManager);
+          button.setChecked(false);
+        }
+      }
+
+    });
+    return button;
+  }
+
   private void switchToDifficultyScreen() {
     // don't dispose this screen because we want to be able to return to it
     // from the next screen
-    screenManager.setScreen(new DifficultyScreen(assets, spriteBatch, screenManager));
+    DifficultyScreen.open(assets, spriteBatch, screenManager);
   }
 }
@@ -0,0 +1,288 @@
+package lowe.mike.blueprintpong.screen;
+
+import com.badlogic.gdx.InputMultiplexer;
+import com.badlogic.gdx.InputProcessor;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
+import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
+import com.badlogic.gdx.utils.TimeUtils;
+import lowe.mike.blueprintpong.Assets;
+import lowe.mike.blueprintpong.BlueprintPongGame;
+import lowe.mike.blueprintpong.Scaling;
+import lowe.mike.blueprintpong.actor.Ball;
+import lowe.mike.blueprintpong.actor.Paddle;
+import lowe.mike.blueprintpong.net.NetworkMatch;
+import lowe.mike.blueprintpong.net.Protocol;
+import lowe.mike.blueprintpong.simulation.FixedTimestep;
+import lowe.mike.blueprintpong.simulation.InputBuffer;
+import lowe.mike.blueprintpong.simulation.PlayerInput;
+import lowe.mike.blueprintpong.simulation.PongSimulation;
+
+/**
+ * Screen to show when an online match is being played, against another player rather than the
+ * computer, or watched. The match itself is run by a {@link NetworkMatch}, either hosted here or
+ * followed from another device, so it can't be paused.
+ *
+ * @author Mike Lowe
+ */
+final class OnlineGameScreen extends BaseScreen {
+
+  private static final String LEAVE_BUTTON_TEXT = "Leave";
+  private static final String WAITING_LABEL_TEXT = "Waiting For Opponent";
+  private static final String CONNECTING_LABEL_TEXT = "Connecting";
+  private static final String PLAYER_WINS_LABEL_TEXT = "You Win";
+  private static final String OPPONENT_WINS_LABEL_TEXT = "Opponent Wins";
+  private static final String DISCONNECTED_LABEL_TEXT = "Opponent Left";
+  private static final String WAITING_FOR_PLAYERS_LABEL_TEXT = "Waiting For Players";
+  private static final String LEFT_WINS_LABEL_TEXT = "Left Wins";
+  private static final String RIGHT_WINS_LABEL_TEXT = "Right Wins";
+  private static final String MATCH_ENDED_LABEL_TEXT = "Match Ended";
+  private static final int MAX_TICKS_PER_FRAME = 12;
+  private static final int INPUT_BUFFER_CAPACITY = 256;
+  private static final float NANOS_PER_SECOND = 1000000000f;
+
+  private final NetworkMatch match;
+  private final Label statusLabel;
+  private final Label leftScoreLabel;
+  private final Label rightScoreLabel;
+  private final Ball ball;
+  private final Paddle leftPaddle;
+  private final Paddle rightPaddle;
+  private final PlayerInput playerInput = new PlayerInput();
+  private final InputBuffer inputBuffer = new InputBuffer(INPUT_BUFFER_CAPACITY);
+  private final InputProcessor inputProcessor;
+  private final FixedTimestep timestep =
+      new FixedTimestep(Protocol.TICKS_PER_SECOND, MAX_TICKS_PER_FRAME);
+  private NetworkMatch.Status status;
+  private int leftScore = -1;
+  private int rightScore = -1;
+  private float previousBallX;
+  private float previousBallY;
+  private float previousLeftPaddleY;
+  private float previousRightPaddleY;
+
+  /**
+   * Creates a new {@code OnlineGameScreen} given {@link Assets}, a {@link SpriteBatch}, a {@link
+   * ScreenManager} and the {@link NetworkMatch} to play.
+   *
+   * @param assets {@link Assets} containing assets used in the {@link Screen}
+   * @param spriteBatch {@link SpriteBatch} to add sprites to
+   * @param screenManager the {@link ScreenManager} used to manage game {@link Screen}s
+   * @param match the {@link NetworkMatch}, which is closed when this {@link Screen} is disposed
+   */
+  OnlineGameScreen(Assets assets,
+      SpriteBatch spriteBatch,
+      ScreenManager screenManager,
+      NetworkMatch match) {
+    super(assets, spriteBatch, screenManager);
+    this.match = match;
+    Image line = createLine();
+    TextButton leaveButton = createLeaveButton();
+    this.statusLabel = ScreenUtils.createLabel(this.assets.getLargeFont(), "");
+    this.leftScoreLabel = ScreenUtils.createPlayerScoreLabel(this.assets, 0);
+    this.rightScoreLabel = ScreenUtils.createComputerScoreLabel(this.assets, 0);
+    this.ball = new Ball(this.assets.getBallRegion());
+    this.leftPaddle = new Paddle(this.assets.getPaddleRegion());
+    this.rightPaddle = new Paddle(this.assets.getPaddleRegion());
+    // the stage gets touches first so pressing the leave button doesn't move the paddle
+    this.inputProcessor = new InputMultiplexer(
+        this.renderContext.getStage(),
+        new InputRecorder(
+            this.inputBuffer,
+            this.renderContext.getViewport(),
+            this.leftPaddle.getScaledHeight()
+        )
+    );
+    this.layer.addActor(line);
+    this.layer.addActor(this.leftScoreLabel);
+    this.layer.addActor(this.rightScoreLabel);
+    this.layer.addActor(this.ball);
+    this.layer.addActor(this.leftPaddle);
+    this.layer.addActor(this.rightPaddle);
+    this.layer.addActor(leaveButton);
+    this.layer.addActor(this.statusLabel);
+    updateLabels();
+    storePreviousPositions();
+    updateActorPositions(1f);
+  }
+
+  /**
+   * Sets a new {@code OnlineGameScreen} as the current {@link Screen}. It is never reused, as
+   * each one plays a single match.
+   *
+   * @param assets {@link Assets} containing assets used in the {@link Screen}
+   * @param spriteBatch {@link SpriteBatch} to add sprites to
+   * @param screenManager the {@link ScreenManager} used to manage game {@link Screen}s
+   * @param match the {@link NetworkMatch} to play
+   */
+  static void open(Assets assets,
+      SpriteBatch spriteBatch,
+      ScreenManager screenManager,
+      NetworkMatch match) {
+    screenManager.setScreen(new OnlineGameScreen(assets, spriteBatch, screenManager, match));
+  }
+
+  private Image createLine() {
+    Image line = new Image(assets.getLineRegion());
+    line.setX(BlueprintPongGame.VIRTUAL_WIDTH / 2f);
+    Scaling.scaleActor(line);
+    return line;
+  }
+
+  private TextButton createLeaveButton() {
+    final TextButton button = ScreenUtils.createTextButton(assets, LEAVE_BUTTON_TEXT);
+    button.addListener(new ChangeListener() {
+
+      @Override
+      public void changed(ChangeEvent event, Actor actor) {
+        if (button.isChecked()) {
+          // disposing this screen closes the match
+          screenManager.switchToPreviousScreen();
+          button.setChecked(false);
+        }
+      }
+
+    });
+    float x = (BlueprintPongGame.VIRTUAL_WIDTH / 2f) - (button.getWidth() / 2f);
+    float y = BlueprintPongGame.VIRTUAL_HEIGHT - button.getHeight() - COMPONENT_SPACING;
+    button.setPosition(x, y);
+    return button;
+  }
+
+  @Override
+  InputProcessor getInputProcessor() {
+    return inputProcessor;
+  }
+
+  @Override
+  boolean isReusable() {
+    return false;
+  }
+
+  @Override
+  boolean rendersContinuously() {
+    // ball and paddles move without any input
+    return true;
+  }
+
+  @Override
+  void update(float delta) {
+    int ticks = timestep.advance(delta);
+    long tickNanos = (long) (timestep.getTickDuration() * NANOS_PER_SECOND);
+    // the last tick ends the leftover time before now, the others a whole tick apart before it
+    long lastTickEndTime = TimeUtils.nanoTime() - (long) (timestep.getAlpha() * tickNanos);
+    for (int i = 0; i < ticks; i++) {
+      storePreviousPositions();
+      inputBuffer.read(lastTickEndTime - (ticks - 1 - i) * tickNanos, playerInput);
+      match.tick(playerInput);
+    }
+    updateLabels();
+    updateActorPositions(timestep.getAlpha());
+  }
+
+  private void updateLabels() {
+    // only lay the labels out again when they change
+    int side = match.getLocalSide();
+    int otherSide = (side == NetworkMatch.LEFT) ? NetworkMatch.RIGHT : NetworkMatch.LEFT;
+    if (match.getScore(NetworkMatch.LEFT) != leftScore) {
+      leftScore = match.getScore(NetworkMatch.LEFT);
+      ScreenUtils.updatePlayerScoreLabel(leftScoreLabel, leftScore);
+    }
+    if (match.getScore(NetworkMatch.RIGHT) != rightScore) {
+      rightScore = match.getScore(NetworkMatch.RIGHT);
+      ScreenUtils.updateComputerScoreLabel(rightScoreLabel, rightScore);
+    }
+    if (match.getStatus() == status) {
+      return;
+    }
+    status = match.getStatus();
+    boolean isStarted = status != NetworkMatch.Status.CONNECTING;
+    ball.setVisible(isStarted);
+    leftPaddle.setVisible(isStarted);
+    rightPaddle.setVisible(isStarted);
+    if (side == NetworkMatch.SPECTATOR) {
+      setSpectatorStatusText();
+    } else {
+      setPlayerStatusText(side, otherSide);
+    }
+    statusLabel.pack();
+    statusLabel.setPosition(
+        (BlueprintPongGame.VIRTUAL_WIDTH / 2f) - (statusLabel.getWidth() / 2f),
+        (BlueprintPongGame.VIRTUAL_HEIGHT / 2f) - (statusLabel.getHeight() / 2f)
+    );
+  }
+
+  private void setPlayerStatusText(int side, int otherSide) {
+    switch (status) {
+      case CONNECTING:
+        statusLabel.setText((side == NetworkMatch.LEFT) ? WAITING_LABEL_TEXT
+            : CONNECTING_LABEL_TEXT);
+        break;
+      case FINISHED:
+        statusLabel.setText((match.getScore(side) > match.getScore(otherSide))
+            ? PLAYER_WINS_LABEL_TEXT : OPPONENT_WINS_LABEL_TEXT);
+        break;
+      case DISCONNECTED:
+        statusLabel.setText(DISCONNECTED_LABEL_TEXT);
+        break;
+      default:
+        statusLabel.setText("");
+        break;
+    }
+  }
+
+  private void setSpectatorStatusText() {
+    switch (status) {
+      case CONNECTING:
+        statusLabel.setText(WAITING_FOR_PLAYERS_LABEL_TEXT);
+        break;
+      case FINISHED:
+        statusLabel.setText(
+            (match.getScore(NetworkMatch.LEFT) > match.getScore(NetworkMatch.RIGHT))
+                ? LEFT_WINS_LABEL_TEXT : RIGHT_WINS_LABEL_TEXT);
+        break;
+      case DISCONNECTED:
+        statusLabel.setText(MATCH_ENDED_LABEL_TEXT);
+        break;
+      default:
+        statusLabel.setText("");
+        break;
+    }
+  }
+
+  private void storePreviousPositions() {
+    previousBallX = match.getBallX();
+    previousBallY = match.getBallY();
+    previousLeftPaddleY = match.getPaddleY(NetworkMatch.LEFT);
+    previousRightPaddleY = match.getPaddleY(NetworkMatch.RIGHT);
+  }
+
+  /*
+   * Draw positions are blended between the previous and current tick so
+   * movement looks smooth at any refresh rate.
+   */
+  private void updateActorPositions(float alpha) {
+    ball.setPosition(
+        MathUtils.lerp(previousBallX, match.getBallX(), alpha),
+        MathUtils.lerp(previousBallY, match.getBallY(), alpha)
+    );
+    leftPaddle.setPosition(
+        PongSimulation.PADDLE_OFFSET,
+        MathUtils.lerp(previousLeftPaddleY, match.getPaddleY(NetworkMatch.LEFT), alpha)
+    );
+    rightPaddle.setPosition(
+        PongSimulation.COURT_WIDTH - PongSimulation.PADDLE_OFFSET - rightPaddle.getScaledWidth(),
+        MathUtils.lerp(previousRightPaddleY, match.getPaddleY(NetworkMatch.RIGHT), alpha)
+    );
+  }
+
+  @Override
+  void onDispose() {
+    match.close();
+  }
+}
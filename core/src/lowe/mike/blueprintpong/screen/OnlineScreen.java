@@ -0,0 +1,263 @@
+package lowe.mike.blueprintpong.screen;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
+import com.badlogic.gdx.scenes.scene2d.ui.TextField;
+import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import lowe.mike.blueprintpong.Assets;
+import lowe.mike.blueprintpong.GamePreferences;
+import lowe.mike.blueprintpong.net.MatchClient;
+import lowe.mike.blueprintpong.net.MatchHost;
+import lowe.mike.blueprintpong.net.NetworkMatch;
+import lowe.mike.blueprintpong.net.Protocol;
+import lowe.mike.blueprintpong.net.SpectatorClient;
+import lowe.mike.blueprintpong.net.UdpTransport;
+
+/**
+ * Screen to host an online match, or join or watch one at the address entered.
+ *
+ * @author Mike Lowe
+ */
+final class OnlineScreen extends BaseScreen {
+
+  private static final String ONLINE_LABEL_TEXT = "Online";
+  private static final String HOST_BUTTON_TEXT = "Host";
+  private static final String JOIN_BUTTON_TEXT = "Join";
+  private static final String WATCH_BUTTON_TEXT = "Watch";
+  private static final String FINDING_HOST_TEXT = "Finding host";
+  private static final String UNKNOWN_HOST_TEXT = "Host not found";
+  private static final String SOCKET_ERROR_TEXT = "Couldn't open a connection";
+  private static final String RESOLVER_THREAD_NAME = "HostResolver";
+  private static final float ADDRESS_FIELD_WIDTH = 160f;
+  private static final char PORT_SEPARATOR = ':';
+
+  private final TextField addressField;
+  private final Label statusLabel;
+  private boolean isFindingHost;
+
+  /**
+   * Creates a new {@code OnlineScreen} given {@link Assets}, a {@link SpriteBatch} and a {@link
+   * ScreenManager}.
+   *
+   * @param assets {@link Assets} containing assets used in the {@link Screen}
+   * @param spriteBatch {@link SpriteBatch} to add sprites to
+   * @param screenManager the {@link ScreenManager} used to manage game {@link Screen}s
+   */
+  OnlineScreen(Assets assets, SpriteBatch spriteBatch, ScreenManager screenManager) {
+    super(assets, spriteBatch, screenManager);
+    this.addressField = createAddressField();
+    this.statusLabel = ScreenUtils.createLabel(this.assets.getMediumFont(), "");
+    Table menu = createMenu();
+    this.layer.addActor(menu);
+  }
+
+  /**
+   * Sets an {@code OnlineScreen} as the current {@link Screen}, reusing a cached one if there is
+   * one.
+   *
+   * @param assets {@link Assets} containing assets used in the {@link Screen}
+   * @param spriteBatch {@link SpriteBatch} to add sprites to
+   * @param screenManager the {@link ScreenManager} used to manage game {@link Screen}s
+   */
+  static void open(Assets assets, SpriteBatch spriteBatch, ScreenManager screenManager) {
+    OnlineScreen screen = screenManager.getCachedScreen(OnlineScreen.class);
+    if (screen == null) {
+      screen = new OnlineScreen(assets, spriteBatch, screenManager);
+    }
+    screenManager.setScreen(screen);
+  }
+
+  @Override
+  void onReuse() {
+    addressField.setText(GamePreferences.getHostAddress());
+    statusLabel.setText("");
+  }
+
+  private TextField createAddressField() {
+    TextField.TextFieldStyle style = new TextField.TextFieldStyle();
+    style.font = assets.getMediumFont();
+    style.fontColor = Color.WHITE;
+    style.background = new TextureRegionDrawable(assets.getButtonUpRegion());
+    TextureRegionDrawable cursor = new TextureRegionDrawable(assets.getLoadingBarRegion());
+    cursor.setMinWidth(1f);
+    style.cursor = cursor;
+    style.selection = new TextureRegionDrawable(assets.getLoadingBarRegion()).tint(Color.GRAY);
+    TextField field = new TextField(GamePreferences.getHostAddress(), style);
+    field.setWidth(ADDRESS_FIELD_WIDTH);
+    return field;
+  }
+
+  private Table createMenu() {
+    Table table = new Table();
+    table.setFillParent(true);
+    table.center();
+
+    // add online label
+    table.row();
+    Label onlineLabel = ScreenUtils.createLabel(assets.getLargeFont(), ONLINE_LABEL_TEXT);
+    table.add(onlineLabel).expandX().colspan(3);
+
+    // add address field, join button and watch button
+    table.row();
+    table.add(addressField).width(ADDRESS_FIELD_WIDTH).expandX();
+    TextButton joinButton = createFindHostButton(JOIN_BUTTON_TEXT, false);
+    table.add(joinButton).expandX();
+    TextButton watchButton = createFindHostButton(WATCH_BUTTON_TEXT, true);
+    table.add(watchButton).expandX();
+
+    // add host button
+    table.row().padTop(COMPONENT_SPACING);
+    TextButton hostButton = createHostButton();
+    table.add(hostButton).expandX().colspan(3);
+
+    // add status label
+    table.row().padTop(COMPONENT_SPACING);
+    table.add(statusLabel).expandX().colspan(3);
+
+    // add back button
+    table.row().padTop(COMPONENT_SPACING);
+    TextButton backButton = ScreenUtils.createBackButton(assets, screenManager);
+    table.add(backButton).expandX().colspan(3);
+
+    return table;
+  }
+
+  private TextButton createHostButton() {
+    final TextButton button = ScreenUtils.createTextButton(assets, HOST_BUTTON_TEXT);
+    button.addListener(new ChangeListener() {
+
+      @Override
+      public void changed(ChangeEvent event, Actor actor) {
+        if (button.isChecked()) {
+          host();
+          button.setChecked(false);
+        }
+      }
+
+    });
+    return button;
+  }
+
+  private TextButton createFindHostButton(String text, final boolean isWatching) {
+    final TextButton button = ScreenUtils.createTextButton(assets, text);
+    button.addListener(new ChangeListener() {
+
+      @Override
+      public void changed(ChangeEvent event, Actor actor) {
+        if (button.isChecked()) {
+          findHost(isWatching);
+          button.setChecked(false);
+        }
+      }
+
+    });
+    return button;
+  }
+
+  private void host() {
+    UdpTransport transport;
+    try {
+      transport = new UdpTransport(Protocol.DEFAULT_PORT);
+    } catch (IOException e) {
+      statusLabel.setText(SOCKET_ERROR_TEXT);
+      return;
+    }
+    statusLabel.setText("");
+    // don't dispose this screen because we want to be able to return to it
+    // from the next screen
+    OnlineGameScreen.open(assets, spriteBatch, screenManager,
+        new MatchHost(transport, MathUtils.random.nextLong(), true));
+  }
+
+  /*
+   * Looking up a host name can block for a while, which the render thread
+   * mustn't do, so it is done on a thread of its own.
+   */
+  private void findHost(final boolean isWatching) {
+    if (isFindingHost) {
+      return;
+    }
+    isFindingHost = true;
+    final String address = addressField.getText().trim();
+    GamePreferences.setHostAddress(address);
+    statusLabel.setText(FINDING_HOST_TEXT);
+    Thread thread = new Thread(new Runnable() {
+
+      @Override
+      public void run() {
+        final InetSocketAddress hostAddress = resolve(address);
+        Gdx.app.postRunnable(new Runnable() {
+
+          @Override
+          public void run() {
+            join(hostAddress, isWatching);
+          }
+
+        });
+      }
+
+    }, RESOLVER_THREAD_NAME);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /*
+   * Addresses are a host name or IP address, optionally followed by a port.
+   */
+  private static InetSocketAddress resolve(String address) {
+    String host = address;
+    int port = Protocol.DEFAULT_PORT;
+    int separator = address.lastIndexOf(PORT_SEPARATOR);
+    // more than one separator means an IPv6 address without a port
+    if (separator >= 0 && separator == address.indexOf(PORT_SEPARATOR)) {
+      host = address.substring(0, separator);
+      try {
+        port = Integer.parseInt(address.substring(separator + 1));
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+    try {
+      InetSocketAddress hostAddress = new InetSocketAddress(host, port);
+      return hostAddress.isUnresolved() ? null : hostAddress;
+    } catch (IllegalArgumentException e) {
+      // port out of range
+      return null;
+    }
+  }
+
+  private void join(InetSocketAddress hostAddress, boolean isWatching) {
+    isFindingHost = false;
+    if (layer.getStage() == null) {
+      // left this screen while the host was being found
+      return;
+    }
+    if (hostAddress == null) {
+      statusLabel.setText(UNKNOWN_HOST_TEXT);
+      return;
+    }
+    UdpTransport transport;
+    try {
+      transport = new UdpTransport(0);
+    } catch (IOException e) {
+      statusLabel.setText(SOCKET_ERROR_TEXT);
+      return;
+    }
+    statusLabel.setText("");
+    // don't dispose this screen because we want to be able to return to it
+    // from the next screen
+    NetworkMatch match = isWatching ? new SpectatorClient(transport, hostAddress)
+        : new MatchClient(transport, hostAddress);
+    OnlineGameScreen.open(assets, spriteBatch, screenManager, match);
+  }
+}
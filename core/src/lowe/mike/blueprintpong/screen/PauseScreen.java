@@ -18,25 +18,41 @@ final class PauseScreen extends BaseScreen {
   private static final String RESUME_BUTTON_TEXT = "Resume";
   private static final String RESTART_BUTTON_TEXT = "Restart";
 
-  private final GameScreen gameScreen;
+  private GameScreen gameScreen;
 
   /**
-   * Creates a new {@code PauseScreen} given {@link Assets}, a {@link SpriteBatch}, a {@link
-   * ScreenManager} and a reference to the {@link GameScreen}.
+   * Creates a new {@code PauseScreen} given {@link Assets}, a {@link SpriteBatch} and a {@link
+   * ScreenManager}.
+   *
+   * @param assets {@link Assets} containing assets used in the {@link Screen}
+   * @param spriteBatch {@link SpriteBatch} to add sprites to
+   * @param screenManager the {@link ScreenManager} used to manage game {@link Screen}s
+   */
+  PauseScreen(Assets assets, SpriteBatch spriteBatch, ScreenManager screenManager) {
+    super(assets, spriteBatch, screenManager);
+    Table menu = createMenu();
+    this.layer.addActor(menu);
+  }
+
+  /**
+   * Sets a {@code PauseScreen} for the given {@link GameScreen} as the current {@link Screen},
+   * reusing a cached one if there is one.
    *
    * @param assets {@link Assets} containing assets used in the {@link Screen}
    * @param spriteBatch {@link SpriteBatch} to add sprites to
    * @param screenManager the {@link ScreenManager} used to manage game {@link Screen}s
    * @param gameScreen reference to the {@link GameScreen}
    */
-  PauseScreen(Assets assets,
+  static void open(Assets assets,
       SpriteBatch spriteBatch,
       ScreenManager screenManager,
       GameScreen gameScreen) {
-    super(assets, spriteBatch, screenManager);
-    this.gameScreen = gameScreen;
-    Table menu = createMenu();
-    this.stage.addActor(menu);
+    PauseScreen screen = screenManager.getCachedScreen(PauseScreen.class);
+    if (screen == null) {
+      screen = new PauseScreen(assets, spriteBatch, screenManager);
+    }
+    screen.gameScreen = gameScreen;
+    screenManager.setScreen(screen);
   }
 
   private Table createMenu() {
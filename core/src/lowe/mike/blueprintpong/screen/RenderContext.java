@@ -0,0 +1,118 @@
+package lowe.mike.blueprintpong.screen;
+
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+import com.badlogic.gdx.utils.viewport.Viewport;
+import lowe.mike.blueprintpong.BlueprintPongGame;
+import lowe.mike.blueprintpong.Scaling;
+
+/**
+ * {@code RenderContext} owns the camera, viewport and {@link Stage} shared by every {@link
+ * Screen}, along with the background {@link Image} drawn behind them.
+ * <p>
+ * Each {@link Screen} keeps its actors in a layer {@link Group} of its own, which is attached to
+ * the {@link Stage} while the {@link Screen} is shown and detached when it is hidden, so having
+ * several {@link Screen}s on the stack doesn't mean several cameras, viewports and stages.
+ *
+ * @author Mike Lowe
+ */
+final class RenderContext implements Disposable {
+
+  private final OrthographicCamera camera = new OrthographicCamera();
+  private final Viewport viewport;
+  private final Stage stage;
+  private final Image background = new Image();
+  private Group layer;
+  private int width = -1;
+  private int height = -1;
+
+  /**
+   * Creates a new {@code RenderContext} given a {@link SpriteBatch}.
+   *
+   * @param spriteBatch {@link SpriteBatch} to add sprites to
+   */
+  RenderContext(SpriteBatch spriteBatch) {
+    this.camera.setToOrtho(false);
+    this.viewport = new FitViewport(
+        BlueprintPongGame.VIRTUAL_WIDTH,
+        BlueprintPongGame.VIRTUAL_HEIGHT,
+        this.camera
+    );
+    this.stage = new Stage(this.viewport, spriteBatch);
+    Scaling.scaleActor(this.background);
+    this.stage.addActor(this.background);
+  }
+
+  /**
+   * Shows a layer in front of a background, replacing any layer that was already attached.
+   *
+   * @param layer the {@link Group} containing a {@link Screen}'s actors
+   * @param backgroundDrawable the background {@link Drawable} to show behind the layer
+   */
+  void attach(Group layer, Drawable backgroundDrawable) {
+    if (this.layer != null) {
+      detach(this.layer);
+    }
+    background.setDrawable(backgroundDrawable);
+    background.setSize(background.getPrefWidth(), background.getPrefHeight());
+    this.layer = layer;
+    stage.addActor(layer);
+  }
+
+  /**
+   * Hides a layer if it is attached, dropping any touches or focus its actors had so they don't
+   * carry over to the next layer.
+   *
+   * @param layer the {@link Group} containing a {@link Screen}'s actors
+   */
+  void detach(Group layer) {
+    if (this.layer != layer) {
+      return;
+    }
+    stage.cancelTouchFocus();
+    stage.unfocusAll();
+    layer.remove();
+    this.layer = null;
+  }
+
+  /**
+   * Updates the viewport if the size of the screen has changed.
+   *
+   * @param width the new width of the screen, in pixels
+   * @param height the new height of the screen, in pixels
+   */
+  void resize(int width, int height) {
+    if (width == this.width && height == this.height) {
+      return;
+    }
+    this.width = width;
+    this.height = height;
+    viewport.update(width, height);
+  }
+
+  /**
+   * @return the {@link Stage} the attached layer is drawn with
+   */
+  Stage getStage() {
+    return stage;
+  }
+
+  /**
+   * @return the {@link Viewport} shared by every {@link Screen}
+   */
+  Viewport getViewport() {
+    return viewport;
+  }
+
+  @Override
+  public void dispose() {
+    stage.dispose();
+  }
+}
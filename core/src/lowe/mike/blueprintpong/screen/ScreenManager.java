@@ -1,27 +1,56 @@
 package lowe.mike.blueprintpong.screen;
 
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.utils.Disposable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Stack;
 import lowe.mike.blueprintpong.BlueprintPongGame;
 
 /**
  * {@code ScreenManager} is used to manage {@link Screen}s in the <i>Blueprint Pong</i> game.
+ * <p>
+ * {@link Screen}s that are finished with are kept in a cache rather than disposed, so going back
+ * to one, e.g. pausing again, doesn't build its whole UI again. At most one {@link Screen} of each
+ * type is kept, and the least recently used are disposed once their estimated size goes over a
+ * budget.
  *
  * @author Mike Lowe
  */
 public final class ScreenManager implements Disposable {
 
+  /*
+   * Estimated bytes the cached screens may use before the least recently
+   * used are disposed. Comfortably fits one of every menu.
+   */
+  private static final int CACHE_BUDGET = 64 * 1024;
+
   private final BlueprintPongGame game;
+  private final RenderContext renderContext;
   private final Stack<Screen> screens = new Stack<Screen>();
+  // access order so the first entry is always the least recently used
+  private final Map<Class<? extends BaseScreen>, BaseScreen> cachedScreens =
+      new LinkedHashMap<Class<? extends BaseScreen>, BaseScreen>(16, .75f, true);
 
   /**
-   * Creates a new {@code ScreenManager} with a reference to the {@link BlueprintPongGame}.
+   * Creates a new {@code ScreenManager} with a reference to the {@link BlueprintPongGame} and the
+   * {@link SpriteBatch} its {@link Screen}s are drawn with.
    *
    * @param game reference to the {@link BlueprintPongGame}
+   * @param spriteBatch {@link SpriteBatch} to add sprites to
    */
-  public ScreenManager(BlueprintPongGame game) {
+  public ScreenManager(BlueprintPongGame game, SpriteBatch spriteBatch) {
     this.game = game;
+    this.renderContext = new RenderContext(spriteBatch);
+  }
+
+  /**
+   * @return the {@link RenderContext} shared by every {@link Screen}
+   */
+  RenderContext getRenderContext() {
+    return renderContext;
   }
 
   /**
@@ -35,13 +64,31 @@ public final class ScreenManager implements Disposable {
   }
 
   /**
-   * Switches to the previous {@link Screen}, if one exists. Note that this removes and disposes the
-   * current {@link Screen}, if one exists.
+   * Takes a {@link Screen} of the given type out of the cache and resets it, ready to be set
+   * again.
+   *
+   * @param type the type of {@link Screen}
+   * @param <T> the type of {@link Screen}
+   * @return the cached {@link Screen}, or {@code null} if there isn't one so a new one should be
+   *     created
+   */
+  <T extends BaseScreen> T getCachedScreen(Class<T> type) {
+    BaseScreen screen = cachedScreens.remove(type);
+    if (screen == null) {
+      return null;
+    }
+    screen.onReuse();
+    return type.cast(screen);
+  }
+
+  /**
+   * Switches to the previous {@link Screen}, if one exists. Note that this removes the current
+   * {@link Screen}, if one exists, and caches or disposes it.
    */
   public void switchToPreviousScreen() {
-    // remove and dispose current screen
+    // remove and release current screen
     if (!screens.isEmpty()) {
-      screens.pop().dispose();
+      release(screens.pop());
       // switch to previous screen
       if (!screens.isEmpty()) {
         game.setScreen(screens.peek());
@@ -50,17 +97,52 @@ public final class ScreenManager implements Disposable {
   }
 
   /**
-   * Disposes and clears all {@link Screen}s.
+   * Clears all {@link Screen}s, caching or disposing each of them.
    */
-  public void disposeAndClearAllScreens() {
+  public void clearAllScreens() {
     for (Screen screen : screens) {
-      screen.dispose();
+      release(screen);
     }
     screens.clear();
   }
 
+  private void release(Screen screen) {
+    if (!(screen instanceof BaseScreen) || !((BaseScreen) screen).isReusable()) {
+      screen.dispose();
+      return;
+    }
+    BaseScreen baseScreen = (BaseScreen) screen;
+    BaseScreen replacedScreen = cachedScreens.put(baseScreen.getClass(), baseScreen);
+    if (replacedScreen != null && replacedScreen != baseScreen) {
+      replacedScreen.dispose();
+    }
+    evictOverBudget();
+  }
+
+  private void evictOverBudget() {
+    int cacheSize = 0;
+    for (BaseScreen screen : cachedScreens.values()) {
+      cacheSize += screen.getEstimatedSize();
+    }
+    Iterator<BaseScreen> leastRecentlyUsed = cachedScreens.values().iterator();
+    while (cacheSize > CACHE_BUDGET && leastRecentlyUsed.hasNext()) {
+      BaseScreen screen = leastRecentlyUsed.next();
+      cacheSize -= screen.getEstimatedSize();
+      leastRecentlyUsed.remove();
+      screen.dispose();
+    }
+  }
+
   @Override
   public void dispose() {
-    disposeAndClearAllScreens();
+    for (Screen screen : screens) {
+      screen.dispose();
+    }
+    screens.clear();
+    for (BaseScreen screen : cachedScreens.values()) {
+      screen.dispose();
+    }
+    cachedScreens.clear();
+    renderContext.dispose();
   }
 }
@@ -2,10 +2,8 @@ package lowe.mike.blueprintpong.screen;
 
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.ui.ButtonGroup;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
@@ -18,6 +16,7 @@ import lowe.mike.blueprintpong.Assets;
 import lowe.mike.blueprintpong.BlueprintPongGame;
 import lowe.mike.blueprintpong.Difficulty;
 import lowe.mike.blueprintpong.GamePreferences;
+import lowe.mike.blueprintpong.simulation.PongSimulation;
 
 /**
  * {@code ScreenUtils} provides useful helper methods that are repeatedly used in the game {@link
@@ -34,11 +33,24 @@ final class ScreenUtils {
   private static final String SETTINGS_BUTTON_TEXT = "Settings";
   private static final String BACK_BUTTON_TEXT = "Back";
   private static final String EXIT_BUTTON_TEXT = "Exit";
+  /*
+   * Score text is created up front so updating a score label doesn't create
+   * a new String.
+   */
+  private static final String[] SCORE_TEXTS = createScoreTexts();
 
   // don't want instances
   private ScreenUtils() {
   }
 
+  private static String[] createScoreTexts() {
+    String[] texts = new String[PongSimulation.WINNING_SCORE + 1];
+    for (int i = 0; i < texts.length; i++) {
+      texts[i] = Integer.toString(i);
+    }
+    return texts;
+  }
+
   /**
    * Creates a {@link Label} with the given {@link BitmapFont} and text.
    *
@@ -77,18 +89,14 @@ final class ScreenUtils {
     style.downFontColor = SECONDARY_TEXT_BUTTON_FONT_COLOUR;
     style.overFontColor = style.downFontColor;
     style.checkedFontColor = style.downFontColor;
-    style.up = getTextureRegionDrawable(assets.getButtonUpTexture());
-    style.down = getTextureRegionDrawable(assets.getButtonDownTexture());
+    style.up = new TextureRegionDrawable(assets.getButtonUpRegion());
+    style.down = new TextureRegionDrawable(assets.getButtonDownRegion());
     style.over = style.down;
     style.checked = style.down;
     style.font = assets.getMediumFont();
     return style;
   }
 
-  private static TextureRegionDrawable getTextureRegionDrawable(Texture texture) {
-    return new TextureRegionDrawable(new TextureRegion(texture));
-  }
-
   /**
    * Creates a settings {@link TextButton} that will make {@link SettingsScreen} the current {@link
    * Screen} when pressed.
@@ -115,7 +123,7 @@ final class ScreenUtils {
       @Override
       public void changed(ChangeEvent event, Actor actor) {
         if (button.isChecked()) {
-          screenManager.setScreen(new SettingsScreen(assets, spriteBatch, screenManager));
+          SettingsScreen.open(assets, spriteBatch, screenManager);
           button.setChecked(false);
         }
       }
@@ -178,8 +186,8 @@ final class ScreenUtils {
       @Override
       public void changed(ChangeEvent event, Actor actor) {
         if (button.isChecked()) {
-          screenManager.disposeAndClearAllScreens();
-          screenManager.setScreen(new MainMenuScreen(assets, spriteBatch, screenManager));
+          screenManager.clearAllScreens();
+          MainMenuScreen.open(assets, spriteBatch, screenManager);
           button.setChecked(false);
         }
       }
@@ -200,6 +208,18 @@ final class ScreenUtils {
     return buttonGroup;
   }
 
+  /**
+   * Checks the {@link TextButton} for the current difficulty in a {@link ButtonGroup} created by
+   * {@link #createDifficultyButtonGroup(Assets)}, in case it was changed on another {@link
+   * Screen}.
+   *
+   * @param buttonGroup the {@link ButtonGroup} of difficulty {@link TextButton}s
+   */
+  static void updateDifficultyButtonGroup(ButtonGroup<TextButton> buttonGroup) {
+    int index = GamePreferences.getDifficulty().ordinal();
+    buttonGroup.getButtons().get(index).setChecked(true);
+  }
+
   private static Array<TextButton> createDifficultyButtons(Assets assets) {
     Array<TextButton> buttons = new Array<TextButton>(TextButton.class);
 
@@ -285,7 +305,8 @@ final class ScreenUtils {
   }
 
   private static void updateScoreLabelText(Label label, int score) {
-    label.setText(Integer.toString(score));
+    String text = (score < SCORE_TEXTS.length) ? SCORE_TEXTS[score] : Integer.toString(score);
+    label.setText(text);
     label.pack();
   }
 
@@ -27,6 +27,9 @@ final class SettingsScreen extends BaseScreen {
   private static final String ON_BUTTON_TEXT = "On";
   private static final String OFF_BUTTON_TEXT = "Off";
 
+  private ButtonGroup<TextButton> difficultyButtonGroup;
+  private ButtonGroup<TextButton> soundButtonGroup;
+
   /**
    * Creates a new {@code SettingsScreen} given {@link Assets}, a {@link SpriteBatch} and a {@link
    * ScreenManager}.
@@ -38,7 +41,31 @@ final class SettingsScreen extends BaseScreen {
   SettingsScreen(Assets assets, SpriteBatch spriteBatch, ScreenManager screenManager) {
     super(assets, spriteBatch, screenManager);
     Table menu = createMenu();
-    this.stage.addActor(menu);
+    this.layer.addActor(menu);
+  }
+
+  /**
+   * Sets a {@code SettingsScreen} as the current {@link Screen}, reusing a cached one if there is
+   * one.
+   *
+   * @param assets {@link Assets} containing assets used in the {@link Screen}
+   * @param spriteBatch {@link SpriteBatch} to add sprites to
+   * @param screenManager the {@link ScreenManager} used to manage game {@link Screen}s
+   */
+  static void open(Assets assets, SpriteBatch spriteBatch, ScreenManager screenManager) {
+    SettingsScreen screen = screenManager.getCachedScreen(SettingsScreen.class);
+    if (screen == null) {
+      screen = new SettingsScreen(assets, spriteBatch, screenManager);
+    }
+    screenManager.setScreen(screen);
+  }
+
+  @Override
+  void onReuse() {
+    // settings may have been changed on another screen since this one was built
+    ScreenUtils.updateDifficultyButtonGroup(difficultyButtonGroup);
+    int soundButtonIndex = GamePreferences.shouldPlaySounds() ? 0 : 1;
+    soundButtonGroup.getButtons().get(soundButtonIndex).setChecked(true);
   }
 
   private Table createMenu() {
@@ -57,13 +84,13 @@ final class SettingsScreen extends BaseScreen {
     // add difficulty buttons
     table.row();
     Label difficultyLabel = ScreenUtils.createLabel(assets.getMediumFont(), DIFFICULTY_LABEL_TEXT);
-    ButtonGroup<TextButton> difficultyButtonGroup = ScreenUtils.createDifficultyButtonGroup(assets);
+    difficultyButtonGroup = ScreenUtils.createDifficultyButtonGroup(assets);
     addButtonGroup(table, difficultyLabel, difficultyButtonGroup);
 
     // add sound buttons
     table.row().padTop(COMPONENT_SPACING);
     Label soundsLabel = ScreenUtils.createLabel(assets.getMediumFont(), SOUNDS_LABEL_TEXT);
-    ButtonGroup<TextButton> soundButtonGroup = createSoundButtonGroup();
+    soundButtonGroup = createSoundButtonGroup();
     addButtonGroup(table, soundsLabel, soundButtonGroup);
 
     // add back button
@@ -2,7 +2,9 @@ package lowe.mike.blueprintpong.screen;
 
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import lowe.mike.blueprintpong.Assets;
+import lowe.mike.blueprintpong.BlueprintPongGame;
 
 /**
  * Splash screen to show while assets are being loaded.
@@ -11,6 +13,21 @@ import lowe.mike.blueprintpong.Assets;
  */
 public final class SplashScreen extends BaseScreen {
 
+  /*
+   * Time spent loading each frame, in milliseconds. Leaves most of a 60 fps
+   * frame for drawing so the splash screen never stalls.
+   */
+  private static final int LOADING_BUDGET_MILLIS = 8;
+
+  /*
+   * Loading bar properties, in world units.
+   */
+  private static final float LOADING_BAR_WIDTH = BlueprintPongGame.VIRTUAL_WIDTH / 2f;
+  private static final float LOADING_BAR_HEIGHT = 2f;
+  private static final float LOADING_BAR_Y = BlueprintPongGame.VIRTUAL_HEIGHT / 8f;
+
+  private final Image loadingBar;
+
   /**
    * Creates a new {@code SplashScreen} given {@link Assets}, a {@link SpriteBatch} and a {@link
    * ScreenManager}.
@@ -20,22 +37,45 @@ public final class SplashScreen extends BaseScreen {
    * @param screenManager the {@link ScreenManager} used to manage game {@link Screen}s
    */
   public SplashScreen(Assets assets, SpriteBatch spriteBatch, ScreenManager screenManager) {
-    // use splash background texture instead of default
-    super(assets, spriteBatch, screenManager, assets.getSplashBackgroundTexture());
+    // use splash background instead of default
+    super(assets, spriteBatch, screenManager, assets.getSplashBackgroundRegion());
+    this.loadingBar = createLoadingBar();
+    this.layer.addActor(this.loadingBar);
+  }
+
+  private Image createLoadingBar() {
+    Image image = new Image(assets.getLoadingBarRegion());
+    image.setBounds((BlueprintPongGame.VIRTUAL_WIDTH - LOADING_BAR_WIDTH) / 2f, LOADING_BAR_Y,
+        0f, LOADING_BAR_HEIGHT);
+    return image;
+  }
+
+  @Override
+  boolean isReusable() {
+    // can't come back to this once loading has finished
+    return false;
+  }
+
+  @Override
+  boolean rendersContinuously() {
+    // keep checking whether the assets have finished loading
+    return true;
   }
 
   @Override
   void update(float delta) {
-    if (assets.isFinishedLoading()) {
+    boolean isFinishedLoading = assets.update(LOADING_BUDGET_MILLIS);
+    loadingBar.setWidth(LOADING_BAR_WIDTH * assets.getProgress());
+    if (isFinishedLoading) {
       switchToMainMenuScreen();
     }
   }
 
   private void switchToMainMenuScreen() {
-    // dispose this screen and all previous screens because we won't be able to return from the
-    // next screen
-    screenManager.disposeAndClearAllScreens();
-    screenManager.setScreen(new MainMenuScreen(assets, spriteBatch, screenManager));
+    // clear this screen and all previous screens because we won't be able to return from the next
+    // screen
+    screenManager.clearAllScreens();
+    MainMenuScreen.open(assets, spriteBatch, screenManager);
   }
 
   @Override
@@ -0,0 +1,448 @@
+package lowe.mike.blueprintpong.simulation;
+
+import static lowe.mike.blueprintpong.simulation.PongSimulation.COURT_HEIGHT;
+import static lowe.mike.blueprintpong.simulation.PongSimulation.COURT_WIDTH;
+import static lowe.mike.blueprintpong.simulation.PongSimulation.MAX_IMPACTS_PER_STEP;
+import static lowe.mike.blueprintpong.simulation.PongSimulation.PADDLE_OFFSET;
+import static lowe.mike.blueprintpong.simulation.PongSimulation.PLAYER_PADDLE_SPEED;
+import static lowe.mike.blueprintpong.simulation.PongSimulation.WINNING_SCORE;
+
+/**
+ * {@code BatchSimulation} steps many independent matches at once. State for every match is kept
+ * in flat primitive arrays (structure of arrays) rather than one object per match, so a step is a
+ * few tight loops over contiguous memory.
+ * <p>
+ * The rules are the same as {@link PongSimulation}: the computer paddle moves using a {@link
+ * ComputerStrategy}, the ball is swept against the paddles and walls, the section of the paddle
+ * that is hit decides the new ball direction and speed from a {@link ResponseProfile} and the
+ * walls reflect the ball. Only the serves differ, as each match draws them from its own seed
+ * rather than a {@link java.util.Random}. The player paddle of each
+ * match moves towards the target set with {@link #setPlayerTargetY(int, float)}. Matches that are
+ * over stop moving until {@link #newGame(int)} is called for them.
+ *
+ * @author Mike Lowe
+ */
+public final class BatchSimulation {
+
+  private final int matches;
+  private final ResponseProfile responseProfile;
+  private final float ballWidth;
+  private final float ballHeight;
+  private final float paddleWidth;
+  private final float paddleHeight;
+  private final float sectionsPerUnit;
+  private final float playerPaddleX;
+  private final float computerPaddleX;
+  private ComputerStrategy computerStrategy = ComputerStrategy.FOLLOW;
+
+  private final float[] ballX;
+  private final float[] ballY;
+  private final float[] ballDirectionX;
+  private final float[] ballDirectionY;
+  private final float[] ballSpeed;
+  private final float[] playerPaddleY;
+  private final float[] playerTargetY;
+  private final float[] playerPaddleSpeed;
+  private final float[] computerPaddleY;
+  private final float[] computerPaddleSpeed;
+  private final float[] computerTargetY;
+  private final float[] computerReactionTime;
+  private final float[] computerAimError;
+  private final float[] computerReactionTimer;
+  private final boolean[] isComputerAimPending;
+  private final int[] playerScore;
+  private final int[] computerScore;
+  private final int[] paddleHits;
+  private final boolean[] gameOver;
+  private final int[] randomState;
+
+  /**
+   * Creates a new {@code BatchSimulation} with the default ball and paddle sizes and the {@link
+   * ResponseProfile#CLASSIC} profile. Every match starts a new game.
+   *
+   * @param matches number of matches to simulate
+   * @param seed seed for the serves
+   */
+  public BatchSimulation(int matches, long seed) {
+    this(matches, ResponseProfile.CLASSIC, seed);
+  }
+
+  /**
+   * Creates a new {@code BatchSimulation} with the default ball and paddle sizes. Every match
+   * starts a new game.
+   *
+   * @param matches number of matches to simulate
+   * @param responseProfile the {@link ResponseProfile} that decides how the ball leaves a paddle
+   * @param seed seed for the serves
+   */
+  public BatchSimulation(int matches, ResponseProfile responseProfile, long seed) {
+    if (matches <= 0) {
+      throw new IllegalArgumentException("matches must be positive");
+    }
+    this.matches = matches;
+    this.responseProfile = responseProfile;
+    this.ballWidth = PongSimulation.DEFAULT_BALL_WIDTH;
+    this.ballHeight = PongSimulation.DEFAULT_BALL_HEIGHT;
+    this.paddleWidth = PongSimulation.DEFAULT_PADDLE_WIDTH;
+    this.paddleHeight = PongSimulation.DEFAULT_PADDLE_HEIGHT;
+    this.sectionsPerUnit = responseProfile.getSections() / paddleHeight;
+    this.playerPaddleX = PADDLE_OFFSET;
+    this.computerPaddleX = COURT_WIDTH - PADDLE_OFFSET - paddleWidth;
+    this.ballX = new float[matches];
+    this.ballY = new float[matches];
+    this.ballDirectionX = new float[matches];
+    this.ballDirectionY = new float[matches];
+    this.ballSpeed = new float[matches];
+    this.playerPaddleY = new float[matches];
+    this.playerTargetY = new float[matches];
+    this.playerPaddleSpeed = new float[matches];
+    this.computerPaddleY = new float[matches];
+    this.computerPaddleSpeed = new float[matches];
+    this.computerTargetY = new float[matches];
+    this.computerReactionTime = new float[matches];
+    this.computerAimError = new float[matches];
+    this.computerReactionTimer = new float[matches];
+    this.isComputerAimPending = new boolean[matches];
+    this.playerScore = new int[matches];
+    this.computerScore = new int[matches];
+    this.paddleHits = new int[matches];
+    this.gameOver = new boolean[matches];
+    this.randomState = new int[matches];
+    for (int i = 0; i < matches; i++) {
+      // xorshift state must never be 0
+      this.randomState[i] = (int) (seed ^ (seed >>> 32)) + (i * 0x9E3779B9) | 1;
+      this.playerPaddleSpeed[i] = PLAYER_PADDLE_SPEED;
+      newGame(i);
+    }
+  }
+
+  /**
+   * @return the number of matches being simulated
+   */
+  public int getMatchCount() {
+    return matches;
+  }
+
+  /**
+   * @param match index of the match
+   * @param speed the computer paddle speed (in units per second)
+   */
+  public void setComputerPaddleSpeed(int match, float speed) {
+    computerPaddleSpeed[match] = speed;
+  }
+
+  /**
+   * @param strategy the {@link ComputerStrategy} the computer paddles use in every match
+   */
+  public void setComputerStrategy(ComputerStrategy strategy) {
+    this.computerStrategy = strategy;
+    for (int i = 0; i < matches; i++) {
+      scheduleComputerAim(i);
+    }
+  }
+
+  /**
+   * @param match index of the match
+   * @param seconds how long the computer takes to react to a serve or paddle hit when using
+   * {@link ComputerStrategy#INTERCEPT}
+   */
+  public void setComputerReactionTime(int match, float seconds) {
+    computerReactionTime[match] = seconds;
+  }
+
+  /**
+   * @param match index of the match
+   * @param error the most the computer aim can be off by when using {@link
+   * ComputerStrategy#INTERCEPT}, as a fraction of the paddle height
+   */
+  public void setComputerAimError(int match, float error) {
+    computerAimError[match] = error;
+  }
+
+  /**
+   * @param match index of the match
+   * @param speed the player paddle speed (in units per second)
+   */
+  public void setPlayerPaddleSpeed(int match, float speed) {
+    playerPaddleSpeed[match] = speed;
+  }
+
+  /**
+   * @param match index of the match
+   * @param y the y position the bottom of the player paddle should move towards
+   */
+  public void setPlayerTargetY(int match, float y) {
+    playerTargetY[match] = y;
+  }
+
+  /**
+   * Resets the scores and paddles of a match and serves the ball in a random direction.
+   *
+   * @param match index of the match
+   */
+  public void newGame(int match) {
+    playerScore[match] = 0;
+    computerScore[match] = 0;
+    paddleHits[match] = 0;
+    gameOver[match] = false;
+    float paddleY = (COURT_HEIGHT / 2f) - (paddleHeight / 2f);
+    playerPaddleY[match] = paddleY;
+    playerTargetY[match] = paddleY;
+    computerPaddleY[match] = paddleY;
+    computerTargetY[match] = paddleY;
+    newRound(match, (nextRandom(match) & 1) == 0);
+  }
+
+  private void newRound(int match, boolean serveToPlayer) {
+    int section = (nextRandom(match) >>> 1) % responseProfile.getSections();
+    float directionX = responseProfile.getDirectionX(section);
+    ballX[match] = (COURT_WIDTH / 2f) - (ballWidth / 2f);
+    ballY[match] = ((nextRandom(match) >>> 8) * 0x1.0p-24f) * (COURT_HEIGHT - ballHeight);
+    ballDirectionX[match] = serveToPlayer ? -directionX : directionX;
+    ballDirectionY[match] = responseProfile.getDirectionY(section);
+    ballSpeed[match] = responseProfile.getServeSpeed();
+    scheduleComputerAim(match);
+  }
+
+  private void scheduleComputerAim(int match) {
+    computerReactionTimer[match] = computerReactionTime[match];
+    isComputerAimPending[match] = true;
+  }
+
+  /*
+   * Xorshift keeps serves deterministic per match without allocating a
+   * Random for each one.
+   */
+  private int nextRandom(int match) {
+    int x = randomState[match];
+    x ^= x << 13;
+    x ^= x >>> 17;
+    x ^= x << 5;
+    randomState[match] = x;
+    return x;
+  }
+
+  /**
+   * Advances every match that isn't over by the given amount of time.
+   *
+   * @param delta time in seconds to advance by
+   */
+  public void step(float delta) {
+    aimComputerPaddles(delta);
+    movePaddles(delta);
+    moveBalls(delta);
+    updateScores();
+  }
+
+  private void aimComputerPaddles(float delta) {
+    float halfDifference = (ballHeight / 2f) - (paddleHeight / 2f);
+    if (computerStrategy == ComputerStrategy.FOLLOW) {
+      for (int i = 0; i < matches; i++) {
+        computerTargetY[i] = ballY[i] + halfDifference;
+      }
+      return;
+    }
+    for (int i = 0; i < matches; i++) {
+      if (isComputerAimPending[i]) {
+        computerReactionTimer[i] -= delta;
+        if (computerReactionTimer[i] <= 0f) {
+          computerTargetY[i] = getComputerAim(i, halfDifference);
+          isComputerAimPending[i] = false;
+        }
+      }
+    }
+  }
+
+  private float getComputerAim(int i, float halfDifference) {
+    if (ballDirectionX[i] <= 0) {
+      // wait in the middle for the return
+      return (COURT_HEIGHT / 2f) - (paddleHeight / 2f);
+    }
+    float distanceX = Math.max(0f, computerPaddleX - ballWidth - ballX[i]);
+    float interceptY = Collisions.getInterceptY(
+        ballY[i], ballDirectionX[i], ballDirectionY[i], distanceX, COURT_HEIGHT - ballHeight
+    );
+    // random number from -1 to 1
+    float random = ((nextRandom(i) >>> 8) * 0x1.0p-23f) - 1f;
+    return interceptY + halfDifference + (random * computerAimError[i] * paddleHeight);
+  }
+
+  /*
+   * Both paddles move towards a target every step so moving is just a
+   * clamped move, which keeps this loop branch free.
+   */
+  private void movePaddles(float delta) {
+    float maxY = COURT_HEIGHT - paddleHeight;
+    for (int i = 0; i < matches; i++) {
+      float playerStep = playerPaddleSpeed[i] * delta;
+      float playerMove = Math.max(-playerStep,
+          Math.min(playerStep, playerTargetY[i] - playerPaddleY[i]));
+      playerPaddleY[i] = Math.max(0f, Math.min(maxY, playerPaddleY[i] + playerMove));
+
+      float computerStep = computerPaddleSpeed[i] * delta;
+      float computerMove = Math.max(-computerStep,
+          Math.min(computerStep, computerTargetY[i] - computerPaddleY[i]));
+      computerPaddleY[i] = Math.max(0f, Math.min(maxY, computerPaddleY[i] + computerMove));
+    }
+  }
+
+  private void moveBalls(float delta) {
+    for (int i = 0; i < matches; i++) {
+      if (!gameOver[i]) {
+        moveBall(i, delta);
+      }
+    }
+  }
+
+  /*
+   * Same sweep as PongSimulation.updateBallPosition: each impact is
+   * resolved at the exact point of contact and the ball carries on for the
+   * rest of the step, so it can't tunnel through a paddle or a wall.
+   */
+  private void moveBall(int i, float delta) {
+    float timeLeft = delta;
+    for (int impacts = 0; impacts < MAX_IMPACTS_PER_STEP && timeLeft > 0f; impacts++) {
+      float dx = ballDirectionX[i] * ballSpeed[i] * timeLeft;
+      float dy = ballDirectionY[i] * ballSpeed[i] * timeLeft;
+      // only the paddle the ball is heading towards can be hit
+      boolean towardsPlayer = dx < 0;
+      float paddleX = towardsPlayer ? playerPaddleX : computerPaddleX;
+      float paddleY = towardsPlayer ? playerPaddleY[i] : computerPaddleY[i];
+      float paddleImpact = Collisions.getTimeOfImpact(
+          ballX[i], ballY[i], ballWidth, ballHeight, dx, dy,
+          paddleX, paddleY, paddleWidth, paddleHeight
+      );
+      float wallImpact = getTimeOfWallImpact(ballY[i], dy);
+      float impact = Math.min(paddleImpact, wallImpact);
+      if (impact > 1f) {
+        ballX[i] += dx;
+        ballY[i] += dy;
+        return;
+      }
+      ballX[i] += dx * impact;
+      ballY[i] += dy * impact;
+      timeLeft -= timeLeft * impact;
+      if (paddleImpact <= wallImpact) {
+        handlePaddleImpact(i, paddleY, !towardsPlayer);
+      } else {
+        handleWallImpact(i, dy);
+      }
+    }
+  }
+
+  private float getTimeOfWallImpact(float y, float dy) {
+    float impact;
+    if (dy > 0) {
+      impact = (COURT_HEIGHT - ballHeight - y) / dy;
+    } else if (dy < 0) {
+      impact = -y / dy;
+    } else {
+      return Collisions.NO_IMPACT;
+    }
+    return Math.max(impact, 0f);
+  }
+
+  private void handlePaddleImpact(int i, float paddleY, boolean hitComputerPaddle) {
+    int section = Collisions.getSectionHit(
+        ballY[i], paddleY, sectionsPerUnit, responseProfile.getSections()
+    );
+    float directionX = responseProfile.getDirectionX(section);
+    ballDirectionX[i] = hitComputerPaddle ? -directionX : directionX;
+    ballDirectionY[i] = responseProfile.getDirectionY(section);
+    ballSpeed[i] = responseProfile.getSpeed(section);
+    paddleHits[i]++;
+    scheduleComputerAim(i);
+  }
+
+  private void handleWallImpact(int i, float dy) {
+    ballY[i] = (dy > 0) ? COURT_HEIGHT - ballHeight : 0;
+    ballDirectionY[i] = -ballDirectionY[i];
+  }
+
+  private void updateScores() {
+    for (int i = 0; i < matches; i++) {
+      if (gameOver[i]) {
+        continue;
+      }
+      // has player scored
+      if (ballX[i] > COURT_WIDTH) {
+        playerScore[i]++;
+        newRound(i, true);
+      }
+      // has computer scored
+      else if (ballX[i] < -ballWidth) {
+        computerScore[i]++;
+        newRound(i, false);
+      }
+      if (playerScore[i] == WINNING_SCORE || computerScore[i] == WINNING_SCORE) {
+        gameOver[i] = true;
+        // stop the ball so finished matches stay put
+        ballSpeed[i] = 0f;
+      }
+    }
+  }
+
+  /**
+   * @param match index of the match
+   * @return x position of the ball
+   */
+  public float getBallX(int match) {
+    return ballX[match];
+  }
+
+  /**
+   * @param match index of the match
+   * @return y position of the ball
+   */
+  public float getBallY(int match) {
+    return ballY[match];
+  }
+
+  /**
+   * @param match index of the match
+   * @return y position of the player paddle
+   */
+  public float getPlayerPaddleY(int match) {
+    return playerPaddleY[match];
+  }
+
+  /**
+   * @param match index of the match
+   * @return y position of the computer paddle
+   */
+  public float getComputerPaddleY(int match) {
+    return computerPaddleY[match];
+  }
+
+  /**
+   * @param match index of the match
+   * @return the player score
+   */
+  public int getPlayerScore(int match) {
+    return playerScore[match];
+  }
+
+  /**
+   * @param match index of the match
+   * @return the computer score
+   */
+  public int getComputerScore(int match) {
+    return computerScore[match];
+  }
+
+  /**
+   * @param match index of the match
+   * @return number of times the ball has hit a paddle in the current game
+   */
+  public int getPaddleHits(int match) {
+    return paddleHits[match];
+  }
+
+  /**
+   * @param match index of the match
+   * @return {@code true} if either side has reached the winning score
+   */
+  public boolean isGameOver(int match) {
+    return gameOver[match];
+  }
+}
@@ -0,0 +1,124 @@
+package lowe.mike.blueprintpong.simulation;
+
+/**
+ * {@code Collisions} provides the collision maths shared by the simulations.
+ * <p>
+ * Instances of {@code Collisions} cannot be created.
+ *
+ * @author Mike Lowe
+ */
+final class Collisions {
+
+  /**
+   * Returned when there is no impact during a movement.
+   */
+  static final float NO_IMPACT = Float.POSITIVE_INFINITY;
+
+  // don't want instances
+  private Collisions() {
+  }
+
+  /**
+   * Swept AABB test between a moving box and a stationary box.
+   *
+   * @param x x position of the moving box
+   * @param y y position of the moving box
+   * @param width width of the moving box
+   * @param height height of the moving box
+   * @param dx how far the moving box moves along x
+   * @param dy how far the moving box moves along y
+   * @param boxX x position of the stationary box
+   * @param boxY y position of the stationary box
+   * @param boxWidth width of the stationary box
+   * @param boxHeight height of the stationary box
+   * @return the fraction of the movement (from 0 to 1) at which the boxes first touch or {@link
+   * #NO_IMPACT} if they don't
+   */
+  static float getTimeOfImpact(float x, float y, float width, float height, float dx, float dy,
+      float boxX, float boxY, float boxWidth, float boxHeight) {
+    float right = x + width;
+    float top = y + height;
+    float boxRight = boxX + boxWidth;
+    float boxTop = boxY + boxHeight;
+
+    float entryX;
+    float exitX;
+    if (dx > 0) {
+      entryX = (boxX - right) / dx;
+      exitX = (boxRight - x) / dx;
+    } else if (dx < 0) {
+      entryX = (boxRight - x) / dx;
+      exitX = (boxX - right) / dx;
+    } else if (right >= boxX && x <= boxRight) {
+      entryX = Float.NEGATIVE_INFINITY;
+      exitX = Float.POSITIVE_INFINITY;
+    } else {
+      return NO_IMPACT;
+    }
+
+    float entryY;
+    float exitY;
+    if (dy > 0) {
+      entryY = (boxY - top) / dy;
+      exitY = (boxTop - y) / dy;
+    } else if (dy < 0) {
+      entryY = (boxTop - y) / dy;
+      exitY = (boxY - top) / dy;
+    } else if (top >= boxY && y <= boxTop) {
+      entryY = Float.NEGATIVE_INFINITY;
+      exitY = Float.POSITIVE_INFINITY;
+    } else {
+      return NO_IMPACT;
+    }
+
+    float entry = Math.max(entryX, entryY);
+    float exit = Math.min(exitX, exitY);
+    if (entry > exit || entry > 1f || exit < 0f) {
+      return NO_IMPACT;
+    }
+    // already touching e.g. the paddle moved into the ball
+    return Math.max(entry, 0f);
+  }
+
+  /**
+   * Works out which section of a paddle the ball hit, counting up from the bottom of the paddle.
+   * A ball level with the top of a section counts as hitting that section. This is one
+   * calculation however many sections there are.
+   *
+   * @param ballY y position of the bottom of the ball
+   * @param paddleY y position of the bottom of the paddle
+   * @param sectionsPerUnit number of sections divided by the paddle height
+   * @param sections number of sections
+   * @return index of the section hit
+   */
+  static int getSectionHit(float ballY, float paddleY, float sectionsPerUnit, int sections) {
+    int section = (int) Math.ceil((ballY - paddleY) * sectionsPerUnit) - 1;
+    return Math.max(0, Math.min(sections - 1, section));
+  }
+
+  /**
+   * Works out the y position the ball will be at once it has moved a given distance along the x
+   * axis. Bounces off the top and bottom walls are folded in by reflecting the straight line path
+   * back into the court, so this is one calculation however many times the ball bounces.
+   *
+   * @param ballY y position of the bottom of the ball
+   * @param directionX x component of the ball direction, must not be 0
+   * @param directionY y component of the ball direction
+   * @param distanceX distance the ball moves along the x axis
+   * @param maxY highest y position the bottom of the ball can reach
+   * @return the y position of the bottom of the ball
+   */
+  static float getInterceptY(float ballY,
+      float directionX,
+      float directionY,
+      float distanceX,
+      float maxY) {
+    float y = ballY + (directionY * (distanceX / Math.abs(directionX)));
+    float period = 2f * maxY;
+    y %= period;
+    if (y < 0f) {
+      y += period;
+    }
+    return (y > maxY) ? period - y : y;
+  }
+}
@@ -0,0 +1,21 @@
+package lowe.mike.blueprintpong.simulation;
+
+/**
+ * {@code ComputerStrategy} enum represents the ways the computer can move its paddle.
+ *
+ * @author Mike Lowe
+ */
+public enum ComputerStrategy {
+
+  /**
+   * Lines the middle of the paddle up with the ball on every step.
+   */
+  FOLLOW,
+
+  /**
+   * Works out where the ball will reach the paddle once per serve or paddle hit, with the wall
+   * bounces folded in, and moves there after a reaction time. The aim is off by a random amount up
+   * to the aim error. While the ball is heading away the paddle goes back to the middle.
+   */
+  INTERCEPT
+}
@@ -0,0 +1,76 @@
+package lowe.mike.blueprintpong.simulation;
+
+/**
+ * {@code FixedTimestep} turns variable frame times into a whole number of fixed length ticks so a
+ * {@link PongSimulation} behaves the same regardless of frame rate.
+ * <p>
+ * Time that is left over after the last whole tick is carried into the next frame and exposed as
+ * an interpolation alpha so rendering can blend between the previous and current tick. To stop a
+ * long frame from causing a spiral of catch-up work, at most {@code maxTicksPerFrame} ticks are
+ * run per frame and any time beyond that is dropped.
+ *
+ * @author Mike Lowe
+ */
+public final class FixedTimestep {
+
+  private final float tickDuration;
+  private final int maxTicksPerFrame;
+  private float accumulator;
+
+  /**
+   * Creates a new {@code FixedTimestep}.
+   *
+   * @param ticksPerSecond number of ticks to run per second
+   * @param maxTicksPerFrame maximum number of ticks to run in a single frame
+   */
+  public FixedTimestep(int ticksPerSecond, int maxTicksPerFrame) {
+    if (ticksPerSecond <= 0) {
+      throw new IllegalArgumentException("ticksPerSecond must be positive");
+    }
+    if (maxTicksPerFrame <= 0) {
+      throw new IllegalArgumentException("maxTicksPerFrame must be positive");
+    }
+    this.tickDuration = 1f / ticksPerSecond;
+    this.maxTicksPerFrame = maxTicksPerFrame;
+  }
+
+  /**
+   * Adds the frame time and returns how many ticks should be run for this frame.
+   *
+   * @param delta time in seconds since the last frame
+   * @return the number of ticks to run
+   */
+  public int advance(float delta) {
+    accumulator += Math.max(delta, 0f);
+    int ticks = (int) (accumulator / tickDuration);
+    if (ticks > maxTicksPerFrame) {
+      // drop the time we can't catch up on
+      ticks = maxTicksPerFrame;
+      accumulator = 0f;
+    } else {
+      accumulator -= ticks * tickDuration;
+    }
+    return ticks;
+  }
+
+  /**
+   * @return how far between the previous and current tick rendering should be, from 0 to 1
+   */
+  public float getAlpha() {
+    return Math.min(accumulator / tickDuration, 1f);
+  }
+
+  /**
+   * @return length of a tick in seconds
+   */
+  public float getTickDuration() {
+    return tickDuration;
+  }
+
+  /**
+   * Discards any accumulated time, e.g. when returning from a paused state.
+   */
+  public void reset() {
+    accumulator = 0f;
+  }
+}
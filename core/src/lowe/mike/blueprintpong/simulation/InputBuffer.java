@@ -0,0 +1,181 @@
+package lowe.mike.blueprintpong.simulation;
+
+/**
+ * {@code InputBuffer} keeps the player's key and touch events, with the time each happened, until
+ * the {@link PongSimulation} step they fall in reads them. Unlike polling once a frame, a press
+ * shorter than a frame isn't lost and each step sees exactly the input up to its own end, however
+ * long the frame.
+ * <p>
+ * Events are kept in a fixed size ring buffer, so recording and reading them doesn't allocate. If
+ * the buffer fills up the oldest event is applied straight away rather than dropped, so a release
+ * is never missed. Events should be recorded in the order they happened, with times from {@link
+ * System#nanoTime()}.
+ *
+ * @author Mike Lowe
+ */
+public final class InputBuffer {
+
+  private static final int UP_PRESSED = 0;
+  private static final int UP_RELEASED = 1;
+  private static final int DOWN_PRESSED = 2;
+  private static final int DOWN_RELEASED = 3;
+  private static final int TOUCHED = 4;
+  private static final int TOUCH_RELEASED = 5;
+
+  private final int[] types;
+  private final long[] times;
+  private final float[] targetYs;
+  private int head;
+  private int size;
+  private boolean isUpHeld;
+  private boolean isDownHeld;
+  private boolean isTouchHeld;
+  private boolean wasUpPressed;
+  private boolean wasDownPressed;
+  private boolean wasTouched;
+  private float touchTargetY;
+
+  /**
+   * Creates a new {@code InputBuffer}.
+   *
+   * @param capacity the number of events that can be waiting to be read
+   */
+  public InputBuffer(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    this.types = new int[capacity];
+    this.times = new long[capacity];
+    this.targetYs = new float[capacity];
+  }
+
+  /**
+   * @param time when the up key was pressed, in nanoseconds
+   */
+  public void upPressed(long time) {
+    add(UP_PRESSED, time, 0f);
+  }
+
+  /**
+   * @param time when the up key was released, in nanoseconds
+   */
+  public void upReleased(long time) {
+    add(UP_RELEASED, time, 0f);
+  }
+
+  /**
+   * @param time when the down key was pressed, in nanoseconds
+   */
+  public void downPressed(long time) {
+    add(DOWN_PRESSED, time, 0f);
+  }
+
+  /**
+   * @param time when the down key was released, in nanoseconds
+   */
+  public void downReleased(long time) {
+    add(DOWN_RELEASED, time, 0f);
+  }
+
+  /**
+   * Records the screen being touched, or a touch being dragged.
+   *
+   * @param time when the screen was touched, in nanoseconds
+   * @param targetY the y position the bottom of the paddle should move towards
+   */
+  public void touched(long time, float targetY) {
+    add(TOUCHED, time, targetY);
+  }
+
+  /**
+   * @param time when the touch was released, in nanoseconds
+   */
+  public void touchReleased(long time) {
+    add(TOUCH_RELEASED, time, 0f);
+  }
+
+  private void add(int type, long time, float targetY) {
+    if (size == types.length) {
+      // full, so the oldest event can't wait for its step any longer
+      apply(head);
+      head = (head + 1) % types.length;
+      size--;
+    }
+    int index = (head + size) % types.length;
+    types[index] = type;
+    times[index] = time;
+    targetYs[index] = targetY;
+    size++;
+  }
+
+  /**
+   * Reads the events up to the end of a step into a {@link PlayerInput}. Keys and touches that were
+   * held at any point during the step count, even if they were released before it ended. Keys take
+   * priority over touches, and up over down.
+   *
+   * @param stepEndTime when the step ends, in nanoseconds
+   * @param input the {@link PlayerInput} to set for the step
+   */
+  public void read(long stepEndTime, PlayerInput input) {
+    while (size > 0 && times[head] <= stepEndTime) {
+      apply(head);
+      head = (head + 1) % types.length;
+      size--;
+    }
+    if (wasUpPressed) {
+      input.moveUp();
+    } else if (wasDownPressed) {
+      input.moveDown();
+    } else if (wasTouched) {
+      input.moveTo(touchTargetY);
+    } else {
+      input.clear();
+    }
+    // the next step starts with whatever is still held
+    wasUpPressed = isUpHeld;
+    wasDownPressed = isDownHeld;
+    wasTouched = isTouchHeld;
+  }
+
+  private void apply(int index) {
+    switch (types[index]) {
+      case UP_PRESSED:
+        isUpHeld = true;
+        wasUpPressed = true;
+        break;
+      case UP_RELEASED:
+        isUpHeld = false;
+        break;
+      case DOWN_PRESSED:
+        isDownHeld = true;
+        wasDownPressed = true;
+        break;
+      case DOWN_RELEASED:
+        isDownHeld = false;
+        break;
+      case TOUCHED:
+        isTouchHeld = true;
+        wasTouched = true;
+        touchTargetY = targetYs[index];
+        break;
+      default:
+        isTouchHeld = false;
+        break;
+    }
+  }
+
+  /**
+   * Forgets every event and anything being held, e.g. when returning from a paused state, when
+   * releases may have been missed.
+   */
+  public void clear() {
+    head = 0;
+    size = 0;
+    isUpHeld = false;
+    isDownHeld = false;
+    isTouchHeld = false;
+    wasUpPressed = false;
+    wasDownPressed = false;
+    wasTouched = false;
+  }
+}
@@ -0,0 +1,204 @@
+package lowe.mike.blueprintpong.simulation;
+
+/**
+ * {@code MatchRecorder} records a {@link PongSimulation} game into a compact binary log that
+ * {@link MatchReplay} can play back exactly. Only the seed, the settings and the input for each
+ * tick are recorded, because the simulation is deterministic given those.
+ * <p>
+ * A log is a header followed by records, all big-endian:
+ * <ul>
+ * <li>header: magic number, version, tick duration, ball width and height, paddle width and
+ * height, seed</li>
+ * <li>settings record: computer strategy, computer paddle speed, reaction time and aim error,
+ * player paddle speed, number of {@link ResponseProfile} sections as a variable length integer
+ * followed by the angle and speed of each section</li>
+ * <li>input record: action, target y (only for {@link PlayerInput.Action#MOVE_TO}), number of
+ * ticks the input was held for as a variable length integer</li>
+ * <li>end record: player score, computer score</li>
+ * </ul>
+ * Consecutive ticks with the same input share one record, so most ticks take no space at all.
+ * <p>
+ * Instances are reused from game to game, and recording a tick doesn't allocate unless the log
+ * has to grow.
+ *
+ * @author Mike Lowe
+ */
+public final class MatchRecorder {
+
+  /**
+   * File extension for saved logs.
+   */
+  public static final String FILE_EXTENSION = "bpr";
+
+  static final int MAGIC = 0x42505252; // "BPRR"
+  static final int VERSION = 2;
+  /*
+   * Version 1 logs don't record the response profile, as it was always
+   * ResponseProfile.CLASSIC.
+   */
+  static final int VERSION_WITHOUT_PROFILE = 1;
+  static final int SETTINGS_RECORD = 1;
+  static final int INPUT_RECORD = 2;
+  static final int END_RECORD = 3;
+
+  private static final int INITIAL_CAPACITY = 16 * 1024;
+
+  private byte[] buffer = new byte[INITIAL_CAPACITY];
+  private int size;
+  private boolean isRecording;
+  private PlayerInput.Action runAction;
+  private float runTargetY;
+  private int runTicks;
+
+  /**
+   * Starts recording a new game. Should be called straight after {@link
+   * PongSimulation#newGame(long)} with the same seed.
+   *
+   * @param simulation the {@link PongSimulation} being recorded
+   * @param tickDuration the time each step advances the simulation by (in seconds)
+   * @param seed the seed the game was started with
+   */
+  public void start(PongSimulation simulation, float tickDuration, long seed) {
+    size = 0;
+    runTicks = 0;
+    isRecording = true;
+    writeInt(MAGIC);
+    writeByte(VERSION);
+    writeFloat(tickDuration);
+    writeFloat(simulation.getBallWidth());
+    writeFloat(simulation.getBallHeight());
+    writeFloat(simulation.getPaddleWidth());
+    writeFloat(simulation.getPaddleHeight());
+    writeLong(seed);
+    recordSettings(simulation);
+  }
+
+  /**
+   * Records the current settings of the simulation. Should be called whenever they change during
+   * a game.
+   *
+   * @param simulation the {@link PongSimulation} being recorded
+   */
+  public void recordSettings(PongSimulation simulation) {
+    if (!isRecording) {
+      return;
+    }
+    flushRun();
+    writeByte(SETTINGS_RECORD);
+    writeByte(simulation.getComputerStrategy().ordinal());
+    writeFloat(simulation.getComputerPaddleSpeed());
+    writeFloat(simulation.getComputerReactionTime());
+    writeFloat(simulation.getComputerAimError());
+    writeFloat(simulation.getPlayerPaddleSpeed());
+    ResponseProfile responseProfile = simulation.getResponseProfile();
+    writeVarInt(responseProfile.getSections());
+    for (int i = 0; i < responseProfile.getSections(); i++) {
+      writeFloat(responseProfile.getAngle(i));
+      writeFloat(responseProfile.getSpeed(i));
+    }
+  }
+
+  /**
+   * Records the input for one step of the simulation.
+   *
+   * @param input the {@link PlayerInput} passed to the step
+   */
+  public void recordTick(PlayerInput input) {
+    if (!isRecording) {
+      return;
+    }
+    if (runTicks > 0 && isSameInput(input)) {
+      runTicks++;
+      return;
+    }
+    flushRun();
+    runAction = input.getAction();
+    runTargetY = input.getTargetY();
+    runTicks = 1;
+  }
+
+  private boolean isSameInput(PlayerInput input) {
+    if (input.getAction() != runAction) {
+      return false;
+    }
+    return runAction != PlayerInput.Action.MOVE_TO
+        || Float.floatToIntBits(input.getTargetY()) == Float.floatToIntBits(runTargetY);
+  }
+
+  private void flushRun() {
+    if (runTicks == 0) {
+      return;
+    }
+    writeByte(INPUT_RECORD);
+    writeByte(runAction.ordinal());
+    if (runAction == PlayerInput.Action.MOVE_TO) {
+      writeFloat(runTargetY);
+    }
+    writeVarInt(runTicks);
+    runTicks = 0;
+  }
+
+  /**
+   * Finishes recording the game, noting the final score so a replay can be checked.
+   *
+   * @param simulation the {@link PongSimulation} being recorded
+   * @return the log, or {@code null} if nothing was being recorded
+   */
+  public byte[] finish(PongSimulation simulation) {
+    if (!isRecording) {
+      return null;
+    }
+    flushRun();
+    writeByte(END_RECORD);
+    writeInt(simulation.getPlayerScore());
+    writeInt(simulation.getComputerScore());
+    isRecording = false;
+    byte[] log = new byte[size];
+    System.arraycopy(buffer, 0, log, 0, size);
+    return log;
+  }
+
+  /**
+   * @return {@code true} if a game is being recorded
+   */
+  public boolean isRecording() {
+    return isRecording;
+  }
+
+  private void writeByte(int value) {
+    if (size == buffer.length) {
+      byte[] newBuffer = new byte[buffer.length * 2];
+      System.arraycopy(buffer, 0, newBuffer, 0, size);
+      buffer = newBuffer;
+    }
+    buffer[size++] = (byte) value;
+  }
+
+  private void writeInt(int value) {
+    writeByte(value >>> 24);
+    writeByte(value >>> 16);
+    writeByte(value >>> 8);
+    writeByte(value);
+  }
+
+  private void writeLong(long value) {
+    writeInt((int) (value >>> 32));
+    writeInt((int) value);
+  }
+
+  private void writeFloat(float value) {
+    writeInt(Float.floatToIntBits(value));
+  }
+
+  /*
+   * 7 bits per byte with the top bit set on all but the last byte, so short
+   * runs take a single byte.
+   */
+  private void writeVarInt(int value) {
+    while ((value & ~0x7F) != 0) {
+      writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    writeByte(value);
+  }
+}
@@ -0,0 +1,201 @@
+package lowe.mike.blueprintpong.simulation;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * {@code MatchReplay} plays back a log written by {@link MatchRecorder} as fast as possible,
+ * without rendering, and checks the game ends with the recorded score.
+ * <p>
+ * Instances of {@code MatchReplay} are immutable.
+ *
+ * @author Mike Lowe
+ */
+public final class MatchReplay {
+
+  private static final ComputerStrategy[] STRATEGIES = ComputerStrategy.values();
+  private static final PlayerInput.Action[] ACTIONS = PlayerInput.Action.values();
+
+  private final int recordedPlayerScore;
+  private final int recordedComputerScore;
+  private final int playerScore;
+  private final int computerScore;
+  private final long ticks;
+
+  private MatchReplay(int recordedPlayerScore,
+      int recordedComputerScore,
+      int playerScore,
+      int computerScore,
+      long ticks) {
+    this.recordedPlayerScore = recordedPlayerScore;
+    this.recordedComputerScore = recordedComputerScore;
+    this.playerScore = playerScore;
+    this.computerScore = computerScore;
+    this.ticks = ticks;
+  }
+
+  /**
+   * Plays back a recorded game.
+   *
+   * @param log the log written by {@link MatchRecorder}
+   * @return the {@code MatchReplay} with the recorded and replayed scores
+   * @throws IllegalArgumentException if the log is malformed or from an unknown version
+   */
+  public static MatchReplay play(byte[] log) {
+    try {
+      return play(ByteBuffer.wrap(log));
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("log is truncated", e);
+    } catch (ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("log has an unknown value", e);
+    }
+  }
+
+  private static MatchReplay play(ByteBuffer log) {
+    if (log.getInt() != MatchRecorder.MAGIC) {
+      throw new IllegalArgumentException("not a match log");
+    }
+    int version = log.get();
+    if (version != MatchRecorder.VERSION && version != MatchRecorder.VERSION_WITHOUT_PROFILE) {
+      throw new IllegalArgumentException("unknown log version " + version);
+    }
+    float tickDuration = log.getFloat();
+    float ballWidth = log.getFloat();
+    float ballHeight = log.getFloat();
+    float paddleWidth = log.getFloat();
+    float paddleHeight = log.getFloat();
+    long seed = log.getLong();
+
+    PongSimulation simulation =
+        new PongSimulation(ballWidth, ballHeight, paddleWidth, paddleHeight, seed);
+    if (log.get() != MatchRecorder.SETTINGS_RECORD) {
+      throw new IllegalArgumentException("log should start with the settings");
+    }
+    readSettings(log, version, simulation);
+    // settings affect the serve so start again now they are in place
+    simulation.newGame(seed);
+
+    PlayerInput input = new PlayerInput();
+    long ticks = 0;
+    while (true) {
+      int record = log.get();
+      switch (record) {
+        case MatchRecorder.SETTINGS_RECORD:
+          readSettings(log, version, simulation);
+          break;
+        case MatchRecorder.INPUT_RECORD:
+          int runTicks = readInput(log, input);
+          for (int i = 0; i < runTicks; i++) {
+            simulation.step(tickDuration, input);
+          }
+          ticks += runTicks;
+          break;
+        case MatchRecorder.END_RECORD:
+          int recordedPlayerScore = log.getInt();
+          int recordedComputerScore = log.getInt();
+          return new MatchReplay(recordedPlayerScore, recordedComputerScore,
+              simulation.getPlayerScore(), simulation.getComputerScore(), ticks);
+        default:
+          throw new IllegalArgumentException("unknown record " + record);
+      }
+    }
+  }
+
+  private static void readSettings(ByteBuffer log, int version, PongSimulation simulation) {
+    simulation.setComputerStrategy(STRATEGIES[log.get()]);
+    simulation.setComputerPaddleSpeed(log.getFloat());
+    simulation.setComputerReactionTime(log.getFloat());
+    simulation.setComputerAimError(log.getFloat());
+    simulation.setPlayerPaddleSpeed(log.getFloat());
+    if (version != MatchRecorder.VERSION_WITHOUT_PROFILE) {
+      simulation.setResponseProfile(readResponseProfile(log));
+    }
+  }
+
+  private static ResponseProfile readResponseProfile(ByteBuffer log) {
+    int sections = readVarInt(log);
+    if (sections <= 0 || sections > log.remaining()) {
+      throw new IllegalArgumentException("response profile has " + sections + " sections");
+    }
+    float[] angles = new float[sections];
+    float[] speeds = new float[sections];
+    for (int i = 0; i < sections; i++) {
+      angles[i] = log.getFloat();
+      speeds[i] = log.getFloat();
+    }
+    return new ResponseProfile(angles, speeds);
+  }
+
+  private static int readInput(ByteBuffer log, PlayerInput input) {
+    PlayerInput.Action action = ACTIONS[log.get()];
+    switch (action) {
+      case UP:
+        input.moveUp();
+        break;
+      case DOWN:
+        input.moveDown();
+        break;
+      case MOVE_TO:
+        input.moveTo(log.getFloat());
+        break;
+      default:
+        input.clear();
+        break;
+    }
+    return readVarInt(log);
+  }
+
+  private static int readVarInt(ByteBuffer log) {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = log.get();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("variable length integer is too long");
+  }
+
+  /**
+   * @return {@code true} if the replay ended with the recorded score
+   */
+  public boolean matchesRecording() {
+    return playerScore == recordedPlayerScore && computerScore == recordedComputerScore;
+  }
+
+  /**
+   * @return the player score that was recorded
+   */
+  public int getRecordedPlayerScore() {
+    return recordedPlayerScore;
+  }
+
+  /**
+   * @return the computer score that was recorded
+   */
+  public int getRecordedComputerScore() {
+    return recordedComputerScore;
+  }
+
+  /**
+   * @return the player score the replay ended with
+   */
+  public int getPlayerScore() {
+    return playerScore;
+  }
+
+  /**
+   * @return the computer score the replay ended with
+   */
+  public int getComputerScore() {
+    return computerScore;
+  }
+
+  /**
+   * @return the number of ticks that were replayed
+   */
+  public long getTicks() {
+    return ticks;
+  }
+}
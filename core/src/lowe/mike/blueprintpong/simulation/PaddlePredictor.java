@@ -0,0 +1,74 @@
+package lowe.mike.blueprintpong.simulation;
+
+/**
+ * {@code PaddlePredictor} moves a copy of one paddle of a {@link PongSimulation} running
+ * somewhere else, e.g. on a network host, so a player's own input can be shown straight away
+ * rather than when the host's state gets back.
+ * <p>
+ * The paddle moves exactly as it does in the {@link PongSimulation}, so when the host's state for
+ * an earlier step arrives, resetting to it and stepping again with the input sent since gives the
+ * same position the host will reach.
+ *
+ * @author Mike Lowe
+ */
+public final class PaddlePredictor {
+
+  private final SimulatedPaddle paddle;
+  private final float height;
+
+  /**
+   * Creates a new {@code PaddlePredictor} for a paddle of the default size.
+   *
+   * @param speed the paddle speed (in units per second)
+   */
+  public PaddlePredictor(float speed) {
+    this(speed, PongSimulation.DEFAULT_PADDLE_HEIGHT);
+  }
+
+  /**
+   * Creates a new {@code PaddlePredictor}.
+   *
+   * @param speed the paddle speed (in units per second)
+   * @param height height of the paddle
+   */
+  public PaddlePredictor(float speed, float height) {
+    // x doesn't affect how the paddle moves
+    this.paddle = new SimulatedPaddle(0f);
+    this.paddle.speed = speed;
+    this.height = height;
+  }
+
+  /**
+   * Puts the paddle where the {@link PongSimulation} has it.
+   *
+   * @param y the y position
+   * @param targetY the y position the paddle is moving towards, or stopped at
+   */
+  public void reset(float y, float targetY) {
+    paddle.reset(y, targetY);
+  }
+
+  /**
+   * Moves the paddle as a {@link PongSimulation} step would.
+   *
+   * @param delta time in seconds to advance by
+   * @param input what the player wants the paddle to do
+   */
+  public void step(float delta, PlayerInput input) {
+    paddle.step(delta, input, height);
+  }
+
+  /**
+   * @return y position of the paddle
+   */
+  public float getY() {
+    return paddle.y;
+  }
+
+  /**
+   * @return y position the paddle is moving towards, or stopped at
+   */
+  public float getTargetY() {
+    return paddle.getTargetY();
+  }
+}
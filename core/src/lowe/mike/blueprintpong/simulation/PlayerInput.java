@@ -0,0 +1,67 @@
+package lowe.mike.blueprintpong.simulation;
+
+/**
+ * {@code PlayerInput} describes what the player wants their paddle to do during a single {@link
+ * PongSimulation} step.
+ * <p>
+ * Instances are mutable so the same {@code PlayerInput} can be reused every step.
+ *
+ * @author Mike Lowe
+ */
+public final class PlayerInput {
+
+  /**
+   * The different actions a player can take in a step.
+   */
+  public enum Action {
+    NONE, UP, DOWN, MOVE_TO
+  }
+
+  private Action action = Action.NONE;
+  private float targetY;
+
+  /**
+   * Clears any action so the paddle just carries on towards its current target.
+   */
+  public void clear() {
+    action = Action.NONE;
+  }
+
+  /**
+   * Moves the paddle up for the step.
+   */
+  public void moveUp() {
+    action = Action.UP;
+  }
+
+  /**
+   * Moves the paddle down for the step.
+   */
+  public void moveDown() {
+    action = Action.DOWN;
+  }
+
+  /**
+   * Starts moving the paddle towards the given y position.
+   *
+   * @param y the y position the bottom of the paddle should move towards
+   */
+  public void moveTo(float y) {
+    action = Action.MOVE_TO;
+    targetY = y;
+  }
+
+  /**
+   * @return the {@link Action} for the step
+   */
+  public Action getAction() {
+    return action;
+  }
+
+  /**
+   * @return the y position to move towards when the {@link Action} is {@link Action#MOVE_TO}
+   */
+  public float getTargetY() {
+    return targetY;
+  }
+}
@@ -0,0 +1,576 @@
+package lowe.mike.blueprintpong.simulation;
+
+import java.util.Random;
+
+/**
+ * {@code PongSimulation} holds the rules of a <i>Blueprint Pong</i> match as plain float state. It
+ * has no dependency on libGDX so it can be stepped without a GL context, e.g. on a server or in
+ * tools that play lots of matches.
+ *
+ * @author Mike Lowe
+ */
+public final class PongSimulation {
+
+  /*
+   * The court matches the game's virtual screen size.
+   */
+  public static final float COURT_WIDTH = 320f;
+  public static final float COURT_HEIGHT = 180f;
+
+  /*
+   * Default sizes match the scaled ball and paddle textures.
+   */
+  public static final float DEFAULT_BALL_WIDTH = 38f * COURT_WIDTH / 1440f;
+  public static final float DEFAULT_BALL_HEIGHT = 37f * COURT_HEIGHT / 810f;
+  public static final float DEFAULT_PADDLE_WIDTH = 39f * COURT_WIDTH / 1440f;
+  public static final float DEFAULT_PADDLE_HEIGHT = 185f * COURT_HEIGHT / 810f;
+
+  public static final float PADDLE_OFFSET = 20f;
+  public static final float PLAYER_PADDLE_SPEED = 200f; // in units per second
+  public static final int WINNING_SCORE = 11;
+
+  /*
+   * By default the paddle is split into 8 equal sections, see
+   * ResponseProfile.CLASSIC.
+   */
+  static final int PADDLE_SECTIONS = 8;
+  /*
+   * Ball speed changes dependent on where a paddle is hit (in units per second)
+   */
+  static final float[] BALL_SPEEDS = {240f, 230f, 225f, 220f, 220f, 225f, 230f, 240f};
+  /*
+   * Ball angle changes dependent on where a paddle is hit
+   */
+  static final float[] BALL_ANGLES = {220f, 205f, 190f, 180f, 180f, 170f, 155f, 140f};
+
+  /*
+   * A ball can't bounce more than this many times in one step, which
+   * guards against getting stuck between surfaces.
+   */
+  static final int MAX_IMPACTS_PER_STEP = 4;
+
+  private final Random random;
+  private final float ballWidth;
+  private final float ballHeight;
+  private final float paddleWidth;
+  private final float paddleHeight;
+  private final SimulatedPaddle playerPaddle;
+  private final SimulatedPaddle computerPaddle;
+  private SimulationListener listener;
+  private ResponseProfile responseProfile;
+  private ComputerStrategy computerStrategy = ComputerStrategy.FOLLOW;
+  private float computerReactionTime; // in seconds
+  private float computerAimError; // as a fraction of the paddle height
+  private float computerReactionTimer;
+  private boolean isComputerAimPending;
+  private float sectionsPerUnit;
+  private float ballX;
+  private float ballY;
+  private float ballSpeed; // in units per second
+  private float ballAngle; // in degrees e.g. 0f = left, 90f = up, 180f = right, 270f = down
+  private float ballDirectionX;
+  private float ballDirectionY;
+  private int playerScore;
+  private int computerScore;
+  private boolean gameOver;
+
+  /**
+   * Creates a new {@code PongSimulation} with the default ball and paddle sizes.
+   *
+   * @param seed seed for the serves
+   */
+  public PongSimulation(long seed) {
+    this(DEFAULT_BALL_WIDTH, DEFAULT_BALL_HEIGHT, DEFAULT_PADDLE_WIDTH, DEFAULT_PADDLE_HEIGHT,
+        seed);
+  }
+
+  /**
+   * Creates a new {@code PongSimulation} given the ball and paddle sizes.
+   *
+   * @param ballWidth width of the ball
+   * @param ballHeight height of the ball
+   * @param paddleWidth width of the paddles
+   * @param paddleHeight height of the paddles
+   * @param seed seed for the serves
+   */
+  public PongSimulation(float ballWidth,
+      float ballHeight,
+      float paddleWidth,
+      float paddleHeight,
+      long seed) {
+    this.random = new Random(seed);
+    this.ballWidth = ballWidth;
+    this.ballHeight = ballHeight;
+    this.paddleWidth = paddleWidth;
+    this.paddleHeight = paddleHeight;
+    setResponseProfile(ResponseProfile.CLASSIC);
+    this.playerPaddle = new SimulatedPaddle(PADDLE_OFFSET);
+    this.playerPaddle.speed = PLAYER_PADDLE_SPEED;
+    this.computerPaddle = new SimulatedPaddle(COURT_WIDTH - PADDLE_OFFSET - paddleWidth);
+    newGame();
+  }
+
+  /**
+   * @param listener the {@link SimulationListener} to notify of events, or {@code null}
+   */
+  public void setListener(SimulationListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * @param responseProfile the {@link ResponseProfile} that decides how the ball leaves a paddle
+   */
+  public void setResponseProfile(ResponseProfile responseProfile) {
+    this.responseProfile = responseProfile;
+    this.sectionsPerUnit = responseProfile.getSections() / paddleHeight;
+  }
+
+  /**
+   * @param speed the computer paddle speed (in units per second)
+   */
+  public void setComputerPaddleSpeed(float speed) {
+    computerPaddle.speed = speed;
+  }
+
+  /**
+   * @param strategy the {@link ComputerStrategy} the computer paddle uses
+   */
+  public void setComputerStrategy(ComputerStrategy strategy) {
+    if (strategy != computerStrategy) {
+      this.computerStrategy = strategy;
+      scheduleComputerAim();
+    }
+  }
+
+  /**
+   * @param seconds how long the computer takes to react to a serve or paddle hit when using {@link
+   * ComputerStrategy#INTERCEPT}
+   */
+  public void setComputerReactionTime(float seconds) {
+    this.computerReactionTime = seconds;
+  }
+
+  /**
+   * @param error the most the computer aim can be off by when using {@link
+   * ComputerStrategy#INTERCEPT}, as a fraction of the paddle height
+   */
+  public void setComputerAimError(float error) {
+    this.computerAimError = error;
+  }
+
+  /**
+   * @param speed the player paddle speed (in units per second)
+   */
+  public void setPlayerPaddleSpeed(float speed) {
+    playerPaddle.speed = speed;
+  }
+
+  /**
+   * Resets the scores and paddles and serves the ball in a random direction, with the serves
+   * starting again from the given seed. Two games started with the same seed, settings and input
+   * play out exactly the same.
+   *
+   * @param seed seed for the serves
+   */
+  public void newGame(long seed) {
+    random.setSeed(seed);
+    newGame();
+  }
+
+  /**
+   * Resets the scores and paddles and serves the ball in a random direction.
+   */
+  public void newGame() {
+    playerScore = 0;
+    computerScore = 0;
+    gameOver = false;
+    resetPaddle(playerPaddle);
+    resetPaddle(computerPaddle);
+    newRound(random.nextBoolean());
+  }
+
+  private void resetPaddle(SimulatedPaddle paddle) {
+    paddle.reset((COURT_HEIGHT / 2f) - (paddleHeight / 2f));
+  }
+
+  private void newRound(boolean serveToPlayer) {
+    setRandomBallPosition();
+    setRandomBallDirection(serveToPlayer);
+    ballSpeed = responseProfile.getServeSpeed();
+    scheduleComputerAim();
+  }
+
+  private void setRandomBallPosition() {
+    ballX = (COURT_WIDTH / 2f) - (ballWidth / 2f);
+    ballY = random.nextFloat() * (COURT_HEIGHT - ballHeight);
+  }
+
+  private void setRandomBallDirection(boolean serveToPlayer) {
+    int section = random.nextInt(responseProfile.getSections());
+    setBallDirection(section, serveToPlayer);
+  }
+
+  /*
+   * Directions come from the profile's tables so no trigonometry is needed
+   * per bounce. Heading towards the player is the section's direction
+   * reflected in the y axis.
+   */
+  private void setBallDirection(int section, boolean towardsPlayer) {
+    float angle = responseProfile.getAngle(section);
+    float directionX = responseProfile.getDirectionX(section);
+    if (towardsPlayer) {
+      angle = reflectAngleInYAxis(angle);
+      directionX = -directionX;
+    }
+    ballAngle = angle;
+    ballDirectionX = directionX;
+    ballDirectionY = responseProfile.getDirectionY(section);
+  }
+
+  static float reflectAngleInYAxis(float angle) {
+    return (540f - angle) % 360f;
+  }
+
+  static float reflectAngleInXAxis(float angle) {
+    return (720f - angle) % 360f;
+  }
+
+  /**
+   * Advances the match by the given amount of time. Does nothing once the game is over.
+   *
+   * @param delta time in seconds to advance by
+   * @param input what the player wants their paddle to do
+   */
+  public void step(float delta, PlayerInput input) {
+    step(delta, input, null);
+  }
+
+  /**
+   * Advances the match by the given amount of time, with the computer paddle controlled by a
+   * second player rather than the computer, e.g. in a networked match. Does nothing once the game
+   * is over.
+   *
+   * @param delta time in seconds to advance by
+   * @param input what the player wants their paddle to do
+   * @param opponentInput what the second player wants the computer paddle to do, or {@code null}
+   *     to leave it to the computer
+   */
+  public void step(float delta, PlayerInput input, PlayerInput opponentInput) {
+    if (gameOver) {
+      return;
+    }
+    playerPaddle.step(delta, input, paddleHeight);
+    if (opponentInput == null) {
+      updateComputerPaddlePosition(delta);
+    } else {
+      computerPaddle.step(delta, opponentInput, paddleHeight);
+    }
+    updateBallPosition(delta);
+    updateScore();
+  }
+
+  private void updateComputerPaddlePosition(float delta) {
+    if (computerStrategy == ComputerStrategy.FOLLOW) {
+      computerPaddle.setTargetY(ballY + (ballHeight / 2f) - (paddleHeight / 2f));
+    } else if (isComputerAimPending) {
+      computerReactionTimer -= delta;
+      if (computerReactionTimer <= 0f) {
+        computerPaddle.setTargetY(getComputerAim());
+        isComputerAimPending = false;
+      }
+    }
+    computerPaddle.updatePosition(delta, paddleHeight);
+  }
+
+  /*
+   * The ball only changes course at a paddle or a wall, and wall bounces
+   * are folded into the intercept, so the aim only needs working out again
+   * after a serve or paddle hit.
+   */
+  private void scheduleComputerAim() {
+    computerReactionTimer = computerReactionTime;
+    isComputerAimPending = true;
+  }
+
+  private float getComputerAim() {
+    if (ballDirectionX <= 0) {
+      // wait in the middle for the return
+      return (COURT_HEIGHT / 2f) - (paddleHeight / 2f);
+    }
+    float distanceX = Math.max(0f, computerPaddle.x - ballWidth - ballX);
+    float interceptY = Collisions.getInterceptY(
+        ballY, ballDirectionX, ballDirectionY, distanceX, COURT_HEIGHT - ballHeight
+    );
+    float error = ((random.nextFloat() * 2f) - 1f) * computerAimError * paddleHeight;
+    return interceptY + (ballHeight / 2f) - (paddleHeight / 2f) + error;
+  }
+
+  /*
+   * Ball is swept along its path rather than tested for overlap at the end
+   * of the step, so it can't tunnel through a paddle however far it moves.
+   * Each impact is resolved at the exact point of contact and the ball
+   * carries on for the rest of the step.
+   */
+  private void updateBallPosition(float delta) {
+    float timeLeft = delta;
+    for (int i = 0; i < MAX_IMPACTS_PER_STEP && timeLeft > 0f; i++) {
+      float dx = ballDirectionX * ballSpeed * timeLeft;
+      float dy = ballDirectionY * ballSpeed * timeLeft;
+      // only the paddle the ball is heading towards can be hit
+      SimulatedPaddle paddle = (dx < 0) ? playerPaddle : computerPaddle;
+      float paddleImpact = getTimeOfPaddleImpact(paddle, dx, dy);
+      float wallImpact = getTimeOfWallImpact(dy);
+      float impact = Math.min(paddleImpact, wallImpact);
+      if (impact > 1f) {
+        ballX += dx;
+        ballY += dy;
+        return;
+      }
+      ballX += dx * impact;
+      ballY += dy * impact;
+      timeLeft -= timeLeft * impact;
+      if (paddleImpact <= wallImpact) {
+        handlePaddleImpact(paddle);
+      } else {
+        handleWallImpact(dy);
+      }
+    }
+  }
+
+  private float getTimeOfPaddleImpact(SimulatedPaddle paddle, float dx, float dy) {
+    return Collisions.getTimeOfImpact(
+        ballX, ballY, ballWidth, ballHeight, dx, dy,
+        paddle.x, paddle.y, paddleWidth, paddleHeight
+    );
+  }
+
+  private float getTimeOfWallImpact(float dy) {
+    float impact;
+    if (dy > 0) {
+      impact = (COURT_HEIGHT - ballHeight - ballY) / dy;
+    } else if (dy < 0) {
+      impact = -ballY / dy;
+    } else {
+      return Collisions.NO_IMPACT;
+    }
+    return Math.max(impact, 0f);
+  }
+
+  private void handlePaddleImpact(SimulatedPaddle paddle) {
+    int sectionHit = getPaddleSectionHit(paddle);
+    setBallDirection(sectionHit, paddle == computerPaddle);
+    ballSpeed = responseProfile.getSpeed(sectionHit);
+    scheduleComputerAim();
+    notifyPaddleHit();
+  }
+
+  private int getPaddleSectionHit(SimulatedPaddle paddle) {
+    return Collisions.getSectionHit(
+        ballY, paddle.y, sectionsPerUnit, responseProfile.getSections()
+    );
+  }
+
+  private void handleWallImpact(float dy) {
+    ballY = (dy > 0) ? COURT_HEIGHT - ballHeight : 0;
+    ballAngle = reflectAngleInXAxis(ballAngle);
+    ballDirectionY = -ballDirectionY;
+    notifyWallHit();
+  }
+
+  private void updateScore() {
+    // has player scored
+    if (ballX > COURT_WIDTH) {
+      playerScore++;
+      newRound(true);
+      notifyPointScored(true);
+    }
+    // has computer scored
+    else if (ballX < -ballWidth) {
+      computerScore++;
+      newRound(false);
+      notifyPointScored(false);
+    }
+    if (playerScore == WINNING_SCORE || computerScore == WINNING_SCORE) {
+      gameOver = true;
+    }
+  }
+
+  private void notifyPaddleHit() {
+    if (listener != null) {
+      listener.paddleHit();
+    }
+  }
+
+  private void notifyWallHit() {
+    if (listener != null) {
+      listener.wallHit();
+    }
+  }
+
+  private void notifyPointScored(boolean playerScored) {
+    if (listener != null) {
+      listener.pointScored(playerScored);
+    }
+  }
+
+  /**
+   * @return the {@link ResponseProfile} that decides how the ball leaves a paddle
+   */
+  public ResponseProfile getResponseProfile() {
+    return responseProfile;
+  }
+
+  /**
+   * @return the {@link ComputerStrategy} the computer paddle uses
+   */
+  public ComputerStrategy getComputerStrategy() {
+    return computerStrategy;
+  }
+
+  /**
+   * @return the computer paddle speed (in units per second)
+   */
+  public float getComputerPaddleSpeed() {
+    return computerPaddle.speed;
+  }
+
+  /**
+   * @return how long the computer takes to react to a serve or paddle hit (in seconds)
+   */
+  public float getComputerReactionTime() {
+    return computerReactionTime;
+  }
+
+  /**
+   * @return the most the computer aim can be off by, as a fraction of the paddle height
+   */
+  public float getComputerAimError() {
+    return computerAimError;
+  }
+
+  /**
+   * @return the player paddle speed (in units per second)
+   */
+  public float getPlayerPaddleSpeed() {
+    return playerPaddle.speed;
+  }
+
+  /**
+   * @return x position of the ball
+   */
+  public float getBallX() {
+    return ballX;
+  }
+
+  /**
+   * @return y position of the ball
+   */
+  public float getBallY() {
+    return ballY;
+  }
+
+  /**
+   * @return the angle the ball is travelling at
+   */
+  public float getBallAngle() {
+    return ballAngle;
+  }
+
+  /**
+   * @return the speed of the ball (in units per second)
+   */
+  public float getBallSpeed() {
+    return ballSpeed;
+  }
+
+  /**
+   * @return x position of the player paddle
+   */
+  public float getPlayerPaddleX() {
+    return playerPaddle.x;
+  }
+
+  /**
+   * @return y position of the player paddle
+   */
+  public float getPlayerPaddleY() {
+    return playerPaddle.y;
+  }
+
+  /**
+   * @return y position the player paddle is moving towards, or stopped at
+   */
+  public float getPlayerPaddleTargetY() {
+    return playerPaddle.getTargetY();
+  }
+
+  /**
+   * @return x position of the computer paddle
+   */
+  public float getComputerPaddleX() {
+    return computerPaddle.x;
+  }
+
+  /**
+   * @return y position of the computer paddle
+   */
+  public float getComputerPaddleY() {
+    return computerPaddle.y;
+  }
+
+  /**
+   * @return y position the computer paddle is moving towards, or stopped at
+   */
+  public float getComputerPaddleTargetY() {
+    return computerPaddle.getTargetY();
+  }
+
+  /**
+   * @return width of the ball
+   */
+  public float getBallWidth() {
+    return ballWidth;
+  }
+
+  /**
+   * @return height of the ball
+   */
+  public float getBallHeight() {
+    return ballHeight;
+  }
+
+  /**
+   * @return width of the paddles
+   */
+  public float getPaddleWidth() {
+    return paddleWidth;
+  }
+
+  /**
+   * @return height of the paddles
+   */
+  public float getPaddleHeight() {
+    return paddleHeight;
+  }
+
+  /**
+   * @return the player score
+   */
+  public int getPlayerScore() {
+    return playerScore;
+  }
+
+  /**
+   * @return the computer score
+   */
+  public int getComputerScore() {
+    return computerScore;
+  }
+
+  /**
+   * @return {@code true} if either side has reached the winning score
+   */
+  public boolean isGameOver() {
+    return gameOver;
+  }
+}
@@ -0,0 +1,170 @@
+package lowe.mike.blueprintpong.simulation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code ResponseProfile} describes how the ball leaves a paddle depending on which section of the
+ * paddle it hits. A paddle can be split into any number of equal sections, counting up from the
+ * bottom of the paddle, and each section has a ball angle and speed.
+ * <p>
+ * Direction vectors are worked out when the profile is created so a bounce is just a table lookup,
+ * and the section hit is found with one calculation, so finer profiles cost no more per hit.
+ * <p>
+ * Instances of {@code ResponseProfile} are immutable.
+ *
+ * @author Mike Lowe
+ */
+public final class ResponseProfile {
+
+  /**
+   * The original 8 section profile.
+   */
+  public static final ResponseProfile CLASSIC =
+      new ResponseProfile(PongSimulation.BALL_ANGLES, PongSimulation.BALL_SPEEDS);
+
+  private final float[] angles;
+  private final float[] speeds;
+  private final float[] directionX;
+  private final float[] directionY;
+  private final float serveSpeed;
+
+  /**
+   * Creates a new {@code ResponseProfile} given the angle and speed for each section.
+   *
+   * @param angles ball angle for each section, in degrees e.g. 180f = right
+   * @param speeds ball speed for each section (in units per second)
+   */
+  public ResponseProfile(float[] angles, float[] speeds) {
+    if (angles.length == 0 || angles.length != speeds.length) {
+      throw new IllegalArgumentException("need the same, non-zero, number of angles and speeds");
+    }
+    int sections = angles.length;
+    this.angles = angles.clone();
+    this.speeds = speeds.clone();
+    this.directionX = new float[sections];
+    this.directionY = new float[sections];
+    float slowest = Float.MAX_VALUE;
+    for (int i = 0; i < sections; i++) {
+      // StrictMath gives the same tables on every platform so recorded matches replay exactly
+      double radians = StrictMath.toRadians(angles[i]);
+      this.directionX[i] = (float) -StrictMath.cos(radians);
+      this.directionY[i] = (float) StrictMath.sin(radians);
+      slowest = Math.min(slowest, speeds[i]);
+    }
+    this.serveSpeed = slowest;
+  }
+
+  /**
+   * Loads a {@code ResponseProfile} from text. Each line holds the angle and speed of a section,
+   * separated by whitespace, starting from the bottom section. Blank lines and lines starting with
+   * {@code #} are ignored.
+   *
+   * @param reader {@link Reader} to read the profile from
+   * @return the {@code ResponseProfile}
+   * @throws IOException if the profile can't be read
+   * @throws IllegalArgumentException if the profile is malformed
+   */
+  public static ResponseProfile load(Reader reader) throws IOException {
+    List<float[]> sections = new ArrayList<float[]>();
+    BufferedReader lines = new BufferedReader(reader);
+    String line;
+    int lineNumber = 0;
+    while ((line = lines.readLine()) != null) {
+      lineNumber++;
+      line = line.trim();
+      if (line.length() == 0 || line.startsWith("#")) {
+        continue;
+      }
+      String[] values = line.split("\\s+");
+      if (values.length != 2) {
+        throw new IllegalArgumentException("line " + lineNumber + " should be: <angle> <speed>");
+      }
+      sections.add(new float[]{Float.parseFloat(values[0]), Float.parseFloat(values[1])});
+    }
+
+    float[] angles = new float[sections.size()];
+    float[] speeds = new float[sections.size()];
+    for (int i = 0; i < sections.size(); i++) {
+      angles[i] = sections.get(i)[0];
+      speeds[i] = sections.get(i)[1];
+    }
+    return new ResponseProfile(angles, speeds);
+  }
+
+  /**
+   * Creates a copy of this profile with a different number of sections. Angles and speeds are
+   * linearly interpolated between the middles of this profile's sections.
+   *
+   * @param sections the number of sections
+   * @return the resampled {@code ResponseProfile}
+   */
+  public ResponseProfile withSections(int sections) {
+    if (sections <= 0) {
+      throw new IllegalArgumentException("sections must be positive");
+    }
+    float[] newAngles = new float[sections];
+    float[] newSpeeds = new float[sections];
+    int last = angles.length - 1;
+    for (int i = 0; i < sections; i++) {
+      // middle of the new section in terms of this profile's sections
+      float position = ((i + .5f) * angles.length / sections) - .5f;
+      position = Math.max(0f, Math.min(last, position));
+      int below = (int) position;
+      int above = Math.min(below + 1, last);
+      float fraction = position - below;
+      newAngles[i] = angles[below] + ((angles[above] - angles[below]) * fraction);
+      newSpeeds[i] = speeds[below] + ((speeds[above] - speeds[below]) * fraction);
+    }
+    return new ResponseProfile(newAngles, newSpeeds);
+  }
+
+  /**
+   * @return the number of sections
+   */
+  public int getSections() {
+    return angles.length;
+  }
+
+  /**
+   * @param section index of the section
+   * @return the ball angle for the section, in degrees
+   */
+  public float getAngle(int section) {
+    return angles[section];
+  }
+
+  /**
+   * @param section index of the section
+   * @return the ball speed for the section (in units per second)
+   */
+  public float getSpeed(int section) {
+    return speeds[section];
+  }
+
+  /**
+   * @param section index of the section
+   * @return x component of the ball direction for the section
+   */
+  public float getDirectionX(int section) {
+    return directionX[section];
+  }
+
+  /**
+   * @param section index of the section
+   * @return y component of the ball direction for the section
+   */
+  public float getDirectionY(int section) {
+    return directionY[section];
+  }
+
+  /**
+   * @return the speed to serve the ball at, which is the slowest section speed
+   */
+  public float getServeSpeed() {
+    return serveSpeed;
+  }
+}
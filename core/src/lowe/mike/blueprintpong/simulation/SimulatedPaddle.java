@@ -0,0 +1,125 @@
+package lowe.mike.blueprintpong.simulation;
+
+/**
+ * Plain float state of a paddle in a {@link PongSimulation}. A paddle moves towards a target y
+ * position at a constant speed and stops when it gets there.
+ *
+ * @author Mike Lowe
+ */
+final class SimulatedPaddle {
+
+  final float x;
+  float y;
+  float speed; // in units per second
+  private float startY;
+  private float targetY;
+  private float direction;
+  private float distance;
+  private boolean isMoving;
+
+  SimulatedPaddle(float x) {
+    this.x = x;
+  }
+
+  /**
+   * Puts this paddle at the given y position and stops it moving.
+   *
+   * @param y the y position
+   */
+  void reset(float y) {
+    reset(y, y);
+  }
+
+  /**
+   * Puts this paddle at the given y position, moving towards a target if it isn't already there.
+   *
+   * @param y the y position
+   * @param targetY the y position this paddle should move towards
+   */
+  void reset(float y, float targetY) {
+    this.y = y;
+    setTargetY(targetY);
+  }
+
+  /**
+   * @param y the y position this paddle should start moving towards
+   */
+  void setTargetY(float y) {
+    startY = this.y;
+    targetY = y;
+    float dy = targetY - startY;
+    direction = Math.signum(dy);
+    distance = Math.abs(dy);
+    isMoving = true;
+  }
+
+  /**
+   * @return the y position this paddle is moving towards, or stopped at
+   */
+  float getTargetY() {
+    return targetY;
+  }
+
+  /**
+   * Does what a player wants this paddle to do for a step, then moves it.
+   *
+   * @param delta time in seconds since the last step
+   * @param input what the player wants this paddle to do
+   * @param height height of this paddle
+   */
+  void step(float delta, PlayerInput input, float height) {
+    switch (input.getAction()) {
+      case UP:
+        moveUp(delta);
+        break;
+      case DOWN:
+        moveDown(delta);
+        break;
+      case MOVE_TO:
+        setTargetY(input.getTargetY());
+        break;
+      default:
+        break;
+    }
+    updatePosition(delta, height);
+  }
+
+  /**
+   * @param delta time in seconds since the last step
+   */
+  void moveUp(float delta) {
+    setTargetY(y + (speed * delta));
+  }
+
+  /**
+   * @param delta time in seconds since the last step
+   */
+  void moveDown(float delta) {
+    setTargetY(y - (speed * delta));
+  }
+
+  /**
+   * Moves this paddle towards its target, if required, keeping it within the court.
+   *
+   * @param delta time in seconds since the last step
+   * @param height height of this paddle
+   */
+  void updatePosition(float delta, float height) {
+    if (isMoving) {
+      y += direction * speed * delta;
+      if (Math.abs(y - startY) >= distance) {
+        y = targetY;
+        isMoving = false;
+      }
+    }
+    ensureInBounds(height);
+  }
+
+  private void ensureInBounds(float height) {
+    if (y < 0) {
+      y = 0;
+    } else if (y + height > PongSimulation.COURT_HEIGHT) {
+      y = PongSimulation.COURT_HEIGHT - height;
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package lowe.mike.blueprintpong.simulation;
+
+/**
+ * {@code SimulationListener} is notified of the events that happen while a {@link PongSimulation}
+ * is being stepped, e.g. so sounds can be played or score labels updated.
+ *
+ * @author Mike Lowe
+ */
+public interface SimulationListener {
+
+  /**
+   * Called when the ball hits a paddle.
+   */
+  void paddleHit();
+
+  /**
+   * Called when the ball hits the top or bottom wall.
+   */
+  void wallHit();
+
+  /**
+   * Called when a point is scored, after the ball has been served for the next round.
+   *
+   * @param playerScored {@code true} if the player scored, {@code false} if the computer scored
+   */
+  void pointScored(boolean playerScored);
+}
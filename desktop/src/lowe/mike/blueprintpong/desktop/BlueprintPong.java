@@ -22,7 +22,7 @@ public final class BlueprintPong {
   };
 
   public static void main(String[] arg) {
-    BlueprintPongGame game = new BlueprintPongGame();
+    BlueprintPongGame game = new BlueprintPongGame(new DesktopGarbageCollectionCounter());
     LwjglApplicationConfiguration config = initialiseConfig();
     new LwjglApplication(game, config);
   }
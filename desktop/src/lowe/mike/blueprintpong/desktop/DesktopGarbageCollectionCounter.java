@@ -0,0 +1,26 @@
+package lowe.mike.blueprintpong.desktop;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import lowe.mike.blueprintpong.debug.GarbageCollectionCounter;
+
+/**
+ * Counts garbage collections on the desktop by adding up every collector the JVM reports.
+ *
+ * @author Mike Lowe
+ */
+final class DesktopGarbageCollectionCounter implements GarbageCollectionCounter {
+
+  @Override
+  public long getCollectionCount() {
+    long count = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      long collections = collector.getCollectionCount();
+      // -1 means the collector doesn't count
+      if (collections > 0) {
+        count += collections;
+      }
+    }
+    return count;
+  }
+}
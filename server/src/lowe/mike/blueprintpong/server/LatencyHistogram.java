@@ -0,0 +1,103 @@
+package lowe.mike.blueprintpong.server;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@code LatencyHistogram} counts durations, to microsecond precision, in buckets that double in
+ * width and are each split into quarters, so any percentile is known to within a quarter without
+ * every duration being kept.
+ * <p>
+ * One thread records durations, and any thread can add up the counts so far.
+ *
+ * @author Mike Lowe
+ */
+final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 2;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  /*
+   * Enough buckets for durations up to 2^31 microseconds, over half an
+   * hour; anything longer is counted in the last one.
+   */
+  static final int BUCKET_COUNT = (32 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  private static final long NANOS_PER_MICRO = 1000L;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+  /**
+   * Counts a duration. Must only be called from one thread.
+   *
+   * @param nanos the duration, in nanoseconds
+   */
+  void record(long nanos) {
+    int index = getIndex(Math.max(nanos / NANOS_PER_MICRO, 0L));
+    // there's only one writer, so this doesn't need to be an atomic increment
+    counts.lazySet(index, counts.get(index) + 1L);
+  }
+
+  /**
+   * Adds the counts so far to a running total.
+   *
+   * @param totals count for each bucket, of length {@link #BUCKET_COUNT}
+   */
+  void addTo(long[] totals) {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      totals[i] += counts.get(i);
+    }
+  }
+
+  /*
+   * Below SUB_BUCKETS each microsecond has a bucket of its own.
+   */
+  private static int getIndex(long micros) {
+    if (micros < SUB_BUCKETS) {
+      return (int) micros;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(micros);
+    int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    int index = (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    return Math.min(index, BUCKET_COUNT - 1);
+  }
+
+  /**
+   * @param index a bucket index
+   * @return the longest duration counted in that bucket, in microseconds
+   */
+  static long getUpperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int exponent = (index / SUB_BUCKETS) - 1 + SUB_BUCKET_BITS;
+    int subBucket = index % SUB_BUCKETS;
+    return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1L;
+  }
+
+  /**
+   * Finds a percentile in a set of counts.
+   *
+   * @param counts count for each bucket, of length {@link #BUCKET_COUNT}
+   * @param percentile the percentile, between 0 and 100
+   * @return the duration that percentile of the counted durations are no longer than, in
+   *     microseconds, or 0 if nothing was counted
+   */
+  static long getPercentile(long[] counts, double percentile) {
+    long total = 0L;
+    for (long count : counts) {
+      total += count;
+    }
+    if (total == 0L) {
+      return 0L;
+    }
+    long rank = Math.max((long) Math.ceil(total * percentile / 100.0), 1L);
+    long seen = 0L;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return getUpperBound(i);
+      }
+    }
+    return getUpperBound(BUCKET_COUNT - 1);
+  }
+}
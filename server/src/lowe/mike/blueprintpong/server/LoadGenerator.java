@@ -0,0 +1,236 @@
+package lowe.mike.blueprintpong.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.locks.LockSupport;
+import lowe.mike.blueprintpong.net.MatchClient;
+import lowe.mike.blueprintpong.net.NetworkMatch;
+import lowe.mike.blueprintpong.net.Protocol;
+import lowe.mike.blueprintpong.net.UdpTransport;
+import lowe.mike.blueprintpong.simulation.PlayerInput;
+import lowe.mike.blueprintpong.simulation.PongSimulation;
+
+/**
+ * Plays lots of matches against a {@link MatchServer} at once, between scripted players that each
+ * have a socket of their own, and reports how the server coped. Without a host, a server is
+ * started in this process on loopback and its metrics are printed as it goes. Exits with a
+ * non-zero status if any player was turned away or disconnected.
+ * <p>
+ * Before the others start, two players join and leave while still waiting for a match, one by
+ * disconnecting and one by going silent until the server times them out. Their places have to be
+ * given to the players who come next, or one of those is left waiting alone and, with a local
+ * server that only has room for the matches asked for, the last player is turned away.
+ * <p>
+ * Usage: {@code LoadGenerator [matches] [seconds] [client threads] [host] [port]}
+ *
+ * @author Mike Lowe
+ */
+public final class LoadGenerator {
+
+  private static final int DEFAULT_MATCHES = 250;
+  private static final int DEFAULT_SECONDS = 30;
+  private static final int DEFAULT_CLIENT_THREADS = 2;
+  private static final int METRICS_INTERVAL_SECONDS = 5;
+  private static final String CLIENT_THREAD_NAME = "LoadClients-";
+  private static final long SEED = 1L;
+
+  /*
+   * Players start connecting spread over this long, as they would to a real
+   * server, rather than all in the same tick.
+   */
+  private static final int RAMP_UP_TICKS = 2 * Protocol.TICKS_PER_SECOND;
+
+  /*
+   * Each player who leaves waits this long first, so they have been given
+   * a side, and the others start once the server has had time to time out
+   * the silent one, which takes 5 seconds.
+   */
+  private static final int LEAVER_WAIT_TICKS = Protocol.TICKS_PER_SECOND;
+  private static final int LEAVING_TICKS = 9 * Protocol.TICKS_PER_SECOND;
+
+  /*
+   * Time given for the clients to stop once play is over.
+   */
+  private static final long SETTLE_MILLIS = 1000L;
+
+  // don't want instances
+  private LoadGenerator() {
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    int matches = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_MATCHES;
+    int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+    int clientThreads = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_CLIENT_THREADS;
+
+    InetAddress loopback = InetAddress.getByName(null);
+    MatchServer server = null;
+    ScheduledExecutorService metrics = null;
+    SocketAddress serverAddress;
+    if (args.length > 3) {
+      int port = (args.length > 4) ? Integer.parseInt(args[4]) : Protocol.DEFAULT_PORT;
+      serverAddress = new InetSocketAddress(args[3], port);
+    } else {
+      server = new MatchServer(new InetSocketAddress(loopback, 0),
+          Runtime.getRuntime().availableProcessors(), matches);
+      server.start();
+      serverAddress = server.getLocalAddress();
+      metrics = MatchServer.startMetricsReports(server, METRICS_INTERVAL_SECONDS);
+    }
+
+    System.out.printf("%d matches for %ds against %s%n", matches, seconds, serverAddress);
+    List<List<Bot>> botsByThread = new ArrayList<List<Bot>>();
+    for (int i = 0; i < clientThreads; i++) {
+      botsByThread.add(new ArrayList<Bot>());
+    }
+    List<Bot> leavers = new ArrayList<Bot>();
+    for (int i = 0; i < 2; i++) {
+      UdpTransport transport = new UdpTransport(new InetSocketAddress(loopback, 0));
+      int startTick = i * (LEAVER_WAIT_TICKS + LEAVER_WAIT_TICKS / 2);
+      Bot leaver = new Bot(new MatchClient(transport, serverAddress), startTick, SEED - i);
+      leaver.leaveTick = startTick + LEAVER_WAIT_TICKS;
+      leaver.isSilent = i == 1;
+      leavers.add(leaver);
+      botsByThread.get(0).add(leaver);
+    }
+    List<Bot> bots = new ArrayList<Bot>();
+    for (int i = 0; i < 2 * matches; i++) {
+      UdpTransport transport = new UdpTransport(new InetSocketAddress(loopback, 0));
+      int startTick = LEAVING_TICKS + i * RAMP_UP_TICKS / (2 * matches);
+      Bot bot = new Bot(new MatchClient(transport, serverAddress), startTick, SEED + i);
+      bots.add(bot);
+      botsByThread.get(i % clientThreads).add(bot);
+    }
+
+    // the others play for as long as asked once the leavers are done
+    long endTime = System.nanoTime() + (LEAVING_TICKS * BotRunner.TICK_NANOS)
+        + seconds * 1000000000L;
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < clientThreads; i++) {
+      Thread thread = new Thread(new BotRunner(botsByThread.get(i), endTime),
+          CLIENT_THREAD_NAME + i);
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    System.out.printf("%d players left while waiting%n", leavers.size());
+    boolean passed = printResults(bots, seconds);
+    for (Bot bot : bots) {
+      bot.client.close();
+    }
+    for (Bot leaver : leavers) {
+      leaver.client.close();
+    }
+    if (server != null) {
+      Thread.sleep(SETTLE_MILLIS);
+      System.out.println(server.reportMetrics());
+      metrics.shutdown();
+      server.stop();
+    }
+    if (!passed) {
+      System.exit(1);
+    }
+  }
+
+  private static boolean printResults(List<Bot> bots, int seconds) {
+    int[] statusCounts = new int[NetworkMatch.Status.values().length];
+    long bytesSent = 0L;
+    long bytesReceived = 0L;
+    for (Bot bot : bots) {
+      statusCounts[bot.client.getStatus().ordinal()]++;
+      bytesSent += bot.client.getBytesSent();
+      bytesReceived += bot.client.getBytesReceived();
+    }
+    for (NetworkMatch.Status status : NetworkMatch.Status.values()) {
+      System.out.printf("%s: %d players%n", status, statusCounts[status.ordinal()]);
+    }
+    System.out.printf("per player: %.0f B/s to the server, %.0f B/s from it%n",
+        (float) bytesSent / bots.size() / seconds,
+        (float) bytesReceived / bots.size() / seconds);
+
+    int failed = statusCounts[NetworkMatch.Status.CONNECTING.ordinal()]
+        + statusCounts[NetworkMatch.Status.DISCONNECTED.ordinal()];
+    if (failed > 0) {
+      System.out.println("FAILED: " + failed + " players were turned away or disconnected");
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Ticks its share of the bots in real time until the end time.
+   */
+  private static final class BotRunner implements Runnable {
+
+    private static final long TICK_NANOS = 1000000000L / Protocol.TICKS_PER_SECOND;
+
+    private final List<Bot> bots;
+    private final long endTime;
+
+    BotRunner(List<Bot> bots, long endTime) {
+      this.bots = bots;
+      this.endTime = endTime;
+    }
+
+    @Override
+    public void run() {
+      long nextTickTime = System.nanoTime();
+      for (int tick = 0; nextTickTime - endTime < 0; tick++) {
+        for (Bot bot : bots) {
+          if (tick >= bot.startTick && tick < bot.leaveTick) {
+            bot.tick();
+          } else if (tick == bot.leaveTick && !bot.isSilent) {
+            bot.client.close();
+          }
+        }
+        nextTickTime += TICK_NANOS;
+        long sleepNanos = nextTickTime - System.nanoTime();
+        if (sleepNanos > 0) {
+          LockSupport.parkNanos(sleepNanos);
+        }
+      }
+    }
+  }
+
+  /**
+   * Follows the ball it can see, but only roughly so points get scored.
+   */
+  private static final class Bot {
+
+    private static final int ERROR_CHANGE_TICKS = Protocol.TICKS_PER_SECOND / 2;
+    private static final float MAX_ERROR = PongSimulation.DEFAULT_PADDLE_HEIGHT * 2.5f;
+
+    private final MatchClient client;
+    private final int startTick;
+    private final Random random;
+    private final PlayerInput input = new PlayerInput();
+    private float error;
+    private int ticks;
+    // a player who stays has no leave tick
+    private int leaveTick = Integer.MAX_VALUE;
+    private boolean isSilent;
+
+    Bot(MatchClient client, int startTick, long seed) {
+      this.client = client;
+      this.startTick = startTick;
+      this.random = new Random(seed);
+    }
+
+    void tick() {
+      if (ticks++ % ERROR_CHANGE_TICKS == 0) {
+        error = (random.nextFloat() - .5f) * MAX_ERROR;
+      }
+      float ballCentreY = client.getBallY() + (PongSimulation.DEFAULT_BALL_HEIGHT / 2f);
+      input.moveTo(ballCentreY - (PongSimulation.DEFAULT_PADDLE_HEIGHT / 2f) + error);
+      client.tick(input);
+    }
+  }
+}
@@ -0,0 +1,398 @@
+package lowe.mike.blueprintpong.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import lowe.mike.blueprintpong.net.MatchHost;
+import lowe.mike.blueprintpong.net.Protocol;
+
+/**
+ * {@code MatchServer} is a dedicated server that hosts lots of online matches at once, each
+ * between two players running the game, on a single UDP port.
+ * <p>
+ * One thread receives every packet and hands it to the match the sender is in. Players are paired
+ * in the order they connect: the first waits in a new match, and the next joins them. A player who
+ * leaves or times out before their match starts gives up their place, so the next player to
+ * connect joins whoever is still waiting. The matches are split between a few {@link TickShard}s,
+ * one thread each, which tick them with the same rules as the game.
+ * <p>
+ * New matches are turned away, with a disconnect packet, while there are already the most matches
+ * allowed or any shard is running late, so an overloaded server keeps the matches it has playable
+ * rather than making every match worse. Packets are dropped rather than queued without limit, and
+ * a shard that falls behind drops ticks rather than falling further behind.
+ * <p>
+ * Usage: {@code MatchServer [port] [threads] [max matches]}
+ *
+ * @author Mike Lowe
+ */
+public final class MatchServer {
+
+  private static final String RECEIVER_THREAD_NAME = "MatchReceiver";
+  private static final String SHARD_THREAD_NAME = "MatchShard-";
+  private static final String METRICS_THREAD_NAME = "MatchMetrics";
+  private static final int DEFAULT_MAX_MATCHES = 5000;
+  private static final int METRICS_INTERVAL_SECONDS = 10;
+  private static final long SELECT_TIMEOUT_MILLIS = 100L;
+  private static final float NANOS_PER_SECOND = 1000000000f;
+  private static final float NANOS_PER_MILLI = 1000000f;
+  private static final float MICROS_PER_MILLI = 1000f;
+
+  /*
+   * New matches are turned away while any shard has been waking up for its
+   * slots this late, half a tick.
+   */
+  private static final long MAX_LAG_NANOS = TickShard.TICK_NANOS / 2;
+
+  private final DatagramChannel channel;
+  private final Selector selector;
+  private final TickShard[] shards;
+  private final Thread[] shardThreads;
+  private final Thread receiverThread;
+  private final ConcurrentMap<SocketAddress, ServerMatch> routes =
+      new ConcurrentHashMap<SocketAddress, ServerMatch>();
+  private final Queue<ServerMatch> openMatches = new ConcurrentLinkedQueue<ServerMatch>();
+  private final int maxMatches;
+  private final Random random = new Random();
+  private final ByteBuffer receivedPacket = ByteBuffer.allocate(Protocol.MAX_PACKET_SIZE);
+  private final ByteBuffer disconnectPacket = ByteBuffer.allocate(Protocol.MAX_PACKET_SIZE);
+  private volatile boolean isRunning = true;
+
+  // only written by the receiving thread, so they don't need to be atomic
+  private volatile long packetsReceived;
+  private volatile long packetsDropped;
+  private volatile long playersTurnedAway;
+
+  // totals at the last report, to report the change since
+  private long lastReportTime = System.nanoTime();
+  private long lastTicks;
+  private long lastPacketsReceived;
+  private long lastPacketsSent;
+  private final long[] lastLatencyCounts = new long[LatencyHistogram.BUCKET_COUNT];
+
+  /**
+   * Creates a new {@code MatchServer}, which starts receiving once {@link #start()} is called.
+   *
+   * @param address the address to bind to
+   * @param threads number of {@link TickShard}s to tick matches on
+   * @param maxMatches most matches to run at once
+   * @throws IOException if the socket can't be opened or bound
+   */
+  public MatchServer(InetSocketAddress address, int threads, int maxMatches) throws IOException {
+    this.maxMatches = maxMatches;
+    this.channel = DatagramChannel.open();
+    try {
+      this.channel.configureBlocking(false);
+      this.channel.socket().bind(address);
+      this.selector = Selector.open();
+      this.channel.register(this.selector, SelectionKey.OP_READ);
+    } catch (IOException e) {
+      this.channel.close();
+      throw e;
+    }
+    this.shards = new TickShard[threads];
+    this.shardThreads = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      this.shards[i] =
+          new TickShard(new ServerTransport(this.channel), this.routes, this.openMatches);
+      this.shardThreads[i] = new Thread(this.shards[i], SHARD_THREAD_NAME + i);
+    }
+    this.receiverThread = new Thread(new Runnable() {
+
+      @Override
+      public void run() {
+        receive();
+      }
+
+    }, RECEIVER_THREAD_NAME);
+  }
+
+  public static void main(String[] args) throws IOException {
+    int port = (args.length > 0) ? Integer.parseInt(args[0]) : Protocol.DEFAULT_PORT;
+    int threads = (args.length > 1) ? Integer.parseInt(args[1])
+        : Runtime.getRuntime().availableProcessors();
+    int maxMatches = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_MAX_MATCHES;
+
+    final MatchServer server = new MatchServer(new InetSocketAddress(port), threads, maxMatches);
+    server.start();
+    System.out.printf("Listening on %s with %d threads for up to %d matches%n",
+        server.getLocalAddress(), threads, maxMatches);
+    final ScheduledExecutorService metrics =
+        startMetricsReports(server, METRICS_INTERVAL_SECONDS);
+    Runtime.getRuntime().addShutdownHook(new Thread() {
+
+      @Override
+      public void run() {
+        metrics.shutdown();
+        server.stop();
+      }
+
+    });
+  }
+
+  /**
+   * Prints a line of metrics from a server every so often on a daemon thread.
+   *
+   * @param server the {@link MatchServer} to report on
+   * @param intervalSeconds seconds between reports
+   * @return the {@link ScheduledExecutorService} printing the reports, to shut down when done
+   */
+  public static ScheduledExecutorService startMetricsReports(final MatchServer server,
+      int intervalSeconds) {
+    ScheduledExecutorService executor =
+        Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+          @Override
+          public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, METRICS_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+          }
+
+        });
+    executor.scheduleAtFixedRate(new Runnable() {
+
+      @Override
+      public void run() {
+        System.out.println(server.reportMetrics());
+      }
+
+    }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    return executor;
+  }
+
+  /**
+   * Starts receiving packets and ticking matches.
+   */
+  public void start() {
+    for (Thread thread : shardThreads) {
+      thread.start();
+    }
+    receiverThread.start();
+  }
+
+  /**
+   * Stops the server, telling every player still waiting or playing, and returns once all its
+   * threads have finished.
+   */
+  public void stop() {
+    isRunning = false;
+    selector.wakeup();
+    for (TickShard shard : shards) {
+      shard.stop();
+    }
+    boolean isInterrupted = false;
+    for (Thread thread : shardThreads) {
+      isInterrupted |= awaitThread(thread);
+    }
+    isInterrupted |= awaitThread(receiverThread);
+    try {
+      selector.close();
+      channel.close();
+    } catch (IOException e) {
+      // nothing more can be done with them anyway
+    }
+    if (isInterrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /*
+   * Returns true if interrupted while waiting, in which case the thread is
+   * left to finish on its own.
+   */
+  private static boolean awaitThread(Thread thread) {
+    try {
+      thread.join();
+      return false;
+    } catch (InterruptedException e) {
+      return true;
+    }
+  }
+
+  /**
+   * @return the address players should connect to
+   */
+  public SocketAddress getLocalAddress() {
+    return channel.socket().getLocalSocketAddress();
+  }
+
+  private void receive() {
+    while (isRunning) {
+      try {
+        selector.select(SELECT_TIMEOUT_MILLIS);
+        selector.selectedKeys().clear();
+        SocketAddress address;
+        receivedPacket.clear();
+        while ((address = channel.receive(receivedPacket)) != null) {
+          receivedPacket.flip();
+          route(receivedPacket, address);
+          receivedPacket.clear();
+        }
+      } catch (ClosedChannelException e) {
+        return;
+      } catch (IOException e) {
+        // e.g. an ICMP error for a player that has gone, so carry on with the rest
+      }
+    }
+  }
+
+  private void route(ByteBuffer packet, SocketAddress address) {
+    packetsReceived++;
+    ServerMatch match = routes.get(address);
+    if (match != null && match.isClosed()) {
+      routes.remove(address, match);
+      match = null;
+    }
+    if (match == null) {
+      if (!Protocol.isConnect(packet)) {
+        // for a match that has ended, or not for us at all
+        return;
+      }
+      match = joinMatch(address);
+      if (match == null) {
+        turnAway(address);
+        return;
+      }
+    }
+    if (!match.packets.offer(packet, address)) {
+      packetsDropped++;
+    }
+  }
+
+  /*
+   * Returns the match the player joined, or null if there is no room for
+   * another match. Only this thread takes matches off the open ones, and
+   * a match a shard hands back may already be there, so any that have
+   * since filled up or closed are skipped.
+   */
+  private ServerMatch joinMatch(SocketAddress address) {
+    ServerMatch match;
+    while ((match = openMatches.peek()) != null) {
+      if (!match.isClosed() && match.addPlayer(address)) {
+        break;
+      }
+      openMatches.poll();
+    }
+    if (match == null) {
+      match = createMatch();
+      if (match == null) {
+        return null;
+      }
+      match.addPlayer(address);
+      openMatches.add(match);
+    }
+    routes.put(address, match);
+    if (match.isFull()) {
+      openMatches.poll();
+    }
+    return match;
+  }
+
+  private ServerMatch createMatch() {
+    if (isOverloaded()) {
+      return null;
+    }
+    TickShard emptiest = shards[0];
+    for (TickShard shard : shards) {
+      if (shard.getMatchCount() < emptiest.getMatchCount()) {
+        emptiest = shard;
+      }
+    }
+    ServerMatch match =
+        new ServerMatch(new MatchHost(emptiest.getTransport(), random.nextLong(), false));
+    emptiest.add(match);
+    return match;
+  }
+
+  /**
+   * @return {@code true} if new matches are being turned away
+   */
+  public boolean isOverloaded() {
+    int matchCount = 0;
+    for (TickShard shard : shards) {
+      if (shard.getLagNanos() > MAX_LAG_NANOS) {
+        return true;
+      }
+      matchCount += shard.getMatchCount();
+    }
+    return matchCount >= maxMatches;
+  }
+
+  private void turnAway(SocketAddress address) {
+    playersTurnedAway++;
+    Protocol.writeDisconnect(disconnectPacket);
+    try {
+      channel.send(disconnectPacket, address);
+    } catch (IOException e) {
+      // they'll give up waiting anyway
+    }
+  }
+
+  /**
+   * Describes how the server has been doing since the last report: how many matches it has, the
+   * rate match ticks and packets have gone at, how long after it was due each tick finished, and
+   * how much it has had to drop or turn away.
+   *
+   * @return a line of metrics
+   */
+  public synchronized String reportMetrics() {
+    long now = System.nanoTime();
+    float seconds = (now - lastReportTime) / NANOS_PER_SECOND;
+    int matchCount = 0;
+    int playingMatchCount = 0;
+    long ticks = 0L;
+    long droppedTicks = 0L;
+    long packetsSent = 0L;
+    long packetsNotSent = 0L;
+    long maxLagNanos = 0L;
+    long[] latencyCounts = new long[LatencyHistogram.BUCKET_COUNT];
+    for (TickShard shard : shards) {
+      matchCount += shard.getMatchCount();
+      playingMatchCount += shard.getPlayingMatchCount();
+      ticks += shard.getTicks();
+      droppedTicks += shard.getDroppedTicks();
+      packetsSent += shard.getTransport().getPacketsSent();
+      packetsNotSent += shard.getTransport().getPacketsDropped();
+      maxLagNanos = Math.max(maxLagNanos, shard.getLagNanos());
+      shard.getTickLatency().addTo(latencyCounts);
+    }
+    long[] intervalCounts = new long[LatencyHistogram.BUCKET_COUNT];
+    for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+      intervalCounts[i] = latencyCounts[i] - lastLatencyCounts[i];
+      lastLatencyCounts[i] = latencyCounts[i];
+    }
+    long packetsReceived = this.packetsReceived;
+    String report = String.format("%d matches (%d playing), %.0f ticks/s, "
+            + "tick latency p50 %.2f ms p99 %.2f ms p99.9 %.2f ms, lag %.2f ms, "
+            + "%.0f packets/s in, %.0f out, dropped %d ticks %d packets in %d out, "
+            + "turned away %d players%s",
+        matchCount, playingMatchCount, (ticks - lastTicks) / seconds,
+        LatencyHistogram.getPercentile(intervalCounts, 50.0) / MICROS_PER_MILLI,
+        LatencyHistogram.getPercentile(intervalCounts, 99.0) / MICROS_PER_MILLI,
+        LatencyHistogram.getPercentile(intervalCounts, 99.9) / MICROS_PER_MILLI,
+        maxLagNanos / NANOS_PER_MILLI,
+        (packetsReceived - lastPacketsReceived) / seconds,
+        (packetsSent - lastPacketsSent) / seconds,
+        droppedTicks, packetsDropped, packetsNotSent, playersTurnedAway,
+        isOverloaded() ? ", not taking new matches" : "");
+    lastReportTime = now;
+    lastTicks = ticks;
+    lastPacketsReceived = packetsReceived;
+    lastPacketsSent = packetsSent;
+    return report;
+  }
+}
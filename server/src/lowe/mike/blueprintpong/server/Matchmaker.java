@@ -0,0 +1,380 @@
+package lowe.mike.blueprintpong.server;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import lowe.mike.blueprintpong.Difficulty;
+
+/**
+ * {@code Matchmaker} pairs up players waiting for an online match, preferring players who play at
+ * the same {@link Difficulty}.
+ * <p>
+ * Players can be added from any number of threads at once without locking. Each {@link
+ * Difficulty} has a lock-free queue of its own, so a player only contends with others joining at
+ * the same difficulty, and only for as long as adding to the queue takes. The matchmaker's own
+ * thread takes them off the queues and pairs them in the order they joined, sleeping when there
+ * is nobody new to pair.
+ * <p>
+ * At first players are only paired with others at their own difficulty. Anyone still waiting
+ * after the widening time can also be paired one difficulty either side, and after twice that two
+ * either side, so nobody waits forever because nobody else plays at their difficulty. A pair is
+ * allowed if it is within the range of whichever of the two has waited longer.
+ *
+ * @param <T> the type of the players
+ * @author Mike Lowe
+ */
+public final class Matchmaker<T> implements Runnable {
+
+  /**
+   * How long players wait before the difficulties they can be paired with widens, in nanoseconds.
+   */
+  public static final long DEFAULT_WIDEN_NANOS = 5000000000L;
+
+  private static final int DIFFICULTIES = Difficulty.values().length;
+
+  /*
+   * The thread wakes up at least this often while sleeping, so it notices
+   * being stopped even if it isn't unparked.
+   */
+  private static final long MAX_PARK_NANOS = 100000000L;
+
+  private final long widenNanos;
+  private final Listener<T> listener;
+  private final List<Queue<Ticket<T>>> queues = new ArrayList<Queue<Ticket<T>>>(DIFFICULTIES);
+
+  // only used by the matchmaker's thread
+  private final List<Deque<Ticket<T>>> waiting = new ArrayList<Deque<Ticket<T>>>(DIFFICULTIES);
+  private final List<Ticket<T>> oldestWaiting = new ArrayList<Ticket<T>>(DIFFICULTIES);
+
+  private volatile boolean isRunning = true;
+  private volatile boolean isParked;
+  private volatile Thread thread;
+
+  // only written by the matchmaker's thread, so they don't need to be atomic
+  private volatile long matchedCount;
+  private volatile long widenedCount;
+
+  /**
+   * Creates a new {@code Matchmaker}, which starts pairing players once {@link #run()} is called
+   * on a thread of its own.
+   *
+   * @param widenNanos how long players wait before the difficulties they can be paired with
+   *     widens, in nanoseconds
+   * @param listener the {@link Listener} told about each pair
+   */
+  public Matchmaker(long widenNanos, Listener<T> listener) {
+    if (widenNanos <= 0) {
+      throw new IllegalArgumentException("widenNanos must be more than 0");
+    }
+    this.widenNanos = widenNanos;
+    this.listener = listener;
+    for (int i = 0; i < DIFFICULTIES; i++) {
+      this.queues.add(new ConcurrentLinkedQueue<Ticket<T>>());
+      this.waiting.add(new ArrayDeque<Ticket<T>>());
+    }
+  }
+
+  /**
+   * Adds a player to be paired. Can be called from any thread.
+   *
+   * @param player the player
+   * @param difficulty the {@link Difficulty} they play at
+   * @return the {@link Ticket} for the player, which can be used to stop waiting
+   */
+  public Ticket<T> enqueue(T player, Difficulty difficulty) {
+    Ticket<T> ticket = new Ticket<T>(player, difficulty, System.nanoTime());
+    queues.get(difficulty.ordinal()).offer(ticket);
+    // only wakes the thread if it has nothing to do, so is rare when busy
+    if (isParked) {
+      Thread thread = this.thread;
+      if (thread != null) {
+        LockSupport.unpark(thread);
+      }
+    }
+    return ticket;
+  }
+
+  @Override
+  public void run() {
+    thread = Thread.currentThread();
+    while (isRunning) {
+      boolean isAnyNew = takeNewTickets();
+      long now = System.nanoTime();
+      matchSameDifficulty();
+      long nextWidenTime = matchAcrossDifficulties(now);
+      if (isAnyNew) {
+        // more may have joined while these were being paired
+        continue;
+      }
+      long parkNanos = Math.min(nextWidenTime - now, MAX_PARK_NANOS);
+      isParked = true;
+      // checked again after saying so, so a player joining now isn't missed
+      if (!hasNewTickets() && parkNanos > 0) {
+        LockSupport.parkNanos(this, parkNanos);
+      }
+      isParked = false;
+    }
+  }
+
+  private boolean takeNewTickets() {
+    boolean isAnyNew = false;
+    for (int i = 0; i < DIFFICULTIES; i++) {
+      Queue<Ticket<T>> queue = queues.get(i);
+      Deque<Ticket<T>> tickets = waiting.get(i);
+      Ticket<T> ticket;
+      while ((ticket = queue.poll()) != null) {
+        tickets.add(ticket);
+        isAnyNew = true;
+      }
+    }
+    return isAnyNew;
+  }
+
+  private boolean hasNewTickets() {
+    for (Queue<Ticket<T>> queue : queues) {
+      if (!queue.isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /*
+   * Pairs the players at each difficulty in the order they joined, leaving
+   * at most one waiting at each.
+   */
+  private void matchSameDifficulty() {
+    for (Deque<Ticket<T>> tickets : waiting) {
+      Ticket<T> first;
+      while ((first = pollWaiting(tickets)) != null) {
+        Ticket<T> second = pollWaiting(tickets);
+        if (second == null) {
+          tickets.addFirst(first);
+          break;
+        }
+        if (!pair(first, second)) {
+          // one of them has just stopped waiting, and is thrown away next time round
+          tickets.addFirst(second);
+          tickets.addFirst(first);
+        }
+      }
+    }
+  }
+
+  /*
+   * Pairs the players left over at different difficulties, oldest first,
+   * each with the nearest difficulty in range. Returns when the range of
+   * anyone left waiting next widens.
+   */
+  private long matchAcrossDifficulties(long now) {
+    oldestWaiting.clear();
+    for (Deque<Ticket<T>> tickets : waiting) {
+      Ticket<T> ticket = peekWaiting(tickets);
+      if (ticket != null) {
+        int i = oldestWaiting.size();
+        while (i > 0 && ticket.joinTime - oldestWaiting.get(i - 1).joinTime < 0) {
+          i--;
+        }
+        oldestWaiting.add(i, ticket);
+      }
+    }
+    long nextWidenTime = now + MAX_PARK_NANOS;
+    for (int i = 0; i < oldestWaiting.size(); i++) {
+      Ticket<T> ticket = oldestWaiting.get(i);
+      if (!ticket.isWaiting()) {
+        continue;
+      }
+      int range = getRange(ticket, now);
+      Ticket<T> nearest = null;
+      for (int j = i + 1; j < oldestWaiting.size(); j++) {
+        Ticket<T> other = oldestWaiting.get(j);
+        int distance = getDistance(ticket, other);
+        if (other.isWaiting() && distance <= range
+            && (nearest == null || distance < getDistance(ticket, nearest))) {
+          nearest = other;
+        }
+      }
+      if (nearest != null && pair(ticket, nearest)) {
+        widenedCount++;
+        waiting.get(ticket.difficulty.ordinal()).poll();
+        waiting.get(nearest.difficulty.ordinal()).poll();
+      } else if (range < DIFFICULTIES - 1) {
+        long widenTime = ticket.joinTime + (range + 1) * widenNanos;
+        if (widenTime - nextWidenTime < 0) {
+          nextWidenTime = widenTime;
+        }
+      }
+    }
+    return nextWidenTime;
+  }
+
+  private int getRange(Ticket<T> ticket, long now) {
+    return (int) Math.min((now - ticket.joinTime) / widenNanos, DIFFICULTIES - 1);
+  }
+
+  private static int getDistance(Ticket<?> ticket, Ticket<?> other) {
+    return Math.abs(ticket.difficulty.ordinal() - other.difficulty.ordinal());
+  }
+
+  /*
+   * Returns the oldest ticket still waiting, leaving it there, after
+   * throwing away any in front of it that have stopped waiting.
+   */
+  private static <T> Ticket<T> peekWaiting(Deque<Ticket<T>> tickets) {
+    Ticket<T> ticket;
+    while ((ticket = tickets.peek()) != null && !ticket.isWaiting()) {
+      tickets.poll();
+    }
+    return ticket;
+  }
+
+  private static <T> Ticket<T> pollWaiting(Deque<Ticket<T>> tickets) {
+    Ticket<T> ticket = peekWaiting(tickets);
+    if (ticket != null) {
+      tickets.poll();
+    }
+    return ticket;
+  }
+
+  /*
+   * The first is only held while the second is claimed, so a player
+   * stopping waiting never has to wait long, and is never left matched
+   * without a partner.
+   */
+  private boolean pair(Ticket<T> first, Ticket<T> second) {
+    if (!first.state.compareAndSet(Ticket.WAITING, Ticket.CLAIMING)) {
+      return false;
+    }
+    if (!second.state.compareAndSet(Ticket.WAITING, Ticket.MATCHED)) {
+      first.state.set(Ticket.WAITING);
+      return false;
+    }
+    first.state.set(Ticket.MATCHED);
+    matchedCount++;
+    listener.matched(first, second);
+    return true;
+  }
+
+  /**
+   * Stops pairing. Players still waiting stay waiting.
+   */
+  public void stop() {
+    isRunning = false;
+    Thread thread = this.thread;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  /**
+   * @return pairs made so far
+   */
+  public long getMatchedCount() {
+    return matchedCount;
+  }
+
+  /**
+   * @return pairs made so far between players at different difficulties
+   */
+  public long getWidenedCount() {
+    return widenedCount;
+  }
+
+  /**
+   * {@code Listener} is told about each pair the {@link Matchmaker} makes.
+   *
+   * @param <T> the type of the players
+   */
+  public interface Listener<T> {
+
+    /**
+     * Called on the matchmaker's thread for each pair, so should return quickly.
+     *
+     * @param first the {@link Ticket} of the player who joined first
+     * @param second the {@link Ticket} of the player they are paired with
+     */
+    void matched(Ticket<T> first, Ticket<T> second);
+  }
+
+  /**
+   * {@code Ticket} is a player's place in the {@link Matchmaker}.
+   *
+   * @param <T> the type of the players
+   */
+  public static final class Ticket<T> {
+
+    private static final int WAITING = 0;
+    private static final int CLAIMING = 1;
+    private static final int MATCHED = 2;
+    private static final int CANCELLED = 3;
+
+    private final T player;
+    private final Difficulty difficulty;
+    private final long joinTime;
+    private final AtomicInteger state = new AtomicInteger(WAITING);
+
+    private Ticket(T player, Difficulty difficulty, long joinTime) {
+      this.player = player;
+      this.difficulty = difficulty;
+      this.joinTime = joinTime;
+    }
+
+    /**
+     * Stops waiting to be paired. Can be called from any thread.
+     *
+     * @return {@code true} if the player stopped waiting, {@code false} if they have already been
+     *     paired or had stopped waiting
+     */
+    public boolean cancel() {
+      while (true) {
+        int current = state.get();
+        if (current == WAITING && state.compareAndSet(WAITING, CANCELLED)) {
+          return true;
+        }
+        if (current == CLAIMING) {
+          // only held while a partner is claimed, so won't be for long
+          Thread.yield();
+        } else if (current != WAITING) {
+          return false;
+        }
+      }
+    }
+
+    private boolean isWaiting() {
+      return state.get() == WAITING;
+    }
+
+    /**
+     * @return {@code true} if the player has been paired
+     */
+    public boolean isMatched() {
+      return state.get() == MATCHED;
+    }
+
+    /**
+     * @return the player
+     */
+    public T getPlayer() {
+      return player;
+    }
+
+    /**
+     * @return the {@link Difficulty} the player plays at
+     */
+    public Difficulty getDifficulty() {
+      return difficulty;
+    }
+
+    /**
+     * @return when the player joined, from {@link System#nanoTime()}
+     */
+    public long getJoinTime() {
+      return joinTime;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package lowe.mike.blueprintpong.server;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code PacketQueue} holds packets received for a match until its next tick. It has a fixed
+ * number of slots, each big enough for any packet, so nothing is allocated once it is created, and
+ * a packet that arrives when it is full is dropped rather than waited for.
+ * <p>
+ * One thread offers packets and one other thread polls them, which lets it get away without
+ * locks: each end only writes its own index.
+ *
+ * @author Mike Lowe
+ */
+final class PacketQueue {
+
+  private final byte[][] packets;
+  private final int[] sizes;
+  private final SocketAddress[] addresses;
+  private final int mask;
+  private final AtomicInteger head = new AtomicInteger();
+  private final AtomicInteger tail = new AtomicInteger();
+
+  /**
+   * Creates a new {@code PacketQueue}.
+   *
+   * @param capacity most packets it holds, which must be a power of 2
+   * @param maxPacketSize size of the largest packet it holds
+   */
+  PacketQueue(int capacity, int maxPacketSize) {
+    if (Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of 2: " + capacity);
+    }
+    this.packets = new byte[capacity][maxPacketSize];
+    this.sizes = new int[capacity];
+    this.addresses = new SocketAddress[capacity];
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * Copies a packet into the queue.
+   *
+   * @param packet the packet, from its position to its limit, which is left where it was
+   * @param address where the packet came from
+   * @return {@code true} if it was queued, {@code false} if it was dropped because the queue is
+   *     full or it is too big
+   */
+  boolean offer(ByteBuffer packet, SocketAddress address) {
+    int tail = this.tail.get();
+    int size = packet.remaining();
+    if (tail - head.get() > mask || size > packets[0].length) {
+      return false;
+    }
+    int index = tail & mask;
+    packet.get(packets[index], 0, size);
+    packet.position(packet.position() - size);
+    sizes[index] = size;
+    addresses[index] = address;
+    // publishes the slot to the polling thread
+    this.tail.lazySet(tail + 1);
+    return true;
+  }
+
+  /**
+   * Takes the oldest packet from the queue.
+   *
+   * @param packet the buffer to copy it into, which is cleared first and flipped ready to be read
+   * @return where the packet came from, or {@code null} if the queue is empty
+   */
+  SocketAddress poll(ByteBuffer packet) {
+    int head = this.head.get();
+    if (head == tail.get()) {
+      return null;
+    }
+    int index = head & mask;
+    packet.clear();
+    packet.put(packets[index], 0, sizes[index]);
+    packet.flip();
+    SocketAddress address = addresses[index];
+    addresses[index] = null;
+    // hands the slot back to the offering thread
+    this.head.lazySet(head + 1);
+    return address;
+  }
+}
@@ -0,0 +1,184 @@
+package lowe.mike.blueprintpong.server;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import lowe.mike.blueprintpong.net.MatchHost;
+import lowe.mike.blueprintpong.net.NetworkMatch;
+import lowe.mike.blueprintpong.net.Protocol;
+
+/**
+ * {@code ServerMatch} is a match run by a {@link MatchServer}: a {@link MatchHost} for two remote
+ * players, the packets received for it that are waiting for its next tick, and when that tick is
+ * due.
+ * <p>
+ * Only the server's receiving thread adds players and packets, and only the thread of the {@link
+ * TickShard} it belongs to ticks it. A player the host drops while waiting for the match to start
+ * is released by the shard's thread, so their place can be taken by someone else.
+ *
+ * @author Mike Lowe
+ */
+final class ServerMatch {
+
+  /*
+   * A player still waiting for someone to play after this long is given
+   * up on, and a finished match is kept this long so a client that lost
+   * the last snapshot gets it again.
+   */
+  private static final int MAX_WAITING_TICKS = 60 * Protocol.TICKS_PER_SECOND;
+  private static final int FINISHED_TICKS = 2 * Protocol.TICKS_PER_SECOND;
+
+  /*
+   * A client sends a packet every few ticks, so this only fills up if
+   * someone is flooding the match.
+   */
+  private static final int PACKET_QUEUE_CAPACITY = 16;
+
+  static final int PLAYERS = 2;
+
+  final PacketQueue packets = new PacketQueue(PACKET_QUEUE_CAPACITY, Protocol.MAX_PACKET_SIZE);
+  private final MatchHost host;
+  private final AtomicReferenceArray<SocketAddress> playerAddresses =
+      new AtomicReferenceArray<SocketAddress>(PLAYERS);
+  private final ByteBuffer packet = ByteBuffer.allocate(Protocol.MAX_PACKET_SIZE);
+  private final AtomicInteger playerCount = new AtomicInteger();
+  private volatile boolean isClosed;
+
+  // only used by the shard's thread
+  private final boolean[] isAccepted = new boolean[PLAYERS];
+  private final int[] acceptedTicks = new int[PLAYERS];
+  private int waitingSinceTick;
+  private int finishedTicks;
+
+  // scheduling, only used by the shard's thread
+  long nextTickTime;
+  boolean isScheduled;
+
+  /**
+   * Creates a new {@code ServerMatch}.
+   *
+   * @param host the {@link MatchHost} to run, without a local player
+   */
+  ServerMatch(MatchHost host) {
+    this.host = host;
+  }
+
+  /**
+   * Adds a player to this match. Their connect packet still has to be handled by the {@link
+   * MatchHost} before they are given a side.
+   *
+   * @param address where the player's packets come from
+   * @return {@code true} if the player was added, {@code false} if the match is full
+   */
+  boolean addPlayer(SocketAddress address) {
+    for (int i = 0; i < PLAYERS; i++) {
+      if (playerAddresses.compareAndSet(i, null, address)) {
+        playerCount.incrementAndGet();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return {@code true} if both players have been added and neither has been released
+   */
+  boolean isFull() {
+    return playerCount.get() == PLAYERS;
+  }
+
+  /**
+   * Handles the packets that have arrived since the last tick, then advances the match by one
+   * tick.
+   */
+  void tick() {
+    SocketAddress address;
+    while ((address = packets.poll(packet)) != null) {
+      host.handlePacket(packet, address);
+    }
+    host.step(null);
+    if (host.getStatus() == NetworkMatch.Status.FINISHED) {
+      finishedTicks++;
+    }
+    for (int i = 0; i < PLAYERS; i++) {
+      SocketAddress playerAddress = playerAddresses.get(i);
+      if (!isAccepted[i] && playerAddress != null && host.hasPlayer(playerAddress)) {
+        isAccepted[i] = true;
+        acceptedTicks[i] = host.getTick();
+      }
+    }
+  }
+
+  /**
+   * @param index 0 or 1, the place in this match
+   * @return where the player in that place comes from if the {@link MatchHost} has dropped them
+   *     while waiting for the match to start, otherwise {@code null}
+   */
+  SocketAddress getDroppedPlayer(int index) {
+    SocketAddress address = playerAddresses.get(index);
+    return (isAccepted[index] && !host.hasPlayer(address)) ? address : null;
+  }
+
+  /**
+   * Frees a place whose player has been dropped, so another player can be added.
+   *
+   * @param index 0 or 1, the place in this match
+   * @return {@code true} if the match was full, so has to be offered to new players again
+   */
+  boolean releasePlayer(int index) {
+    isAccepted[index] = false;
+    playerAddresses.set(index, null);
+    // whoever is left has been waiting since they were accepted
+    int other = PLAYERS - 1 - index;
+    waitingSinceTick = isAccepted[other] ? acceptedTicks[other] : host.getTick();
+    return playerCount.decrementAndGet() == PLAYERS - 1;
+  }
+
+  /**
+   * @return {@code true} if this match has nothing more to do and can be closed
+   */
+  boolean isOver() {
+    switch (host.getStatus()) {
+      case CONNECTING:
+        return host.getTick() - waitingSinceTick > MAX_WAITING_TICKS;
+      case FINISHED:
+        return finishedTicks > FINISHED_TICKS;
+      case DISCONNECTED:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * @return {@code true} if the players are playing
+   */
+  boolean isPlaying() {
+    return host.getStatus() == NetworkMatch.Status.PLAYING;
+  }
+
+  /**
+   * Closes this match, telling any player still waiting or playing.
+   */
+  void close() {
+    isClosed = true;
+    host.close();
+  }
+
+  /**
+   * @return {@code true} if this match has been closed, so no more players or packets should be
+   *     added
+   */
+  boolean isClosed() {
+    return isClosed;
+  }
+
+  /**
+   * @param index 0 or 1, the place in this match
+   * @return where the player in that place comes from, or {@code null} if it is free
+   */
+  SocketAddress getPlayerAddress(int index) {
+    return playerAddresses.get(index);
+  }
+}
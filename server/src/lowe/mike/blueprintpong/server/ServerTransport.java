@@ -0,0 +1,74 @@
+package lowe.mike.blueprintpong.server;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import lowe.mike.blueprintpong.net.Transport;
+
+/**
+ * {@code ServerTransport} is the {@link Transport} the matches of a {@link TickShard} send with.
+ * Every shard sends through the server's one socket, so players only ever hear from the port they
+ * connected to. Receiving is left to the {@link MatchServer}, which hands each packet to the match
+ * it is for.
+ *
+ * @author Mike Lowe
+ */
+final class ServerTransport implements Transport {
+
+  private final DatagramChannel channel;
+
+  // only written by the shard's thread, so they don't need to be atomic
+  private volatile long packetsSent;
+  private volatile long packetsDropped;
+
+  /**
+   * Creates a new {@code ServerTransport}.
+   *
+   * @param channel the server's non-blocking socket, which stays open when this is closed
+   */
+  ServerTransport(DatagramChannel channel) {
+    this.channel = channel;
+  }
+
+  @Override
+  public void send(ByteBuffer packet, SocketAddress address) throws IOException {
+    // a full send buffer drops the packet, which the protocol already copes with
+    if (channel.send(packet, address) > 0) {
+      packetsSent++;
+    } else {
+      packetsDropped++;
+    }
+  }
+
+  @Override
+  public SocketAddress receive(ByteBuffer packet) {
+    packet.clear();
+    packet.flip();
+    return null;
+  }
+
+  @Override
+  public SocketAddress getLocalAddress() {
+    return channel.socket().getLocalSocketAddress();
+  }
+
+  @Override
+  public void close() {
+    // the socket belongs to the server, and other matches are still using it
+  }
+
+  /**
+   * @return packets sent so far
+   */
+  long getPacketsSent() {
+    return packetsSent;
+  }
+
+  /**
+   * @return packets dropped so far because the socket's send buffer was full
+   */
+  long getPacketsDropped() {
+    return packetsDropped;
+  }
+}
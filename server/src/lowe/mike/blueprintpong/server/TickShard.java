@@ -0,0 +1,265 @@
+package lowe.mike.blueprintpong.server;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import lowe.mike.blueprintpong.net.Protocol;
+
+/**
+ * {@code TickShard} ticks its share of a {@link MatchServer}'s matches on a thread of its own.
+ * <p>
+ * Every match ticks {@link Protocol#TICKS_PER_SECOND} times a second, but they don't all tick at
+ * once. Each is put in whichever of {@link #SLOTS} slots across a tick has the fewest matches, and
+ * the shard wakes up for each slot in turn, so the work and the snapshots sent are spread evenly
+ * over time, and the shard wakes up the same number of times however many matches it has.
+ * <p>
+ * A match that has fallen behind, e.g. after a garbage collection pause, runs the ticks it missed,
+ * but no more than {@link #MAX_CATCH_UP_TICKS} in one go. Any more are dropped, so an overloaded
+ * shard runs its matches slower rather than falling further and further behind.
+ *
+ * @author Mike Lowe
+ */
+final class TickShard implements Runnable {
+
+  static final long TICK_NANOS = 1000000000L / Protocol.TICKS_PER_SECOND;
+  private static final int SLOTS = 8;
+  private static final long SLOT_NANOS = TICK_NANOS / SLOTS;
+  private static final int MAX_CATCH_UP_TICKS = 4;
+
+  /*
+   * How late the shard is running is smoothed over about this many slots,
+   * so one late wake up doesn't count as being overloaded.
+   */
+  private static final int LAG_SMOOTHING = 64;
+
+  private final ServerTransport transport;
+  private final ConcurrentMap<SocketAddress, ServerMatch> routes;
+  private final Queue<ServerMatch> openMatches;
+  private final Queue<ServerMatch> newMatches = new ConcurrentLinkedQueue<ServerMatch>();
+  private final List<List<ServerMatch>> slots = new ArrayList<List<ServerMatch>>(SLOTS);
+  private final int[] slotPlayingCounts = new int[SLOTS];
+  private final LatencyHistogram tickLatency = new LatencyHistogram();
+  private final AtomicInteger matchCount = new AtomicInteger();
+  private volatile boolean isRunning = true;
+  private volatile Thread thread;
+
+  // only written by the shard's thread, so they don't need to be atomic
+  private volatile long ticks;
+  private volatile long droppedTicks;
+  private volatile long lagNanos;
+  private volatile int playingMatchCount;
+
+  /**
+   * Creates a new {@code TickShard}.
+   *
+   * @param transport the {@link ServerTransport} its matches send with
+   * @param routes the server's matches by player address, which a match's players are removed
+   *     from when it is closed or they are dropped while waiting
+   * @param openMatches the server's matches new players can join, which a full match is added
+   *     back to when a player is dropped while waiting
+   */
+  TickShard(ServerTransport transport,
+      ConcurrentMap<SocketAddress, ServerMatch> routes,
+      Queue<ServerMatch> openMatches) {
+    this.transport = transport;
+    this.routes = routes;
+    this.openMatches = openMatches;
+    for (int i = 0; i < SLOTS; i++) {
+      this.slots.add(new ArrayList<ServerMatch>());
+    }
+  }
+
+  /**
+   * Adds a match, which starts ticking in the next slot. Can be called from any thread.
+   *
+   * @param match the {@link ServerMatch} to add
+   */
+  void add(ServerMatch match) {
+    matchCount.incrementAndGet();
+    newMatches.add(match);
+  }
+
+  @Override
+  public void run() {
+    thread = Thread.currentThread();
+    long slotTime = System.nanoTime();
+    int slot = 0;
+    while (isRunning) {
+      long waitNanos = slotTime - System.nanoTime();
+      if (waitNanos > 0) {
+        // can wake early, so the wait is checked again
+        LockSupport.parkNanos(this, waitNanos);
+        continue;
+      }
+      long now = System.nanoTime();
+      lagNanos += ((now - slotTime) - lagNanos) / LAG_SMOOTHING;
+      addNewMatches();
+      tickSlot(slot, slotTime, now);
+      slot = (slot + 1) % SLOTS;
+      slotTime += SLOT_NANOS;
+      // more than a whole tick behind, so skip ahead rather than rushing
+      // through the slots, keeping each slot at the same point in a tick;
+      // the matches catch up on their own
+      while (now - slotTime > TICK_NANOS) {
+        slotTime += TICK_NANOS;
+      }
+    }
+    closeAll();
+  }
+
+  private void addNewMatches() {
+    ServerMatch match;
+    while ((match = newMatches.poll()) != null) {
+      List<ServerMatch> emptiest = slots.get(0);
+      for (int i = 1; i < SLOTS; i++) {
+        if (slots.get(i).size() < emptiest.size()) {
+          emptiest = slots.get(i);
+        }
+      }
+      emptiest.add(match);
+    }
+  }
+
+  private void tickSlot(int slot, long slotTime, long now) {
+    List<ServerMatch> matches = slots.get(slot);
+    int playing = 0;
+    int i = 0;
+    while (i < matches.size()) {
+      ServerMatch match = matches.get(i);
+      if (!match.isScheduled) {
+        match.nextTickTime = slotTime;
+        match.isScheduled = true;
+      }
+      tickMatch(match, now);
+      releaseDroppedPlayers(match);
+      if (match.isOver()) {
+        // order within a slot doesn't matter, so fill the gap with the last one
+        matches.set(i, matches.get(matches.size() - 1));
+        matches.remove(matches.size() - 1);
+        close(match);
+        continue;
+      }
+      if (match.isPlaying()) {
+        playing++;
+      }
+      i++;
+    }
+    // counted a slot at a time, so the total is up to date once every slot has had a turn
+    playingMatchCount += playing - slotPlayingCounts[slot];
+    slotPlayingCounts[slot] = playing;
+  }
+
+  private void tickMatch(ServerMatch match, long now) {
+    int matchTicks = 0;
+    while (match.nextTickTime - now <= 0 && matchTicks < MAX_CATCH_UP_TICKS) {
+      match.tick();
+      tickLatency.record(System.nanoTime() - match.nextTickTime);
+      match.nextTickTime += TICK_NANOS;
+      matchTicks++;
+    }
+    ticks += matchTicks;
+    if (match.nextTickTime - now <= 0) {
+      long behind = (now - match.nextTickTime) / TICK_NANOS + 1;
+      droppedTicks += behind;
+      match.nextTickTime += behind * TICK_NANOS;
+    }
+  }
+
+  private void releaseDroppedPlayers(ServerMatch match) {
+    for (int i = 0; i < ServerMatch.PLAYERS; i++) {
+      SocketAddress address = match.getDroppedPlayer(i);
+      if (address != null) {
+        routes.remove(address, match);
+        if (match.releasePlayer(i)) {
+          openMatches.add(match);
+        }
+      }
+    }
+  }
+
+  private void close(ServerMatch match) {
+    match.close();
+    for (int i = 0; i < ServerMatch.PLAYERS; i++) {
+      SocketAddress address = match.getPlayerAddress(i);
+      if (address != null) {
+        routes.remove(address, match);
+      }
+    }
+    matchCount.decrementAndGet();
+  }
+
+  private void closeAll() {
+    addNewMatches();
+    for (List<ServerMatch> matches : slots) {
+      for (ServerMatch match : matches) {
+        close(match);
+      }
+      matches.clear();
+    }
+  }
+
+  /**
+   * Stops ticking. The shard's thread closes every match before it finishes.
+   */
+  void stop() {
+    isRunning = false;
+    Thread thread = this.thread;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  /**
+   * @return the {@link ServerTransport} this shard's matches send with
+   */
+  ServerTransport getTransport() {
+    return transport;
+  }
+
+  /**
+   * @return {@link ServerMatch}es this shard has, including any not ticked yet
+   */
+  int getMatchCount() {
+    return matchCount.get();
+  }
+
+  /**
+   * @return matches being played, as of each slot's last turn
+   */
+  int getPlayingMatchCount() {
+    return playingMatchCount;
+  }
+
+  /**
+   * @return match ticks run so far
+   */
+  long getTicks() {
+    return ticks;
+  }
+
+  /**
+   * @return match ticks dropped so far because the shard was too far behind
+   */
+  long getDroppedTicks() {
+    return droppedTicks;
+  }
+
+  /**
+   * @return how late the shard has recently been waking up for each slot, in nanoseconds
+   */
+  long getLagNanos() {
+    return lagNanos;
+  }
+
+  /**
+   * @return the {@link LatencyHistogram} of how long after it was due each match tick finished
+   */
+  LatencyHistogram getTickLatency() {
+    return tickLatency;
+  }
+}
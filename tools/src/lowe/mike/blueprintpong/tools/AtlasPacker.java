@@ -0,0 +1,52 @@
+package lowe.mike.blueprintpong.tools;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.tools.texturepacker.TexturePacker;
+
+/**
+ * Packs the game's images into a single texture atlas, so the {@code SpriteBatch} doesn't have to
+ * switch textures and flush between them. Should be run whenever an image in the input directory
+ * changes.
+ * <p>
+ * Usage: {@code AtlasPacker [input directory] [output directory]}
+ *
+ * @author Mike Lowe
+ */
+public final class AtlasPacker {
+
+  private static final String DEFAULT_INPUT_DIRECTORY = "assets-raw/atlas";
+  private static final String DEFAULT_OUTPUT_DIRECTORY = "android/assets";
+  private static final String ATLAS_NAME = "game";
+  /*
+   * Largest texture size every supported device can handle.
+   */
+  private static final int MAX_PAGE_SIZE = 2048;
+  private static final int PADDING = 2;
+
+  // don't want instances
+  private AtlasPacker() {
+  }
+
+  public static void main(String[] args) {
+    String inputDirectory = (args.length > 0) ? args[0] : DEFAULT_INPUT_DIRECTORY;
+    String outputDirectory = (args.length > 1) ? args[1] : DEFAULT_OUTPUT_DIRECTORY;
+    TexturePacker.process(createSettings(), inputDirectory, outputDirectory, ATLAS_NAME);
+  }
+
+  private static TexturePacker.Settings createSettings() {
+    TexturePacker.Settings settings = new TexturePacker.Settings();
+    settings.maxWidth = MAX_PAGE_SIZE;
+    settings.maxHeight = MAX_PAGE_SIZE;
+    settings.paddingX = PADDING;
+    settings.paddingY = PADDING;
+    // repeat the edge pixels into the padding so smoothing doesn't bleed in neighbours
+    settings.duplicatePadding = true;
+    settings.edgePadding = true;
+    settings.filterMin = Texture.TextureFilter.Linear;
+    settings.filterMag = Texture.TextureFilter.Linear;
+    // sizes of the images are used to scale the game so keep them exactly
+    settings.stripWhitespaceX = false;
+    settings.stripWhitespaceY = false;
+    return settings;
+  }
+}
@@ -0,0 +1,49 @@
+package lowe.mike.blueprintpong.tools;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import lowe.mike.blueprintpong.FontCache;
+
+/**
+ * Bakes the game's font into a distance field font, so the game can load it directly rather than
+ * generating it with FreeType every launch. Should be run whenever the font or the font settings
+ * in {@link FontCache} change; until then the game generates the font itself on first launch and
+ * caches it. Prints the size of each page and the GPU memory it takes once loaded.
+ * <p>
+ * Usage: {@code FontBaker [font file] [output directory]}
+ *
+ * @author Mike Lowe
+ */
+public final class FontBaker {
+
+  private static final String DEFAULT_FONT_FILE = "android/assets/" + FontCache.FONT_FILE_NAME;
+  private static final String DEFAULT_OUTPUT_DIRECTORY =
+      "android/assets/" + FontCache.BAKED_DIRECTORY;
+
+  // don't want instances
+  private FontBaker() {
+  }
+
+  public static void main(String[] args) {
+    FileHandle fontFile = new FileHandle((args.length > 0) ? args[0] : DEFAULT_FONT_FILE);
+    FileHandle outputDirectory =
+        new FileHandle((args.length > 1) ? args[1] : DEFAULT_OUTPUT_DIRECTORY);
+    // pixmaps need the native libraries, FreeType loads its own
+    GdxNativesLoader.load();
+    FontCache.bake(fontFile, outputDirectory);
+    System.out.println("Baked " + fontFile.name() + " into " + outputDirectory.path()
+        + " with key " + FontCache.getKey(fontFile));
+    printPageSizes(outputDirectory);
+  }
+
+  private static void printPageSizes(FileHandle directory) {
+    for (FileHandle page : directory.list(".png")) {
+      Pixmap pixmap = new Pixmap(page);
+      // pages are loaded as alpha only textures, one byte per pixel
+      System.out.println(page.name() + ": " + pixmap.getWidth() + "x" + pixmap.getHeight()
+          + ", " + (pixmap.getWidth() * pixmap.getHeight() / 1024) + " KB of GPU memory");
+      pixmap.dispose();
+    }
+  }
+}
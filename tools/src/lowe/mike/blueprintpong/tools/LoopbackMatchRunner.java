@@ -0,0 +1,115 @@
+package lowe.mike.blueprintpong.tools;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import lowe.mike.blueprintpong.net.ImpairedTransport;
+import lowe.mike.blueprintpong.net.MatchClient;
+import lowe.mike.blueprintpong.net.MatchHost;
+import lowe.mike.blueprintpong.net.NetworkMatch;
+import lowe.mike.blueprintpong.net.Protocol;
+import lowe.mike.blueprintpong.net.UdpTransport;
+
+/**
+ * Plays a networked match between two scripted players over loopback UDP in real time, with
+ * latency, jitter and packet loss added to both ends, and reports the bandwidth each way and how
+ * far the client's predicted paddle had to be corrected. Exits with a non-zero status if the
+ * client was disconnected, ended up with a different score to the host or went over the
+ * bandwidth budget.
+ * <p>
+ * Usage: {@code LoopbackMatchRunner [seconds] [latency ms] [jitter ms] [loss %]}
+ *
+ * @author Mike Lowe
+ */
+public final class LoopbackMatchRunner {
+
+  private static final int DEFAULT_SECONDS = 30;
+  private static final int DEFAULT_LATENCY_MILLIS = 50;
+  private static final int DEFAULT_JITTER_MILLIS = 10;
+  private static final float DEFAULT_LOSS_PERCENT = 5f;
+  private static final long SEED = 1L;
+
+  /*
+   * Budget for each direction of each client, in bytes per second.
+   */
+  private static final int BANDWIDTH_BUDGET = 2048;
+
+  /*
+   * Time given for the last packets to arrive once play stops.
+   */
+  private static final int SETTLE_TICKS = Protocol.TICKS_PER_SECOND;
+
+  // don't want instances
+  private LoopbackMatchRunner() {
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    int seconds = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_SECONDS;
+    int latency = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_LATENCY_MILLIS;
+    int jitter = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_JITTER_MILLIS;
+    float loss = (args.length > 3) ? Float.parseFloat(args[3]) : DEFAULT_LOSS_PERCENT;
+
+    InetAddress loopback = InetAddress.getByName(null);
+    ImpairedTransport hostTransport = new ImpairedTransport(
+        new UdpTransport(new InetSocketAddress(loopback, 0)), latency, jitter, loss / 100f, SEED);
+    ImpairedTransport clientTransport = new ImpairedTransport(
+        new UdpTransport(new InetSocketAddress(loopback, 0)), latency, jitter, loss / 100f,
+        SEED + 1);
+    MatchHost host = new MatchHost(hostTransport, SEED, true);
+    MatchClient client = new MatchClient(clientTransport, hostTransport.getLocalAddress());
+    ScriptedPlayer hostPlayer = new ScriptedPlayer(NetworkMatch.LEFT, SEED);
+    ScriptedPlayer clientPlayer = new ScriptedPlayer(NetworkMatch.RIGHT, SEED + 1);
+
+    System.out.printf("%ds at %d ms RTT, %d ms jitter, %.1f%% loss each way%n",
+        seconds, 2 * latency, jitter, loss);
+    int playTicks = seconds * Protocol.TICKS_PER_SECOND;
+    long tickNanos = 1000000000L / Protocol.TICKS_PER_SECOND;
+    long nextTickTime = System.nanoTime();
+    for (int i = 0; i < playTicks + SETTLE_TICKS; i++) {
+      boolean isPlaying = i < playTicks;
+      host.tick(hostPlayer.getInput(host, isPlaying));
+      client.tick(clientPlayer.getInput(client, isPlaying));
+      nextTickTime += tickNanos;
+      long sleepNanos = nextTickTime - System.nanoTime();
+      if (sleepNanos > 0) {
+        Thread.sleep(sleepNanos / 1000000, (int) (sleepNanos % 1000000));
+      }
+    }
+    boolean passed = printResults(host, client, seconds);
+    client.close();
+    host.close();
+    if (!passed) {
+      System.exit(1);
+    }
+  }
+
+  private static boolean printResults(MatchHost host, MatchClient client, int seconds) {
+    float downstream = (float) host.getBytesSent(NetworkMatch.RIGHT) / seconds;
+    float upstream = (float) client.getBytesSent() / seconds;
+    System.out.printf("host:   %s, %d - %d%n", host.getStatus(),
+        host.getScore(NetworkMatch.LEFT), host.getScore(NetworkMatch.RIGHT));
+    System.out.printf("client: %s, %d - %d%n", client.getStatus(),
+        client.getScore(NetworkMatch.LEFT), client.getScore(NetworkMatch.RIGHT));
+    System.out.printf("host to client: %.0f B/s, client to host: %.0f B/s (with UDP/IP headers)%n",
+        downstream, upstream);
+    System.out.printf("predicted paddle corrected %d times, by %.3f units on average%n",
+        client.getCorrections(), client.getMeanCorrectionDistance());
+
+    boolean passed = true;
+    if (client.getStatus() == NetworkMatch.Status.DISCONNECTED
+        || client.getStatus() == NetworkMatch.Status.CONNECTING) {
+      System.out.println("FAILED: client didn't stay connected");
+      passed = false;
+    }
+    if (client.getScore(NetworkMatch.LEFT) != host.getScore(NetworkMatch.LEFT)
+        || client.getScore(NetworkMatch.RIGHT) != host.getScore(NetworkMatch.RIGHT)) {
+      System.out.println("FAILED: client and host scores differ");
+      passed = false;
+    }
+    if (downstream > BANDWIDTH_BUDGET || upstream > BANDWIDTH_BUDGET) {
+      System.out.println("FAILED: over the budget of " + BANDWIDTH_BUDGET + " B/s");
+      passed = false;
+    }
+    return passed;
+  }
+}
@@ -0,0 +1,135 @@
+package lowe.mike.blueprintpong.tools;
+
+/**
+ * {@code MatchResults} adds up the outcome of a number of matches so they can be reported on.
+ * Results from different threads are combined with {@link #add(MatchResults)}.
+ *
+ * @author Mike Lowe
+ */
+final class MatchResults {
+
+  private int matches;
+  private int playerWins;
+  private int computerWins;
+  private int abandoned;
+  private long points;
+  private long paddleHits;
+  private double simulatedSeconds;
+  private long abandonedPlayerPoints;
+  private long abandonedComputerPoints;
+
+  /**
+   * Records a match that was played to the end.
+   *
+   * @param playerWon {@code true} if the player won
+   * @param points number of points scored in the match
+   * @param paddleHits number of times the ball hit a paddle in the match
+   * @param simulatedSeconds length of the match in game time
+   */
+  void addFinishedMatch(boolean playerWon, int points, int paddleHits, double simulatedSeconds) {
+    matches++;
+    if (playerWon) {
+      playerWins++;
+    } else {
+      computerWins++;
+    }
+    this.points += points;
+    this.paddleHits += paddleHits;
+    this.simulatedSeconds += simulatedSeconds;
+  }
+
+  /**
+   * Records a match that was abandoned because it went on for too long. Its points are kept apart
+   * from those of finished matches so they don't skew the rally length or scoring rate.
+   *
+   * @param playerScore the player score when the match was abandoned
+   * @param computerScore the computer score when the match was abandoned
+   */
+  void addAbandonedMatch(int playerScore, int computerScore) {
+    matches++;
+    abandoned++;
+    abandonedPlayerPoints += playerScore;
+    abandonedComputerPoints += computerScore;
+  }
+
+  /**
+   * Adds another set of results to this one.
+   *
+   * @param other the {@link MatchResults} to add
+   */
+  void add(MatchResults other) {
+    matches += other.matches;
+    playerWins += other.playerWins;
+    computerWins += other.computerWins;
+    abandoned += other.abandoned;
+    points += other.points;
+    paddleHits += other.paddleHits;
+    simulatedSeconds += other.simulatedSeconds;
+    abandonedPlayerPoints += other.abandonedPlayerPoints;
+    abandonedComputerPoints += other.abandonedComputerPoints;
+  }
+
+  /**
+   * @return total number of matches, including abandoned ones
+   */
+  int getMatches() {
+    return matches;
+  }
+
+  /**
+   * @return fraction of finished matches the computer won
+   */
+  double getComputerWinRate() {
+    int finished = playerWins + computerWins;
+    return (finished == 0) ? 0 : (double) computerWins / finished;
+  }
+
+  /**
+   * @return number of matches played to the end
+   */
+  int getFinished() {
+    return matches - abandoned;
+  }
+
+  /**
+   * @return number of matches abandoned because they went on for too long
+   */
+  int getAbandoned() {
+    return abandoned;
+  }
+
+  /**
+   * @return average player score of abandoned matches when they were abandoned
+   */
+  double getAverageAbandonedPlayerScore() {
+    return (abandoned == 0) ? 0 : (double) abandonedPlayerPoints / abandoned;
+  }
+
+  /**
+   * @return average computer score of abandoned matches when they were abandoned
+   */
+  double getAverageAbandonedComputerScore() {
+    return (abandoned == 0) ? 0 : (double) abandonedComputerPoints / abandoned;
+  }
+
+  /**
+   * @return average number of paddle hits per point of finished matches
+   */
+  double getAverageRallyLength() {
+    return (points == 0) ? 0 : (double) paddleHits / points;
+  }
+
+  /**
+   * @return average number of points scored per second of game time in finished matches
+   */
+  double getPointsPerSecond() {
+    return (simulatedSeconds == 0) ? 0 : points / simulatedSeconds;
+  }
+
+  /**
+   * @return total number of points scored in finished matches
+   */
+  long getPoints() {
+    return points;
+  }
+}
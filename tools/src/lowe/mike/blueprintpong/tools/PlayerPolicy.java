@@ -0,0 +1,85 @@
+package lowe.mike.blueprintpong.tools;
+
+import lowe.mike.blueprintpong.simulation.BatchSimulation;
+import lowe.mike.blueprintpong.simulation.PongSimulation;
+
+/**
+ * {@code PlayerPolicy} enum represents the scripted players that the computer is tested against.
+ *
+ * @author Mike Lowe
+ */
+enum PlayerPolicy {
+
+  /**
+   * Stays in the middle of the court.
+   */
+  STATIONARY("Stationary") {
+    @Override
+    float getTargetY(BatchSimulation simulation, int match) {
+      return (PongSimulation.COURT_HEIGHT / 2f) - (PongSimulation.DEFAULT_PADDLE_HEIGHT / 2f);
+    }
+  },
+
+  /**
+   * Follows the ball but only lines up roughly, so it sometimes misses. The error changes each
+   * time the ball hits a paddle.
+   */
+  SLOPPY("Sloppy") {
+    @Override
+    float getTargetY(BatchSimulation simulation, int match) {
+      int hash = mix((match * 31) + simulation.getPaddleHits(match));
+      float error = ((hash & 0xFFFF) / 65535f) - .5f;
+      return getCentredY(simulation, match) + (error * MAX_SLOPPY_ERROR);
+    }
+  },
+
+  /**
+   * Always lines the middle of its paddle up with the ball.
+   */
+  FOLLOWER("Follower") {
+    @Override
+    float getTargetY(BatchSimulation simulation, int match) {
+      return getCentredY(simulation, match);
+    }
+  };
+
+  private static final float MAX_SLOPPY_ERROR = PongSimulation.DEFAULT_PADDLE_HEIGHT * 1.5f;
+
+  private final String string;
+
+  PlayerPolicy(String string) {
+    this.string = string;
+  }
+
+  /**
+   * Works out where this policy wants the player paddle to be.
+   *
+   * @param simulation the {@link BatchSimulation} the match is in
+   * @param match index of the match
+   * @return the y position the bottom of the player paddle should move towards
+   */
+  abstract float getTargetY(BatchSimulation simulation, int match);
+
+  private static float getCentredY(BatchSimulation simulation, int match) {
+    return simulation.getBallY(match)
+        + (PongSimulation.DEFAULT_BALL_HEIGHT / 2f)
+        - (PongSimulation.DEFAULT_PADDLE_HEIGHT / 2f);
+  }
+
+  /*
+   * Integer hash so policies can be noisy without keeping any state.
+   */
+  private static int mix(int x) {
+    x ^= x >>> 16;
+    x *= 0x85EBCA6B;
+    x ^= x >>> 13;
+    x *= 0xC2B2AE35;
+    x ^= x >>> 16;
+    return x;
+  }
+
+  @Override
+  public String toString() {
+    return string;
+  }
+}
@@ -0,0 +1,69 @@
+package lowe.mike.blueprintpong.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code ReplayResults} adds up the outcome of a number of replays so they can be reported on.
+ * Results from different threads are combined with {@link #add(ReplayResults)}.
+ *
+ * @author Mike Lowe
+ */
+final class ReplayResults {
+
+  private final List<String> problems = new ArrayList<String>();
+  private int replays;
+  private long ticks;
+
+  /**
+   * Records a replay that was played to the end.
+   *
+   * @param ticks number of ticks that were replayed
+   */
+  void addReplay(long ticks) {
+    replays++;
+    this.ticks += ticks;
+  }
+
+  /**
+   * Records a replay that didn't match its recording or couldn't be played.
+   *
+   * @param problem description of what went wrong
+   */
+  void addProblem(String problem) {
+    replays++;
+    problems.add(problem);
+  }
+
+  /**
+   * Adds another set of results to this one.
+   *
+   * @param other the {@link ReplayResults} to add
+   */
+  void add(ReplayResults other) {
+    replays += other.replays;
+    ticks += other.ticks;
+    problems.addAll(other.problems);
+  }
+
+  /**
+   * @return total number of replays, including ones with problems
+   */
+  int getReplays() {
+    return replays;
+  }
+
+  /**
+   * @return total number of ticks replayed
+   */
+  long getTicks() {
+    return ticks;
+  }
+
+  /**
+   * @return descriptions of the replays that went wrong
+   */
+  List<String> getProblems() {
+    return problems;
+  }
+}
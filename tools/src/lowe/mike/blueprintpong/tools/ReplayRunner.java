@@ -0,0 +1,73 @@
+package lowe.mike.blueprintpong.tools;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import lowe.mike.blueprintpong.simulation.MatchRecorder;
+
+/**
+ * Replays recorded matches headlessly, as fast as possible and spread over all cores, and checks
+ * each one ends with the score that was recorded. Exits with a non-zero status if any don't, so it
+ * can be used in a batch job.
+ * <p>
+ * Usage: {@code ReplayRunner <file or directory>...}
+ *
+ * @author Mike Lowe
+ */
+public final class ReplayRunner {
+
+  private static final String SUFFIX = "." + MatchRecorder.FILE_EXTENSION;
+
+  // don't want instances
+  private ReplayRunner() {
+  }
+
+  public static void main(String[] args) {
+    if (args.length == 0) {
+      System.err.println("Usage: ReplayRunner <file or directory>...");
+      System.exit(2);
+    }
+    List<File> files = new ArrayList<File>();
+    for (String arg : args) {
+      File file = new File(arg);
+      if (file.isDirectory()) {
+        addReplayFiles(file, files);
+      } else {
+        files.add(file);
+      }
+    }
+    Collections.sort(files);
+
+    ForkJoinPool pool = new ForkJoinPool();
+    long start = System.nanoTime();
+    ReplayResults results = pool.invoke(new ReplayTask(files, 0, files.size()));
+    double seconds = (System.nanoTime() - start) / 1e9;
+    pool.shutdown();
+
+    for (String problem : results.getProblems()) {
+      System.out.println(problem);
+    }
+    System.out.printf("%d replays, %d problems, %d ticks in %.2fs (%.0f ticks/s) on %d threads%n",
+        results.getReplays(), results.getProblems().size(), results.getTicks(), seconds,
+        results.getTicks() / seconds, pool.getParallelism());
+    if (!results.getProblems().isEmpty()) {
+      System.exit(1);
+    }
+  }
+
+  private static void addReplayFiles(File directory, List<File> files) {
+    File[] children = directory.listFiles();
+    if (children == null) {
+      return;
+    }
+    for (File child : children) {
+      if (child.isDirectory()) {
+        addReplayFiles(child, files);
+      } else if (child.getName().endsWith(SUFFIX)) {
+        files.add(child);
+      }
+    }
+  }
+}
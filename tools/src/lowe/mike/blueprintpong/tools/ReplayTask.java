@@ -0,0 +1,84 @@
+package lowe.mike.blueprintpong.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import lowe.mike.blueprintpong.simulation.MatchReplay;
+
+/**
+ * {@code ReplayTask} replays a range of recorded matches and checks each ends with the recorded
+ * score. Large ranges are split in half and replayed in parallel.
+ *
+ * @author Mike Lowe
+ */
+final class ReplayTask extends RecursiveTask<ReplayResults> {
+
+  private static final long serialVersionUID = 1L;
+
+  /*
+   * Replays per task, a replay is a whole match so this doesn't need to be
+   * big to be worth forking.
+   */
+  private static final int BATCH_SIZE = 16;
+
+  private final List<File> files;
+  private final int from;
+  private final int to;
+
+  /**
+   * Creates a new {@code ReplayTask}.
+   *
+   * @param files the recorded match files
+   * @param from index of the first file to replay (inclusive)
+   * @param to index of the last file to replay (exclusive)
+   */
+  ReplayTask(List<File> files, int from, int to) {
+    this.files = files;
+    this.from = from;
+    this.to = to;
+  }
+
+  @Override
+  protected ReplayResults compute() {
+    if (to - from <= BATCH_SIZE) {
+      return replayFiles();
+    }
+    int middle = from + ((to - from) / 2);
+    ReplayTask left = new ReplayTask(files, from, middle);
+    ReplayTask right = new ReplayTask(files, middle, to);
+    left.fork();
+    ReplayResults results = right.compute();
+    results.add(left.join());
+    return results;
+  }
+
+  private ReplayResults replayFiles() {
+    ReplayResults results = new ReplayResults();
+    for (int i = from; i < to; i++) {
+      replayFile(files.get(i), results);
+    }
+    return results;
+  }
+
+  private static void replayFile(File file, ReplayResults results) {
+    MatchReplay replay;
+    try {
+      replay = MatchReplay.play(Files.readAllBytes(file.toPath()));
+    } catch (IOException e) {
+      results.addProblem(file + ": couldn't be read: " + e.getMessage());
+      return;
+    } catch (IllegalArgumentException e) {
+      results.addProblem(file + ": " + e.getMessage());
+      return;
+    }
+    if (replay.matchesRecording()) {
+      results.addReplay(replay.getTicks());
+    } else {
+      results.addProblem(String.format("%s: recorded %d-%d but replayed %d-%d", file,
+          replay.getRecordedPlayerScore(), replay.getRecordedComputerScore(),
+          replay.getPlayerScore(), replay.getComputerScore()));
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package lowe.mike.blueprintpong.tools;
+
+import java.util.Random;
+import lowe.mike.blueprintpong.net.NetworkMatch;
+import lowe.mike.blueprintpong.net.Protocol;
+import lowe.mike.blueprintpong.simulation.PlayerInput;
+import lowe.mike.blueprintpong.simulation.PongSimulation;
+
+/**
+ * {@code ScriptedPlayer} class plays one side of a networked match. It follows the ball it can
+ * see, but only roughly so points get scored. Uses the keys to cover long distances and touches
+ * to line up, so both kinds of input get sent.
+ *
+ * @author Mike Lowe
+ */
+final class ScriptedPlayer {
+
+  private static final int ERROR_CHANGE_TICKS = Protocol.TICKS_PER_SECOND / 2;
+  private static final float MAX_ERROR = PongSimulation.DEFAULT_PADDLE_HEIGHT * 2.5f;
+
+  private final int side;
+  private final Random random;
+  private final PlayerInput input = new PlayerInput();
+  private float error;
+  private int ticks;
+
+  /**
+   * Creates a new {@code ScriptedPlayer}.
+   *
+   * @param side the side it plays, {@link NetworkMatch#LEFT} or {@link NetworkMatch#RIGHT}
+   * @param seed seed for how far off it lines up
+   */
+  ScriptedPlayer(int side, long seed) {
+    this.side = side;
+    this.random = new Random(seed);
+  }
+
+  /**
+   * @param match the {@link NetworkMatch} being played
+   * @param isPlaying {@code true} if the match is being played, {@code false} to send no input
+   * @return the {@link PlayerInput} for this tick, which is reused
+   */
+  PlayerInput getInput(NetworkMatch match, boolean isPlaying) {
+    if (ticks++ % ERROR_CHANGE_TICKS == 0) {
+      error = (random.nextFloat() - .5f) * MAX_ERROR;
+    }
+    float ballCentreY = match.getBallY() + (PongSimulation.DEFAULT_BALL_HEIGHT / 2f);
+    float targetY = ballCentreY - (PongSimulation.DEFAULT_PADDLE_HEIGHT / 2f) + error;
+    float distance = targetY - match.getPaddleY(side);
+    if (!isPlaying) {
+      input.clear();
+    } else if (distance > PongSimulation.DEFAULT_PADDLE_HEIGHT) {
+      input.moveUp();
+    } else if (distance < -PongSimulation.DEFAULT_PADDLE_HEIGHT) {
+      input.moveDown();
+    } else {
+      input.moveTo(targetY);
+    }
+    return input;
+  }
+}
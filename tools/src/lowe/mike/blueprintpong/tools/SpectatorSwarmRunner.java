@@ -0,0 +1,342 @@
+package lowe.mike.blueprintpong.tools;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import lowe.mike.blueprintpong.net.MatchClient;
+import lowe.mike.blueprintpong.net.MatchHost;
+import lowe.mike.blueprintpong.net.NetworkMatch;
+import lowe.mike.blueprintpong.net.Protocol;
+import lowe.mike.blueprintpong.net.SpectatorClient;
+import lowe.mike.blueprintpong.net.SpectatorFeed;
+import lowe.mike.blueprintpong.net.Transport;
+import lowe.mike.blueprintpong.net.UdpTransport;
+
+/**
+ * Plays a networked match between two scripted players over loopback UDP in real time, watched by
+ * a swarm of spectators that each have a socket of their own, and reports how long the host's
+ * ticks took and what was sent to the spectators. Some spectators can only receive a few packets a
+ * second, as on a slow connection, and a few hardly any. Exits with a non-zero status if a
+ * spectator that could keep up didn't stay connected or disagreed on the score, if one that was
+ * only slow was dropped, if one that could hardly receive anything wasn't, or if 1% of the host's
+ * ticks took longer than a tick.
+ * <p>
+ * Usage: {@code SpectatorSwarmRunner [spectators] [seconds] [spectator threads]}
+ *
+ * @author Mike Lowe
+ */
+public final class SpectatorSwarmRunner {
+
+  private static final int DEFAULT_SPECTATORS = 1000;
+  private static final int DEFAULT_SECONDS = 30;
+  private static final int DEFAULT_SPECTATOR_THREADS = 2;
+  private static final String SPECTATOR_THREAD_NAME = "Spectators-";
+  private static final long SEED = 1L;
+  private static final long TICK_NANOS = 1000000000L / Protocol.TICKS_PER_SECOND;
+
+  /*
+   * One in SLOW_EVERY spectators can only receive SLOW_PACKETS_PER_SECOND,
+   * which is enough once it is sent fewer frames, and one in
+   * HOPELESS_EVERY only HOPELESS_PACKETS_PER_SECOND, which isn't enough
+   * even when it is sent the fewest.
+   */
+  private static final int SLOW_EVERY = 10;
+  private static final float SLOW_PACKETS_PER_SECOND = 6f;
+  private static final int HOPELESS_EVERY = 50;
+  private static final float HOPELESS_PACKETS_PER_SECOND = .5f;
+
+  /*
+   * Spectators start watching spread over this long, as they would if they
+   * had found the match themselves, rather than all in the same tick.
+   */
+  private static final int RAMP_UP_TICKS = 2 * Protocol.TICKS_PER_SECOND;
+
+  /*
+   * Time given for the last packets to arrive once play stops.
+   */
+  private static final int SETTLE_TICKS = Protocol.TICKS_PER_SECOND;
+
+  // don't want instances
+  private SpectatorSwarmRunner() {
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    int spectatorCount = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_SPECTATORS;
+    int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+    int threadCount = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_SPECTATOR_THREADS;
+
+    InetAddress loopback = InetAddress.getByName(null);
+    UdpTransport hostTransport = new UdpTransport(new InetSocketAddress(loopback, 0));
+    SocketAddress hostAddress = hostTransport.getLocalAddress();
+    MatchHost host = new MatchHost(hostTransport, SEED, true);
+    MatchClient client = new MatchClient(new UdpTransport(new InetSocketAddress(loopback, 0)),
+        hostAddress);
+    ScriptedPlayer hostPlayer = new ScriptedPlayer(NetworkMatch.LEFT, SEED);
+    ScriptedPlayer clientPlayer = new ScriptedPlayer(NetworkMatch.RIGHT, SEED + 1);
+
+    List<List<Spectator>> spectatorsByThread = new ArrayList<List<Spectator>>();
+    for (int i = 0; i < threadCount; i++) {
+      spectatorsByThread.add(new ArrayList<Spectator>());
+    }
+    List<Spectator> spectators = new ArrayList<Spectator>();
+    for (int i = 0; i < spectatorCount; i++) {
+      Transport transport = new UdpTransport(new InetSocketAddress(loopback, 0));
+      Speed speed = Speed.FULL;
+      if (i % HOPELESS_EVERY == HOPELESS_EVERY - 1) {
+        speed = Speed.HOPELESS;
+        transport = new ThrottledTransport(transport, HOPELESS_PACKETS_PER_SECOND);
+      } else if (i % SLOW_EVERY == SLOW_EVERY - 1) {
+        speed = Speed.SLOW;
+        transport = new ThrottledTransport(transport, SLOW_PACKETS_PER_SECOND);
+      }
+      int startTick = i * RAMP_UP_TICKS / spectatorCount;
+      Spectator spectator = new Spectator(new SpectatorClient(transport, hostAddress), speed,
+          startTick);
+      spectators.add(spectator);
+      spectatorsByThread.get(i % threadCount).add(spectator);
+    }
+
+    System.out.printf("%d spectators for %ds, on %d threads%n", spectatorCount, seconds,
+        threadCount);
+    int playTicks = seconds * Protocol.TICKS_PER_SECOND;
+    long endTime = System.nanoTime() + (playTicks + SETTLE_TICKS) * TICK_NANOS;
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < threadCount; i++) {
+      Thread thread = new Thread(new SpectatorRunner(spectatorsByThread.get(i), endTime),
+          SPECTATOR_THREAD_NAME + i);
+      threads.add(thread);
+      thread.start();
+    }
+
+    long[] hostTickNanos = new long[playTicks + SETTLE_TICKS];
+    int[] previousScores = new int[2];
+    long nextTickTime = System.nanoTime();
+    for (int i = 0; i < playTicks + SETTLE_TICKS; i++) {
+      boolean isPlaying = i < playTicks;
+      int leftScore = host.getScore(NetworkMatch.LEFT);
+      int rightScore = host.getScore(NetworkMatch.RIGHT);
+      long startTime = System.nanoTime();
+      host.tick(hostPlayer.getInput(host, isPlaying));
+      hostTickNanos[i] = System.nanoTime() - startTime;
+      if (host.getScore(NetworkMatch.LEFT) != leftScore
+          || host.getScore(NetworkMatch.RIGHT) != rightScore) {
+        previousScores[NetworkMatch.LEFT] = leftScore;
+        previousScores[NetworkMatch.RIGHT] = rightScore;
+      }
+      client.tick(clientPlayer.getInput(client, isPlaying));
+      nextTickTime += TICK_NANOS;
+      long sleepNanos = nextTickTime - System.nanoTime();
+      if (sleepNanos > 0) {
+        LockSupport.parkNanos(sleepNanos);
+      }
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    boolean passed = printResults(host, spectators, hostTickNanos, previousScores, seconds);
+    for (Spectator spectator : spectators) {
+      spectator.client.close();
+    }
+    client.close();
+    host.close();
+    if (!passed) {
+      System.exit(1);
+    }
+  }
+
+  private static boolean printResults(MatchHost host,
+      List<Spectator> spectators,
+      long[] hostTickNanos,
+      int[] previousScores,
+      int seconds) {
+    Arrays.sort(hostTickNanos);
+    long p50 = hostTickNanos[hostTickNanos.length / 2];
+    long p99 = hostTickNanos[(int) (hostTickNanos.length * .99)];
+    long max = hostTickNanos[hostTickNanos.length - 1];
+    System.out.printf("host: %s, %d - %d, ticks took %.3f ms p50, %.3f ms p99, %.3f ms max%n",
+        host.getStatus(), host.getScore(NetworkMatch.LEFT), host.getScore(NetworkMatch.RIGHT),
+        p50 / 1e6, p99 / 1e6, max / 1e6);
+
+    SpectatorFeed feed = host.getSpectators();
+    System.out.printf("frames: %d written, %d sent, %d skipped as over a tick's share%n",
+        feed.getFramesWritten(), feed.getFramesSent(), feed.getFramesSkipped());
+    System.out.printf("spectators: %d watching, %d sent fewer frames, %d dropped%n",
+        feed.getSpectatorCount(), feed.getDownsampledCount(), feed.getDroppedCount());
+
+    boolean passed = true;
+    for (Speed speed : Speed.values()) {
+      int count = 0;
+      int[] statusCounts = new int[NetworkMatch.Status.values().length];
+      long bytesReceived = 0L;
+      int wrongScores = 0;
+      for (Spectator spectator : spectators) {
+        if (spectator.speed != speed) {
+          continue;
+        }
+        count++;
+        statusCounts[spectator.client.getStatus().ordinal()]++;
+        bytesReceived += spectator.client.getBytesReceived();
+        if (!hasScore(spectator.client, host, previousScores)) {
+          wrongScores++;
+        }
+      }
+      if (count == 0) {
+        continue;
+      }
+      int connected = statusCounts[NetworkMatch.Status.PLAYING.ordinal()]
+          + statusCounts[NetworkMatch.Status.FINISHED.ordinal()];
+      int disconnected = statusCounts[NetworkMatch.Status.DISCONNECTED.ordinal()];
+      System.out.printf("%s: %d spectators, %d connected, %d disconnected, %.0f B/s each%n",
+          speed.name, count, connected, disconnected, (float) bytesReceived / count / seconds);
+      if (speed != Speed.HOPELESS && connected < count) {
+        System.out.println("FAILED: " + (count - connected) + " " + speed.name
+            + " spectators didn't stay connected");
+        passed = false;
+      }
+      if (speed == Speed.HOPELESS && connected > 0) {
+        System.out.println("FAILED: " + connected + " " + speed.name
+            + " spectators weren't dropped");
+        passed = false;
+      }
+      if (speed == Speed.FULL && wrongScores > 0) {
+        System.out.println("FAILED: " + wrongScores + " spectators disagree on the score");
+        passed = false;
+      }
+    }
+    if (p99 > TICK_NANOS) {
+      System.out.println("FAILED: host ticks took longer than a tick");
+      passed = false;
+    }
+    return passed;
+  }
+
+  /*
+   * A spectator is drawing slightly in the past, so can still be showing
+   * the score before the last point.
+   */
+  private static boolean hasScore(NetworkMatch spectator, MatchHost host, int[] previousScores) {
+    int left = spectator.getScore(NetworkMatch.LEFT);
+    int right = spectator.getScore(NetworkMatch.RIGHT);
+    return (left == host.getScore(NetworkMatch.LEFT) && right == host.getScore(NetworkMatch.RIGHT))
+        || (left == previousScores[NetworkMatch.LEFT]
+        && right == previousScores[NetworkMatch.RIGHT]);
+  }
+
+  /**
+   * How quickly a spectator can receive packets.
+   */
+  private enum Speed {
+    FULL("full speed"),
+    SLOW("slow"),
+    HOPELESS("hopeless");
+
+    final String name;
+
+    Speed(String name) {
+      this.name = name;
+    }
+  }
+
+  private static final class Spectator {
+
+    final SpectatorClient client;
+    final Speed speed;
+    final int startTick;
+
+    Spectator(SpectatorClient client, Speed speed, int startTick) {
+      this.client = client;
+      this.speed = speed;
+      this.startTick = startTick;
+    }
+  }
+
+  /**
+   * Ticks its share of the spectators in real time until the end time.
+   */
+  private static final class SpectatorRunner implements Runnable {
+
+    private final List<Spectator> spectators;
+    private final long endTime;
+
+    SpectatorRunner(List<Spectator> spectators, long endTime) {
+      this.spectators = spectators;
+      this.endTime = endTime;
+    }
+
+    @Override
+    public void run() {
+      long nextTickTime = System.nanoTime();
+      for (int tick = 0; nextTickTime - endTime < 0; tick++) {
+        for (Spectator spectator : spectators) {
+          if (tick >= spectator.startTick) {
+            spectator.client.tick(null);
+          }
+        }
+        nextTickTime += TICK_NANOS;
+        long sleepNanos = nextTickTime - System.nanoTime();
+        if (sleepNanos > 0) {
+          LockSupport.parkNanos(sleepNanos);
+        }
+      }
+    }
+  }
+
+  /**
+   * Wraps another {@link Transport} and throws away whatever it receives beyond a number of
+   * packets a second, like a connection too slow for everything sent to it.
+   */
+  private static final class ThrottledTransport implements Transport {
+
+    /*
+     * Packets that can arrive together after a quiet spell.
+     */
+    private static final float BURST_PACKETS = 2f;
+
+    private final Transport transport;
+    private final float packetsPerNano;
+    private float allowance = BURST_PACKETS;
+    private long lastTime = System.nanoTime();
+
+    ThrottledTransport(Transport transport, float packetsPerSecond) {
+      this.transport = transport;
+      this.packetsPerNano = packetsPerSecond / 1e9f;
+    }
+
+    @Override
+    public void send(ByteBuffer packet, SocketAddress address) throws IOException {
+      transport.send(packet, address);
+    }
+
+    @Override
+    public SocketAddress receive(ByteBuffer packet) throws IOException {
+      long now = System.nanoTime();
+      allowance = Math.min(allowance + (now - lastTime) * packetsPerNano, BURST_PACKETS);
+      lastTime = now;
+      SocketAddress address;
+      while ((address = transport.receive(packet)) != null) {
+        if (allowance >= 1f) {
+          allowance--;
+          return address;
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public SocketAddress getLocalAddress() {
+      return transport.getLocalAddress();
+    }
+
+    @Override
+    public void close() {
+      transport.close();
+    }
+  }
+}
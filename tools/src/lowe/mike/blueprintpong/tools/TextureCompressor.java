@@ -0,0 +1,121 @@
+package lowe.mike.blueprintpong.tools;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.glutils.ETC1;
+import com.badlogic.gdx.tools.ktx.KTXProcessor;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Compresses the game's opaque textures to ETC1 in KTX files next to the PNGs, so devices that can
+ * draw ETC1 load them instead. Should be run whenever one of the textures changes.
+ * <p>
+ * To check the compression is worth it, each texture is also decoded again in software, and the
+ * GPU memory it takes as a PNG and as ETC1 is printed along with how close the decoded texture is
+ * to the original.
+ * <p>
+ * Usage: {@code TextureCompressor [texture...]}
+ *
+ * @author Mike Lowe
+ */
+public final class TextureCompressor {
+
+  private static final String[] DEFAULT_TEXTURES = {
+      "android/assets/background.png",
+      "android/assets/splash-background.png"
+  };
+  private static final String COMPRESSED_EXTENSION = "ktx";
+
+  // don't want instances
+  private TextureCompressor() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    String[] textures = (args.length > 0) ? args : DEFAULT_TEXTURES;
+    // pixmaps and the ETC1 encoder need the native libraries
+    GdxNativesLoader.load();
+    for (String texture : textures) {
+      FileHandle file = new FileHandle(texture);
+      FileHandle compressedFile = file.sibling(file.nameWithoutExtension() + "."
+          + COMPRESSED_EXTENSION);
+      compress(file, compressedFile);
+      printSavings(file);
+    }
+  }
+
+  /*
+   * KTXProcessor converts on a headless application of its own, which it
+   * never stops, so this waits for the conversion to finish and then stops
+   * it. Otherwise the conversions overlap and the tool never exits.
+   */
+  private static void compress(FileHandle file, FileHandle compressedFile) throws Exception {
+    // no mipmaps as the textures are never drawn much smaller than they are
+    KTXProcessor.convert(file.path(), compressedFile.path(), false, true, false);
+    final Application application = Gdx.app;
+    final CountDownLatch converted = new CountDownLatch(1);
+    // runnables only run once the application has been created
+    application.postRunnable(new Runnable() {
+
+      @Override
+      public void run() {
+        application.exit();
+        converted.countDown();
+      }
+
+    });
+    converted.await();
+  }
+
+  private static void printSavings(FileHandle file) {
+    Pixmap original = new Pixmap(file);
+    // ETC1 has no alpha channel
+    Pixmap rgb = new Pixmap(original.getWidth(), original.getHeight(), Pixmap.Format.RGB888);
+    // blending is global to every pixmap, so it is put back straight after
+    Pixmap.setBlending(Pixmap.Blending.None);
+    rgb.drawPixmap(original, 0, 0);
+    Pixmap.setBlending(Pixmap.Blending.SourceOver);
+    ETC1.ETC1Data data = ETC1.encodeImage(rgb);
+    Pixmap decoded = ETC1.decodeImage(data, Pixmap.Format.RGB888);
+
+    int width = original.getWidth();
+    int height = original.getHeight();
+    int pngBytes = width * height * 4;
+    int etc1Bytes = data.compressedData.capacity() - data.dataOffset;
+    System.out.println(file.name() + ": " + width + "x" + height
+        + ", " + (pngBytes / 1024) + " KB of GPU memory as RGBA8888"
+        + ", " + (etc1Bytes / 1024) + " KB as ETC1"
+        + ", PSNR " + String.format("%.1f", calculatePsnr(original, decoded)) + " dB");
+
+    decoded.dispose();
+    data.dispose();
+    rgb.dispose();
+    original.dispose();
+  }
+
+  /*
+   * Peak signal to noise ratio over the colour channels. Above about 35 dB
+   * the difference is hard to see.
+   */
+  private static double calculatePsnr(Pixmap original, Pixmap decoded) {
+    double squaredError = 0;
+    for (int y = 0; y < original.getHeight(); y++) {
+      for (int x = 0; x < original.getWidth(); x++) {
+        int originalPixel = original.getPixel(x, y);
+        int decodedPixel = decoded.getPixel(x, y);
+        // pixels are RGBA8888, skip the alpha
+        for (int shift = 8; shift < 32; shift += 8) {
+          int difference = ((originalPixel >>> shift) & 0xFF) - ((decodedPixel >>> shift) & 0xFF);
+          squaredError += difference * difference;
+        }
+      }
+    }
+    double meanSquaredError = squaredError / (original.getWidth() * original.getHeight() * 3);
+    if (meanSquaredError == 0) {
+      return Double.POSITIVE_INFINITY;
+    }
+    return 10 * Math.log10(255 * 255 / meanSquaredError);
+  }
+}
@@ -0,0 +1,66 @@
+package lowe.mike.blueprintpong.tools;
+
+import java.util.concurrent.ForkJoinPool;
+import lowe.mike.blueprintpong.Difficulty;
+
+/**
+ * Plays large numbers of AI vs AI matches headlessly so each {@link Difficulty} can be tuned
+ * against a set of scripted {@link PlayerPolicy}s. Matches are spread over all cores.
+ * <p>
+ * Usage: {@code TournamentRunner [matches per pairing]}
+ *
+ * @author Mike Lowe
+ */
+public final class TournamentRunner {
+
+  private static final int DEFAULT_MATCHES = 10000;
+  private static final long SEED = 1L;
+
+  // don't want instances
+  private TournamentRunner() {
+  }
+
+  public static void main(String[] args) {
+    int matches = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_MATCHES;
+    ForkJoinPool pool = new ForkJoinPool();
+
+    System.out.printf("%d matches per pairing on %d threads%n", matches, pool.getParallelism());
+    System.out.printf("Matches still going after %d minutes of game time are abandoned.%n",
+        TournamentTask.MAX_MINUTES_PER_MATCH);
+    System.out.printf("CPU wins, rally and points/s are over finished matches. Cutoff score is the"
+        + " average CPU-player score of abandoned matches.%n");
+    System.out.printf("%-8s %-10s %9s %9s %8s %10s %10s %12s %12s%n", "Computer", "Player",
+        "Finished", "CPU wins", "Rally", "Points/s", "Abandoned", "Cutoff score", "Real pts/s");
+
+    for (Difficulty difficulty : Difficulty.values()) {
+      for (PlayerPolicy policy : PlayerPolicy.values()) {
+        long start = System.nanoTime();
+        TournamentTask task = new TournamentTask(difficulty, policy, 0, matches, SEED);
+        MatchResults results = pool.invoke(task);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        printResults(difficulty, policy, results, seconds);
+      }
+    }
+
+    pool.shutdown();
+  }
+
+  private static void printResults(Difficulty difficulty,
+      PlayerPolicy policy,
+      MatchResults results,
+      double seconds) {
+    boolean hasFinished = results.getFinished() > 0;
+    boolean hasAbandoned = results.getAbandoned() > 0;
+    System.out.printf("%-8s %-10s %9d %9s %8s %10s %10d %12s %12.0f%n",
+        difficulty,
+        policy,
+        results.getFinished(),
+        hasFinished ? String.format("%.1f%%", results.getComputerWinRate() * 100) : "-",
+        hasFinished ? String.format("%.2f", results.getAverageRallyLength()) : "-",
+        hasFinished ? String.format("%.3f", results.getPointsPerSecond()) : "-",
+        results.getAbandoned(),
+        hasAbandoned ? String.format("%.1f-%.1f", results.getAverageAbandonedComputerScore(),
+            results.getAverageAbandonedPlayerScore()) : "-",
+        results.getPoints() / seconds);
+  }
+}
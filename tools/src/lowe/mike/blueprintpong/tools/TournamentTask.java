@@ -0,0 +1,117 @@
+package lowe.mike.blueprintpong.tools;
+
+import java.util.concurrent.RecursiveTask;
+import lowe.mike.blueprintpong.Difficulty;
+import lowe.mike.blueprintpong.simulation.BatchSimulation;
+import lowe.mike.blueprintpong.simulation.ComputerStrategy;
+
+/**
+ * {@code TournamentTask} plays a range of matches between a {@link Difficulty} and a {@link
+ * PlayerPolicy}. Large ranges are split in half and played in parallel.
+ *
+ * @author Mike Lowe
+ */
+final class TournamentTask extends RecursiveTask<MatchResults> {
+
+  /*
+   * Two good players can rally forever so give up on a match after this
+   * many minutes of game time.
+   */
+  static final int MAX_MINUTES_PER_MATCH = 5;
+
+  private static final long serialVersionUID = 1L;
+
+  /*
+   * Matches per batch, big enough to keep the batch loops busy.
+   */
+  private static final int BATCH_SIZE = 1024;
+  private static final int TICKS_PER_SECOND = 120;
+  private static final float TICK_DURATION = 1f / TICKS_PER_SECOND;
+  private static final int MAX_TICKS_PER_MATCH = TICKS_PER_SECOND * 60 * MAX_MINUTES_PER_MATCH;
+
+  private final Difficulty difficulty;
+  private final PlayerPolicy policy;
+  private final int from;
+  private final int to;
+  private final long seed;
+
+  /**
+   * Creates a new {@code TournamentTask}.
+   *
+   * @param difficulty the {@link Difficulty} of the computer
+   * @param policy the {@link PlayerPolicy} of the player
+   * @param from index of the first match to play (inclusive)
+   * @param to index of the last match to play (exclusive)
+   * @param seed seed for the serves
+   */
+  TournamentTask(Difficulty difficulty, PlayerPolicy policy, int from, int to, long seed) {
+    this.difficulty = difficulty;
+    this.policy = policy;
+    this.from = from;
+    this.to = to;
+    this.seed = seed;
+  }
+
+  @Override
+  protected MatchResults compute() {
+    int matches = to - from;
+    if (matches <= BATCH_SIZE) {
+      return playMatches(matches);
+    }
+    int middle = from + (matches / 2);
+    TournamentTask left = new TournamentTask(difficulty, policy, from, middle, seed);
+    TournamentTask right = new TournamentTask(difficulty, policy, middle, to, seed);
+    left.fork();
+    MatchResults results = right.compute();
+    results.add(left.join());
+    return results;
+  }
+
+  private MatchResults playMatches(int matches) {
+    BatchSimulation simulation = new BatchSimulation(matches, seed + from);
+    for (int i = 0; i < matches; i++) {
+      simulation.setComputerPaddleSpeed(i, difficulty.getComputerPaddleSpeed());
+      simulation.setComputerReactionTime(i, difficulty.getComputerReactionTime());
+      simulation.setComputerAimError(i, difficulty.getComputerAimError());
+    }
+    simulation.setComputerStrategy(ComputerStrategy.INTERCEPT);
+
+    MatchResults results = new MatchResults();
+    boolean[] recorded = new boolean[matches];
+    int remaining = matches;
+    for (int tick = 1; tick <= MAX_TICKS_PER_MATCH && remaining > 0; tick++) {
+      for (int i = 0; i < matches; i++) {
+        simulation.setPlayerTargetY(i, policy.getTargetY(simulation, i));
+      }
+      simulation.step(TICK_DURATION);
+      for (int i = 0; i < matches; i++) {
+        if (!recorded[i] && simulation.isGameOver(i)) {
+          recordMatch(simulation, i, tick, results);
+          recorded[i] = true;
+          remaining--;
+        }
+      }
+    }
+
+    for (int i = 0; i < matches; i++) {
+      if (!recorded[i]) {
+        results.addAbandonedMatch(simulation.getPlayerScore(i), simulation.getComputerScore(i));
+      }
+    }
+    return results;
+  }
+
+  private static void recordMatch(BatchSimulation simulation,
+      int match,
+      int ticks,
+      MatchResults results) {
+    int playerScore = simulation.getPlayerScore(match);
+    int computerScore = simulation.getComputerScore(match);
+    results.addFinishedMatch(
+        playerScore > computerScore,
+        playerScore + computerScore,
+        simulation.getPaddleHits(match),
+        ticks * (double) TICK_DURATION
+    );
+  }
+}